@@ -0,0 +1,120 @@
+package com.schoolbus.application.service.impl;
+
+import com.schoolbus.benchmark.StudentFixtures;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.entity.Student;
+import com.schoolbus.infrastructure.repository.StudentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A read-only listing of one grade against an in-memory H2 database, loaded as managed entities and
+ * mapped with {@code convertToDto} (how the list endpoints used to read) versus the DTO projection
+ * of {@link StudentRepository#findByGradeOrderByFirstNameAsc}.
+ * Both run in a read-only session, as a {@code @Transactional(readOnly = true)} service method does.
+ * Every seeded student is in the listed grade, so one operation returns {@code listSize} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentProjectionBenchmark {
+
+    private static final String GRADE = "5th Grade";
+    private static final String ENTITY_QUERY =
+            "SELECT s FROM Student s WHERE s.grade = :grade ORDER BY s.firstName ASC";
+    private static final String PROJECTION_QUERY =
+            StudentRepository.STUDENT_DTO_SELECT + "WHERE s.grade = :grade ORDER BY s.firstName ASC";
+
+    @Param({"1000", "10000"})
+    private int listSize;
+
+    private SessionFactory sessionFactory;
+    private StudentServiceImpl studentService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Student.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:projection;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .buildSessionFactory();
+        // convertToDto touches none of the collaborators, only the conversion counters
+        studentService = new StudentServiceImpl(null, null, null, null, null, null, null,
+                new SimpleMeterRegistry(), 50, 500);
+
+        sessionFactory.inTransaction(session -> {
+            for (Student student : StudentFixtures.students(listSize)) {
+                student.setId(null);
+                student.setGrade(GRADE);
+                session.persist(student);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<StudentDto> entitiesMappedToDtos() {
+        return readOnly(session -> {
+            List<Student> students = session.createQuery(ENTITY_QUERY, Student.class)
+                    .setParameter("grade", GRADE)
+                    .getResultList();
+            List<StudentDto> dtos = new ArrayList<>(students.size());
+            for (Student student : students) {
+                dtos.add(studentService.convertToDto(student));
+            }
+            return dtos;
+        });
+    }
+
+    @Benchmark
+    public List<StudentDto> dtoProjection() {
+        return readOnly(session -> session.createQuery(PROJECTION_QUERY, StudentDto.class)
+                .setParameter("grade", GRADE)
+                .getResultList());
+    }
+
+    /**
+     * Runs the query the way Spring runs a read-only transaction on Hibernate:
+     * loaded entities are read-only and the session is never flushed
+     */
+    private <T> T readOnly(Function<Session, T> query) {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            session.beginTransaction();
+            T result = query.apply(session);
+            session.getTransaction().commit();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.schoolbus.application.service.impl;
+
+import com.schoolbus.benchmark.StudentFixtures;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.entity.Student;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping and validation paths of {@link StudentServiceImpl} over lists of students.
+ * Lives in the service's package to reach its package-private mapping methods.
+ * One operation processes the whole list, so divide by {@code listSize} for a per-student figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceImplBenchmark {
+    
+    @Param({"1", "1000", "100000"})
+    private int listSize;
+    
+    private StudentServiceImpl studentService;
+    private List<Student> students;
+    private List<StudentDto> studentDtos;
+    
+    @Setup
+    public void setUp() {
+        // The measured methods touch none of the collaborators, only the conversion counters
+        studentService = new StudentServiceImpl(null, null, null, null, null, null, null,
+                new SimpleMeterRegistry(), 50, 500);
+        students = StudentFixtures.students(listSize);
+        studentDtos = StudentFixtures.studentDtos(listSize);
+    }
+    
+    @Benchmark
+    public void convertToDto(Blackhole blackhole) {
+        for (Student student : students) {
+            blackhole.consume(studentService.convertToDto(student));
+        }
+    }
+    
+    @Benchmark
+    public void convertToEntity(Blackhole blackhole) {
+        for (StudentDto studentDto : studentDtos) {
+            blackhole.consume(studentService.convertToEntity(studentDto));
+        }
+    }
+    
+    @Benchmark
+    public void updateEntityFromDto(Blackhole blackhole) {
+        for (int i = 0; i < listSize; i++) {
+            Student student = students.get(i);
+            studentService.updateEntityFromDto(student, studentDtos.get(i));
+            blackhole.consume(student);
+        }
+    }
+    
+    @Benchmark
+    public void validateStudentData(Blackhole blackhole) {
+        for (StudentDto studentDto : studentDtos) {
+            studentService.validateStudentData(studentDto);
+            blackhole.consume(studentDto);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.schoolbus.benchmark;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line and always adds the GC
+ * profiler, so every result reports the allocation per operation ({@code gc.alloc.rate.norm})
+ * next to the throughput.
+ */
+public final class BenchmarkRunner {
+    
+    private BenchmarkRunner() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        String[] withGcProfiler = new String[args.length + 2];
+        withGcProfiler[0] = "-prof";
+        withGcProfiler[1] = "gc";
+        System.arraycopy(args, 0, withGcProfiler, 2, args.length);
+        Main.main(withGcProfiler);
+    }
+}
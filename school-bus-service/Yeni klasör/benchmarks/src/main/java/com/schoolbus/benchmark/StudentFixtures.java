@@ -0,0 +1,65 @@
+package com.schoolbus.benchmark;
+
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.entity.Student;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic, realistic student data for the benchmarks.
+ * Every field is filled and valid, the way rows come back from the database.
+ */
+public final class StudentFixtures {
+    
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Michael", "Emily", "David", "Sarah", "Ahmet", "Ayse"};
+    private static final String[] LAST_NAMES = {"Doe", "Smith", "Johnson", "Brown", "Wilson", "Yilmaz", "Kaya", "Demir"};
+    private static final String[] GRADES = {"1st Grade", "2nd Grade", "3rd Grade", "4th Grade", "5th Grade", "6th Grade"};
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 9, 2, 7, 30);
+    
+    private StudentFixtures() {
+    }
+    
+    /**
+     * @param count number of students
+     * @return persisted-looking student entities with IDs and timestamps
+     */
+    public static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = new Student(
+                    FIRST_NAMES[i % FIRST_NAMES.length],
+                    LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length],
+                    String.format("STU%06d", i),
+                    6 + i % 12,
+                    GRADES[i % GRADES.length],
+                    (100 + i % 900) + " Main Street, Springfield, State 12345",
+                    String.format("555%07d", i % 10_000_000));
+            student.setId((long) i + 1);
+            student.setBusRoute("Route-" + (char) ('A' + i % 20));
+            student.setPickupTime(LocalTime.of(7, i % 60));
+            student.setDropoffTime(LocalTime.of(15, i % 60));
+            student.setCreatedAt(CREATED_AT);
+            student.setUpdatedAt(CREATED_AT);
+            students.add(student);
+        }
+        return students;
+    }
+    
+    /**
+     * @param count number of students
+     * @return DTOs carrying the same data as {@link #students(int)}
+     */
+    public static List<StudentDto> studentDtos(int count) {
+        List<StudentDto> dtos = new ArrayList<>(count);
+        for (Student student : students(count)) {
+            dtos.add(new StudentDto(student.getId(), student.getFirstName(), student.getLastName(),
+                    student.getStudentId(), student.getAge(), student.getGrade(), student.getAddress(),
+                    student.getParentContact(), student.getBusRoute(), student.getPickupTime(),
+                    student.getDropoffTime(), student.getCreatedAt(), student.getUpdatedAt()));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,129 @@
+package com.schoolbus.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end timing of the CSV enrolment import against a running service and its database.
+ * <p>
+ * Writes an enrolment file of valid students, posts it to the import endpoint as a
+ * {@code text/csv} body and polls the job until it finishes. The time reported runs from
+ * sending the first byte to the job completing, so it includes the upload, parsing,
+ * validation and batched inserts. The run passes when every row was imported within the target.
+ * Student IDs start with the {@code --prefix}, which must differ between runs against the same
+ * database, since existing IDs are reported as errors.
+ * <p>
+ * Options: {@code --url} (default {@value #DEFAULT_URL}), {@code --rows} (default
+ * {@value #DEFAULT_ROWS}), {@code --target} in seconds (default {@value #DEFAULT_TARGET_SECONDS}),
+ * {@code --prefix} (default derived from the current time).
+ */
+public final class StudentImportBenchmark {
+
+    private static final String DEFAULT_URL = "http://localhost:8080/api/students/import";
+    private static final int DEFAULT_ROWS = 200_000;
+    private static final int DEFAULT_TARGET_SECONDS = 60;
+    private static final String HEADER = "firstName,lastName,studentId,age,grade,address,parentContact,busRoute,pickupTime\n";
+
+    private StudentImportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        URI uri = URI.create(options.getOrDefault("url", DEFAULT_URL));
+        int rows = Integer.parseInt(options.getOrDefault("rows", Integer.toString(DEFAULT_ROWS)));
+        Duration target = Duration.ofSeconds(Long.parseLong(
+                options.getOrDefault("target", Integer.toString(DEFAULT_TARGET_SECONDS))));
+        String prefix = options.getOrDefault("prefix",
+                "B" + Long.toString(System.currentTimeMillis() / 1000 % 46_656, 36).toUpperCase());
+
+        Path file = Files.createTempFile("enrolment", ".csv");
+        try {
+            writeEnrolment(file, rows, prefix);
+            System.out.printf("Importing %,d rows (%,d bytes) with student IDs %s000000..%n",
+                    rows, Files.size(file), prefix);
+            run(uri, file, rows, target);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void run(URI uri, Path file, int rows, Duration target) throws IOException, InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long start = System.nanoTime();
+        HttpResponse<String> started = httpClient.send(HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "text/csv")
+                        .POST(HttpRequest.BodyPublishers.ofFile(file))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (started.statusCode() != 202) {
+            throw new IllegalStateException("Import not accepted: " + started.statusCode() + " " + started.body());
+        }
+        URI jobUri = uri.resolve(uri.getPath() + "/" + objectMapper.readTree(started.body()).get("id").asText());
+
+        JsonNode job;
+        do {
+            TimeUnit.MILLISECONDS.sleep(250);
+            job = objectMapper.readTree(httpClient.send(HttpRequest.newBuilder(jobUri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()).body());
+        } while (!job.get("status").asText().equals("COMPLETED") && !job.get("status").asText().equals("FAILED"));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        httpClient.close();
+
+        long imported = job.get("rowsImported").asLong();
+        boolean passed = job.get("status").asText().equals("COMPLETED") && imported == rows
+                && elapsed.compareTo(target) <= 0;
+        System.out.printf("%-10s %10s %10s %10s %12s %10s%n",
+                "status", "imported", "failed", "seconds", "rows/s", "target");
+        System.out.printf("%-10s %10d %10d %10.1f %12.0f %10s%n",
+                job.get("status").asText(), imported, job.get("rowsFailed").asLong(),
+                elapsed.toMillis() / 1000.0, imported / (elapsed.toNanos() / 1_000_000_000.0),
+                (passed ? "met " : "missed ") + target.toSeconds() + "s");
+        if (job.hasNonNull("errorMessage")) {
+            System.out.println(job.get("errorMessage").asText());
+        }
+    }
+
+    // Valid rows spread over grades and routes, in the shape of a district's enrolment export
+    private static void writeEnrolment(Path file, int rows, String prefix) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            for (int i = 0; i < rows; i++) {
+                int grade = i % 12 + 1;
+                writer.write("Student" + i + ",Family" + i % 5000 + ",");
+                writer.write(String.format("%s%06d,%d,Grade %d,", prefix, i, grade + 5, grade));
+                writer.write("\"" + (i % 900 + 1) + " Main Street, Springfield\",");
+                writer.write(String.format("555%07d,Route-%d,%02d:%02d%n", i % 10_000_000, i % 40,
+                        7 + i % 2, i % 60));
+            }
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,141 @@
+package com.schoolbus.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator for comparing the service's platform-thread and
+ * virtual-thread execution modes under many concurrent clients.
+ * <p>
+ * Every client is a virtual thread that sends one request, waits for the response and sends
+ * the next, so the number of requests in flight equals the number of clients. Latencies
+ * measured during the warmup are discarded. Run it once against a server started with
+ * {@code SPRING_THREADS_VIRTUAL_ENABLED=false} and once with {@code true}, using the same
+ * {@code --label} convention, and compare the lines printed per client count.
+ * <p>
+ * Options: {@code --url} (default {@value #DEFAULT_URL}), {@code --clients} (comma-separated,
+ * default {@value #DEFAULT_CLIENTS}), {@code --duration} and {@code --warmup} in seconds
+ * (defaults 30 and 10), {@code --label} (default "run").
+ */
+public final class StudentLoadBenchmark {
+
+    private static final String DEFAULT_URL = "http://localhost:8080/api/students/1";
+    private static final String DEFAULT_CLIENTS = "1000,5000,10000";
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private StudentLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        URI uri = URI.create(options.getOrDefault("url", DEFAULT_URL));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        String label = options.getOrDefault("label", "run");
+
+        System.out.printf("%-10s %8s %12s %10s %10s %10s %10s %8s%n",
+                "label", "clients", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (String clients : options.getOrDefault("clients", DEFAULT_CLIENTS).split(",")) {
+            Result result = run(uri, Integer.parseInt(clients.trim()), warmup, duration);
+            System.out.printf("%-10s %8d %12.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    label, result.clients, result.throughput(),
+                    millis(result.latencies.getValueAtPercentile(50)),
+                    millis(result.latencies.getValueAtPercentile(99)),
+                    millis(result.latencies.getValueAtPercentile(99.9)),
+                    millis(result.latencies.getMaxValue()),
+                    result.errors);
+        }
+    }
+
+    private static Result run(URI uri, int clients, Duration warmup, Duration duration) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        Recorder recorder = new Recorder(MAX_TRACKABLE_NANOS, 3);
+        LongAdder errors = new LongAdder();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(clients);
+
+        for (int i = 0; i < clients; i++) {
+            Thread.ofVirtual().name("load-client-" + i).start(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception ex) {
+                            ok = false;
+                        }
+                        long end = System.nanoTime();
+                        if (start >= measureFrom && end <= deadline) {
+                            recorder.recordValue(Math.min(end - start, MAX_TRACKABLE_NANOS));
+                            if (!ok) {
+                                errors.increment();
+                            }
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+
+        sleepUntil(measureFrom);
+        recorder.reset();
+        finished.await();
+        Histogram latencies = recorder.getIntervalHistogram();
+        httpClient.close();
+        return new Result(clients, latencies, errors.sum(), duration);
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private record Result(int clients, Histogram latencies, long errors, Duration duration) {
+
+        double throughput() {
+            return latencies.getTotalCount() / (duration.toNanos() / 1_000_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.schoolbus.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.schoolbus.domain.dto.StudentDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@code List<StudentDto>} response bodies, with an ObjectMapper
+ * configured the way Spring Boot configures the one used for responses.
+ * {@code writeToStream} mirrors writing to the response; {@code writeToBytes} also pays
+ * for buffering the whole body in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentSerializationBenchmark {
+    
+    @Param({"1", "1000", "100000"})
+    private int listSize;
+    
+    private ObjectWriter writer;
+    private List<StudentDto> studentDtos;
+    
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, StudentDto.class));
+        studentDtos = StudentFixtures.studentDtos(listSize);
+    }
+    
+    @Benchmark
+    public OutputStream writeToStream() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        writer.writeValue(out, studentDtos);
+        return out;
+    }
+    
+    @Benchmark
+    public byte[] writeToBytes() throws IOException {
+        return writer.writeValueAsBytes(studentDtos);
+    }
+}
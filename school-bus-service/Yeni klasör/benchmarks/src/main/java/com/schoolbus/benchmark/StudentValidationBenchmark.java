@@ -0,0 +1,69 @@
+package com.schoolbus.benchmark;
+
+import com.schoolbus.domain.dto.StudentDto;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of {@link StudentDto} as done for {@code @Valid} request bodies.
+ * {@code validateParentContact} isolates the {@code @Pattern} constraint on parentContact.
+ * One operation validates the whole list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentValidationBenchmark {
+    
+    @Param({"1", "1000", "100000"})
+    private int listSize;
+    
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private List<StudentDto> studentDtos;
+    
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        studentDtos = StudentFixtures.studentDtos(listSize);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+    
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        for (StudentDto studentDto : studentDtos) {
+            blackhole.consume(validator.validate(studentDto));
+        }
+    }
+    
+    @Benchmark
+    public void validateParentContact(Blackhole blackhole) {
+        for (StudentDto studentDto : studentDtos) {
+            blackhole.consume(validator.validateProperty(studentDto, "parentContact"));
+        }
+    }
+}
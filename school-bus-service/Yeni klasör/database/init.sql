@@ -11,8 +11,10 @@
 -- But here's the manual creation script for reference:
 
 /*
+CREATE SEQUENCE students_id_seq INCREMENT BY 50;
+
 CREATE TABLE students (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('students_id_seq'),
     first_name VARCHAR(50) NOT NULL,
     last_name VARCHAR(50) NOT NULL,
     student_id VARCHAR(20) UNIQUE NOT NULL,
@@ -21,13 +23,68 @@ CREATE TABLE students (
     address VARCHAR(200) NOT NULL,
     parent_contact VARCHAR(15) NOT NULL,
     bus_route VARCHAR(50),
-    pickup_time VARCHAR(10),
-    dropoff_time VARCHAR(10),
+    pickup_time TIME,
+    dropoff_time TIME,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 */
 
+-- Databases created before IDs were allocated from a pooled sequence keep the BIGSERIAL
+-- sequence with INCREMENT BY 1. The application reserves 50 IDs per sequence call so that
+-- inserts can be sent in JDBC batches; align the sequence once before deploying:
+-- ALTER SEQUENCE students_id_seq INCREMENT BY 50;
+
+-- Databases created before pickup and dropoff times were typed store them as VARCHAR(10),
+-- which sorts '7:30' after '10:00' and cannot be range-scanned by time. Convert them once
+-- before deploying (blank values become NULL):
+-- ALTER TABLE students
+--     ALTER COLUMN pickup_time TYPE TIME USING NULLIF(TRIM(pickup_time), '')::TIME,
+--     ALTER COLUMN dropoff_time TYPE TIME USING NULLIF(TRIM(dropoff_time), '')::TIME;
+
+-- Change feed of students (GET /students/changes). Every write appends to student_changes in
+-- its own transaction, with positions taken from the student_change_positions sequence just before
+-- it commits. Writers share no lock, so positions are not committed in order and some stay unused;
+-- readers wait at a missing position until it is older than schoolbus.changes.gap-timeout.
+-- The single row of student_change_retention (ID 1) holds the position up to which changes have
+-- been deleted. The application creates the sequence and the row on first start if they are missing:
+/*
+CREATE TABLE student_changes (
+    position BIGINT PRIMARY KEY,
+    type VARCHAR(10) NOT NULL,
+    student_db_id BIGINT NOT NULL,
+    student_id VARCHAR(20) NOT NULL,
+    payload VARCHAR(4000),
+    changed_at TIMESTAMP NOT NULL
+);
+CREATE INDEX idx_student_changes_changed_at ON student_changes(changed_at);
+
+-- Without a per-session cache, so positions increase in the order they are taken
+CREATE SEQUENCE student_change_positions START WITH 1 CACHE 1;
+
+CREATE TABLE student_change_retention (
+    id BIGINT PRIMARY KEY,
+    pruned_through BIGINT NOT NULL
+);
+INSERT INTO student_change_retention (id, pruned_through) VALUES (1, 0);
+*/
+
+-- Databases created when a counter row handed out change positions keep the unused
+-- student_change_counter table. The application starts the sequence after the last position
+-- in student_changes; drop the table once it has started:
+-- DROP TABLE student_change_counter;
+
+-- Home locations of students for route planning (PUT /students/{id}/location). A location is
+-- deleted when its student is deleted or the student's address changes:
+/*
+CREATE TABLE student_locations (
+    student_db_id BIGINT PRIMARY KEY,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+*/
+
 -- Sample data insertion (run after the application has created the table)
 -- You can use the API endpoints to add data, or run these inserts manually:
 
@@ -46,6 +103,17 @@ INSERT INTO students (first_name, last_name, student_id, age, grade, address, pa
 -- CREATE INDEX idx_students_bus_route ON students(bus_route);
 -- CREATE INDEX idx_students_age ON students(age);
 
+-- Indexes backing the cursor-paginated listings (sort key followed by id)
+-- CREATE INDEX idx_students_first_name_id ON students(first_name, id);
+-- CREATE INDEX idx_students_grade_first_name_id ON students(grade, first_name, id);
+-- CREATE INDEX idx_students_bus_route_pickup_time_id ON students(bus_route, pickup_time, id);
+-- CREATE INDEX idx_students_age_id ON students(age, id);
+
+-- Pickup time windows across all routes
+-- CREATE INDEX idx_students_pickup_time_id ON students(pickup_time, id);
+
 -- Grant permissions (if needed)
 -- GRANT ALL PRIVILEGES ON TABLE students TO your_username;
--- GRANT USAGE, SELECT ON SEQUENCE students_id_seq TO your_username; 
\ No newline at end of file
+-- GRANT ALL PRIVILEGES ON TABLE student_changes, student_change_retention TO your_username;
+-- GRANT ALL PRIVILEGES ON TABLE student_locations TO your_username;
+-- GRANT USAGE, SELECT ON SEQUENCE students_id_seq, student_change_positions TO your_username; 
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.schoolbus.application.service;
+
+import com.schoolbus.domain.dto.StudentDto;
+
+/**
+ * An in-memory view derived from the students table, such as a search index or a roster.
+ * Every read model is filled by {@link StudentReadModelLoader} in one pass over the table
+ * once the application has started, and is kept current from change events afterwards.
+ * Change events may arrive while the load is still running, so a read model must not let
+ * a loaded row overwrite state written by an event.
+ */
+public interface StudentReadModel {
+    
+    /**
+     * Adds a student read from the database during the initial load
+     * @param student the student as stored
+     */
+    void load(StudentDto student);
+    
+    /**
+     * Called once every student has been loaded; the read model can serve reads from then on
+     */
+    void markLoaded();
+}
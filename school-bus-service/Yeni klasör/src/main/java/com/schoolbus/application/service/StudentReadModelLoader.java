@@ -0,0 +1,47 @@
+package com.schoolbus.application.service;
+
+import com.schoolbus.infrastructure.datasource.ReadFromPrimary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills every {@link StudentReadModel} from the database once the application has started.
+ * The table is streamed once and each row is handed to all read models, so adding a read
+ * model does not add another full scan. Until the load completes, reads fall back to the database.
+ * The table is read from the primary: the read models are kept current by change events from then on,
+ * so a change a replica had not caught up with would be missing for good.
+ */
+@Component
+public class StudentReadModelLoader {
+    
+    private static final Logger log = LoggerFactory.getLogger(StudentReadModelLoader.class);
+    
+    private final StudentService studentService;
+    private final List<StudentReadModel> readModels;
+    
+    @Autowired
+    public StudentReadModelLoader(StudentService studentService, List<StudentReadModel> readModels) {
+        this.studentService = studentService;
+        this.readModels = readModels;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @ReadFromPrimary
+    public void load() {
+        long started = System.nanoTime();
+        long loaded = studentService.exportAllStudents(student -> {
+            for (StudentReadModel readModel : readModels) {
+                readModel.load(student);
+            }
+        });
+        readModels.forEach(StudentReadModel::markLoaded);
+        log.info("Loaded {} students into {} read models in {} ms",
+                loaded, readModels.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
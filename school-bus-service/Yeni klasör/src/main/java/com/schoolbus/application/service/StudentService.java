@@ -1,8 +1,20 @@
 package com.schoolbus.application.service;
 
+import com.schoolbus.domain.dto.BulkBusRouteAssignmentDto;
+import com.schoolbus.domain.dto.CursorPageDto;
+import com.schoolbus.domain.dto.RouteRosterDto;
 import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentField;
+import com.schoolbus.domain.dto.StudentPatchDto;
 
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Student business operations.
@@ -18,12 +30,76 @@ public interface StudentService {
      */
     StudentDto createStudent(StudentDto studentDto);
     
+    /**
+     * Creates many students in one transaction using batched inserts.
+     * Either all students are created or none are.
+     * @param studentDtos the students to create
+     * @return the created student DTOs, in request order
+     * @throws IllegalArgumentException if any student data is invalid, a student ID is repeated
+     *         within the batch or a student ID already exists
+     */
+    List<StudentDto> createStudents(List<StudentDto> studentDtos);
+    
+    /**
+     * Creates the given students in one transaction using batched inserts, skipping every student
+     * whose student ID already exists or appeared earlier in the list instead of failing the batch.
+     * Meant for imports, where one bad row must not reject the others; the students must already
+     * have passed bean validation and {@link #validateStudentData(StudentDto)}.
+     * @param studentDtos the students to create
+     * @return the positions in the list of the skipped students, with the reason
+     */
+    Map<Integer, String> importStudents(List<StudentDto> studentDtos);
+    
     /**
      * Retrieves all students ordered by first name
      * @return list of all students
      */
     List<StudentDto> getAllStudents();
     
+    /**
+     * Retrieves all students ordered by first name, reading only the given fields
+     * @param fields the fields to read; the other fields of the returned students are null
+     * @return list of all students
+     */
+    List<StudentDto> getAllStudents(Set<StudentField> fields);
+    
+    /**
+     * Retrieves one page of students ordered by first name, then database ID
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getAllStudents(String cursor, Integer size);
+    
+    /**
+     * Retrieves one page of students ordered by first name, then database ID, reading only the given fields
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @param fields the fields to read; the other fields of the returned students are null
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getAllStudents(String cursor, Integer size, Set<StudentField> fields);
+    
+    /**
+     * Streams every student ordered by database ID to the given consumer.
+     * Rows are read from the database cursor and handed over one at a time,
+     * so memory use does not depend on the number of students.
+     * @param consumer receives each student as it is read
+     * @return the number of students exported
+     */
+    long exportAllStudents(Consumer<StudentDto> consumer);
+    
+    /**
+     * Streams every student ordered by database ID to the given consumer, reading only the given fields
+     * from the database; the other fields of the students handed over are null
+     * @param fields the fields to read
+     * @param consumer receives each student as it is read
+     * @return the number of students exported
+     */
+    long exportAllStudents(Set<StudentField> fields, Consumer<StudentDto> consumer);
+    
     /**
      * Retrieves a student by their database ID
      * @param id the database ID of the student
@@ -32,6 +108,14 @@ public interface StudentService {
      */
     StudentDto getStudentById(Long id);
     
+    /**
+     * Retrieves when a student was last updated without loading the student, for conditional requests.
+     * Served from the lookup cache if the student is cached, otherwise read as a single column.
+     * @param id the database ID of the student
+     * @return the update timestamp, or empty if the student does not exist or has none
+     */
+    Optional<LocalDateTime> getStudentUpdatedAt(Long id);
+    
     /**
      * Retrieves a student by their student ID
      * @param studentId the unique student ID
@@ -50,6 +134,27 @@ public interface StudentService {
      */
     StudentDto updateStudent(Long id, StudentDto studentDto);
     
+    /**
+     * Partially updates an existing student: only the fields present in the patch are written,
+     * in one statement that also returns the previous values, and nothing is written if none changes
+     * @param id the database ID of the student to update
+     * @param patch the fields to change
+     * @return the updated student DTO
+     * @throws RuntimeException if student not found
+     * @throws IllegalArgumentException if the patch is empty or a field is invalid
+     */
+    StudentDto patchStudent(Long id, StudentPatchDto patch);
+    
+    /**
+     * Creates the student with the given student ID, or replaces all of its data if it exists,
+     * in a single database statement without checking for the student first
+     * @param studentId the unique student ID
+     * @param studentDto the student data; its student ID may be omitted but must otherwise match
+     * @return the created or updated student DTO
+     * @throws IllegalArgumentException if validation fails or the student IDs do not match
+     */
+    StudentDto upsertStudent(String studentId, StudentDto studentDto);
+    
     /**
      * Deletes a student by their database ID
      * @param id the database ID of the student to delete
@@ -64,6 +169,36 @@ public interface StudentService {
      */
     List<StudentDto> getStudentsByGrade(String grade);
     
+    /**
+     * Retrieves all students in a specific grade, reading only the given fields
+     * @param grade the grade to filter by
+     * @param fields the fields to read; the other fields of the returned students are null
+     * @return list of students in the specified grade
+     */
+    List<StudentDto> getStudentsByGrade(String grade, Set<StudentField> fields);
+    
+    /**
+     * Retrieves one page of students in a grade ordered by first name, then database ID
+     * @param grade the grade to filter by
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getStudentsByGrade(String grade, String cursor, Integer size);
+    
+    /**
+     * Retrieves one page of students in a grade ordered by first name, then database ID,
+     * reading only the given fields
+     * @param grade the grade to filter by
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @param fields the fields to read; the other fields of the returned students are null
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getStudentsByGrade(String grade, String cursor, Integer size, Set<StudentField> fields);
+    
     /**
      * Retrieves all students assigned to a specific bus route
      * @param busRoute the bus route to filter by
@@ -72,12 +207,96 @@ public interface StudentService {
     List<StudentDto> getStudentsByBusRoute(String busRoute);
     
     /**
-     * Searches for students by name (first or last name)
+     * Retrieves the roster of a bus route: its students in pickup order and the roster version.
+     * Rosters are kept in memory and updated as students change, so no query is run.
+     * @param busRoute the bus route
+     * @return the roster; a route nobody is assigned to has an empty roster with version 0
+     */
+    RouteRosterDto getBusRouteRoster(String busRoute);
+    
+    /**
+     * Retrieves the version of a bus route's roster without building the roster or running a query
+     * @param busRoute the bus route
+     * @return the version as {@link #getBusRouteRoster(String)} reports it, or empty while the rosters
+     *         are still loading and versions are not yet known
+     */
+    OptionalLong getBusRouteRosterVersion(String busRoute);
+    
+    /**
+     * Retrieves one page of students on a bus route ordered by pickup time, then database ID.
+     * Students without a pickup time come last.
+     * @param busRoute the bus route to filter by
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getStudentsByBusRoute(String busRoute, String cursor, Integer size);
+    
+    /**
+     * Retrieves one page of students on a bus route ordered by pickup time, then database ID,
+     * reading only the given fields while the rosters are still loading and the page comes from
+     * the database. Pages served from the in-memory roster carry every field.
+     * @param busRoute the bus route to filter by
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @param fields the fields to read from the database
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getStudentsByBusRoute(String busRoute, String cursor, Integer size,
+                                                    Set<StudentField> fields);
+    
+    /**
+     * Searches for students by name (first or last name), best matches first
      * @param name the name to search for (partial matching)
      * @return list of students matching the search criteria
      */
     List<StudentDto> searchStudentsByName(String name);
     
+    /**
+     * Searches for students by name (first or last name), best matches first.
+     * A whole first or last name match ranks above a prefix match, which ranks above
+     * any other partial match; ties are ordered by first name.
+     * @param name the name to search for (partial matching)
+     * @param limit maximum number of results, or null for all matches
+     * @return list of students matching the search criteria
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    List<StudentDto> searchStudentsByName(String name, Integer limit);
+    
+    /**
+     * Searches for students by name (first or last name), best matches first, reading only the given fields
+     * @param name the name to search for (partial matching)
+     * @param limit maximum number of results, or null for all matches
+     * @param fields the fields to read; the other fields of the returned students are null
+     * @return list of students matching the search criteria
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    List<StudentDto> searchStudentsByName(String name, Integer limit, Set<StudentField> fields);
+    
+    /**
+     * Retrieves one page of students matching a name search ordered by first name, then database ID
+     * @param name the name to search for (partial matching)
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> searchStudentsByName(String name, String cursor, Integer size);
+    
+    /**
+     * Retrieves one page of students matching a name search ordered by first name, then database ID,
+     * reading only the given fields
+     * @param name the name to search for (partial matching)
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @param fields the fields to read; the other fields of the returned students are null
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> searchStudentsByName(String name, String cursor, Integer size, Set<StudentField> fields);
+    
     /**
      * Retrieves students within a specific age range
      * @param minAge minimum age (inclusive)
@@ -86,6 +305,69 @@ public interface StudentService {
      */
     List<StudentDto> getStudentsByAgeRange(Integer minAge, Integer maxAge);
     
+    /**
+     * Retrieves students within a specific age range, reading only the given fields
+     * @param minAge minimum age (inclusive)
+     * @param maxAge maximum age (inclusive)
+     * @param fields the fields to read; the other fields of the returned students are null
+     * @return list of students within the age range
+     */
+    List<StudentDto> getStudentsByAgeRange(Integer minAge, Integer maxAge, Set<StudentField> fields);
+    
+    /**
+     * Retrieves one page of students within an age range ordered by age, then database ID
+     * @param minAge minimum age (inclusive)
+     * @param maxAge maximum age (inclusive)
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the range, cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getStudentsByAgeRange(Integer minAge, Integer maxAge, String cursor, Integer size);
+    
+    /**
+     * Retrieves one page of students within an age range ordered by age, then database ID,
+     * reading only the given fields
+     * @param minAge minimum age (inclusive)
+     * @param maxAge maximum age (inclusive)
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @param fields the fields to read; the other fields of the returned students are null
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the range, cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getStudentsByAgeRange(Integer minAge, Integer maxAge, String cursor, Integer size,
+                                                    Set<StudentField> fields);
+    
+    /**
+     * Retrieves one page of the students picked up within a time window, on every route or on one,
+     * ordered by pickup time, then database ID
+     * @param from start of the window (inclusive)
+     * @param to end of the window (exclusive)
+     * @param busRoute the bus route to filter by, or null for every route
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the window, cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getStudentsByPickupWindow(LocalTime from, LocalTime to, String busRoute,
+                                                        String cursor, Integer size);
+    
+    /**
+     * Retrieves one page of the students picked up within a time window, on every route or on one,
+     * ordered by pickup time, then database ID, reading only the given fields
+     * @param from start of the window (inclusive)
+     * @param to end of the window (exclusive)
+     * @param busRoute the bus route to filter by, or null for every route
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default
+     * @param fields the fields to read; the other fields of the returned students are null
+     * @return the page of students and the token for the next page
+     * @throws IllegalArgumentException if the window, cursor or size is invalid
+     */
+    CursorPageDto<StudentDto> getStudentsByPickupWindow(LocalTime from, LocalTime to, String busRoute,
+                                                        String cursor, Integer size, Set<StudentField> fields);
+    
     /**
      * Assigns bus route information to a student
      * @param id the database ID of the student
@@ -95,7 +377,16 @@ public interface StudentService {
      * @return the updated student DTO
      * @throws RuntimeException if student not found
      */
-    StudentDto assignBusRoute(Long id, String busRoute, String pickupTime, String dropoffTime);
+    StudentDto assignBusRoute(Long id, String busRoute, LocalTime pickupTime, LocalTime dropoffTime);
+    
+    /**
+     * Assigns one bus route and pickup/dropoff times to many students with a single set-based update.
+     * The students are selected by database ID or by current bus route and/or grade.
+     * @param assignment the students to select and the route and times to assign
+     * @return the number of students updated; IDs that do not exist are skipped
+     * @throws IllegalArgumentException if the selection or the route or times are invalid
+     */
+    int assignBusRoutes(BulkBusRouteAssignmentDto assignment);
     
     /**
      * Gets the count of students in a specific grade
@@ -0,0 +1,90 @@
+package com.schoolbus.application.service.aggregate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free occurrence counter per value, which also lists the values currently in use.
+ * <p>
+ * Each value has its own atomic counter that is never removed, so increments and decrements
+ * are a single atomic operation. Writes may commit in one order and report their deltas in
+ * another, so a decrement can arrive before the increment it cancels; it creates the counter
+ * too, and the count stays below zero until the increment arrives.
+ * The sorted list of values with a positive count changes only when a counter moves between
+ * zero and one; such a move bumps a generation number, and the list is rebuilt on the next
+ * read. A rebuilt list only replaces an older one, so a slow reader can never publish a list
+ * that is staler than one already published.
+ */
+class DistinctCounter {
+    
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0L, List.of()));
+    
+    long count(String value) {
+        if (value == null) {
+            return 0L;
+        }
+        AtomicLong count = counts.get(value);
+        return count == null ? 0L : count.get();
+    }
+    
+    void increment(String value) {
+        if (value == null) {
+            return;
+        }
+        if (counts.computeIfAbsent(value, key -> new AtomicLong()).incrementAndGet() == 1L) {
+            generation.incrementAndGet();
+        }
+    }
+    
+    void decrement(String value) {
+        if (value == null) {
+            return;
+        }
+        if (counts.computeIfAbsent(value, key -> new AtomicLong()).decrementAndGet() == 0L) {
+            generation.incrementAndGet();
+        }
+    }
+    
+    List<String> distinctValues() {
+        Snapshot current = snapshot.get();
+        long expected = generation.get();
+        if (current.generation == expected) {
+            return current.values;
+        }
+        
+        List<String> values = new ArrayList<>();
+        counts.forEach((value, count) -> {
+            if (count.get() > 0L) {
+                values.add(value);
+            }
+        });
+        Collections.sort(values);
+        Snapshot rebuilt = new Snapshot(expected, Collections.unmodifiableList(values));
+        snapshot.accumulateAndGet(rebuilt, (published, candidate) ->
+                candidate.generation > published.generation ? candidate : published);
+        return rebuilt.values;
+    }
+    
+    void clear() {
+        counts.clear();
+        generation.incrementAndGet();
+    }
+    
+    private static final class Snapshot {
+        
+        private final long generation;
+        private final List<String> values;
+        
+        private Snapshot(long generation, List<String> values) {
+            this.generation = generation;
+            this.values = values;
+        }
+    }
+}
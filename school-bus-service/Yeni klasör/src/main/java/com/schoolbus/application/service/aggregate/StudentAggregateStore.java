@@ -0,0 +1,173 @@
+package com.schoolbus.application.service.aggregate;
+
+import com.schoolbus.application.service.StudentReadModel;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.event.StudentBatchChangedEvent;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live student counts per grade and per bus route, and the distinct grades and routes in use.
+ * <p>
+ * The counts are seeded once at startup and then adjusted by the delta of every committed
+ * change, so each read is a single map lookup and no COUNT or DISTINCT query is run.
+ * Counter updates are lock-free; see {@link DistinctCounter}.
+ * <p>
+ * Change events may arrive while the initial load is still running. They are held back
+ * until the load completes, and the students they touch are counted by their latest change
+ * rather than by the possibly older row the load read.
+ */
+@Component
+public class StudentAggregateStore implements StudentReadModel {
+    
+    private final DistinctCounter gradeCounts = new DistinctCounter();
+    private final DistinctCounter busRouteCounts = new DistinctCounter();
+    
+    // Guarded by lock, which unlike a monitor does not pin a virtual thread that waits for it;
+    // only used until the initial load completes
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, StudentDto> loadedStudents = new HashMap<>();
+    private final Map<Long, StudentDto> changedDuringLoad = new HashMap<>();
+    
+    private volatile boolean ready;
+    
+    /**
+     * @return true once the initial load has completed and aggregates can be served from the store
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * @param grade the grade
+     * @return the number of students in the grade
+     */
+    public long getGradeCount(String grade) {
+        return gradeCounts.count(grade);
+    }
+    
+    /**
+     * @param busRoute the bus route
+     * @return the number of students assigned to the bus route
+     */
+    public long getBusRouteCount(String busRoute) {
+        return busRouteCounts.count(busRoute);
+    }
+    
+    /**
+     * @return the grades with at least one student, in ascending order
+     */
+    public List<String> getGrades() {
+        return gradeCounts.distinctValues();
+    }
+    
+    /**
+     * @return the bus routes with at least one student, in ascending order
+     */
+    public List<String> getBusRoutes() {
+        return busRouteCounts.distinctValues();
+    }
+    
+    /**
+     * Applies the delta of a committed write to the counters
+     * @param event the change published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.getId() == null) {
+            return;
+        }
+        if (!ready) {
+            lock.lock();
+            try {
+                if (!ready) {
+                    changedDuringLoad.put(event.getId(), event.getAfter());
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        StudentDto before = event.getBefore();
+        StudentDto after = event.getAfter();
+        if (before != null) {
+            gradeCounts.decrement(before.getGrade());
+            busRouteCounts.decrement(before.getBusRoute());
+        }
+        if (after != null) {
+            gradeCounts.increment(after.getGrade());
+            busRouteCounts.increment(after.getBusRoute());
+        }
+    }
+    
+    /**
+     * Applies the delta of every change of a committed set-based write
+     * @param event the changes published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentBatchChangedEvent event) {
+        event.getChanges().forEach(this::onStudentChanged);
+    }
+    
+    @Override
+    public void load(StudentDto student) {
+        lock.lock();
+        try {
+            loadedStudents.put(student.getId(), student);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Seeds the counters from the loaded students, with every student changed during the load
+     * counted by its latest change instead
+     */
+    @Override
+    public void markLoaded() {
+        lock.lock();
+        try {
+            loadedStudents.keySet().removeAll(changedDuringLoad.keySet());
+            for (StudentDto student : loadedStudents.values()) {
+                add(student);
+            }
+            for (StudentDto student : changedDuringLoad.values()) {
+                if (student != null) {
+                    add(student);
+                }
+            }
+            loadedStudents.clear();
+            changedDuringLoad.clear();
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Resets every counter to zero
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            gradeCounts.clear();
+            busRouteCounts.clear();
+            loadedStudents.clear();
+            changedDuringLoad.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void add(StudentDto student) {
+        gradeCounts.increment(student.getGrade());
+        busRouteCounts.increment(student.getBusRoute());
+    }
+}
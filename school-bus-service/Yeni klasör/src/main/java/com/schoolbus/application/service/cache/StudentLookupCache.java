@@ -0,0 +1,195 @@
+package com.schoolbus.application.service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.schoolbus.domain.dto.CacheStatsDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.event.StudentBatchChangedEvent;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for single-student lookups by database ID and by student ID.
+ * Entries are evicted by size (W-TinyLFU) and by age, and are invalidated exactly
+ * by the write operations of the student service once their transaction commits.
+ * Cached values are copied on the way out so callers can never modify a cached entry.
+ * <p>
+ * Loads run on the calling thread but outside of any lock: the cache only holds a pending
+ * future while the loader runs. A loader blocked on the database therefore never holds a
+ * monitor, which would pin the carrier thread of a virtual thread.
+ */
+@Component
+public class StudentLookupCache {
+
+    public static final String BY_ID = "students-by-id";
+    public static final String BY_STUDENT_ID = "students-by-student-id";
+
+    private final AsyncCache<Long, StudentDto> byId;
+    private final AsyncCache<String, StudentDto> byStudentId;
+
+    public StudentLookupCache(@Value("${schoolbus.cache.students.maximum-size:10000}") long maximumSize,
+                              @Value("${schoolbus.cache.students.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        this.byStudentId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the student with the given database ID, loading it on a miss.
+     * The loader runs at most once per key at a time; concurrent callers wait for its result.
+     * A concurrent invalidation removes the pending load, so the value it loads is not kept.
+     * @param id the database ID
+     * @param loader loads the student, returning null when it does not exist
+     * @return the student, or empty if the loader found none
+     */
+    public Optional<StudentDto> getById(Long id, Function<Long, StudentDto> loader) {
+        return Optional.ofNullable(load(byId, id, loader)).map(StudentDto::new);
+    }
+
+    /**
+     * Returns the student with the given database ID if it is cached, without loading it on a miss.
+     * A load still in progress counts as a miss.
+     * @param id the database ID
+     * @return the cached student, or empty if it is not cached
+     */
+    public Optional<StudentDto> getIfPresentById(Long id) {
+        CompletableFuture<StudentDto> future = byId.getIfPresent(id);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(future.join()).map(StudentDto::new);
+    }
+
+    /**
+     * Returns the student with the given student ID, loading it on a miss
+     * @param studentId the unique student ID
+     * @param loader loads the student, returning null when it does not exist
+     * @return the student, or empty if the loader found none
+     */
+    public Optional<StudentDto> getByStudentId(String studentId, Function<String, StudentDto> loader) {
+        return Optional.ofNullable(load(byStudentId, studentId, loader)).map(StudentDto::new);
+    }
+
+    /**
+     * Invalidates the entries of a changed student once its transaction commits.
+     * Invalidating after commit keeps a concurrent reader from caching the row
+     * as it was before the change. Both the old and the new student ID are invalidated.
+     * @param event the change published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        StudentDto before = event.getBefore();
+        StudentDto after = event.getAfter();
+        invalidate(event.getId(),
+                before != null ? before.getStudentId() : null,
+                after != null ? after.getStudentId() : null);
+    }
+
+    /**
+     * Invalidates the entries of every student changed by a set-based write, with one call per cache
+     * @param event the changes published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentBatchChangedEvent event) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> studentIds = new HashSet<>();
+        for (StudentChangedEvent change : event.getChanges()) {
+            if (change.getId() != null) {
+                ids.add(change.getId());
+            }
+            for (StudentDto student : Arrays.asList(change.getBefore(), change.getAfter())) {
+                if (student != null && student.getStudentId() != null) {
+                    studentIds.add(student.getStudentId());
+                }
+            }
+        }
+        byId.synchronous().invalidateAll(ids);
+        byStudentId.synchronous().invalidateAll(studentIds);
+    }
+
+    /**
+     * Invalidates the entries of a student immediately
+     * @param id the database ID of the changed student
+     * @param studentIds every student ID the student was or is now known by
+     */
+    public void invalidate(Long id, String... studentIds) {
+        if (id != null) {
+            byId.synchronous().invalidate(id);
+        }
+        for (String studentId : studentIds) {
+            if (studentId != null) {
+                byStudentId.synchronous().invalidate(studentId);
+            }
+        }
+    }
+
+    /**
+     * Removes every cached entry
+     */
+    public void invalidateAll() {
+        byId.synchronous().invalidateAll();
+        byStudentId.synchronous().invalidateAll();
+    }
+
+    /**
+     * Returns hit, miss and eviction statistics of both lookup caches
+     * @return statistics per cache
+     */
+    public List<CacheStatsDto> getStats() {
+        return List.of(toStatsDto(BY_ID, byId), toStatsDto(BY_STUDENT_ID, byStudentId));
+    }
+
+    /**
+     * Returns the cached value of a key, running the loader on this thread on a miss.
+     * Only registering the pending future happens under the cache's lock.
+     */
+    private static <K> StudentDto load(AsyncCache<K, StudentDto> cache, K key, Function<K, StudentDto> loader) {
+        CompletableFuture<StudentDto> pending = new CompletableFuture<>();
+        CompletableFuture<StudentDto> future = cache.get(key, (k, executor) -> pending);
+        if (future == pending) {
+            try {
+                pending.complete(loader.apply(key));
+            } catch (RuntimeException | Error ex) {
+                pending.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static CacheStatsDto toStatsDto(String name, AsyncCache<?, ?> asyncCache) {
+        Cache<?, ?> cache = asyncCache.synchronous();
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+}
@@ -0,0 +1,372 @@
+package com.schoolbus.application.service.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schoolbus.domain.dto.StudentChangeDto;
+import com.schoolbus.domain.dto.StudentChangeFeedDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.entity.StudentChange;
+import com.schoolbus.domain.entity.StudentChangeRetention;
+import com.schoolbus.domain.event.StudentBatchChangedEvent;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import com.schoolbus.infrastructure.datasource.ReadFromPrimary;
+import com.schoolbus.infrastructure.repository.StudentChangeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox of student changes, and the change feed that downstream systems read it through.
+ * <p>
+ * Every change event of the student service is written to {@code student_changes} by the transaction
+ * that made the change, so a change is in the feed exactly when it was committed. The events of a
+ * transaction are collected and written just before it commits, each with a position taken from a
+ * database sequence. Writers share no lock, so concurrent transactions, import chunks included, commit
+ * independently of each other.
+ * <p>
+ * Positions therefore do not follow commit order: a position can still be committed after a higher one,
+ * and the positions of a transaction that fails to commit stay unused. Readers stop before the first
+ * missing position, the watermark below which every change is committed, so a reader that resumes after
+ * position n never misses a change committed later with a lower position. A missing position is passed
+ * once a change after it is older than the gap timeout: positions are taken right before the commit,
+ * so by then the transaction that took it has rolled back. A transaction that takes longer than the
+ * timeout to commit once it has its positions would have its changes skipped by readers already past them,
+ * so one that is still inserting its changes by then is rolled back, and one whose commit alone overruns
+ * is logged. Changes are stamped, and their age is judged, by the database clock, so the clocks of the
+ * instances sharing the database need not agree.
+ * <p>
+ * Changes older than the retention are deleted. A client whose token points before the deleted
+ * changes gets {@link StudentChangeTokenExpiredException} and has to resynchronize in full.
+ */
+@Component
+public class StudentChangeFeed implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentChangeFeed.class);
+
+    private final StudentChangeRepository studentChangeRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultBatchSize;
+    private final int maxBatchSize;
+    private final Duration retention;
+    private final Duration gapTimeout;
+
+    @Autowired
+    public StudentChangeFeed(StudentChangeRepository studentChangeRepository,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${schoolbus.changes.default-batch-size:100}") int defaultBatchSize,
+                             @Value("${schoolbus.changes.max-batch-size:1000}") int maxBatchSize,
+                             @Value("${schoolbus.changes.retention:7d}") Duration retention,
+                             @Value("${schoolbus.changes.gap-timeout:PT10S}") Duration gapTimeout) {
+        this.studentChangeRepository = studentChangeRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultBatchSize = defaultBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.retention = retention;
+        this.gapTimeout = gapTimeout;
+    }
+
+    /**
+     * Creates the retention row and the position sequence on first start. Runs before the application
+     * takes requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> studentChangeRepository.createPositionSequence(
+                    Math.max(prunedThrough(), studentChangeRepository.findLastPosition().orElse(0L))));
+            transactionTemplate.executeWithoutResult(status -> {
+                if (entityManager.find(StudentChangeRetention.class, StudentChangeRetention.ID) == null) {
+                    // Changes kept from before the row existed start the feed; without any, the feed starts
+                    // after every position taken so far, as the sequence may outlive the table
+                    long prunedThrough = studentChangeRepository.findFirstPosition()
+                            .map(position -> position - 1)
+                            .orElseGet(() -> studentChangeRepository.nextPositions(1)[0]);
+                    entityManager.persist(new StudentChangeRetention(StudentChangeRetention.ID, prunedThrough));
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance created them at the same time
+        }
+    }
+
+    // Plain listeners rather than transactional ones: they run inside the transaction making the change
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        pendingChanges().add(event);
+    }
+
+    @EventListener
+    public void onStudentBatchChanged(StudentBatchChangedEvent event) {
+        pendingChanges().addAll(event.getChanges());
+    }
+
+    /**
+     * Retrieves the changes committed after a token, oldest first
+     * @param since the token of the last change already seen, or null to start from the oldest kept change
+     * @param limit requested batch size, or null for the configured default
+     * @return the changes and the token to resume from
+     * @throws IllegalArgumentException if the token or limit is invalid
+     * @throws StudentChangeTokenExpiredException if changes after the token have already been deleted
+     */
+    // A lagging replica would reject a token the primary handed out as being ahead of the feed
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    public StudentChangeFeedDto getChanges(String since, Integer limit) {
+        int batchSize = resolveBatchSize(limit);
+        long prunedThrough = prunedThrough();
+        long after = prunedThrough;
+        if (since != null && !since.isBlank()) {
+            after = decodeToken(since);
+            if (after > Math.max(prunedThrough, studentChangeRepository.findLastPosition().orElse(0L))) {
+                throw new IllegalArgumentException("Invalid change token: " + since);
+            }
+            if (after < prunedThrough) {
+                throw new StudentChangeTokenExpiredException("Changes after token '" + since +
+                        "' are no longer kept; resynchronize and continue from the current token");
+            }
+        }
+
+        List<StudentChange> rows = studentChangeRepository.findByPositionGreaterThanOrderByPositionAsc(
+                after, Limit.of(batchSize + 1));
+        LocalDateTime settled = studentChangeRepository.currentTime().minus(gapTimeout);
+        List<StudentChangeDto> changes = new ArrayList<>(Math.min(rows.size(), batchSize));
+        long position = after;
+        boolean hasMore = false;
+        for (StudentChange row : rows) {
+            if (row.getPosition() != position + 1 && !row.getChangedAt().isBefore(settled)) {
+                // The missing position may still be committed; it is returned before this change
+                break;
+            }
+            if (changes.size() == batchSize) {
+                hasMore = true;
+                break;
+            }
+            changes.add(toDto(row));
+            position = row.getPosition();
+        }
+
+        return new StudentChangeFeedDto(changes, encodeToken(position), hasMore);
+    }
+
+    /**
+     * Retrieves the token up to which every change is committed, to take before a full synchronization
+     * and follow the feed from afterwards
+     * @return the token of the latest change that no uncommitted change precedes
+     */
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    public String getCurrentToken() {
+        return encodeToken(watermark());
+    }
+
+    /**
+     * Deletes the changes older than the retention
+     * @return the number of deleted changes
+     */
+    @Scheduled(fixedDelayString = "${schoolbus.changes.prune-interval:PT1H}",
+               initialDelayString = "${schoolbus.changes.prune-interval:PT1H}")
+    @Transactional
+    public int pruneChanges() {
+        Long through = studentChangeRepository.findLastPositionBefore(
+                studentChangeRepository.currentTime().minus(retention)).orElse(null);
+        if (through == null) {
+            return 0;
+        }
+        StudentChangeRetention retentionRow = entityManager.find(
+                StudentChangeRetention.class, StudentChangeRetention.ID, LockModeType.PESSIMISTIC_WRITE);
+        if (retentionRow == null) {
+            throw new IllegalStateException("Student change retention row is missing");
+        }
+        int deleted = studentChangeRepository.deleteThrough(through);
+        retentionRow.setPrunedThrough(Math.max(retentionRow.getPrunedThrough(), through));
+        if (deleted > 0) {
+            log.info("Deleted {} student changes older than {}", deleted, retention);
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the changes collected in the current transaction, registering the transaction
+     * to write them before it commits when this is its first change
+     * @return the pending changes of the current transaction
+     */
+    private List<StudentChangedEvent> pendingChanges() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Students must be changed within a transaction");
+        }
+        // Looked up among the synchronizations rather than bound as a resource,
+        // so a suspended outer transaction keeps its own changes
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending) {
+                return pending.changes;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending.changes;
+    }
+
+    /**
+     * Writes the changes of a transaction to the outbox
+     * @param changes the changes, in the order they were made
+     * @return the {@link System#nanoTime()} at which the positions were taken
+     * @throws IllegalStateException if inserting the changes outlasted the gap timeout
+     */
+    private long write(List<StudentChangedEvent> changes) {
+        // Flush the changed rows first, so the positions are taken as close to the commit as possible,
+        // and stamp the changes after taking them, so a change is never older than its position
+        entityManager.flush();
+        long[] positions = studentChangeRepository.nextPositions(changes.size());
+        long positionsTakenAt = System.nanoTime();
+        LocalDateTime changedAt = studentChangeRepository.currentTime();
+        for (int i = 0; i < changes.size(); i++) {
+            StudentChangedEvent change = changes.get(i);
+            StudentDto student = change.getAfter() != null ? change.getAfter() : change.getBefore();
+            entityManager.persist(new StudentChange(positions[i], change.getType(), change.getId(),
+                    student.getStudentId(), change.getAfter() != null ? toJson(change.getAfter()) : null, changedAt));
+        }
+        
+        // Insert them now rather than during the commit: once the gap timeout has passed, readers may have
+        // passed the positions, and the changes must not be committed behind them
+        entityManager.flush();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - positionsTakenAt);
+        if (elapsed.compareTo(gapTimeout) >= 0) {
+            throw new IllegalStateException("Writing " + changes.size() + " student changes took " + elapsed
+                    + ", longer than the change feed gap timeout of " + gapTimeout
+                    + "; commit fewer changes at once");
+        }
+        return positionsTakenAt;
+    }
+
+    /**
+     * Returns the position up to which every change is committed. Every missing position below the latest
+     * change older than the gap timeout is settled; from there the changes count up to the first missing one.
+     */
+    private long watermark() {
+        long prunedThrough = prunedThrough();
+        List<Long> recent = studentChangeRepository.findPositionsChangedSince(
+                studentChangeRepository.currentTime().minus(gapTimeout));
+        if (recent.isEmpty()) {
+            return Math.max(prunedThrough, studentChangeRepository.findLastPosition().orElse(0L));
+        }
+        long position = Math.max(prunedThrough,
+                studentChangeRepository.findLastPositionBelow(recent.get(0)).orElse(0L));
+        for (long next : recent) {
+            if (next != position + 1) {
+                break;
+            }
+            position = next;
+        }
+        return position;
+    }
+
+    private long prunedThrough() {
+        StudentChangeRetention retentionRow = entityManager.find(StudentChangeRetention.class, StudentChangeRetention.ID);
+        return retentionRow != null ? retentionRow.getPrunedThrough() : 0L;
+    }
+
+    private StudentChangeDto toDto(StudentChange row) {
+        StudentDto student = null;
+        if (row.getPayload() != null) {
+            try {
+                student = objectMapper.readValue(row.getPayload(), StudentDto.class);
+            } catch (JsonProcessingException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return new StudentChangeDto(encodeToken(row.getPosition()), row.getType(), row.getStudentDbId(),
+                row.getStudentId(), row.getChangedAt(), student);
+    }
+
+    private String toJson(StudentDto student) {
+        try {
+            return objectMapper.writeValueAsString(student);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private int resolveBatchSize(Integer limit) {
+        if (limit == null) {
+            return defaultBatchSize;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, maxBatchSize);
+    }
+
+    // Tokens are opaque to clients; today they are the position in decimal
+
+    private static String encodeToken(long position) {
+        return Long.toString(position);
+    }
+
+    private static long decodeToken(String token) {
+        try {
+            long position = Long.parseLong(token.trim());
+            if (position < 0) {
+                throw new IllegalArgumentException("Invalid change token: " + token);
+            }
+            return position;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid change token: " + token);
+        }
+    }
+
+    /**
+     * The changes of one transaction, written before it commits
+     */
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final List<StudentChangedEvent> changes = new ArrayList<>();
+        private long positionsTakenAt;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!changes.isEmpty()) {
+                positionsTakenAt = write(changes);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (changes.isEmpty()) {
+                return;
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - positionsTakenAt);
+            if (elapsed.compareTo(gapTimeout) >= 0) {
+                log.warn("{} student changes were committed {} after taking their positions, later than the "
+                        + "gap timeout of {}; change feed readers may have skipped them",
+                        changes.size(), elapsed, gapTimeout);
+            }
+        }
+    }
+}
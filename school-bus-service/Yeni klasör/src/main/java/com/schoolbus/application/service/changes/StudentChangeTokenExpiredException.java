@@ -0,0 +1,12 @@
+package com.schoolbus.application.service.changes;
+
+/**
+ * Thrown when a change feed token points before the oldest change still kept,
+ * so the changes in between can no longer be delivered
+ */
+public class StudentChangeTokenExpiredException extends RuntimeException {
+    
+    public StudentChangeTokenExpiredException(String message) {
+        super(message);
+    }
+}
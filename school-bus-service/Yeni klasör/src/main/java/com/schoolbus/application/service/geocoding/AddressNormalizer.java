@@ -0,0 +1,57 @@
+package com.schoolbus.application.service.geocoding;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces an address to the key it is geocoded and cached under, so that spellings of one
+ * place share a key: case, accents, punctuation and spacing are ignored, common street words
+ * are abbreviated, and unit designators are dropped, as the flats of one building share its location.
+ */
+public final class AddressNormalizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern UNIT = Pattern.compile(
+            "\\b(?:apt|apartment|unit|suite|ste|daire)\\b\\.?\\s*(?:no\\b\\.?|#)?\\s*[\\p{L}\\p{N}-]+|#\\s*[\\p{L}\\p{N}-]+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+            Map.entry("street", "st"),
+            Map.entry("avenue", "ave"),
+            Map.entry("road", "rd"),
+            Map.entry("boulevard", "blvd"),
+            Map.entry("drive", "dr"),
+            Map.entry("lane", "ln"),
+            Map.entry("sokak", "sk"),
+            Map.entry("sokagi", "sk"),
+            Map.entry("cadde", "cd"),
+            Map.entry("caddesi", "cd"),
+            Map.entry("mahalle", "mh"),
+            Map.entry("mahallesi", "mh"));
+
+    private AddressNormalizer() {
+    }
+
+    /**
+     * @param address an address as entered
+     * @return the words of the address, lower case and unaccented, separated by single spaces
+     */
+    public static String normalize(String address) {
+        String text = Normalizer.normalize(address.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        // The dotless i has no base letter to decompose to
+        text = MARKS.matcher(text).replaceAll("").replace('ı', 'i');
+        text = UNIT.matcher(text).replaceAll(" ");
+
+        StringBuilder key = new StringBuilder(text.length());
+        for (String word : SEPARATORS.split(text)) {
+            if (!word.isEmpty()) {
+                if (!key.isEmpty()) {
+                    key.append(' ');
+                }
+                key.append(ABBREVIATIONS.getOrDefault(word, word));
+            }
+        }
+        return key.toString();
+    }
+}
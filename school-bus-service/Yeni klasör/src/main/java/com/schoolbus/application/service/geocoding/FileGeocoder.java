@@ -0,0 +1,72 @@
+package com.schoolbus.application.service.geocoding;
+
+import com.schoolbus.application.service.location.GeoPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Geocoder that looks addresses up in a local file, for tests and for running without a
+ * geocoding service. Each line of the file holds a latitude, a longitude and an address,
+ * separated by commas; the address is the rest of the line and may contain commas itself.
+ * Lines starting with # are comments. Addresses match after normalization.
+ */
+@Component
+@ConditionalOnProperty(name = "schoolbus.geocoding.provider", havingValue = "file", matchIfMissing = true)
+public class FileGeocoder implements Geocoder {
+
+    private static final Logger log = LoggerFactory.getLogger(FileGeocoder.class);
+
+    private final Map<String, GeoPoint> locations = new HashMap<>();
+
+    public FileGeocoder(@Value("${schoolbus.geocoding.file:file:./data/geocoding/addresses.csv}") Resource file) {
+        if (!file.exists()) {
+            log.warn("Geocoding file {} not found; no address will be found", file);
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", 3);
+                try {
+                    locations.put(AddressNormalizer.normalize(fields[2]),
+                            new GeoPoint(Double.parseDouble(fields[0].trim()), Double.parseDouble(fields[1].trim())));
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+                    log.warn("Skipping line {} of geocoding file {}: {}", lineNumber, file, line);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read the geocoding file " + file, ex);
+        }
+        log.info("Loaded {} addresses from geocoding file {}", locations.size(), file);
+    }
+
+    @Override
+    public Map<String, GeoPoint> geocode(List<String> addresses) {
+        Map<String, GeoPoint> found = new HashMap<>();
+        for (String address : addresses) {
+            GeoPoint location = locations.get(AddressNormalizer.normalize(address));
+            if (location != null) {
+                found.put(address, location);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,22 @@
+package com.schoolbus.application.service.geocoding;
+
+import com.schoolbus.application.service.location.GeoPoint;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns addresses into coordinates. The geocoding pipeline calls it with batches of distinct
+ * addresses, from several threads at once up to the configured concurrency, so implementations
+ * must be thread-safe. An address is only sent again if an earlier call failed.
+ */
+public interface Geocoder {
+
+    /**
+     * @param addresses distinct addresses, as entered
+     * @return the location of each address that was found, keyed by the address as given;
+     *         addresses that were not found are left out
+     * @throws RuntimeException if the batch could not be geocoded; none of its addresses is cached
+     */
+    Map<String, GeoPoint> geocode(List<String> addresses);
+}
@@ -0,0 +1,131 @@
+package com.schoolbus.application.service.geocoding;
+
+import com.schoolbus.application.service.location.GeoPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Geocoding results by normalized address, kept in memory and appended to a file so that they
+ * survive restarts. Addresses that were not found are cached too. Each line holds a key, a tab,
+ * and the latitude and longitude separated by a tab, or the key alone for an address not found.
+ * A line cut short by a crash is skipped on load; a key written twice keeps its last result.
+ */
+public final class GeocodingCache implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(GeocodingCache.class);
+
+    private final Map<String, Optional<GeoPoint>> entries = new ConcurrentHashMap<>();
+    // Guards the writer; a lock rather than a monitor, so a virtual thread waiting for it does not pin its carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final BufferedWriter writer;
+
+    /**
+     * Loads the cache file, creating it if it does not exist
+     * @param file the cache file
+     * @throws UncheckedIOException if the file cannot be read or opened for writing
+     */
+    public GeocodingCache(Path file) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            if (Files.exists(file)) {
+                try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+                    lines.forEach(this::loadLine);
+                }
+            }
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open the geocoding cache " + file, ex);
+        }
+        log.info("Loaded {} cached geocoding results from {}", entries.size(), file);
+    }
+
+    /**
+     * @param key a normalized address
+     * @return true if the address has been geocoded, whether or not it was found
+     */
+    public boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * @param key a normalized address
+     * @return the location of the address; empty if it was not found or has not been geocoded
+     */
+    public Optional<GeoPoint> get(String key) {
+        return entries.getOrDefault(key, Optional.empty());
+    }
+
+    /**
+     * Caches results and appends them to the file
+     * @param results the location of each normalized address, empty for an address not found
+     */
+    public void putAll(Map<String, Optional<GeoPoint>> results) {
+        entries.putAll(results);
+        writeLock.lock();
+        try {
+            for (Map.Entry<String, Optional<GeoPoint>> result : results.entrySet()) {
+                writer.write(result.getKey());
+                if (result.getValue().isPresent()) {
+                    GeoPoint location = result.getValue().get();
+                    writer.write("\t" + location.latitude() + "\t" + location.longitude());
+                }
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException ex) {
+            // Still cached in memory; only a restart would geocode these addresses again
+            log.warn("Could not write {} geocoding results to the cache file", results.size(), ex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of cached addresses
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            writer.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void loadLine(String line) {
+        List<String> fields = List.of(line.split("\t", -1));
+        try {
+            if (fields.size() == 1 && !line.isEmpty()) {
+                entries.put(line, Optional.empty());
+            } else if (fields.size() == 3) {
+                entries.put(fields.get(0), Optional.of(
+                        new GeoPoint(Double.parseDouble(fields.get(1)), Double.parseDouble(fields.get(2)))));
+            }
+        } catch (IllegalArgumentException ex) {
+            // A line cut short by a crash; the address is geocoded again when next needed
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.schoolbus.application.service.geocoding;
+
+import com.schoolbus.application.service.StudentService;
+import com.schoolbus.application.service.location.GeoPoint;
+import com.schoolbus.application.service.location.StudentLocationService;
+import com.schoolbus.domain.dto.GeocodingStatusDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.event.StudentBatchChangedEvent;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Geocodes the addresses of students into home locations in the background.
+ * <p>
+ * Students are queued when they are created or their address changes, after the write commits,
+ * and by a backfill of every student without a location. A student queued again before it is
+ * processed is geocoded once, for its latest address. A dispatcher takes the queue in batches of
+ * up to the batch size, waiting up to the batch delay for a batch to fill. Addresses are reduced
+ * by the {@link AddressNormalizer}; each distinct address is looked up in the {@link GeocodingCache},
+ * and the misses of a batch go to the {@link Geocoder} in one call. An address already being
+ * geocoded for an earlier batch is waited for rather than sent again, so an address is geocoded
+ * once, ever, however many students share it. At most the configured number of geocoder calls run
+ * at once; further batches wait for one to finish. The locations found for a batch are written
+ * in one transaction.
+ */
+@Service
+public class GeocodingService {
+
+    private static final Logger log = LoggerFactory.getLogger(GeocodingService.class);
+
+    static final String CACHE_METRIC = "students.geocoding.cache";
+    static final String ADDRESSES_METRIC = "students.geocoding.addresses";
+    static final String CALLS_METRIC = "students.geocoding.calls";
+    static final String LOCATED_METRIC = "students.geocoding.located";
+    static final String QUEUE_METRIC = "students.geocoding.queue";
+
+    private final StudentService studentService;
+    private final StudentLocationService studentLocationService;
+    private final Geocoder geocoder;
+    private final GeocodingCache cache;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration batchDelay;
+    private final Semaphore calls;
+    private final ExecutorService executor;
+    private final Thread dispatcher;
+
+    // Guarded by lock: students waiting to be geocoded, with the address to geocode
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queued = lock.newCondition();
+    private final Map<Long, String> pending = new LinkedHashMap<>();
+    private boolean running = true;
+
+    // Addresses sent to the geocoder and not answered yet, by normalized address
+    private final Map<String, CompletableFuture<Optional<GeoPoint>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger batchesInProgress = new AtomicInteger();
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter addressesFound;
+    private final Counter addressesNotFound;
+    private final Counter addressesFailed;
+    private final Counter studentsLocated;
+    private final Timer callTimer;
+
+    public GeocodingService(StudentService studentService,
+                            StudentLocationService studentLocationService,
+                            Geocoder geocoder,
+                            MeterRegistry meterRegistry,
+                            @Value("${schoolbus.geocoding.enabled:false}") boolean enabled,
+                            @Value("${schoolbus.geocoding.cache-file:./data/geocoding/cache.tsv}") Path cacheFile,
+                            @Value("${schoolbus.geocoding.batch-size:50}") int batchSize,
+                            @Value("${schoolbus.geocoding.batch-delay:200ms}") Duration batchDelay,
+                            @Value("${schoolbus.geocoding.max-concurrency:4}") int maxConcurrency) {
+        if (batchSize < 1 || maxConcurrency < 1) {
+            throw new IllegalArgumentException("Geocoding batch size and concurrency must be at least 1");
+        }
+        this.studentService = studentService;
+        this.studentLocationService = studentLocationService;
+        this.geocoder = geocoder;
+        this.enabled = enabled;
+        this.cache = enabled ? new GeocodingCache(cacheFile) : null;
+        this.batchSize = batchSize;
+        this.batchDelay = batchDelay;
+        this.calls = new Semaphore(maxConcurrency);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("geocoding-", 0).factory());
+
+        this.cacheHits = Counter.builder(CACHE_METRIC)
+                .description("Distinct addresses per batch by geocoding cache result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder(CACHE_METRIC)
+                .description("Distinct addresses per batch by geocoding cache result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.addressesFound = Counter.builder(ADDRESSES_METRIC)
+                .description("Addresses sent to the geocoder by outcome")
+                .tag("outcome", "found")
+                .register(meterRegistry);
+        this.addressesNotFound = Counter.builder(ADDRESSES_METRIC)
+                .description("Addresses sent to the geocoder by outcome")
+                .tag("outcome", "not_found")
+                .register(meterRegistry);
+        this.addressesFailed = Counter.builder(ADDRESSES_METRIC)
+                .description("Addresses sent to the geocoder by outcome")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.studentsLocated = Counter.builder(LOCATED_METRIC)
+                .description("Students whose home location was set from their address")
+                .register(meterRegistry);
+        this.callTimer = Timer.builder(CALLS_METRIC)
+                .description("Duration of geocoder calls, one per batch of addresses")
+                .register(meterRegistry);
+        Gauge.builder(QUEUE_METRIC, this, GeocodingService::getQueued)
+             .description("Students waiting to be geocoded")
+             .register(meterRegistry);
+
+        this.dispatcher = enabled ? Thread.ofVirtual().name("geocoding-dispatcher").start(this::dispatch) : null;
+    }
+
+    /**
+     * Queues a student to be geocoded; a student already queued is geocoded for the given address
+     * @param id the database ID of the student
+     * @param address the address to geocode
+     */
+    public void enqueue(Long id, String address) {
+        if (!enabled || id == null || address == null || address.isBlank()) {
+            return;
+        }
+        lock.lock();
+        try {
+            pending.remove(id);
+            pending.put(id, address);
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues every student without a home location, in the background
+     * @return the status of the pipeline
+     * @throws IllegalStateException if geocoding is not enabled
+     */
+    public GeocodingStatusDto startBackfill() {
+        if (!enabled) {
+            throw new IllegalStateException("Geocoding is not enabled; set schoolbus.geocoding.enabled");
+        }
+        if (backfillRunning.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    Set<Long> located = studentLocationService.getAllLocations().keySet();
+                    long queuedStudents = studentService.exportAllStudents(student -> {
+                        if (!located.contains(student.getId())) {
+                            enqueue(student.getId(), student.getAddress());
+                        }
+                    });
+                    log.info("Geocoding backfill scanned {} students", queuedStudents);
+                } catch (RuntimeException ex) {
+                    log.error("Geocoding backfill failed", ex);
+                } finally {
+                    backfillRunning.set(false);
+                }
+            });
+        }
+        return getStatus();
+    }
+
+    /**
+     * @return the status of the pipeline
+     */
+    public GeocodingStatusDto getStatus() {
+        GeocodingStatusDto status = new GeocodingStatusDto();
+        status.setEnabled(enabled);
+        status.setQueued(getQueued());
+        status.setBatchesInProgress(batchesInProgress.get());
+        status.setBackfillRunning(backfillRunning.get());
+        status.setCacheSize(cache != null ? cache.size() : 0);
+        status.setCacheHits((long) cacheHits.count());
+        status.setCacheMisses((long) cacheMisses.count());
+        status.setAddressesFound((long) addressesFound.count());
+        status.setAddressesNotFound((long) addressesNotFound.count());
+        status.setAddressesFailed((long) addressesFailed.count());
+        status.setStudentsLocated((long) studentsLocated.count());
+        return status;
+    }
+
+    /**
+     * @return true if no student is queued or being geocoded
+     */
+    public boolean isIdle() {
+        return getQueued() == 0 && batchesInProgress.get() == 0 && !backfillRunning.get();
+    }
+
+    /**
+     * Queues students that were created or whose address changed, once the write has committed
+     * @param event the change published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        StudentDto before = event.getBefore();
+        StudentDto after = event.getAfter();
+        if (after != null && (before == null || !Objects.equals(before.getAddress(), after.getAddress()))) {
+            enqueue(after.getId(), after.getAddress());
+        }
+    }
+
+    /**
+     * Queues every student of a set-based write that was created or whose address changed
+     * @param event the changes published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentBatchChangedEvent event) {
+        event.getChanges().forEach(this::onStudentChanged);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        lock.lock();
+        try {
+            running = false;
+            queued.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        executor.shutdown();
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    private int getQueued() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            Map<Long, String> batch;
+            try {
+                batch = takeBatch();
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                process(batch);
+            } catch (InterruptedException ex) {
+                batchesInProgress.decrementAndGet();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Could not geocode a batch of {} students", batch.size(), ex);
+                batchesInProgress.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Waits for queued students, then up to the batch delay for a full batch
+     * @return up to a batch of students in the order they were queued; empty once shut down
+     */
+    private Map<Long, String> takeBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending.isEmpty() && running) {
+                queued.await();
+            }
+            long remaining = batchDelay.toNanos();
+            while (pending.size() < batchSize && remaining > 0 && running) {
+                remaining = queued.awaitNanos(remaining);
+            }
+            if (!running) {
+                return Map.of();
+            }
+
+            Map<Long, String> batch = new LinkedHashMap<>();
+            Iterator<Map.Entry<Long, String>> students = pending.entrySet().iterator();
+            while (students.hasNext() && batch.size() < batchSize) {
+                Map.Entry<Long, String> student = students.next();
+                batch.put(student.getKey(), student.getValue());
+                students.remove();
+            }
+            // Counted before the students leave the queue, so the pipeline never looks idle in between
+            batchesInProgress.incrementAndGet();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void process(Map<Long, String> batch) throws InterruptedException {
+        Map<String, List<Long>> studentsByKey = new LinkedHashMap<>();
+        Map<String, String> addressByKey = new HashMap<>();
+        for (Map.Entry<Long, String> student : batch.entrySet()) {
+            String key = AddressNormalizer.normalize(student.getValue());
+            studentsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(student.getKey());
+            addressByKey.putIfAbsent(key, student.getValue());
+        }
+
+        Map<Long, GeoPoint> located = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> lookups = new ArrayList<>();
+        List<String> toGeocode = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> address : studentsByKey.entrySet()) {
+            String key = address.getKey();
+            List<Long> ids = address.getValue();
+            if (cache.contains(key)) {
+                cacheHits.increment();
+                cache.get(key).ifPresent(location -> ids.forEach(id -> located.put(id, location)));
+                continue;
+            }
+            cacheMisses.increment();
+            CompletableFuture<Optional<GeoPoint>> lookup = new CompletableFuture<>();
+            CompletableFuture<Optional<GeoPoint>> earlier = inFlight.putIfAbsent(key, lookup);
+            if (earlier != null) {
+                lookup = earlier;
+            } else if (cache.contains(key)) {
+                // Answered between the cache check and claiming the address
+                inFlight.remove(key);
+                lookup.complete(cache.get(key));
+            } else {
+                toGeocode.add(key);
+            }
+            lookups.add(lookup.thenAccept(result -> result.ifPresent(
+                    location -> ids.forEach(id -> located.put(id, location)))));
+        }
+
+        if (!toGeocode.isEmpty()) {
+            // Waits here while the geocoder is busy, so the queue rather than memory absorbs a backlog
+            calls.acquire();
+            executor.execute(() -> {
+                try {
+                    geocode(toGeocode, addressByKey);
+                } finally {
+                    calls.release();
+                }
+            });
+        }
+
+        CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new))
+                .whenCompleteAsync((ignored, failure) -> {
+                    try {
+                        if (!located.isEmpty()) {
+                            studentsLocated.increment(studentLocationService.setLocations(located, batch));
+                        }
+                    } catch (RuntimeException ex) {
+                        log.error("Could not store the locations of {} students", located.size(), ex);
+                    } finally {
+                        batchesInProgress.decrementAndGet();
+                    }
+                }, executor);
+    }
+
+    private void geocode(List<String> keys, Map<String, String> addressByKey) {
+        List<String> addresses = keys.stream().map(addressByKey::get).toList();
+        Map<String, GeoPoint> found;
+        try {
+            found = callTimer.recordCallable(() -> geocoder.geocode(addresses));
+        } catch (Exception ex) {
+            log.warn("Geocoding {} addresses failed; they are retried when next queued", keys.size(), ex);
+            addressesFailed.increment(keys.size());
+            keys.forEach(key -> inFlight.remove(key).completeExceptionally(ex));
+            return;
+        }
+
+        Map<String, Optional<GeoPoint>> results = new HashMap<>();
+        for (String key : keys) {
+            Optional<GeoPoint> location = Optional.ofNullable(found.get(addressByKey.get(key)));
+            (location.isPresent() ? addressesFound : addressesNotFound).increment();
+            results.put(key, location);
+        }
+        cache.putAll(results);
+        results.forEach((key, location) -> inFlight.remove(key).complete(location));
+    }
+}
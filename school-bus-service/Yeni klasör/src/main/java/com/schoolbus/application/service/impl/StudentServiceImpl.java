@@ -1,15 +1,51 @@
 package com.schoolbus.application.service.impl;
 
 import com.schoolbus.application.service.StudentService;
+import com.schoolbus.application.service.aggregate.StudentAggregateStore;
+import com.schoolbus.application.service.cache.StudentLookupCache;
+import com.schoolbus.application.service.pagination.PageCursor;
+import com.schoolbus.application.service.roster.RouteRosterStore;
+import com.schoolbus.application.service.search.StudentNameIndex;
+import com.schoolbus.domain.dto.BulkBusRouteAssignmentDto;
+import com.schoolbus.domain.dto.CursorPageDto;
+import com.schoolbus.domain.dto.RouteRosterDto;
 import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentField;
+import com.schoolbus.domain.dto.StudentPatchDto;
 import com.schoolbus.domain.entity.Student;
+import com.schoolbus.domain.event.StudentBatchChangedEvent;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import com.schoolbus.infrastructure.datasource.ReadFromPrimary;
 import com.schoolbus.infrastructure.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of StudentService interface.
@@ -17,13 +53,64 @@ import java.util.stream.Collectors;
  */
 @Service
 @Transactional
+@Timed(value = "students.service", description = "Student service method latency", histogram = true)
 public class StudentServiceImpl implements StudentService {
     
+    // Sort keys that order before every stored value, used to start a keyset listing
+    private static final String FIRST_NAME_START = "";
+    private static final String PICKUP_TIME_START = LocalTime.MIN.toString();
+    
+    // Rows per flush of a bulk create, and student IDs per duplicate-check query
+    private static final int BATCH_CHUNK_SIZE = 500;
+    
+    // Primary keys per query when loading search results
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    
+    // Student IDs a bulk assignment may select, and per UPDATE of one selected by a filter
+    private static final int BULK_ASSIGNMENT_MAX_IDS = 1000;
+    
+    // Fields a patch may change but not clear
+    private static final List<String> REQUIRED_FIELDS = List.of(
+            "firstName", "lastName", "studentId", "age", "grade", "address", "parentContact");
+    
+    private static final String CONVERSIONS_METRIC = "students.dto.conversions";
+    
     private final StudentRepository studentRepository;
+    private final EntityManager entityManager;
+    private final StudentLookupCache studentLookupCache;
+    private final StudentNameIndex studentNameIndex;
+    private final RouteRosterStore routeRosterStore;
+    private final StudentAggregateStore studentAggregateStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter toDtoConversions;
+    private final Counter toEntityConversions;
+    private final Counter entityUpdates;
+    private final int defaultPageSize;
+    private final int maxPageSize;
     
     @Autowired
-    public StudentServiceImpl(StudentRepository studentRepository) {
+    public StudentServiceImpl(StudentRepository studentRepository,
+                              EntityManager entityManager,
+                              StudentLookupCache studentLookupCache,
+                              StudentNameIndex studentNameIndex,
+                              RouteRosterStore routeRosterStore,
+                              StudentAggregateStore studentAggregateStore,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${schoolbus.pagination.default-page-size:50}") int defaultPageSize,
+                              @Value("${schoolbus.pagination.max-page-size:500}") int maxPageSize) {
         this.studentRepository = studentRepository;
+        this.entityManager = entityManager;
+        this.studentLookupCache = studentLookupCache;
+        this.studentNameIndex = studentNameIndex;
+        this.routeRosterStore = routeRosterStore;
+        this.studentAggregateStore = studentAggregateStore;
+        this.eventPublisher = eventPublisher;
+        this.toDtoConversions = conversionCounter(meterRegistry, "to_dto");
+        this.toEntityConversions = conversionCounter(meterRegistry, "to_entity");
+        this.entityUpdates = conversionCounter(meterRegistry, "update_entity");
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
     
     @Override
@@ -43,32 +130,202 @@ public class StudentServiceImpl implements StudentService {
         Student savedStudent = studentRepository.save(student);
         
         // Convert back to DTO and return
-        return convertToDto(savedStudent);
+        StudentDto createdStudent = convertToDto(savedStudent);
+        eventPublisher.publishEvent(StudentChangedEvent.created(createdStudent));
+        return createdStudent;
+    }
+    
+    @Override
+    public List<StudentDto> createStudents(List<StudentDto> studentDtos) {
+        if (studentDtos == null || studentDtos.isEmpty()) {
+            throw new IllegalArgumentException("Student batch cannot be empty");
+        }
+        
+        // Validate every student and reject student IDs repeated within the batch
+        Set<String> studentIds = new LinkedHashSet<>();
+        Set<String> repeatedIds = new LinkedHashSet<>();
+        for (StudentDto studentDto : studentDtos) {
+            validateStudentData(studentDto);
+            if (!studentIds.add(studentDto.getStudentId())) {
+                repeatedIds.add(studentDto.getStudentId());
+            }
+        }
+        if (!repeatedIds.isEmpty()) {
+            throw new IllegalArgumentException("Student IDs repeated within the batch: " + repeatedIds);
+        }
+        
+        // Check for existing student IDs with one query per chunk instead of one per student
+        List<String> uniqueIds = new ArrayList<>(studentIds);
+        List<String> existingIds = new ArrayList<>();
+        for (int from = 0; from < uniqueIds.size(); from += BATCH_CHUNK_SIZE) {
+            List<String> chunk = uniqueIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, uniqueIds.size()));
+            existingIds.addAll(studentRepository.findExistingStudentIds(chunk));
+        }
+        if (!existingIds.isEmpty()) {
+            throw new IllegalArgumentException("Students with IDs " + existingIds + " already exist");
+        }
+        
+        List<StudentDto> createdStudents = new ArrayList<>(studentDtos.size());
+        for (int from = 0; from < studentDtos.size(); from += BATCH_CHUNK_SIZE) {
+            List<Student> students = studentDtos.subList(from, Math.min(from + BATCH_CHUNK_SIZE, studentDtos.size()))
+                    .stream()
+                    .map(this::convertToEntity)
+                    .collect(Collectors.toList());
+            
+            for (Student savedStudent : studentRepository.saveAll(students)) {
+                StudentDto createdStudent = convertToDto(savedStudent);
+                eventPublisher.publishEvent(StudentChangedEvent.created(createdStudent));
+                createdStudents.add(createdStudent);
+            }
+            
+            // Send the chunk as JDBC batches and release it from the persistence context
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return createdStudents;
+    }
+    
+    @Override
+    public Map<Integer, String> importStudents(List<StudentDto> studentDtos) {
+        // Student IDs taken in the database, then also those of earlier students in the list
+        Set<String> takenIds = new HashSet<>();
+        List<String> studentIds = studentDtos.stream()
+                .map(StudentDto::getStudentId)
+                .distinct()
+                .collect(Collectors.toList());
+        for (int from = 0; from < studentIds.size(); from += BATCH_CHUNK_SIZE) {
+            takenIds.addAll(studentRepository.findExistingStudentIds(
+                    studentIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, studentIds.size()))));
+        }
+        
+        Map<Integer, String> skipped = new HashMap<>();
+        List<Student> students = new ArrayList<>(studentDtos.size());
+        for (int i = 0; i < studentDtos.size(); i++) {
+            StudentDto studentDto = studentDtos.get(i);
+            if (!takenIds.add(studentDto.getStudentId())) {
+                skipped.put(i, "Student with ID '" + studentDto.getStudentId() + "' already exists");
+            } else {
+                students.add(convertToEntity(studentDto));
+            }
+        }
+        
+        List<StudentChangedEvent> changes = new ArrayList<>(students.size());
+        for (int from = 0; from < students.size(); from += BATCH_CHUNK_SIZE) {
+            for (Student savedStudent : studentRepository.saveAll(
+                    students.subList(from, Math.min(from + BATCH_CHUNK_SIZE, students.size())))) {
+                changes.add(StudentChangedEvent.created(convertToDto(savedStudent)));
+            }
+            
+            // Send the chunk as JDBC batches and release it from the persistence context
+            entityManager.flush();
+            entityManager.clear();
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new StudentBatchChangedEvent(changes));
+        }
+        return skipped;
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> getAllStudents() {
-        List<Student> students = studentRepository.findAllByOrderByFirstNameAsc();
-        return students.stream()
-                      .map(this::convertToDto)
-                      .collect(Collectors.toList());
+        return getAllStudents(StudentField.ALL);
     }
     
     @Override
     @Transactional(readOnly = true)
+    public List<StudentDto> getAllStudents(Set<StudentField> fields) {
+        if (fields.equals(StudentField.ALL)) {
+            return studentRepository.findAllByOrderByFirstNameAsc();
+        }
+        return studentRepository.findFields(fields, StudentRepository.ALL_FILTER, Map.of(), Limit.unlimited());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> getAllStudents(String cursor, Integer size) {
+        return getAllStudents(cursor, size, StudentField.ALL);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> getAllStudents(String cursor, Integer size, Set<StudentField> fields) {
+        int pageSize = resolvePageSize(size);
+        PageCursor position = PageCursor.decode(cursor, FIRST_NAME_START);
+        Limit limit = Limit.of(pageSize + 1);
+        
+        List<StudentDto> students = fields.equals(StudentField.ALL)
+                ? studentRepository.findPageAfter(position.getKey(), position.getId(), limit)
+                : studentRepository.findFields(withSortKey(fields, StudentField.FIRST_NAME),
+                        StudentRepository.PAGE_AFTER_FILTER,
+                        Map.of("firstName", position.getKey(), "id", position.getId()), limit);
+        return toPage(students, pageSize, StudentDto::getFirstName);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAllStudents(Consumer<StudentDto> consumer) {
+        return exportAllStudents(StudentField.ALL, consumer);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAllStudents(Set<StudentField> fields, Consumer<StudentDto> consumer) {
+        long exported = 0;
+        if (!fields.equals(StudentField.ALL)) {
+            // Only the requested columns are read, into DTOs the persistence context never holds
+            try (Stream<StudentDto> students = studentRepository.streamFields(fields,
+                    StudentRepository.EXPORT_FILTER, Map.of())) {
+                for (StudentDto student : (Iterable<StudentDto>) students::iterator) {
+                    consumer.accept(student);
+                    exported++;
+                }
+            }
+            return exported;
+        }
+        try (Stream<Student> students = studentRepository.streamAllByOrderByIdAsc()) {
+            for (Student student : (Iterable<Student>) students::iterator) {
+                consumer.accept(convertToDto(student));
+                // Detach each row once written so the persistence context stays empty
+                entityManager.detach(student);
+                exported++;
+            }
+        }
+        return exported;
+    }
+    
+    // Single lookups join an existing transaction but never start one, so a cache hit
+    // does not check out a database connection; a miss runs in the repository's own transaction.
+    // Misses read from the primary, so the cache never keeps a row a replica has not caught up with.
+    @Override
+    @ReadFromPrimary
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public StudentDto getStudentById(Long id) {
-        Student student = studentRepository.findById(id)
+        return studentLookupCache.getById(id, key -> studentRepository.findById(key)
+                        .map(this::convertToDto)
+                        .orElse(null))
                 .orElseThrow(() -> new RuntimeException("Student not found with ID: " + id));
-        return convertToDto(student);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<LocalDateTime> getStudentUpdatedAt(Long id) {
+        Optional<StudentDto> cached = studentLookupCache.getIfPresentById(id);
+        if (cached.isPresent()) {
+            return Optional.ofNullable(cached.get().getUpdatedAt());
+        }
+        return studentRepository.findUpdatedAtById(id);
+    }
+    
+    @Override
+    @ReadFromPrimary
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public StudentDto getStudentByStudentId(String studentId) {
-        Student student = studentRepository.findByStudentId(studentId)
+        return studentLookupCache.getByStudentId(studentId, key -> studentRepository.findByStudentId(key)
+                        .map(this::convertToDto)
+                        .orElse(null))
                 .orElseThrow(() -> new RuntimeException("Student not found with Student ID: " + studentId));
-        return convertToDto(student);
     }
     
     @Override
@@ -76,9 +333,10 @@ public class StudentServiceImpl implements StudentService {
         // Validate student data
         validateStudentData(studentDto);
         
-        // Find existing student
-        Student existingStudent = studentRepository.findById(id)
+        // Find and lock the existing student; its row is the before-image of the change
+        Student existingStudent = studentRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with ID: " + id));
+        StudentDto previousStudent = convertToDto(existingStudent);
         
         // Check for student ID conflicts (only if student ID is being changed)
         if (!existingStudent.getStudentId().equals(studentDto.getStudentId())) {
@@ -90,130 +348,475 @@ public class StudentServiceImpl implements StudentService {
         // Update entity fields
         updateEntityFromDto(existingStudent, studentDto);
         
-        // Save the updated student
-        Student updatedStudent = studentRepository.save(existingStudent);
+        // Save the updated student, flushing so the update time written under the lock is in the event
+        Student updatedStudent = studentRepository.saveAndFlush(existingStudent);
         
         // Convert back to DTO and return
-        return convertToDto(updatedStudent);
+        StudentDto updatedStudentDto = convertToDto(updatedStudent);
+        eventPublisher.publishEvent(StudentChangedEvent.updated(previousStudent, updatedStudentDto));
+        return updatedStudentDto;
     }
     
     @Override
-    public void deleteStudent(Long id) {
-        if (!studentRepository.existsById(id)) {
-            throw new RuntimeException("Student not found with ID: " + id);
+    public StudentDto patchStudent(Long id, StudentPatchDto patch) {
+        validatePatch(patch);
+        
+        // One statement writes only the patched columns that change and returns the row it replaced, the
+        // before-image every derived read model needs. A student ID that is already taken is rejected
+        // by the unique constraint rather than by an extra existence query.
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Student> previous = studentRepository.patchById(id, patch, now);
+        if (previous.isEmpty()) {
+            // No such student, or the patch changes nothing; only now is the row read
+            return studentRepository.findById(id)
+                    .map(this::convertToDto)
+                    .orElseThrow(() -> new RuntimeException("Student not found with ID: " + id));
         }
-        studentRepository.deleteById(id);
+        
+        Student student = previous.get();
+        StudentDto previousStudent = convertToDto(student);
+        applyPatch(student, patch);
+        student.setUpdatedAt(Student.updatedAfter(previousStudent.getUpdatedAt(), now));
+        
+        StudentDto updatedStudentDto = convertToDto(student);
+        eventPublisher.publishEvent(StudentChangedEvent.updated(previousStudent, updatedStudentDto));
+        return updatedStudentDto;
+    }
+    
+    @Override
+    public StudentDto upsertStudent(String studentId, StudentDto studentDto) {
+        if (studentDto.getStudentId() == null) {
+            studentDto.setStudentId(studentId);
+        } else if (!studentDto.getStudentId().equals(studentId)) {
+            throw new IllegalArgumentException("Student ID '" + studentDto.getStudentId()
+                    + "' in the body does not match '" + studentId + "' in the path");
+        }
+        validateStudentData(studentDto);
+        
+        // One statement inserts or updates; the unique constraint settles concurrent upserts
+        Student student = convertToEntity(studentDto);
+        Optional<Student> previous = studentRepository.upsertByStudentId(student);
+        
+        StudentDto upsertedStudent = convertToDto(student);
+        eventPublisher.publishEvent(previous
+                .map(row -> StudentChangedEvent.updated(convertToDto(row), upsertedStudent))
+                .orElseGet(() -> StudentChangedEvent.created(upsertedStudent)));
+        return upsertedStudent;
+    }
+    
+    @Override
+    public void deleteStudent(Long id) {
+        // Load and lock the student rather than only checking existence: listeners of the
+        // change event need its last state, e.g. the student ID keying the lookup cache
+        Student student = studentRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Student not found with ID: " + id));
+        studentRepository.delete(student);
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(convertToDto(student)));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> getStudentsByGrade(String grade) {
-        List<Student> students = studentRepository.findByGradeOrderByFirstNameAsc(grade);
-        return students.stream()
-                      .map(this::convertToDto)
-                      .collect(Collectors.toList());
+        return getStudentsByGrade(grade, StudentField.ALL);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentDto> getStudentsByGrade(String grade, Set<StudentField> fields) {
+        if (fields.equals(StudentField.ALL)) {
+            return studentRepository.findByGradeOrderByFirstNameAsc(grade);
+        }
+        return studentRepository.findFields(fields, StudentRepository.GRADE_FILTER,
+                Map.of("grade", grade), Limit.unlimited());
     }
     
     @Override
     @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> getStudentsByGrade(String grade, String cursor, Integer size) {
+        return getStudentsByGrade(grade, cursor, size, StudentField.ALL);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> getStudentsByGrade(String grade, String cursor, Integer size,
+                                                        Set<StudentField> fields) {
+        int pageSize = resolvePageSize(size);
+        PageCursor position = PageCursor.decode(cursor, FIRST_NAME_START);
+        Limit limit = Limit.of(pageSize + 1);
+        
+        List<StudentDto> students = fields.equals(StudentField.ALL)
+                ? studentRepository.findByGradePageAfter(grade, position.getKey(), position.getId(), limit)
+                : studentRepository.findFields(withSortKey(fields, StudentField.FIRST_NAME),
+                        StudentRepository.GRADE_PAGE_AFTER_FILTER,
+                        Map.of("grade", grade, "firstName", position.getKey(), "id", position.getId()), limit);
+        return toPage(students, pageSize, StudentDto::getFirstName);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<StudentDto> getStudentsByBusRoute(String busRoute) {
-        List<Student> students = studentRepository.findByBusRouteOrderByPickupTimeAsc(busRoute);
-        return students.stream()
-                      .map(this::convertToDto)
-                      .collect(Collectors.toList());
+        return getBusRouteRoster(busRoute).getStudents();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public RouteRosterDto getBusRouteRoster(String busRoute) {
+        if (routeRosterStore.isReady()) {
+            return routeRosterStore.getRoster(busRoute);
+        }
+        
+        // The rosters are still loading; read the route from the database meanwhile
+        List<StudentDto> students = new ArrayList<>(studentRepository.findByBusRouteOrderByPickupTimeAsc(busRoute));
+        students.sort(RouteRosterStore.PICKUP_ORDER);
+        return new RouteRosterDto(busRoute, 0L, students);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public OptionalLong getBusRouteRosterVersion(String busRoute) {
+        // Until the rosters are loaded every route reports version 0, whatever its students
+        return routeRosterStore.isReady()
+                ? OptionalLong.of(routeRosterStore.getVersion(busRoute))
+                : OptionalLong.empty();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDto<StudentDto> getStudentsByBusRoute(String busRoute, String cursor, Integer size) {
+        return getStudentsByBusRoute(busRoute, cursor, size, StudentField.ALL);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDto<StudentDto> getStudentsByBusRoute(String busRoute, String cursor, Integer size,
+                                                           Set<StudentField> fields) {
+        int pageSize = resolvePageSize(size);
+        PageCursor position = PageCursor.decode(cursor, PICKUP_TIME_START);
+        
+        if (routeRosterStore.isReady()) {
+            List<StudentDto> students = routeRosterStore.getStudentsAfter(
+                    busRoute, position.getKeyAsTime(), position.getId(), pageSize + 1);
+            boolean hasNext = students.size() > pageSize;
+            List<StudentDto> items = hasNext ? students.subList(0, pageSize) : students;
+            
+            String nextCursor = null;
+            if (hasNext) {
+                StudentDto last = items.get(items.size() - 1);
+                nextCursor = new PageCursor(timeKey(last.getPickupTime()), last.getId()).encode();
+            }
+            return new CursorPageDto<>(items, nextCursor);
+        }
+        
+        // Students with a pickup time come first; once they are exhausted the listing
+        // continues with the students on the route that have no pickup time yet
+        List<StudentDto> students = new ArrayList<>(pageSize + 1);
+        Set<StudentField> selected = withSortKey(fields, StudentField.PICKUP_TIME);
+        long lastId = position.getId();
+        if (position.getKey() != null) {
+            Limit limit = Limit.of(pageSize + 1);
+            students.addAll(fields.equals(StudentField.ALL)
+                    ? studentRepository.findByBusRoutePageAfter(
+                            busRoute, position.getKeyAsTime(), position.getId(), limit)
+                    : studentRepository.findFields(selected, StudentRepository.BUS_ROUTE_PAGE_AFTER_FILTER,
+                            Map.of("busRoute", busRoute, "pickupTime", position.getKeyAsTime(), "id", position.getId()),
+                            limit));
+            lastId = 0L;
+        }
+        if (students.size() <= pageSize) {
+            Limit limit = Limit.of(pageSize + 1 - students.size());
+            students.addAll(fields.equals(StudentField.ALL)
+                    ? studentRepository.findByBusRouteWithoutPickupTimePageAfter(busRoute, lastId, limit)
+                    : studentRepository.findFields(selected,
+                            StudentRepository.BUS_ROUTE_WITHOUT_PICKUP_TIME_PAGE_AFTER_FILTER,
+                            Map.of("busRoute", busRoute, "id", lastId), limit));
+        }
+        return toPage(students, pageSize, student -> timeKey(student.getPickupTime()));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> searchStudentsByName(String name) {
+        return searchStudentsByName(name, null);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentDto> searchStudentsByName(String name, Integer limit) {
+        return searchStudentsByName(name, limit, StudentField.ALL);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentDto> searchStudentsByName(String name, Integer limit, Set<StudentField> fields) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        int maxResults = limit == null ? Integer.MAX_VALUE : limit;
+        Limit rowLimit = limit == null ? Limit.unlimited() : Limit.of(limit);
+        
         if (name == null || name.trim().isEmpty()) {
-            return getAllStudents();
+            // The first page of the full listing, so the database stops at the limit
+            PageCursor start = PageCursor.decode(null, FIRST_NAME_START);
+            if (fields.equals(StudentField.ALL)) {
+                return studentRepository.findPageAfter(start.getKey(), start.getId(), rowLimit);
+            }
+            return studentRepository.findFields(fields, StudentRepository.PAGE_AFTER_FILTER,
+                    Map.of("firstName", start.getKey(), "id", start.getId()), rowLimit);
         }
         
-        List<Student> students = studentRepository.searchByName(name.trim());
-        return students.stream()
-                      .map(this::convertToDto)
-                      .collect(Collectors.toList());
+        String query = name.trim();
+        if (studentNameIndex.isReady()) {
+            return findAllInOrder(studentNameIndex.search(query, maxResults), query, fields);
+        }
+        // The index is still loading; answer with the scanning query meanwhile
+        if (!fields.equals(StudentField.ALL)) {
+            return studentRepository.findFields(fields, StudentRepository.NAME_SEARCH_FILTER,
+                    Map.of("name", query), rowLimit);
+        }
+        return studentRepository.searchByName(query, rowLimit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> searchStudentsByName(String name, String cursor, Integer size) {
+        return searchStudentsByName(name, cursor, size, StudentField.ALL);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> searchStudentsByName(String name, String cursor, Integer size,
+                                                          Set<StudentField> fields) {
+        if (name == null || name.trim().isEmpty()) {
+            return getAllStudents(cursor, size, fields);
+        }
+        
+        int pageSize = resolvePageSize(size);
+        PageCursor position = PageCursor.decode(cursor, FIRST_NAME_START);
+        String query = name.trim();
+        
+        List<StudentDto> students;
+        if (studentNameIndex.isReady()) {
+            List<Long> ids = studentNameIndex.searchAfter(
+                    query, position.getKey(), position.getId(), pageSize + 1);
+            students = findAllInOrder(ids, query, fields);
+        } else if (fields.equals(StudentField.ALL)) {
+            students = studentRepository.searchByNamePageAfter(
+                    query, position.getKey(), position.getId(), Limit.of(pageSize + 1));
+        } else {
+            students = studentRepository.findFields(withSortKey(fields, StudentField.FIRST_NAME),
+                    StudentRepository.NAME_SEARCH_PAGE_AFTER_FILTER,
+                    Map.of("name", query, "firstName", position.getKey(), "id", position.getId()),
+                    Limit.of(pageSize + 1));
+        }
+        return toPage(students, pageSize, StudentDto::getFirstName);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> getStudentsByAgeRange(Integer minAge, Integer maxAge) {
-        if (minAge == null || maxAge == null) {
-            throw new IllegalArgumentException("Both minAge and maxAge must be provided");
+        return getStudentsByAgeRange(minAge, maxAge, StudentField.ALL);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentDto> getStudentsByAgeRange(Integer minAge, Integer maxAge, Set<StudentField> fields) {
+        validateAgeRange(minAge, maxAge);
+        
+        if (fields.equals(StudentField.ALL)) {
+            return studentRepository.findByAgeBetweenOrderByAgeAsc(minAge, maxAge);
         }
+        return studentRepository.findFields(fields, StudentRepository.AGE_RANGE_FILTER,
+                Map.of("minAge", minAge, "maxAge", maxAge), Limit.unlimited());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> getStudentsByAgeRange(Integer minAge, Integer maxAge, String cursor, Integer size) {
+        return getStudentsByAgeRange(minAge, maxAge, cursor, size, StudentField.ALL);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> getStudentsByAgeRange(Integer minAge, Integer maxAge, String cursor, Integer size,
+                                                           Set<StudentField> fields) {
+        validateAgeRange(minAge, maxAge);
         
-        if (minAge > maxAge) {
-            throw new IllegalArgumentException("minAge cannot be greater than maxAge");
+        int pageSize = resolvePageSize(size);
+        PageCursor position = PageCursor.decode(cursor, String.valueOf(minAge));
+        Limit limit = Limit.of(pageSize + 1);
+        
+        List<StudentDto> students = fields.equals(StudentField.ALL)
+                ? studentRepository.findByAgeRangePageAfter(
+                        minAge, maxAge, position.getKeyAsInt(), position.getId(), limit)
+                : studentRepository.findFields(withSortKey(fields, StudentField.AGE),
+                        StudentRepository.AGE_RANGE_PAGE_AFTER_FILTER,
+                        Map.of("minAge", minAge, "maxAge", maxAge, "age", position.getKeyAsInt(),
+                                "id", position.getId()), limit);
+        return toPage(students, pageSize, student -> String.valueOf(student.getAge()));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> getStudentsByPickupWindow(LocalTime from, LocalTime to, String busRoute,
+                                                               String cursor, Integer size) {
+        return getStudentsByPickupWindow(from, to, busRoute, cursor, size, StudentField.ALL);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<StudentDto> getStudentsByPickupWindow(LocalTime from, LocalTime to, String busRoute,
+                                                               String cursor, Integer size, Set<StudentField> fields) {
+        validatePickupWindow(from, to);
+        
+        int pageSize = resolvePageSize(size);
+        PageCursor position = PageCursor.decode(cursor, from.toString());
+        LocalTime afterPickupTime = position.getKeyAsTime();
+        long afterId = position.getId();
+        if (afterPickupTime == null || afterPickupTime.isBefore(from)) {
+            afterPickupTime = from;
+            afterId = 0L;
         }
         
-        List<Student> students = studentRepository.findByAgeBetweenOrderByAgeAsc(minAge, maxAge);
-        return students.stream()
-                      .map(this::convertToDto)
-                      .collect(Collectors.toList());
+        Limit limit = Limit.of(pageSize + 1);
+        boolean everyRoute = busRoute == null || busRoute.trim().isEmpty();
+        
+        List<StudentDto> students;
+        if (!fields.equals(StudentField.ALL)) {
+            Map<String, Object> parameters = new HashMap<>(Map.of("pickupTime", afterPickupTime, "id", afterId, "to", to));
+            if (!everyRoute) {
+                parameters.put("busRoute", busRoute.trim());
+            }
+            students = studentRepository.findFields(withSortKey(fields, StudentField.PICKUP_TIME),
+                    everyRoute ? StudentRepository.PICKUP_WINDOW_PAGE_AFTER_FILTER
+                               : StudentRepository.BUS_ROUTE_PICKUP_WINDOW_PAGE_AFTER_FILTER,
+                    parameters, limit);
+        } else if (everyRoute) {
+            students = studentRepository.findByPickupTimeWindowPageAfter(afterPickupTime, afterId, to, limit);
+        } else {
+            students = studentRepository.findByBusRouteAndPickupTimeWindowPageAfter(
+                    busRoute.trim(), afterPickupTime, afterId, to, limit);
+        }
+        return toPage(students, pageSize, student -> timeKey(student.getPickupTime()));
     }
     
     @Override
-    public StudentDto assignBusRoute(Long id, String busRoute, String pickupTime, String dropoffTime) {
-        Student student = studentRepository.findById(id)
+    public StudentDto assignBusRoute(Long id, String busRoute, LocalTime pickupTime, LocalTime dropoffTime) {
+        Student student = studentRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with ID: " + id));
         
         // Validate bus route assignment data
         if (busRoute == null || busRoute.trim().isEmpty()) {
             throw new IllegalArgumentException("Bus route cannot be empty");
         }
-        if (pickupTime == null || pickupTime.trim().isEmpty()) {
+        if (pickupTime == null) {
             throw new IllegalArgumentException("Pickup time cannot be empty");
         }
-        if (dropoffTime == null || dropoffTime.trim().isEmpty()) {
+        if (dropoffTime == null) {
             throw new IllegalArgumentException("Dropoff time cannot be empty");
         }
         
         // Update bus route information
+        StudentDto previousStudent = convertToDto(student);
         student.setBusRoute(busRoute.trim());
-        student.setPickupTime(pickupTime.trim());
-        student.setDropoffTime(dropoffTime.trim());
+        student.setPickupTime(pickupTime);
+        student.setDropoffTime(dropoffTime);
         
-        // Save the updated student
-        Student updatedStudent = studentRepository.save(student);
+        // Save the updated student, flushing so the update time written under the lock is in the event
+        Student updatedStudent = studentRepository.saveAndFlush(student);
         
-        return convertToDto(updatedStudent);
+        StudentDto updatedStudentDto = convertToDto(updatedStudent);
+        eventPublisher.publishEvent(StudentChangedEvent.updated(previousStudent, updatedStudentDto));
+        return updatedStudentDto;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    public int assignBusRoutes(BulkBusRouteAssignmentDto assignment) {
+        validateBulkAssignment(assignment);
+        
+        // Lock the selected rows first: their current state becomes the before-image of each change,
+        // and no concurrent write can change them between this read and the update
+        List<StudentDto> previousStudents = assignment.getIds() != null
+                ? studentRepository.findAllDtosByIdForUpdate(new LinkedHashSet<>(assignment.getIds()))
+                : studentRepository.findDtosByBusRouteAndGradeForUpdate(
+                        trimToNull(assignment.getCurrentBusRoute()), trimToNull(assignment.getGrade()));
+        if (previousStudents.isEmpty()) {
+            return 0;
+        }
+        
+        String busRoute = assignment.getBusRoute().trim();
+        // Taken under the row locks, so it follows every update time the rows have
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Long> ids = previousStudents.stream().map(StudentDto::getId).collect(Collectors.toList());
+        int updated = 0;
+        // A filter can match any number of students, so the IN list is sent in chunks
+        for (int from = 0; from < ids.size(); from += BULK_ASSIGNMENT_MAX_IDS) {
+            updated += studentRepository.assignBusRoute(
+                    ids.subList(from, Math.min(from + BULK_ASSIGNMENT_MAX_IDS, ids.size())),
+                    busRoute, assignment.getPickupTime(), assignment.getDropoffTime(), updatedAt);
+        }
+        
+        List<StudentChangedEvent> changes = new ArrayList<>(previousStudents.size());
+        for (StudentDto previousStudent : previousStudents) {
+            StudentDto updatedStudent = new StudentDto(previousStudent);
+            updatedStudent.setBusRoute(busRoute);
+            updatedStudent.setPickupTime(assignment.getPickupTime());
+            updatedStudent.setDropoffTime(assignment.getDropoffTime());
+            updatedStudent.setUpdatedAt(updatedAt);
+            changes.add(StudentChangedEvent.updated(previousStudent, updatedStudent));
+        }
+        eventPublisher.publishEvent(new StudentBatchChangedEvent(changes));
+        return updated;
+    }
+    
+    @Override
+    @ReadFromPrimary
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long getStudentsCountByGrade(String grade) {
+        if (studentAggregateStore.isReady()) {
+            return studentAggregateStore.getGradeCount(grade);
+        }
         return studentRepository.countByGrade(grade);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long getStudentsCountByBusRoute(String busRoute) {
+        if (studentAggregateStore.isReady()) {
+            return studentAggregateStore.getBusRouteCount(busRoute);
+        }
         return studentRepository.countByBusRoute(busRoute);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<String> getAllGrades() {
+        if (studentAggregateStore.isReady()) {
+            return studentAggregateStore.getGrades();
+        }
         return studentRepository.findAllDistinctGrades();
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<String> getAllBusRoutes() {
+        if (studentAggregateStore.isReady()) {
+            return studentAggregateStore.getBusRoutes();
+        }
         return studentRepository.findAllDistinctBusRoutes();
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<StudentDto> getStudentsWithoutBusRoute() {
-        List<Student> students = studentRepository.findByBusRouteIsNullOrderByFirstNameAsc();
-        return students.stream()
-                      .map(this::convertToDto)
-                      .collect(Collectors.toList());
+        return studentRepository.findByBusRouteIsNullOrderByFirstNameAsc();
     }
     
+    // Touches no data, so the parallel validation of CSV imports does not check out connections
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void validateStudentData(StudentDto studentDto) {
         if (studentDto == null) {
             throw new IllegalArgumentException("Student data cannot be null");
@@ -251,15 +854,203 @@ public class StudentServiceImpl implements StudentService {
     }
     
     /**
-     * Converts Student entity to StudentDto
+     * Validates the bounds of a pickup time window query
+     * @param from start of the window (inclusive)
+     * @param to end of the window (exclusive)
+     */
+    private void validatePickupWindow(LocalTime from, LocalTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both from and to must be provided");
+        }
+        
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+    }
+    
+    private static String timeKey(LocalTime time) {
+        return time == null ? null : time.toString();
+    }
+    
+    private void validatePatch(StudentPatchDto patch) {
+        if (patch == null || patch.isEmpty()) {
+            throw new IllegalArgumentException("Student patch must contain at least one field");
+        }
+        
+        // Required fields may be changed but not cleared
+        for (String field : REQUIRED_FIELDS) {
+            if (patch.isPresent(field) && isNullField(patch, field)) {
+                throw new IllegalArgumentException("Field '" + field + "' cannot be null");
+            }
+        }
+        
+        StudentDto values = new StudentDto(patch.getFirstName(), patch.getLastName(), patch.getStudentId(),
+                patch.getAge(), patch.getGrade(), patch.getAddress(), patch.getParentContact());
+        validateStudentData(values);
+    }
+    
+    private static boolean isNullField(StudentPatchDto patch, String field) {
+        switch (field) {
+            case "firstName": return patch.getFirstName() == null;
+            case "lastName": return patch.getLastName() == null;
+            case "studentId": return patch.getStudentId() == null;
+            case "age": return patch.getAge() == null;
+            case "grade": return patch.getGrade() == null;
+            case "address": return patch.getAddress() == null;
+            case "parentContact": return patch.getParentContact() == null;
+            default: return false;
+        }
+    }
+    
+    private void validateBulkAssignment(BulkBusRouteAssignmentDto assignment) {
+        if (assignment == null) {
+            throw new IllegalArgumentException("Bulk assignment cannot be null");
+        }
+        
+        boolean byIds = assignment.getIds() != null;
+        boolean byFilter = trimToNull(assignment.getCurrentBusRoute()) != null || trimToNull(assignment.getGrade()) != null;
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Select students either by ids or by currentBusRoute and/or grade");
+        }
+        if (byIds && (assignment.getIds().isEmpty() || assignment.getIds().stream().anyMatch(Objects::isNull))) {
+            throw new IllegalArgumentException("Student ids cannot be empty");
+        }
+        if (byIds && assignment.getIds().size() > BULK_ASSIGNMENT_MAX_IDS) {
+            throw new IllegalArgumentException("At most " + BULK_ASSIGNMENT_MAX_IDS
+                    + " student ids can be assigned at once");
+        }
+        
+        if (assignment.getBusRoute() == null || assignment.getBusRoute().trim().isEmpty()) {
+            throw new IllegalArgumentException("Bus route cannot be empty");
+        }
+        if (assignment.getPickupTime() == null) {
+            throw new IllegalArgumentException("Pickup time cannot be empty");
+        }
+        if (assignment.getDropoffTime() == null) {
+            throw new IllegalArgumentException("Dropoff time cannot be empty");
+        }
+    }
+    
+    private static String trimToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+    
+    /**
+     * Validates the bounds of an age range query
+     * @param minAge minimum age (inclusive)
+     * @param maxAge maximum age (inclusive)
+     */
+    private void validateAgeRange(Integer minAge, Integer maxAge) {
+        if (minAge == null || maxAge == null) {
+            throw new IllegalArgumentException("Both minAge and maxAge must be provided");
+        }
+        
+        if (minAge > maxAge) {
+            throw new IllegalArgumentException("minAge cannot be greater than maxAge");
+        }
+    }
+    
+    /**
+     * Loads students by primary key and returns them in the order of the given IDs.
+     * Rows that no longer exist or no longer match the name query are left out, which
+     * covers changes committed on another instance that the local index has not seen.
+     * @param ids database IDs in result order
+     * @param query the name query the IDs were found by
+     * @param fields the fields to read
+     * @return the matching students in the order of the IDs
+     */
+    private List<StudentDto> findAllInOrder(List<Long> ids, String query, Set<StudentField> fields) {
+        // The names are read whatever was asked for, to check the rows still match
+        Set<StudentField> selected = StudentField.including(fields,
+                StudentField.ID, StudentField.FIRST_NAME, StudentField.LAST_NAME);
+        Map<Long, StudentDto> byId = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOAD_CHUNK_SIZE, ids.size()));
+            List<StudentDto> loaded = fields.equals(StudentField.ALL)
+                    ? studentRepository.findAllDtosById(chunk)
+                    : studentRepository.findFields(selected, StudentRepository.IDS_FILTER,
+                            Map.of("ids", chunk), Limit.unlimited());
+            for (StudentDto student : loaded) {
+                byId.put(student.getId(), student);
+            }
+        }
+        
+        List<StudentDto> students = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            StudentDto student = byId.get(id);
+            if (student != null && StudentNameIndex.matches(query, student.getFirstName(), student.getLastName())) {
+                students.add(student);
+            }
+        }
+        return students;
+    }
+    
+    /**
+     * Adds the columns a keyset page needs to build its cursor to the requested fields.
+     * They are read from the database but left out of the response.
+     * @param fields the requested fields
+     * @param sortKey the field the listing is ordered by, before the database ID
+     * @return the fields to select
+     */
+    private static Set<StudentField> withSortKey(Set<StudentField> fields, StudentField sortKey) {
+        return StudentField.including(fields, sortKey, StudentField.ID);
+    }
+    
+    /**
+     * Resolves the requested page size against the configured default and maximum
+     * @param size the requested page size, may be null
+     * @return the page size to use
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+    
+    /**
+     * Builds a page from a keyset query result fetched with one extra row.
+     * The extra row only signals that another page exists and is not returned.
+     * @param students the rows fetched, at most pageSize + 1
+     * @param pageSize the page size
+     * @param sortKey extracts the sort key the listing is ordered by
+     * @return the page with the continuation token for the next page
+     */
+    private CursorPageDto<StudentDto> toPage(List<StudentDto> students, int pageSize,
+                                             Function<StudentDto, String> sortKey) {
+        boolean hasNext = students.size() > pageSize;
+        List<StudentDto> items = hasNext ? new ArrayList<>(students.subList(0, pageSize)) : students;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            StudentDto last = items.get(items.size() - 1);
+            nextCursor = new PageCursor(sortKey.apply(last), last.getId()).encode();
+        }
+        return new CursorPageDto<>(items, nextCursor);
+    }
+    
+    private static Counter conversionCounter(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder(CONVERSIONS_METRIC)
+                .description("Student entity/DTO conversions")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Converts Student entity to StudentDto.
+     * Package-private so the benchmark module can measure it.
      * @param student the student entity
      * @return the student DTO
      */
-    private StudentDto convertToDto(Student student) {
+    StudentDto convertToDto(Student student) {
         if (student == null) {
             return null;
         }
         
+        toDtoConversions.increment();
         StudentDto dto = new StudentDto();
         dto.setId(student.getId());
         dto.setFirstName(student.getFirstName());
@@ -279,15 +1070,17 @@ public class StudentServiceImpl implements StudentService {
     }
     
     /**
-     * Converts StudentDto to Student entity
+     * Converts StudentDto to Student entity.
+     * Package-private so the benchmark module can measure it.
      * @param studentDto the student DTO
      * @return the student entity
      */
-    private Student convertToEntity(StudentDto studentDto) {
+    Student convertToEntity(StudentDto studentDto) {
         if (studentDto == null) {
             return null;
         }
         
+        toEntityConversions.increment();
         Student student = new Student();
         student.setFirstName(studentDto.getFirstName());
         student.setLastName(studentDto.getLastName());
@@ -304,15 +1097,44 @@ public class StudentServiceImpl implements StudentService {
     }
     
     /**
-     * Updates Student entity from StudentDto
+     * Applies the fields present in a patch to a Student entity
+     * @param student the student entity to update
+     * @param patch the fields to change
+     */
+    private void applyPatch(Student student, StudentPatchDto patch) {
+        entityUpdates.increment();
+        patchField(patch, "firstName", patch.getFirstName(), student.getFirstName(), student::setFirstName);
+        patchField(patch, "lastName", patch.getLastName(), student.getLastName(), student::setLastName);
+        patchField(patch, "studentId", patch.getStudentId(), student.getStudentId(), student::setStudentId);
+        patchField(patch, "age", patch.getAge(), student.getAge(), student::setAge);
+        patchField(patch, "grade", patch.getGrade(), student.getGrade(), student::setGrade);
+        patchField(patch, "address", patch.getAddress(), student.getAddress(), student::setAddress);
+        patchField(patch, "parentContact", patch.getParentContact(), student.getParentContact(),
+                student::setParentContact);
+        patchField(patch, "busRoute", patch.getBusRoute(), student.getBusRoute(), student::setBusRoute);
+        patchField(patch, "pickupTime", patch.getPickupTime(), student.getPickupTime(), student::setPickupTime);
+        patchField(patch, "dropoffTime", patch.getDropoffTime(), student.getDropoffTime(),
+                student::setDropoffTime);
+    }
+    
+    private static <T> void patchField(StudentPatchDto patch, String field, T value, T current, Consumer<T> setter) {
+        if (patch.isPresent(field) && !Objects.equals(value, current)) {
+            setter.accept(value);
+        }
+    }
+    
+    /**
+     * Updates Student entity from StudentDto.
+     * Package-private so the benchmark module can measure it.
      * @param student the student entity to update
      * @param studentDto the student DTO with new data
      */
-    private void updateEntityFromDto(Student student, StudentDto studentDto) {
+    void updateEntityFromDto(Student student, StudentDto studentDto) {
         if (student == null || studentDto == null) {
             return;
         }
         
+        entityUpdates.increment();
         student.setFirstName(studentDto.getFirstName());
         student.setLastName(studentDto.getLastName());
         student.setStudentId(studentDto.getStudentId());
@@ -0,0 +1,127 @@
+package com.schoolbus.application.service.importing;
+
+import com.schoolbus.domain.dto.StudentDto;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps the columns of an enrolment CSV file to student fields by the names in its header row.
+ * Names are matched case-insensitively with or without underscores, so "parentContact" and
+ * "parent_contact" both work, and columns the service does not know are ignored.
+ */
+final class StudentCsvFormat {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "firstName", "lastName", "studentId", "age", "grade", "address", "parentContact");
+    private static final List<String> OPTIONAL_COLUMNS = List.of("busRoute", "pickupTime", "dropoffTime");
+
+    private final Map<String, Integer> indexes;
+
+    private StudentCsvFormat(Map<String, Integer> indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * @param header the fields of the header row
+     * @return the format described by the header
+     * @throws IllegalArgumentException if a required column is missing
+     */
+    static StudentCsvFormat fromHeader(List<String> header) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            positions.putIfAbsent(normalize(header.get(i)), i);
+        }
+
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String column : REQUIRED_COLUMNS) {
+            Integer index = positions.get(normalize(column));
+            if (index == null) {
+                missing.add(column);
+            } else {
+                indexes.put(column, index);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing the columns " + missing);
+        }
+        for (String column : OPTIONAL_COLUMNS) {
+            Integer index = positions.get(normalize(column));
+            if (index != null) {
+                indexes.put(column, index);
+            }
+        }
+        return new StudentCsvFormat(indexes);
+    }
+
+    /**
+     * Converts a data row into a student. Empty values become null, so bean validation
+     * reports missing required values.
+     * @param fields the fields of the row
+     * @return the student described by the row
+     * @throws IllegalArgumentException if the age or a time cannot be parsed
+     */
+    StudentDto toStudent(List<String> fields) {
+        StudentDto student = new StudentDto();
+        student.setFirstName(value(fields, "firstName"));
+        student.setLastName(value(fields, "lastName"));
+        student.setStudentId(value(fields, "studentId"));
+        student.setAge(parseAge(value(fields, "age")));
+        student.setGrade(value(fields, "grade"));
+        student.setAddress(value(fields, "address"));
+        student.setParentContact(value(fields, "parentContact"));
+        student.setBusRoute(value(fields, "busRoute"));
+        student.setPickupTime(parseTime(value(fields, "pickupTime"), "Pickup time"));
+        student.setDropoffTime(parseTime(value(fields, "dropoffTime"), "Dropoff time"));
+        return student;
+    }
+
+    /**
+     * @param fields the fields of a data row
+     * @return the raw student ID of the row, for error reports
+     */
+    String studentId(List<String> fields) {
+        return value(fields, "studentId");
+    }
+
+    private String value(List<String> fields, String column) {
+        Integer index = indexes.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer parseAge(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Age must be a whole number, got '" + value + "'");
+        }
+    }
+
+    private static LocalTime parseTime(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException(name + " must be a time such as 07:30, got '" + value + "'");
+        }
+    }
+
+    private static String normalize(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
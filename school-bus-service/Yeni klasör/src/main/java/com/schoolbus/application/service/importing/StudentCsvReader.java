@@ -0,0 +1,200 @@
+package com.schoolbus.application.service.importing;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads the records of an RFC 4180 CSV file through memory-mapped windows, so a file of any size
+ * is read without copying it onto the heap. Quoted fields may contain commas, doubled quotes and
+ * line breaks, also across window boundaries.
+ * <p>
+ * Records are split on the raw bytes and each field is decoded on its own: the delimiters are
+ * ASCII, and ASCII bytes never occur inside a multi-byte UTF-8 sequence.
+ */
+public final class StudentCsvReader {
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final long windowSize;
+
+    /**
+     * @param windowSize bytes of the file mapped at a time
+     */
+    public StudentCsvReader(long windowSize) {
+        if (windowSize <= 0 || windowSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Window size must be between 1 byte and 2 GB");
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reads every record of a UTF-8 file in order, skipping blank lines and a leading byte order mark
+     * @param file the CSV file
+     * @param consumer receives each record, the header row included
+     * @param progress receives the number of bytes read so far after each window
+     * @throws IOException if the file cannot be read
+     */
+    public void read(Path file, Consumer<CsvRecord> consumer, LongConsumer progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Parser parser = new Parser(consumer);
+            for (long position = 0; position < size; position += windowSize) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(windowSize, size - position));
+                if (position == 0) {
+                    skipByteOrderMark(window);
+                }
+                while (window.hasRemaining()) {
+                    parser.accept(window.get());
+                }
+                progress.accept(position + window.limit());
+            }
+            parser.finish();
+        }
+    }
+
+    private static void skipByteOrderMark(MappedByteBuffer window) {
+        if (window.remaining() < UTF8_BOM.length) {
+            return;
+        }
+        for (int i = 0; i < UTF8_BOM.length; i++) {
+            if (window.get(i) != UTF8_BOM[i]) {
+                return;
+            }
+        }
+        window.position(UTF8_BOM.length);
+    }
+
+    /**
+     * One record of the file
+     */
+    public static final class CsvRecord {
+
+        private final long line;
+        private final List<String> fields;
+
+        public CsvRecord(long line, List<String> fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+
+        /**
+         * @return the 1-based line the record starts on
+         */
+        public long getLine() {
+            return line;
+        }
+
+        public List<String> getFields() {
+            return fields;
+        }
+    }
+
+    /**
+     * Byte-at-a-time CSV state machine; its state carries over from one window to the next
+     */
+    private static final class Parser {
+
+        private final Consumer<CsvRecord> consumer;
+        private byte[] field = new byte[256];
+        private int fieldLength;
+        private List<String> fields = new ArrayList<>();
+        private boolean quoted;
+        private boolean quoteInQuoted;
+        private boolean recordStarted;
+        private long line = 1;
+        private long recordLine = 1;
+
+        Parser(Consumer<CsvRecord> consumer) {
+            this.consumer = consumer;
+        }
+
+        void accept(byte b) {
+            if (quoted) {
+                if (quoteInQuoted) {
+                    quoteInQuoted = false;
+                    if (b == '"') {
+                        append(b);
+                        return;
+                    }
+                    // The previous quote closed the field; handle this byte as unquoted
+                    quoted = false;
+                } else {
+                    if (b == '"') {
+                        quoteInQuoted = true;
+                    } else {
+                        if (b == '\n') {
+                            line++;
+                        }
+                        append(b);
+                    }
+                    return;
+                }
+            }
+
+            switch (b) {
+                case '"' -> {
+                    if (fieldLength == 0) {
+                        quoted = true;
+                    } else {
+                        append(b);
+                    }
+                    recordStarted = true;
+                }
+                case ',' -> {
+                    endField();
+                    recordStarted = true;
+                }
+                case '\r' -> {
+                    // Dropped; the following \n ends the record
+                }
+                case '\n' -> {
+                    endRecord();
+                    line++;
+                    recordLine = line;
+                }
+                default -> {
+                    append(b);
+                    recordStarted = true;
+                }
+            }
+        }
+
+        void finish() {
+            quoted = false;
+            quoteInQuoted = false;
+            endRecord();
+        }
+
+        private void append(byte b) {
+            if (fieldLength == field.length) {
+                field = Arrays.copyOf(field, field.length * 2);
+            }
+            field[fieldLength++] = b;
+        }
+
+        private void endField() {
+            fields.add(new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+            fieldLength = 0;
+        }
+
+        private void endRecord() {
+            if (!recordStarted && fieldLength == 0) {
+                return;
+            }
+            endField();
+            consumer.accept(new CsvRecord(recordLine, fields));
+            fields = new ArrayList<>(fields.size());
+            recordStarted = false;
+        }
+    }
+}
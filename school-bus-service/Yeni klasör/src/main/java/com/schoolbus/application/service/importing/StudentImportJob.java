@@ -0,0 +1,117 @@
+package com.schoolbus.application.service.importing;
+
+import com.schoolbus.domain.dto.StudentImportJobDto;
+import com.schoolbus.domain.dto.StudentImportJobDto.Status;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one import, updated by the import pipeline and read by status requests
+ */
+final class StudentImportJob {
+
+    private final String id;
+    private final String fileName;
+    private final Path file;
+    private final Path errorReport;
+    private final long totalBytes;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile String errorMessage;
+
+    StudentImportJob(String id, String fileName, Path file, Path errorReport, long totalBytes) {
+        this.id = id;
+        this.fileName = fileName;
+        this.file = file;
+        this.errorReport = errorReport;
+        this.totalBytes = totalBytes;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    Path getErrorReport() {
+        return errorReport;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finish(Status.COMPLETED, null);
+    }
+
+    void fail(String message) {
+        finish(Status.FAILED, message);
+    }
+
+    private void finish(Status finalStatus, String message) {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        errorMessage = message;
+        status = finalStatus;
+    }
+
+    void setBytesRead(long bytes) {
+        bytesRead.set(bytes);
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void rowsImported(long rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    void rowFailed() {
+        rowsFailed.incrementAndGet();
+    }
+
+    StudentImportJobDto toDto() {
+        Status currentStatus = status;
+        StudentImportJobDto dto = new StudentImportJobDto();
+        dto.setId(id);
+        dto.setFileName(fileName);
+        dto.setStatus(currentStatus);
+        dto.setTotalBytes(totalBytes);
+        dto.setBytesRead(bytesRead.get());
+        dto.setProgressPercent(totalBytes == 0 ? (currentStatus == Status.QUEUED ? 0 : 100)
+                : 100.0 * bytesRead.get() / totalBytes);
+        dto.setRowsRead(rowsRead.get());
+        dto.setRowsImported(rowsImported.get());
+        dto.setRowsFailed(rowsFailed.get());
+        dto.setStartedAt(startedAt);
+        dto.setFinishedAt(finishedAt);
+        dto.setErrorMessage(errorMessage);
+
+        if (currentStatus != Status.QUEUED) {
+            long end = isFinished() ? finishedNanos : System.nanoTime();
+            double seconds = (end - startedNanos) / 1_000_000_000.0;
+            long processed = dto.getRowsImported() + dto.getRowsFailed();
+            dto.setRowsPerSecond(seconds > 0 ? processed / seconds : 0);
+        }
+        return dto;
+    }
+}
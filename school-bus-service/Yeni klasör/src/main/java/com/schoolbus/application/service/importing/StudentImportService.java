@@ -0,0 +1,375 @@
+package com.schoolbus.application.service.importing;
+
+import com.schoolbus.application.service.StudentService;
+import com.schoolbus.application.service.importing.StudentCsvReader.CsvRecord;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentImportJobDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Imports students from enrolment CSV files as background jobs.
+ * <p>
+ * The upload is spooled to a temporary file and read through memory-mapped windows. Rows are
+ * grouped into chunks that are parsed and validated (bean validation and the service's business
+ * rules) in parallel, one chunk per core at a time. Validated chunks are written in file order,
+ * each in one transaction with batched inserts. Rows that fail any stage go to the job's error
+ * report and the import continues. Only a bounded number of chunks is in flight, so memory use
+ * does not grow with the file. Jobs run one at a time, in the order they were started.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportService.class);
+
+    static final String ROWS_METRIC = "students.import.rows";
+
+    private final StudentService studentService;
+    private final Validator validator;
+    private final StudentCsvReader reader;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int retainedJobs;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService validationExecutor;
+    private final Map<String, StudentImportJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> jobOrder = new ConcurrentLinkedDeque<>();
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    public StudentImportService(StudentService studentService,
+                                Validator validator,
+                                MeterRegistry meterRegistry,
+                                @Value("${schoolbus.import.chunk-size:1000}") int chunkSize,
+                                @Value("${schoolbus.import.parallelism:0}") int parallelism,
+                                @Value("${schoolbus.import.map-window-size:64MB}") DataSize mapWindowSize,
+                                @Value("${schoolbus.import.retained-jobs:20}") int retainedJobs) {
+        this.studentService = studentService;
+        this.validator = validator;
+        this.reader = new StudentCsvReader(mapWindowSize.toBytes());
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.retainedJobs = retainedJobs;
+        this.jobExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("student-import").factory());
+        this.validationExecutor = Executors.newFixedThreadPool(this.parallelism,
+                Thread.ofPlatform().name("student-import-validation-", 0).factory());
+        this.importedRows = Counter.builder(ROWS_METRIC)
+                .description("CSV import rows by outcome")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder(ROWS_METRIC)
+                .description("CSV import rows by outcome")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Spools a CSV file and queues its import
+     * @param fileName the name of the uploaded file, for display only
+     * @param content the file content; read completely before this method returns
+     * @return the queued job
+     * @throws IOException if the upload cannot be spooled
+     */
+    public StudentImportJobDto startImport(String fileName, InputStream content) throws IOException {
+        Path file = Files.createTempFile("student-import-", ".csv");
+        Path errorReport = Files.createTempFile("student-import-errors-", ".csv");
+        try {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(errorReport);
+            throw ex;
+        }
+
+        StudentImportJob job = new StudentImportJob(UUID.randomUUID().toString(), fileName, file, errorReport,
+                Files.size(file));
+        jobs.put(job.getId(), job);
+        jobOrder.addLast(job.getId());
+        evictFinishedJobs();
+        jobExecutor.execute(() -> run(job));
+        return job.toDto();
+    }
+
+    /**
+     * @param jobId the ID of an import job
+     * @return the current progress of the job
+     * @throws RuntimeException if the job is not found
+     */
+    public StudentImportJobDto getImport(String jobId) {
+        return findJob(jobId).toDto();
+    }
+
+    /**
+     * Writes the error report of a job as CSV with the columns line, studentId and error.
+     * While the job runs, the report holds the rows failed so far.
+     * @param jobId the ID of an import job
+     * @param outputStream receives the report
+     * @throws IOException if the report cannot be read or written
+     * @throws RuntimeException if the job is not found
+     */
+    public void writeErrorReport(String jobId, OutputStream outputStream) throws IOException {
+        Files.copy(findJob(jobId).getErrorReport(), outputStream);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        validationExecutor.shutdownNow();
+    }
+
+    private StudentImportJob findJob(String jobId) {
+        StudentImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Import job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Forgets the oldest finished jobs beyond the retained number, with their error reports
+     */
+    private void evictFinishedJobs() {
+        Iterator<String> oldestFirst = jobOrder.iterator();
+        while (jobs.size() > retainedJobs && oldestFirst.hasNext()) {
+            StudentImportJob job = jobs.get(oldestFirst.next());
+            if (job != null && job.isFinished()) {
+                oldestFirst.remove();
+                jobs.remove(job.getId());
+                deleteQuietly(job.getErrorReport());
+            }
+        }
+    }
+
+    private void run(StudentImportJob job) {
+        job.start();
+        try (BufferedWriter report = Files.newBufferedWriter(job.getErrorReport(), StandardCharsets.UTF_8)) {
+            report.write("line,studentId,error\n");
+            ImportRun run = new ImportRun(job, report);
+            reader.read(job.getFile(), run, job::setBytesRead);
+            run.finish();
+            job.complete();
+            StudentImportJobDto result = job.toDto();
+            log.info("Imported {} of {} rows from {} in {} ({} rows/s)", result.getRowsImported(),
+                    result.getRowsRead(), result.getFileName(), result.getId(), Math.round(result.getRowsPerSecond()));
+        } catch (IOException | UncheckedIOException | IllegalArgumentException ex) {
+            job.fail(ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("Import {} failed", job.getId(), ex);
+            job.fail(ex.getMessage());
+        } finally {
+            deleteQuietly(job.getFile());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", path, ex);
+        }
+    }
+
+    /**
+     * The pipeline of one job: receives records from the reader, validates full chunks in parallel
+     * and writes validated chunks in order once too many are in flight
+     */
+    private final class ImportRun implements Consumer<CsvRecord> {
+
+        private final StudentImportJob job;
+        private final BufferedWriter report;
+        private final Deque<Future<ValidatedChunk>> inFlight = new ArrayDeque<>();
+        private StudentCsvFormat format;
+        private List<CsvRecord> chunk = new ArrayList<>(chunkSize);
+
+        ImportRun(StudentImportJob job, BufferedWriter report) {
+            this.job = job;
+            this.report = report;
+        }
+
+        @Override
+        public void accept(CsvRecord record) {
+            if (format == null) {
+                format = StudentCsvFormat.fromHeader(record.getFields());
+                return;
+            }
+            job.rowRead();
+            chunk.add(record);
+            if (chunk.size() == chunkSize) {
+                submit();
+            }
+        }
+
+        void finish() {
+            if (format == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            if (!chunk.isEmpty()) {
+                submit();
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.removeFirst());
+            }
+        }
+
+        private void submit() {
+            while (inFlight.size() >= parallelism * 2) {
+                write(inFlight.removeFirst());
+            }
+            List<CsvRecord> records = chunk;
+            StudentCsvFormat chunkFormat = format;
+            inFlight.addLast(validationExecutor.submit(() -> validate(chunkFormat, records)));
+            chunk = new ArrayList<>(chunkSize);
+        }
+
+        private void write(Future<ValidatedChunk> pending) {
+            ValidatedChunk validated;
+            try {
+                validated = pending.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import was interrupted", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Validation of a chunk failed", ex.getCause());
+            }
+
+            List<RowError> failures = new ArrayList<>(validated.errors);
+            if (!validated.rows.isEmpty()) {
+                List<StudentDto> students = validated.rows.stream()
+                        .map(row -> row.student)
+                        .collect(Collectors.toList());
+                try {
+                    Map<Integer, String> skipped = studentService.importStudents(students);
+                    for (Map.Entry<Integer, String> entry : skipped.entrySet()) {
+                        ValidRow row = validated.rows.get(entry.getKey());
+                        failures.add(new RowError(row.line, row.student.getStudentId(), entry.getValue()));
+                    }
+                    job.rowsImported(students.size() - skipped.size());
+                    importedRows.increment(students.size() - skipped.size());
+                } catch (RuntimeException ex) {
+                    // e.g. a student ID taken by a concurrent write; the chunk's transaction rolled back
+                    String message = "Could not be stored: " + ex.getMessage();
+                    for (ValidRow row : validated.rows) {
+                        failures.add(new RowError(row.line, row.student.getStudentId(), message));
+                    }
+                }
+            }
+
+            // Keep the report in file order
+            failures.sort(Comparator.comparingLong(error -> error.line));
+            for (RowError failure : failures) {
+                fail(failure);
+            }
+            try {
+                report.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void fail(RowError failure) {
+            job.rowFailed();
+            failedRows.increment();
+            try {
+                report.write(failure.line + "," + csvValue(failure.studentId) + "," + csvValue(failure.message) + "\n");
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Parses and validates one chunk; runs on the validation pool
+     */
+    private ValidatedChunk validate(StudentCsvFormat format, List<CsvRecord> records) {
+        ValidatedChunk validated = new ValidatedChunk();
+        for (CsvRecord record : records) {
+            try {
+                StudentDto student = format.toStudent(record.getFields());
+                String violations = validator.validate(student).stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                if (!violations.isEmpty()) {
+                    validated.errors.add(new RowError(record.getLine(), student.getStudentId(), violations));
+                    continue;
+                }
+                studentService.validateStudentData(student);
+                validated.rows.add(new ValidRow(record.getLine(), student));
+            } catch (IllegalArgumentException ex) {
+                validated.errors.add(new RowError(record.getLine(), format.studentId(record.getFields()),
+                        ex.getMessage()));
+            }
+        }
+        return validated;
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static final class ValidatedChunk {
+        private final List<ValidRow> rows = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+    }
+
+    private static final class ValidRow {
+        private final long line;
+        private final StudentDto student;
+
+        ValidRow(long line, StudentDto student) {
+            this.line = line;
+            this.student = student;
+        }
+    }
+
+    private static final class RowError {
+        private final long line;
+        private final String studentId;
+        private final String message;
+
+        RowError(long line, String studentId, String message) {
+            this.line = line;
+            this.studentId = studentId;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.schoolbus.application.service.location;
+
+/**
+ * A point on the earth in WGS 84 degrees
+ * @param latitude degrees north, -90 to 90
+ * @param longitude degrees east, -180 to 180
+ */
+public record GeoPoint(double latitude, double longitude) {
+
+    /** Mean radius of the earth */
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    public GeoPoint {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Invalid coordinates: " + latitude + ", " + longitude);
+        }
+    }
+
+    /**
+     * Great-circle distance by the haversine formula
+     * @param other the other point
+     * @return the distance in meters
+     */
+    public double distanceMeters(GeoPoint other) {
+        return distanceMeters(latitude, longitude, other.latitude, other.longitude);
+    }
+
+    /**
+     * Great-circle distance by the haversine formula, for callers that hold bare coordinates
+     * @return the distance in meters
+     */
+    public static double distanceMeters(double fromLatitude, double fromLongitude,
+                                        double toLatitude, double toLongitude) {
+        double dLat = Math.toRadians(toLatitude - fromLatitude);
+        double dLon = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,400 @@
+package com.schoolbus.application.service.location;
+
+import com.schoolbus.domain.dto.NearbyStudentDto;
+import com.schoolbus.domain.dto.StudentLocationDto;
+import com.schoolbus.domain.event.StudentLocationChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid index over the home locations of students.
+ * <p>
+ * Locations are bucketed into square cells of latitude and longitude, about the configured cell size
+ * high. A query visits only the cells its bounding box overlaps, or every occupied cell when that
+ * is fewer, and checks the points in them exactly, so its cost depends on the number of students
+ * near the query rather than on the number of students. Nearest-neighbour queries search growing
+ * circles until enough students are found.
+ * <p>
+ * The index is filled once at startup by {@link StudentLocationService} and kept current from
+ * {@link StudentLocationChangedEvent}s after each write commits.
+ */
+@Component
+public class StudentLocationIndex {
+
+    private static final Comparator<NearbyStudentDto> BY_DISTANCE = Comparator
+            .comparingDouble(NearbyStudentDto::getDistanceMeters)
+            .thenComparing(NearbyStudentDto::getId);
+
+    private final double cellSizeMeters;
+    private final double cellDegrees;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<Long, GeoPoint> locations = new HashMap<>();
+    private final Set<Long> changedDuringLoad = new HashSet<>();
+
+    private volatile boolean ready;
+
+    public StudentLocationIndex(@Value("${schoolbus.locations.cell-size:250}") double cellSizeMeters) {
+        if (!(cellSizeMeters > 0)) {
+            throw new IllegalArgumentException("Location index cell size must be positive: " + cellSizeMeters);
+        }
+        this.cellSizeMeters = cellSizeMeters;
+        this.cellDegrees = Math.toDegrees(cellSizeMeters / GeoPoint.EARTH_RADIUS_METERS);
+    }
+
+    /**
+     * @return true once the initial load has completed and queries can be answered from the index
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Called once every stored location has been loaded; the index can serve queries from then on
+     */
+    public void markLoaded() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a location read from the database during the initial load, unless it was set or
+     * removed since, so a load never overwrites a newer change
+     * @param id the database ID of the student
+     * @param location the location as stored
+     */
+    public void load(Long id, GeoPoint location) {
+        lock.writeLock().lock();
+        try {
+            if (!changedDuringLoad.contains(id) && !locations.containsKey(id)) {
+                addEntry(id, location);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or moves the location of a student
+     * @param id the database ID of the student
+     * @param location the location
+     */
+    public void put(Long id, GeoPoint location) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            removeEntry(id);
+            addEntry(id, location);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the location of a student
+     * @param id the database ID of the student
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps the index in step with committed writes
+     * @param event the change published by the location service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationsChanged(StudentLocationChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : event.getRemovedIds()) {
+                markChanged(id);
+                removeEntry(id);
+            }
+            for (StudentLocationDto location : event.getUpdated()) {
+                markChanged(location.getId());
+                removeEntry(location.getId());
+                addEntry(location.getId(), new GeoPoint(location.getLatitude(), location.getLongitude()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed locations
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param id the database ID of a student
+     * @return the location of the student, or null if it has none
+     */
+    public GeoPoint get(Long id) {
+        lock.readLock().lock();
+        try {
+            return locations.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return a copy of every indexed location by database ID of the student
+     */
+    public Map<Long, GeoPoint> getAll() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(locations);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the students living within a distance of a point, nearest first
+     * @param center the point
+     * @param radiusMeters the distance
+     * @param limit maximum number of results
+     * @return the students, ties ordered by database ID
+     */
+    public List<NearbyStudentDto> findWithinRadius(GeoPoint center, double radiusMeters, int limit) {
+        lock.readLock().lock();
+        try {
+            return nearest(collectWithinRadius(center, radiusMeters), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the students living nearest to a point
+     * @param center the point
+     * @param count number of students
+     * @return up to count students, nearest first, ties ordered by database ID
+     */
+    public List<NearbyStudentDto> findNearest(GeoPoint center, int count) {
+        double maxRadius = Math.PI * GeoPoint.EARTH_RADIUS_METERS;
+        lock.readLock().lock();
+        try {
+            // Every student within the radius is found, so once there are count of them
+            // no student outside can be nearer than the count-th
+            double radius = count < locations.size() ? cellSizeMeters : maxRadius;
+            while (true) {
+                List<NearbyStudentDto> found = collectWithinRadius(center, radius);
+                if (found.size() >= count || radius >= maxRadius) {
+                    return nearest(found, count);
+                }
+                radius = Math.min(radius * 2, maxRadius);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the students living inside a box of latitude and longitude
+     * @param south the least latitude
+     * @param west the least longitude; greater than east for a box across the 180th meridian
+     * @param north the greatest latitude
+     * @param east the greatest longitude
+     * @param limit maximum number of results
+     * @return the students in database ID order, without a distance
+     */
+    public List<NearbyStudentDto> findWithinBox(double south, double west, double north, double east, int limit) {
+        List<NearbyStudentDto> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            forEachInBox(south, west, north, east,
+                    (id, latitude, longitude) -> found.add(new NearbyStudentDto(id, latitude, longitude, null)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        found.sort(Comparator.comparing(NearbyStudentDto::getId));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    private static List<NearbyStudentDto> nearest(List<NearbyStudentDto> found, int limit) {
+        found.sort(BY_DISTANCE);
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    // Called with a lock held
+    private List<NearbyStudentDto> collectWithinRadius(GeoPoint center, double radiusMeters) {
+        double angle = radiusMeters / GeoPoint.EARTH_RADIUS_METERS;
+        double latitudeSpan = Math.toDegrees(angle);
+        double south = Math.max(-90, center.latitude() - latitudeSpan);
+        double north = Math.min(90, center.latitude() + latitudeSpan);
+        double west = -180;
+        double east = 180;
+        // The circle spans every longitude if it reaches a pole
+        double cosLatitude = Math.cos(Math.toRadians(center.latitude()));
+        if (angle < Math.PI / 2 && south > -90 && north < 90 && Math.sin(angle) < cosLatitude) {
+            double longitudeSpan = Math.toDegrees(Math.asin(Math.sin(angle) / cosLatitude));
+            west = center.longitude() - longitudeSpan;
+            east = center.longitude() + longitudeSpan;
+            west = west < -180 ? west + 360 : west;
+            east = east > 180 ? east - 360 : east;
+        }
+
+        List<NearbyStudentDto> found = new ArrayList<>();
+        forEachInBox(south, west, north, east, (id, latitude, longitude) -> {
+            double distance = GeoPoint.distanceMeters(center.latitude(), center.longitude(), latitude, longitude);
+            if (distance <= radiusMeters) {
+                found.add(new NearbyStudentDto(id, latitude, longitude, distance));
+            }
+        });
+        return found;
+    }
+
+    // Called with a lock held
+    private void forEachInBox(double south, double west, double north, double east, PointVisitor visitor) {
+        if (west <= east) {
+            forEachInCells(south, west, north, east, visitor);
+        } else {
+            forEachInCells(south, west, north, 180, visitor);
+            forEachInCells(south, -180, north, east, visitor);
+        }
+    }
+
+    private void forEachInCells(double south, double west, double north, double east, PointVisitor visitor) {
+        int rowFrom = cellOf(south);
+        int rowTo = cellOf(north);
+        int columnFrom = cellOf(west);
+        int columnTo = cellOf(east);
+        long covered = (long) (rowTo - rowFrom + 1) * (columnTo - columnFrom + 1);
+        if (covered > cells.size()) {
+            // A large box over few students: visiting the occupied cells is cheaper
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                int row = (int) (entry.getKey() >> 32);
+                int column = entry.getKey().intValue();
+                if (row >= rowFrom && row <= rowTo && column >= columnFrom && column <= columnTo) {
+                    entry.getValue().forEachIn(south, west, north, east, visitor);
+                }
+            }
+            return;
+        }
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (int column = columnFrom; column <= columnTo; column++) {
+                Cell cell = cells.get(cellKey(row, column));
+                if (cell != null) {
+                    cell.forEachIn(south, west, north, east, visitor);
+                }
+            }
+        }
+    }
+
+    // Called with the write lock held
+    private void markChanged(Long id) {
+        if (!ready) {
+            changedDuringLoad.add(id);
+        }
+    }
+
+    private void addEntry(Long id, GeoPoint location) {
+        locations.put(id, location);
+        cells.computeIfAbsent(cellKey(cellOf(location.latitude()), cellOf(location.longitude())), key -> new Cell())
+             .add(id, location.latitude(), location.longitude());
+    }
+
+    private void removeEntry(Long id) {
+        GeoPoint location = locations.remove(id);
+        if (location == null) {
+            return;
+        }
+        long key = cellKey(cellOf(location.latitude()), cellOf(location.longitude()));
+        Cell cell = cells.get(key);
+        if (cell.remove(id) && cell.size == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private int cellOf(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    @FunctionalInterface
+    private interface PointVisitor {
+        void visit(long id, double latitude, double longitude);
+    }
+
+    /**
+     * The locations in one cell, in parallel arrays
+     */
+    private static final class Cell {
+
+        private long[] ids = new long[4];
+        private double[] latitudes = new double[4];
+        private double[] longitudes = new double[4];
+        private int size;
+
+        private void add(long id, double latitude, double longitude) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    // Move the last entry into the gap
+                    size--;
+                    ids[i] = ids[size];
+                    latitudes[i] = latitudes[size];
+                    longitudes[i] = longitudes[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void forEachIn(double south, double west, double north, double east, PointVisitor visitor) {
+            for (int i = 0; i < size; i++) {
+                double latitude = latitudes[i];
+                double longitude = longitudes[i];
+                if (latitude >= south && latitude <= north && longitude >= west && longitude <= east) {
+                    visitor.visit(ids[i], latitude, longitude);
+                }
+            }
+        }
+    }
+}
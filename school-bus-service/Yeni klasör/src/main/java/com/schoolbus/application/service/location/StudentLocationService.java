@@ -0,0 +1,317 @@
+package com.schoolbus.application.service.location;
+
+import com.schoolbus.domain.dto.NearbyStudentDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentLocationDto;
+import com.schoolbus.domain.entity.Student;
+import com.schoolbus.domain.entity.StudentLocation;
+import com.schoolbus.domain.event.StudentBatchChangedEvent;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import com.schoolbus.domain.event.StudentLocationChangedEvent;
+import com.schoolbus.infrastructure.datasource.ReadFromPrimary;
+import com.schoolbus.infrastructure.repository.StudentLocationRepository;
+import com.schoolbus.infrastructure.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Home locations of students. A location belongs to the address it was taken for:
+ * it is dropped when the student is deleted or the address changes.
+ * <p>
+ * Bulk reads and location queries are answered from the {@link StudentLocationIndex} without
+ * a transaction once it has loaded; until then they fall back to the database.
+ */
+@Service
+@Transactional
+public class StudentLocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentLocationService.class);
+
+    // Cell size of the throwaway index that answers queries while the location index is loading
+    private static final double FALLBACK_CELL_SIZE_METERS = 1000;
+
+    private final StudentLocationRepository studentLocationRepository;
+    private final StudentRepository studentRepository;
+    private final StudentLocationIndex studentLocationIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxResults;
+
+    @Autowired
+    public StudentLocationService(StudentLocationRepository studentLocationRepository,
+                                  StudentRepository studentRepository,
+                                  StudentLocationIndex studentLocationIndex,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${schoolbus.locations.max-results:1000}") int maxResults) {
+        this.studentLocationRepository = studentLocationRepository;
+        this.studentRepository = studentRepository;
+        this.studentLocationIndex = studentLocationIndex;
+        this.eventPublisher = eventPublisher;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Fills the location index once the application has started. Read from the primary, as the
+     * index is kept current by change events from then on.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    public void loadIndex() {
+        long started = System.nanoTime();
+        for (StudentLocation location : studentLocationRepository.findAll()) {
+            studentLocationIndex.load(location.getStudentDbId(), toPoint(location));
+        }
+        studentLocationIndex.markLoaded();
+        log.info("Loaded {} student locations into the location index in {} ms",
+                studentLocationIndex.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * @param id the database ID of a student
+     * @return the home location of the student
+     * @throws RuntimeException if the student has no location
+     */
+    @Transactional(readOnly = true)
+    public StudentLocationDto getLocation(Long id) {
+        return studentLocationRepository.findById(id)
+                .map(StudentLocationService::toDto)
+                .orElseThrow(() -> new RuntimeException("Location not found for student with ID: " + id));
+    }
+
+    /**
+     * Sets the home location of a student
+     * @param id the database ID of the student
+     * @param location the coordinates
+     * @return the stored location
+     * @throws RuntimeException if the student is not found
+     */
+    public StudentLocationDto setLocation(Long id, StudentLocationDto location) {
+        if (!studentRepository.existsById(id)) {
+            throw new RuntimeException("Student not found with ID: " + id);
+        }
+        GeoPoint point = new GeoPoint(location.getLatitude(), location.getLongitude());
+        StudentLocation saved = studentLocationRepository.save(
+                new StudentLocation(id, point.latitude(), point.longitude(), LocalDateTime.now()));
+        StudentLocationDto stored = toDto(saved);
+        eventPublisher.publishEvent(new StudentLocationChangedEvent(List.of(stored), List.of()));
+        return stored;
+    }
+
+    /**
+     * Sets locations found for the addresses of students in one transaction. A student is skipped
+     * if it was deleted, its address is no longer the one that was geocoded, or it was given
+     * a location in the meantime, which then stays.
+     * @param locations the location found for each student
+     * @param addresses the address each location was found for, by student
+     * @return the number of locations set
+     */
+    public int setLocations(Map<Long, GeoPoint> locations, Map<Long, String> addresses) {
+        Set<Long> located = new HashSet<>();
+        for (StudentLocation location : studentLocationRepository.findAllById(locations.keySet())) {
+            located.add(location.getStudentDbId());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<StudentLocation> toSave = new ArrayList<>();
+        for (Student student : studentRepository.findAllById(locations.keySet())) {
+            if (!located.contains(student.getId()) && Objects.equals(student.getAddress(), addresses.get(student.getId()))) {
+                GeoPoint point = locations.get(student.getId());
+                toSave.add(new StudentLocation(student.getId(), point.latitude(), point.longitude(), now));
+            }
+        }
+        if (toSave.isEmpty()) {
+            return 0;
+        }
+        List<StudentLocationDto> stored = studentLocationRepository.saveAll(toSave).stream()
+                .map(StudentLocationService::toDto)
+                .toList();
+        eventPublisher.publishEvent(new StudentLocationChangedEvent(stored, List.of()));
+        return stored.size();
+    }
+
+    /**
+     * Removes the home location of a student
+     * @param id the database ID of the student
+     */
+    public void deleteLocation(Long id) {
+        removeLocations(List.of(id));
+    }
+
+    /**
+     * Retrieves the home locations of many students
+     * @param ids the database IDs of the students
+     * @return the location of each student that has one
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, GeoPoint> getLocations(Collection<Long> ids) {
+        Map<Long, GeoPoint> locations = new HashMap<>();
+        if (studentLocationIndex.isReady()) {
+            for (Long id : ids) {
+                GeoPoint location = studentLocationIndex.get(id);
+                if (location != null) {
+                    locations.put(id, location);
+                }
+            }
+            return locations;
+        }
+        for (StudentLocation location : studentLocationRepository.findAllById(ids)) {
+            locations.put(location.getStudentDbId(), toPoint(location));
+        }
+        return locations;
+    }
+
+    /**
+     * Retrieves the home location of every student that has one
+     * @return the locations by database ID of the student
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, GeoPoint> getAllLocations() {
+        if (studentLocationIndex.isReady()) {
+            return studentLocationIndex.getAll();
+        }
+        Map<Long, GeoPoint> locations = new HashMap<>();
+        for (StudentLocation location : studentLocationRepository.findAll()) {
+            locations.put(location.getStudentDbId(), toPoint(location));
+        }
+        return locations;
+    }
+
+    /**
+     * Finds the students living within a distance of a point, nearest first
+     * @param latitude latitude of the point
+     * @param longitude longitude of the point
+     * @param radiusMeters the distance in meters
+     * @param limit maximum number of results, or null for the configured maximum
+     * @return the students with their distance
+     * @throws IllegalArgumentException if the point, radius or limit is invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<NearbyStudentDto> findWithinRadius(double latitude, double longitude, double radiusMeters,
+                                                   Integer limit) {
+        GeoPoint center = new GeoPoint(latitude, longitude);
+        if (!(radiusMeters > 0)) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        return queryIndex().findWithinRadius(center, radiusMeters, validateLimit(limit));
+    }
+
+    /**
+     * Finds the students living nearest to a point
+     * @param latitude latitude of the point
+     * @param longitude longitude of the point
+     * @param count number of students, or null for the configured maximum
+     * @return up to count students with their distance, nearest first
+     * @throws IllegalArgumentException if the point or count is invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<NearbyStudentDto> findNearest(double latitude, double longitude, Integer count) {
+        GeoPoint center = new GeoPoint(latitude, longitude);
+        return queryIndex().findNearest(center, validateLimit(count));
+    }
+
+    /**
+     * Finds the students living inside a box of latitude and longitude
+     * @param south the least latitude
+     * @param west the least longitude; greater than east for a box across the 180th meridian
+     * @param north the greatest latitude
+     * @param east the greatest longitude
+     * @param limit maximum number of results, or null for the configured maximum
+     * @return the students in database ID order
+     * @throws IllegalArgumentException if the box or limit is invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<NearbyStudentDto> findWithinBox(double south, double west, double north, double east,
+                                                Integer limit) {
+        if (!(south >= -90 && south <= north && north <= 90)
+                || !(west >= -180 && west <= 180 && east >= -180 && east <= 180)) {
+            throw new IllegalArgumentException("Invalid box: " + south + ", " + west + " to " + north + ", " + east);
+        }
+        return queryIndex().findWithinBox(south, west, north, east, validateLimit(limit));
+    }
+
+    // Plain listeners: a stale location is dropped in the transaction that made it stale
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (isStale(event)) {
+            removeLocations(List.of(event.getId()));
+        }
+    }
+
+    @EventListener
+    public void onStudentsChanged(StudentBatchChangedEvent event) {
+        List<Long> stale = new ArrayList<>();
+        for (StudentChangedEvent change : event.getChanges()) {
+            if (isStale(change)) {
+                stale.add(change.getId());
+            }
+        }
+        if (!stale.isEmpty()) {
+            removeLocations(stale);
+        }
+    }
+
+    private void removeLocations(List<Long> ids) {
+        studentLocationRepository.deleteAllByIdInBatch(ids);
+        eventPublisher.publishEvent(new StudentLocationChangedEvent(List.of(), ids));
+    }
+
+    /**
+     * The location index, or while it is still loading, an index of the stored locations
+     */
+    private StudentLocationIndex queryIndex() {
+        if (studentLocationIndex.isReady()) {
+            return studentLocationIndex;
+        }
+        StudentLocationIndex loaded = new StudentLocationIndex(FALLBACK_CELL_SIZE_METERS);
+        for (StudentLocation location : studentLocationRepository.findAll()) {
+            loaded.load(location.getStudentDbId(), toPoint(location));
+        }
+        return loaded;
+    }
+
+    private int validateLimit(Integer limit) {
+        if (limit == null) {
+            return maxResults;
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxResults);
+        }
+        return limit;
+    }
+
+    private static boolean isStale(StudentChangedEvent event) {
+        StudentDto before = event.getBefore();
+        StudentDto after = event.getAfter();
+        if (before == null || event.getId() == null) {
+            return false;
+        }
+        return after == null || !Objects.equals(before.getAddress(), after.getAddress());
+    }
+
+    private static GeoPoint toPoint(StudentLocation location) {
+        return new GeoPoint(location.getLatitude(), location.getLongitude());
+    }
+
+    private static StudentLocationDto toDto(StudentLocation location) {
+        return new StudentLocationDto(location.getStudentDbId(), location.getLatitude(), location.getLongitude(),
+                location.getUpdatedAt());
+    }
+}
@@ -0,0 +1,134 @@
+package com.schoolbus.application.service.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position used by the cursor-paginated list operations.
+ * A cursor remembers the sort key and the database ID of the last row of a page,
+ * so the next page can be fetched with a range predicate instead of an OFFSET.
+ * The sort key may be null for rows that sort after all non-null keys.
+ */
+public final class PageCursor {
+
+    private static final String KEY_PREFIX = "k";
+    private static final String NULL_KEY_PREFIX = "n";
+    private static final String SEPARATOR = ":";
+
+    private final String key;
+    private final long id;
+
+    public PageCursor(String key, long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor positioned before the first row of a listing
+     * @param firstKey the lowest possible sort key of the listing
+     * @return the starting cursor
+     */
+    public static PageCursor start(String firstKey) {
+        return new PageCursor(firstKey, 0L);
+    }
+
+    /**
+     * Decodes an opaque continuation token
+     * @param token the token returned with a previous page, or null/blank for the first page
+     * @param firstKey the lowest possible sort key, used when no token is given
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token, String firstKey) {
+        if (token == null || token.trim().isEmpty()) {
+            return start(firstKey);
+        }
+
+        String payload;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+
+        int separator = payload.indexOf(SEPARATOR);
+        if (separator < 2) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+
+        String prefix = payload.substring(0, 1);
+        long id;
+        try {
+            id = Long.parseLong(payload.substring(1, separator));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+
+        if (KEY_PREFIX.equals(prefix)) {
+            return new PageCursor(payload.substring(separator + 1), id);
+        }
+        if (NULL_KEY_PREFIX.equals(prefix)) {
+            return new PageCursor(null, id);
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe continuation token
+     * @return the continuation token
+     */
+    public String encode() {
+        String payload = key == null
+                ? NULL_KEY_PREFIX + id + SEPARATOR
+                : KEY_PREFIX + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the sort key as an integer, for listings keyed by a numeric column
+     * @return the integer sort key
+     * @throws IllegalArgumentException if the key is not a number
+     */
+    public int getKeyAsInt() {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor for this listing");
+        }
+    }
+
+    /**
+     * Returns the sort key as a time of day, for listings keyed by a time column
+     * @return the time sort key, or null for rows without one
+     * @throws IllegalArgumentException if the key is not a time
+     */
+    public LocalTime getKeyAsTime() {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return LocalTime.parse(key);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor for this listing");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{" +
+                "key='" + key + '\'' +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,357 @@
+package com.schoolbus.application.service.roster;
+
+import com.schoolbus.domain.dto.RouteRosterDeltaDto;
+import com.schoolbus.domain.dto.RouteRosterDto;
+import com.schoolbus.domain.event.RouteRosterChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes the roster changes of bus routes to subscribers as Server-Sent Events.
+ * <p>
+ * A subscriber names the routes it follows. It first receives a {@code snapshot} of each route,
+ * then a {@code delta} for every change the {@link RouteRosterStore} makes to it. Deltas are
+ * matched against the version of the snapshot, so however a snapshot and a concurrent change
+ * interleave, the change is delivered exactly once: either inside the snapshot or after it.
+ * <p>
+ * An idle subscriber holds no thread. The request runs asynchronously, and events wait in the
+ * subscriber's buffer until a virtual thread drains it, one drain per subscriber at a time, so a
+ * write blocked on a slow client stalls only that client. The buffer is bounded. A subscriber
+ * that falls further behind is sent a {@code reset} and disconnected; it reconnects to a new
+ * snapshot rather than the server queuing changes for it without limit.
+ */
+@Component
+public class RouteRosterBroadcaster {
+
+    static final String SUBSCRIBERS_METRIC = "students.roster.stream.subscribers";
+    static final String RESETS_METRIC = "students.roster.stream.resets";
+
+    private final RouteRosterStore routeRosterStore;
+    private final int bufferSize;
+    private final int maxRoutes;
+    private final Duration timeout;
+    private final Duration reconnectDelay;
+    private final ExecutorService drainExecutor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscriber>> subscribersByRoute = new ConcurrentHashMap<>();
+    private final Counter resets;
+
+    public RouteRosterBroadcaster(RouteRosterStore routeRosterStore,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${schoolbus.roster-stream.buffer-size:256}") int bufferSize,
+                                  @Value("${schoolbus.roster-stream.max-routes:50}") int maxRoutes,
+                                  @Value("${schoolbus.roster-stream.timeout:30m}") Duration timeout,
+                                  @Value("${schoolbus.roster-stream.reconnect-delay:5s}") Duration reconnectDelay) {
+        if (bufferSize <= maxRoutes) {
+            throw new IllegalArgumentException("The roster stream buffer must hold the snapshots of "
+                    + maxRoutes + " routes and more; buffer size is " + bufferSize);
+        }
+        this.routeRosterStore = routeRosterStore;
+        this.bufferSize = bufferSize;
+        this.maxRoutes = maxRoutes;
+        this.timeout = timeout;
+        this.reconnectDelay = reconnectDelay;
+        this.drainExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("roster-stream-", 0).factory());
+        Gauge.builder(SUBSCRIBERS_METRIC, subscribers, Set::size)
+             .description("Open roster streams")
+             .register(meterRegistry);
+        this.resets = Counter.builder(RESETS_METRIC)
+                .description("Roster streams disconnected for falling too far behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the rosters of some bus routes
+     * @param busRoutes the bus routes to follow
+     * @return the stream, to be returned from the request handler
+     * @throws IllegalArgumentException if no route or too many routes are given
+     */
+    public SseEmitter subscribe(Collection<String> busRoutes) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribe(busRoutes, emitter);
+        return emitter;
+    }
+
+    /**
+     * Streams the rosters of some bus routes to an emitter created by the caller
+     * @param busRoutes the bus routes to follow
+     * @param emitter receives the events
+     * @throws IllegalArgumentException if no route or too many routes are given
+     */
+    public void subscribe(Collection<String> busRoutes, SseEmitter emitter) {
+        Set<String> routes = new LinkedHashSet<>();
+        for (String busRoute : busRoutes) {
+            if (busRoute != null && !busRoute.isBlank()) {
+                routes.add(busRoute.trim());
+            }
+        }
+        if (routes.isEmpty()) {
+            throw new IllegalArgumentException("At least one bus route is required");
+        }
+        if (routes.size() > maxRoutes) {
+            throw new IllegalArgumentException("At most " + maxRoutes + " bus routes can be followed by one stream");
+        }
+
+        Subscriber subscriber = new Subscriber(emitter, routes);
+        emitter.onCompletion(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            emitter.complete();
+        });
+
+        subscriber.send(SseEmitter.event().reconnectTime(reconnectDelay.toMillis()));
+        if (!routeRosterStore.isReady()) {
+            // Snapshots taken now would come from a half-loaded store; have the client come back
+            subscriber.finish();
+            return;
+        }
+        subscribers.add(subscriber);
+        for (String busRoute : routes) {
+            subscribersByRoute.compute(busRoute, (route, routeSubscribers) -> {
+                Set<Subscriber> updated = routeSubscribers != null ? routeSubscribers : ConcurrentHashMap.newKeySet();
+                updated.add(subscriber);
+                return updated;
+            });
+        }
+        // Registered before the snapshots are taken, so no change falls between a snapshot and its deltas
+        for (String busRoute : routes) {
+            subscriber.sendSnapshot(busRoute);
+        }
+    }
+
+    /**
+     * @return the number of open streams
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Passes a roster change on to the subscribers of its route. Runs while the roster store
+     * is locked, so it only queues the change.
+     * @param event the change published by the roster store
+     */
+    @EventListener
+    public void onRosterChanged(RouteRosterChangedEvent event) {
+        Set<Subscriber> routeSubscribers = subscribersByRoute.get(event.getDelta().getBusRoute());
+        if (routeSubscribers != null) {
+            for (Subscriber subscriber : routeSubscribers) {
+                subscriber.sendDelta(event.getDelta());
+            }
+        }
+    }
+
+    /**
+     * Sends a comment to idle subscribers, so proxies keep their connections open
+     * and connections the client has dropped are noticed
+     */
+    @Scheduled(fixedDelayString = "${schoolbus.roster-stream.heartbeat-interval:PT15S}",
+               initialDelayString = "${schoolbus.roster-stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.sendHeartbeat();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::finish);
+        drainExecutor.shutdown();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (String busRoute : subscriber.busRoutes) {
+            subscribersByRoute.computeIfPresent(busRoute, (route, routeSubscribers) -> {
+                routeSubscribers.remove(subscriber);
+                return routeSubscribers.isEmpty() ? null : routeSubscribers;
+            });
+        }
+    }
+
+    /**
+     * One open stream and the events queued for it
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<String> busRoutes;
+
+        // Guarded by lock
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<SseEmitter.SseEventBuilder> buffer = new ArrayDeque<>();
+        // Version each followed route was last sent at; absent until its snapshot is taken
+        private final Map<String, Long> versions = new HashMap<>();
+        private boolean draining;
+        // No more events are queued; the stream completes once the buffer is sent
+        private boolean finished;
+        // The stream has ended; nothing more is sent
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter, Set<String> busRoutes) {
+            this.emitter = emitter;
+            this.busRoutes = busRoutes;
+        }
+
+        private void sendSnapshot(String busRoute) {
+            lock.lock();
+            try {
+                // Taken under the lock, so a delta of the route is either in this snapshot or queued after it
+                RouteRosterDto roster = routeRosterStore.getRoster(busRoute);
+                versions.put(busRoute, roster.getVersion());
+                send(SseEmitter.event().name("snapshot").data(roster));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sendDelta(RouteRosterDeltaDto delta) {
+            lock.lock();
+            try {
+                Long version = versions.get(delta.getBusRoute());
+                // Without a version the snapshot is still to be taken and will include the change
+                if (version == null || delta.getVersion() <= version) {
+                    return;
+                }
+                versions.put(delta.getBusRoute(), delta.getVersion());
+                send(SseEmitter.event().name("delta").data(delta));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sendHeartbeat() {
+            lock.lock();
+            try {
+                if (buffer.isEmpty()) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            lock.lock();
+            try {
+                if (finished) {
+                    return;
+                }
+                if (buffer.size() < bufferSize) {
+                    buffer.addLast(event);
+                } else {
+                    // Too far behind: drop what it has not received and let it start over from snapshots
+                    buffer.clear();
+                    buffer.addLast(SseEmitter.event().name("reset").data("Too far behind, reconnect for new snapshots"));
+                    resets.increment();
+                    finish();
+                }
+                startDrain();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stops queuing events and completes the stream once the queued ones are sent
+         */
+        private void finish() {
+            lock.lock();
+            try {
+                finished = true;
+                startDrain();
+            } finally {
+                lock.unlock();
+            }
+            unsubscribe(this);
+        }
+
+        /**
+         * Drops the stream after it has ended
+         */
+        private void close() {
+            lock.lock();
+            try {
+                finished = true;
+                closed = true;
+                buffer.clear();
+            } finally {
+                lock.unlock();
+            }
+            unsubscribe(this);
+        }
+
+        // Called with the lock held
+        private void startDrain() {
+            if (!draining && !closed) {
+                draining = true;
+                drainExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                boolean complete = false;
+                lock.lock();
+                try {
+                    event = closed ? null : buffer.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        if (finished && !closed) {
+                            closed = true;
+                            complete = true;
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                if (event == null) {
+                    if (complete) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                try {
+                    // Blocks while the client is not reading, holding only this virtual thread
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException ex) {
+                    // The client went away; the container completes the request
+                    close();
+                    lock.lock();
+                    try {
+                        draining = false;
+                    } finally {
+                        lock.unlock();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
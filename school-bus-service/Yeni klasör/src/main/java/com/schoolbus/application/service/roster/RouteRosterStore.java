@@ -0,0 +1,373 @@
+package com.schoolbus.application.service.roster;
+
+import com.schoolbus.application.service.StudentReadModel;
+import com.schoolbus.domain.dto.RouteRosterDeltaDto;
+import com.schoolbus.domain.dto.RouteRosterDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.event.StudentBatchChangedEvent;
+import com.schoolbus.domain.event.RouteRosterChangedEvent;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Materialized roster of every bus route: the route's students ordered by pickup time,
+ * then database ID, with students without a pickup time last.
+ * <p>
+ * Each roster is an immutable snapshot, so reads take no lock and never touch the database.
+ * A change replaces only the snapshots of the routes it touches: the student is removed
+ * from its old route and inserted at its position on the new one. Every replacement gets
+ * a new version from a store-wide sequence, so a roster's version only ever increases,
+ * also across a route being emptied and used again. The sequence starts from the clock
+ * rather than from zero, so versions keep increasing across restarts and a version handed
+ * out before a restart is never reused for a different roster.
+ * <p>
+ * Writes to a student are serialized by its row lock and give it increasing update times, but
+ * the listeners of two writes that commit one after the other may run in either order. A change
+ * older than one already applied to the student is therefore ignored, as is any change to a
+ * student after its deletion.
+ * <p>
+ * Every replacement is also published as a {@link RouteRosterChangedEvent} carrying only
+ * the students that left and joined, so subscribers can follow a roster without reloading it.
+ * <p>
+ * Returned students are shared with other readers and must be treated as read-only.
+ */
+@Component
+public class RouteRosterStore implements StudentReadModel {
+    
+    /** Order of a roster, matching the bus route listings of the repository */
+    public static final Comparator<StudentDto> PICKUP_ORDER = Comparator
+            .comparing(StudentDto::getPickupTime, Comparator.nullsLast(Comparator.<LocalTime>naturalOrder()))
+            .thenComparing(StudentDto::getId);
+    
+    // Marks a deleted student; student IDs are never reused
+    private static final LocalDateTime DELETED = LocalDateTime.MAX;
+    
+    private final Map<String, Roster> rosters = new ConcurrentHashMap<>();
+    
+    // Guarded by lock; writes are rare, so they are simply serialized. A lock rather than
+    // a monitor, so a virtual thread waiting for it does not pin its carrier thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, String> routeByStudentId = new HashMap<>();
+    private final Map<String, List<StudentDto>> loadedRosters = new HashMap<>();
+    private final Set<Long> changedDuringLoad = new HashSet<>();
+    // Update time of the latest change applied to each student written since startup
+    private final Map<Long, LocalDateTime> appliedUpdatedAt = new HashMap<>();
+    private long lastVersion = System.currentTimeMillis() * 1000;
+    
+    private volatile boolean ready;
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public RouteRosterStore(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+    
+    /**
+     * @return true once the initial load has completed and rosters can be served from the store
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Returns the roster of a bus route
+     * @param busRoute the bus route
+     * @return the roster, empty with version 0 for a route nobody is assigned to
+     */
+    public RouteRosterDto getRoster(String busRoute) {
+        Roster roster = rosters.get(busRoute);
+        if (roster == null) {
+            return new RouteRosterDto(busRoute, 0L, List.of());
+        }
+        return new RouteRosterDto(busRoute, roster.version, roster.students);
+    }
+    
+    /**
+     * Returns the version of a bus route's roster without building the roster
+     * @param busRoute the bus route
+     * @return the version, 0 for a route nobody is assigned to
+     */
+    public long getVersion(String busRoute) {
+        Roster roster = rosters.get(busRoute);
+        return roster == null ? 0L : roster.version;
+    }
+    
+    /**
+     * Returns students of a bus route that come after a position in roster order
+     * @param busRoute the bus route
+     * @param afterPickupTime pickup time of the position, or null for the students without one
+     * @param afterId database ID of the position
+     * @param limit maximum number of students
+     * @return up to limit students following the position
+     */
+    public List<StudentDto> getStudentsAfter(String busRoute, LocalTime afterPickupTime, long afterId, int limit) {
+        Roster roster = rosters.get(busRoute);
+        if (roster == null) {
+            return List.of();
+        }
+        
+        StudentDto position = new StudentDto();
+        position.setPickupTime(afterPickupTime);
+        position.setId(afterId);
+        int index = Collections.binarySearch(roster.students, position, PICKUP_ORDER);
+        int from = index >= 0 ? index + 1 : -index - 1;
+        int to = (int) Math.min((long) from + limit, roster.students.size());
+        return roster.students.subList(from, to);
+    }
+    
+    /**
+     * Keeps the rosters in step with committed writes
+     * @param event the change published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        lock.lock();
+        try {
+            Long id = event.getId();
+            if (id == null) {
+                return;
+            }
+            if (!ready) {
+                changedDuringLoad.add(id);
+            }
+            if (!isLatest(event)) {
+                return;
+            }
+        
+            String previousRoute = routeByStudentId.remove(id);
+            StudentDto after = event.getAfter();
+            String busRoute = after != null ? after.getBusRoute() : null;
+            if (previousRoute != null && !previousRoute.equals(busRoute)) {
+                removeFromRoster(previousRoute, id);
+            }
+            if (busRoute != null) {
+                addToRoster(after);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Applies every change of a committed set-based write. Each touched roster is rebuilt
+     * once and gets one new version, however many of its students changed.
+     * @param event the changes published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentBatchChangedEvent event) {
+        lock.lock();
+        try {
+            Map<String, Set<Long>> leaving = new HashMap<>();
+            Map<String, List<StudentDto>> joining = new HashMap<>();
+            for (StudentChangedEvent change : event.getChanges()) {
+                Long id = change.getId();
+                if (id == null) {
+                    continue;
+                }
+                if (!ready) {
+                    changedDuringLoad.add(id);
+                }
+                if (!isLatest(change)) {
+                    continue;
+                }
+                
+                String previousRoute = routeByStudentId.remove(id);
+                if (previousRoute != null) {
+                    leaving.computeIfAbsent(previousRoute, route -> new HashSet<>()).add(id);
+                    joining.getOrDefault(previousRoute, new ArrayList<>()).removeIf(student -> student.getId().equals(id));
+                }
+                StudentDto after = change.getAfter();
+                if (after != null && after.getBusRoute() != null) {
+                    joining.computeIfAbsent(after.getBusRoute(), route -> new ArrayList<>()).add(new StudentDto(after));
+                    routeByStudentId.put(id, after.getBusRoute());
+                }
+            }
+            
+            Set<String> touchedRoutes = new HashSet<>(leaving.keySet());
+            touchedRoutes.addAll(joining.keySet());
+            for (String busRoute : touchedRoutes) {
+                Set<Long> left = leaving.getOrDefault(busRoute, Set.of());
+                List<StudentDto> joined = joining.getOrDefault(busRoute, List.of());
+                Roster roster = rosters.get(busRoute);
+                List<StudentDto> students = new ArrayList<>();
+                if (roster != null) {
+                    roster.students.stream()
+                                   .filter(student -> !left.contains(student.getId()))
+                                   .forEach(students::add);
+                }
+                students.addAll(joined);
+                students.sort(PICKUP_ORDER);
+                
+                // Students that changed on the route are upserted rather than removed
+                Set<Long> joinedIds = new HashSet<>();
+                joined.forEach(student -> joinedIds.add(student.getId()));
+                List<Long> removed = left.stream().filter(studentId -> !joinedIds.contains(studentId)).toList();
+                replaceRoster(busRoute, students, removed, joined);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Collects a loaded student; the loaded rosters are sorted and published together
+     * once the load completes rather than copied on every row
+     * @param student the student as stored
+     */
+    @Override
+    public void load(StudentDto student) {
+        lock.lock();
+        try {
+            if (student.getBusRoute() != null) {
+                loadedRosters.computeIfAbsent(student.getBusRoute(), route -> new ArrayList<>())
+                             .add(new StudentDto(student));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Publishes the loaded rosters. Students changed while the load was running are
+     * left out of them: the change event has already put them where they belong now.
+     */
+    @Override
+    public void markLoaded() {
+        lock.lock();
+        try {
+            for (Map.Entry<String, List<StudentDto>> loaded : loadedRosters.entrySet()) {
+                String busRoute = loaded.getKey();
+                List<StudentDto> students = new ArrayList<>(loaded.getValue());
+                students.removeIf(student -> changedDuringLoad.contains(student.getId()));
+                Roster current = rosters.get(busRoute);
+                if (current != null) {
+                    students.addAll(current.students);
+                }
+                if (students.isEmpty()) {
+                    continue;
+                }
+                students.sort(PICKUP_ORDER);
+                students.forEach(student -> routeByStudentId.put(student.getId(), busRoute));
+                rosters.put(busRoute, new Roster(++lastVersion, students));
+            }
+            loadedRosters.clear();
+            changedDuringLoad.clear();
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Removes every roster
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            rosters.clear();
+            routeByStudentId.clear();
+            loadedRosters.clear();
+            changedDuringLoad.clear();
+            appliedUpdatedAt.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Records a change as the latest of its student, unless a later one has been applied
+     * @param change the change of a single student
+     * @return false if the change is older than one already applied, or follows the deletion
+     */
+    private boolean isLatest(StudentChangedEvent change) {
+        LocalDateTime applied = appliedUpdatedAt.get(change.getId());
+        if (applied == DELETED) {
+            return false;
+        }
+        StudentDto after = change.getAfter();
+        if (after == null) {
+            appliedUpdatedAt.put(change.getId(), DELETED);
+            return true;
+        }
+        LocalDateTime updatedAt = after.getUpdatedAt();
+        if (updatedAt == null) {
+            return true;
+        }
+        if (applied != null && updatedAt.isBefore(applied)) {
+            return false;
+        }
+        appliedUpdatedAt.put(change.getId(), updatedAt);
+        return true;
+    }
+    
+    private void addToRoster(StudentDto student) {
+        StudentDto copy = new StudentDto(student);
+        Roster roster = rosters.get(copy.getBusRoute());
+        List<StudentDto> students = new ArrayList<>(roster == null ? 1 : roster.students.size() + 1);
+        if (roster != null) {
+            students.addAll(roster.students);
+            // The student may have changed on this route; take out its old position
+            students.removeIf(existing -> existing.getId().equals(copy.getId()));
+        }
+        int index = Collections.binarySearch(students, copy, PICKUP_ORDER);
+        students.add(index >= 0 ? index : -index - 1, copy);
+        
+        replaceRoster(copy.getBusRoute(), students, List.of(), List.of(copy));
+        routeByStudentId.put(copy.getId(), copy.getBusRoute());
+    }
+    
+    private void removeFromRoster(String busRoute, Long id) {
+        Roster roster = rosters.get(busRoute);
+        if (roster == null) {
+            return;
+        }
+        List<StudentDto> students = new ArrayList<>(roster.students);
+        students.removeIf(student -> student.getId().equals(id));
+        replaceRoster(busRoute, students, List.of(id), List.of());
+    }
+    
+    /**
+     * Publishes a new roster of a route and the change that led to it
+     * @param busRoute the bus route
+     * @param students the students of the new roster in pickup order; an empty roster is dropped
+     * @param removed the IDs of the students that left the route
+     * @param upserted the students that joined or changed on the route
+     */
+    private void replaceRoster(String busRoute, List<StudentDto> students, List<Long> removed,
+                               List<StudentDto> upserted) {
+        long version = ++lastVersion;
+        if (students.isEmpty()) {
+            rosters.remove(busRoute);
+        } else {
+            rosters.put(busRoute, new Roster(version, students));
+        }
+        eventPublisher.publishEvent(new RouteRosterChangedEvent(new RouteRosterDeltaDto(
+                busRoute, version, students.size(), removed, Collections.unmodifiableList(upserted))));
+    }
+    
+    private static final class Roster {
+        
+        private final long version;
+        private final List<StudentDto> students;
+        
+        private Roster(long version, List<StudentDto> students) {
+            this.version = version;
+            this.students = Collections.unmodifiableList(students);
+        }
+    }
+}
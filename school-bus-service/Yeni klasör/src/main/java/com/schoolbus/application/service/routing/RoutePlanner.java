@@ -0,0 +1,206 @@
+package com.schoolbus.application.service.routing;
+
+import com.schoolbus.application.service.StudentService;
+import com.schoolbus.application.service.location.GeoPoint;
+import com.schoolbus.application.service.location.StudentLocationService;
+import com.schoolbus.domain.dto.FleetPlanDto;
+import com.schoolbus.domain.dto.RoutePlanDto;
+import com.schoolbus.domain.dto.RouteStopDto;
+import com.schoolbus.domain.dto.StudentDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Plans the stop sequence and pickup times of bus routes from the home locations of their students.
+ * <p>
+ * Students at the same location share a stop. Each route is sequenced by a {@link StopSequencer}
+ * within the configured time budget, searching both from a fresh construction and from the route's
+ * current order, so a plan is never longer than the order it replaces. Pickup times are derived
+ * backwards from the school arrival time. Routes are independent and are planned in parallel on
+ * a dedicated fork-join pool. Plans are only returned; nothing is changed.
+ */
+@Service
+@EnableConfigurationProperties(RoutePlanningProperties.class)
+public class RoutePlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutePlanner.class);
+
+    static final String SOLVE_METRIC = "students.routing.solve";
+    static final String IMPROVEMENT_METRIC = "students.routing.improvement";
+
+    private final StudentService studentService;
+    private final StudentLocationService studentLocationService;
+    private final RoutePlanningProperties properties;
+    private final ForkJoinPool pool;
+    private final Timer solveTimer;
+    private final DistributionSummary improvement;
+
+    @Autowired
+    public RoutePlanner(StudentService studentService,
+                        StudentLocationService studentLocationService,
+                        RoutePlanningProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.studentService = studentService;
+        this.studentLocationService = studentLocationService;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.parallelism());
+        this.solveTimer = Timer.builder(SOLVE_METRIC)
+                .description("Time to plan one bus route")
+                .register(meterRegistry);
+        this.improvement = DistributionSummary.builder(IMPROVEMENT_METRIC)
+                .description("Distance a route plan saves over the route's current order")
+                .baseUnit("percent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Plans one bus route
+     * @param busRoute the bus route
+     * @return the plan
+     * @throws RuntimeException if nobody is assigned to the route
+     * @throws IllegalStateException if the school location is not configured
+     */
+    public RoutePlanDto planRoute(String busRoute) {
+        requireSchool();
+        List<StudentDto> students = studentService.getStudentsByBusRoute(busRoute);
+        if (students.isEmpty()) {
+            throw new RuntimeException("Bus route not found: " + busRoute);
+        }
+        Map<Long, GeoPoint> locations = studentLocationService.getLocations(
+                students.stream().map(StudentDto::getId).toList());
+        return plan(busRoute, students, locations);
+    }
+
+    /**
+     * Plans every bus route in parallel
+     * @return the plans, in bus route order
+     * @throws IllegalStateException if the school location is not configured
+     */
+    public FleetPlanDto planFleet() {
+        requireSchool();
+        long started = System.nanoTime();
+        Map<String, List<StudentDto>> studentsByRoute = new LinkedHashMap<>();
+        for (String busRoute : studentService.getAllBusRoutes()) {
+            studentsByRoute.put(busRoute, studentService.getStudentsByBusRoute(busRoute));
+        }
+        Map<Long, GeoPoint> locations = studentLocationService.getAllLocations();
+
+        List<RoutePlanDto> plans = planAll(studentsByRoute, locations);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Planned {} bus routes in {} ms", plans.size(), elapsedMillis);
+        return new FleetPlanDto(plans, pool.getParallelism(), elapsedMillis);
+    }
+
+    /**
+     * Plans routes in parallel on the planning pool
+     * @param studentsByRoute the students of each route, in the route's current order
+     * @param locations the home location of each student that has one
+     * @return the plans, in the order of the routes
+     */
+    public List<RoutePlanDto> planAll(Map<String, List<StudentDto>> studentsByRoute, Map<Long, GeoPoint> locations) {
+        requireSchool();
+        List<ForkJoinTask<RoutePlanDto>> tasks = new ArrayList<>(studentsByRoute.size());
+        for (Map.Entry<String, List<StudentDto>> route : studentsByRoute.entrySet()) {
+            tasks.add(pool.submit(() -> plan(route.getKey(), route.getValue(), locations)));
+        }
+        List<RoutePlanDto> plans = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<RoutePlanDto> task : tasks) {
+            plans.add(task.join());
+        }
+        return plans;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private RoutePlanDto plan(String busRoute, List<StudentDto> students, Map<Long, GeoPoint> locations) {
+        long started = System.nanoTime();
+
+        // Students at one location share a stop; stops are kept in the route's current order
+        Map<GeoPoint, List<StudentDto>> studentsByStop = new LinkedHashMap<>();
+        List<Long> unlocatedIds = new ArrayList<>();
+        for (StudentDto student : students) {
+            GeoPoint location = locations.get(student.getId());
+            if (location == null) {
+                unlocatedIds.add(student.getId());
+            } else {
+                studentsByStop.computeIfAbsent(location, stop -> new ArrayList<>()).add(student);
+            }
+        }
+        List<GeoPoint> points = new ArrayList<>(studentsByStop.keySet());
+        List<List<StudentDto>> stopStudents = new ArrayList<>(studentsByStop.values());
+
+        StopSequencer sequencer = new StopSequencer(points, properties.school());
+        int[] current = IntStream.range(0, points.size()).toArray();
+        long deadline = started + properties.timeBudget().toNanos();
+        int[] planned = sequencer.improve(sequencer.construct(), started + properties.timeBudget().toNanos() / 2);
+        int[] improvedCurrent = sequencer.improve(current, deadline);
+        if (sequencer.length(improvedCurrent) < sequencer.length(planned)) {
+            planned = improvedCurrent;
+        }
+
+        List<RouteStopDto> stops = toStops(sequencer, planned, points, stopStudents);
+        long solveNanos = System.nanoTime() - started;
+        solveTimer.record(solveNanos, TimeUnit.NANOSECONDS);
+        RoutePlanDto plan = new RoutePlanDto(busRoute, stops, unlocatedIds, properties.arrivalTime(),
+                sequencer.length(current), sequencer.length(planned), TimeUnit.NANOSECONDS.toMillis(solveNanos));
+        improvement.record(plan.getImprovementPercent());
+        return plan;
+    }
+
+    /**
+     * Derives the pickup time of every stop backwards from the arrival at the school,
+     * rounded down to the minute so that nobody is told to be out later than the bus comes
+     */
+    private List<RouteStopDto> toStops(StopSequencer sequencer, int[] order, List<GeoPoint> points,
+                                       List<List<StudentDto>> stopStudents) {
+        LocalTime[] pickupTimes = new LocalTime[order.length];
+        Duration beforeArrival = Duration.ZERO;
+        int next = sequencer.size();
+        for (int k = order.length - 1; k >= 0; k--) {
+            int stop = order[k];
+            beforeArrival = beforeArrival.plus(properties.travelTime(sequencer.distance(stop, next)))
+                                         .plus(properties.dwellTime());
+            pickupTimes[k] = properties.arrivalTime().minus(beforeArrival).truncatedTo(ChronoUnit.MINUTES);
+            next = stop;
+        }
+
+        List<RouteStopDto> stops = new ArrayList<>(order.length);
+        for (int k = 0; k < order.length; k++) {
+            GeoPoint point = points.get(order[k]);
+            List<StudentDto> students = stopStudents.get(order[k]);
+            stops.add(new RouteStopDto(k + 1, point.latitude(), point.longitude(), pickupTimes[k],
+                    students.stream().map(StudentDto::getId).toList(),
+                    students.stream().map(StudentDto::getStudentId).toList()));
+        }
+        return stops;
+    }
+
+    private void requireSchool() {
+        if (properties.school() == null) {
+            throw new IllegalStateException(
+                    "Route planning needs the school location in schoolbus.routing.school.latitude and longitude");
+        }
+    }
+}
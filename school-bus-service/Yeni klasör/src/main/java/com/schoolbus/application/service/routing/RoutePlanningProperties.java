@@ -0,0 +1,46 @@
+package com.schoolbus.application.service.routing;
+
+import com.schoolbus.application.service.location.GeoPoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+/**
+ * Settings of route planning. Travel times are estimated from straight-line distances
+ * stretched by the road factor, driven at the average speed.
+ * @param school where every route ends, or null if planning is not set up
+ * @param arrivalTime when buses arrive at the school
+ * @param averageSpeed average driving speed in km/h
+ * @param roadFactor ratio of road distance to straight-line distance
+ * @param dwellTime time spent at each stop
+ * @param timeBudget search time allowed per route
+ * @param parallelism routes planned at once; 0 uses one per core
+ */
+@ConfigurationProperties(prefix = "schoolbus.routing")
+public record RoutePlanningProperties(GeoPoint school,
+                                      LocalTime arrivalTime,
+                                      double averageSpeed,
+                                      double roadFactor,
+                                      Duration dwellTime,
+                                      Duration timeBudget,
+                                      int parallelism) {
+
+    public RoutePlanningProperties {
+        arrivalTime = arrivalTime != null ? arrivalTime : LocalTime.of(8, 0);
+        averageSpeed = averageSpeed > 0 ? averageSpeed : 30;
+        roadFactor = roadFactor > 0 ? roadFactor : 1.3;
+        dwellTime = dwellTime != null ? dwellTime : Duration.ofSeconds(30);
+        timeBudget = timeBudget != null ? timeBudget : Duration.ofSeconds(2);
+        parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @param meters a straight-line distance
+     * @return the estimated time to drive it
+     */
+    public Duration travelTime(double meters) {
+        double seconds = meters * roadFactor / (averageSpeed / 3.6);
+        return Duration.ofMillis(Math.round(seconds * 1000));
+    }
+}
@@ -0,0 +1,227 @@
+package com.schoolbus.application.service.routing;
+
+import com.schoolbus.application.service.location.GeoPoint;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Orders the stops of one bus route so that the bus covers the least distance from its first stop,
+ * past every other stop, to the school. The route is an open path: where it starts is free, where
+ * it ends is fixed.
+ * <p>
+ * A first order is built by cheapest insertion and then improved by local search: 2-opt reverses
+ * a run of stops, Or-opt moves a run of up to three stops elsewhere, either way round. Search stops
+ * when neither finds an improving move or the deadline passes, so the result is always a complete
+ * order and only its quality depends on the time budget. Distances are straight-line and computed
+ * once for every pair of stops.
+ * <p>
+ * Orders are arrays of stop indexes into the list the sequencer was created with. Not thread-safe;
+ * use one sequencer per route.
+ */
+public final class StopSequencer {
+
+    private static final int OR_OPT_MAX_SEGMENT = 3;
+    // Ignore improvements of less than a millimetre, which are rounding noise
+    private static final double EPSILON = 1e-3;
+
+    private final int size;
+    // Indexes 0 to size - 1 are the stops, index size is the school
+    private final double[][] distances;
+
+    /**
+     * @param stops the stops of the route
+     * @param destination where the route ends
+     */
+    public StopSequencer(List<GeoPoint> stops, GeoPoint destination) {
+        this.size = stops.size();
+        this.distances = new double[size + 1][size + 1];
+        for (int i = 0; i <= size; i++) {
+            GeoPoint from = i < size ? stops.get(i) : destination;
+            for (int j = 0; j < i; j++) {
+                GeoPoint to = j < size ? stops.get(j) : destination;
+                double distance = from.distanceMeters(to);
+                distances[i][j] = distance;
+                distances[j][i] = distance;
+            }
+        }
+    }
+
+    /**
+     * @return the number of stops
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Builds an order by cheapest insertion, taking the stops farthest from the school first
+     * so that the outlying stops set the shape of the route
+     * @return the order
+     */
+    public int[] construct() {
+        Integer[] byDistance = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+        Arrays.sort(byDistance, Comparator.comparingDouble((Integer stop) -> distances[stop][size]).reversed());
+
+        int[] order = new int[size];
+        int length = 0;
+        for (int stop : byDistance) {
+            int bestGap = 0;
+            double bestCost = Double.POSITIVE_INFINITY;
+            for (int gap = 0; gap <= length; gap++) {
+                int next = gap < length ? order[gap] : size;
+                double cost = distances[stop][next];
+                if (gap > 0) {
+                    int previous = order[gap - 1];
+                    cost += distances[previous][stop] - distances[previous][next];
+                }
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestGap = gap;
+                }
+            }
+            System.arraycopy(order, bestGap, order, bestGap + 1, length - bestGap);
+            order[bestGap] = stop;
+            length++;
+        }
+        return order;
+    }
+
+    /**
+     * Improves an order by 2-opt and Or-opt moves until none improves it or the deadline passes
+     * @param order the order to start from; not modified
+     * @param deadlineNanos {@link System#nanoTime()} after which no further move is tried
+     * @return the improved order, never longer than the given one
+     */
+    public int[] improve(int[] order, long deadlineNanos) {
+        int[] improved = order.clone();
+        while (System.nanoTime() < deadlineNanos) {
+            boolean changed = twoOpt(improved, deadlineNanos);
+            changed |= orOpt(improved, deadlineNanos);
+            if (!changed) {
+                break;
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * @param order an order of all stops
+     * @return the distance from the first stop past all others to the school in meters
+     */
+    public double length(int[] order) {
+        if (order.length == 0) {
+            return 0;
+        }
+        double length = 0;
+        for (int i = 0; i + 1 < order.length; i++) {
+            length += distances[order[i]][order[i + 1]];
+        }
+        return length + distances[order[order.length - 1]][size];
+    }
+
+    /**
+     * @param from index of a stop
+     * @param to index of another stop, or {@link #size()} for the school
+     * @return the straight-line distance between them in meters
+     */
+    public double distance(int from, int to) {
+        return distances[from][to];
+    }
+
+    /**
+     * Applies every improving reversal of a run of stops
+     * @return true if the order changed
+     */
+    private boolean twoOpt(int[] order, long deadlineNanos) {
+        boolean changed = false;
+        int n = order.length;
+        for (int i = 0; i < n - 1 && System.nanoTime() < deadlineNanos; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int first = order[i];
+                int last = order[j];
+                int next = j + 1 < n ? order[j + 1] : size;
+                // The run's inner edges keep their length; only its two ends are reconnected
+                double delta = distances[first][next] - distances[last][next];
+                if (i > 0) {
+                    int previous = order[i - 1];
+                    delta += distances[previous][last] - distances[previous][first];
+                }
+                if (delta < -EPSILON) {
+                    reverse(order, i, j);
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Applies the first improving move of a run of up to three stops to another gap,
+     * either way round
+     * @return true if the order changed
+     */
+    private boolean orOpt(int[] order, long deadlineNanos) {
+        int n = order.length;
+        int[] rest = new int[n];
+        for (int length = 1; length <= OR_OPT_MAX_SEGMENT && length < n; length++) {
+            for (int i = 0; i + length <= n; i++) {
+                if (System.nanoTime() >= deadlineNanos) {
+                    return false;
+                }
+                int first = order[i];
+                int last = order[i + length - 1];
+                int previous = i > 0 ? order[i - 1] : -1;
+                int next = i + length < n ? order[i + length] : size;
+                double removed = distances[last][next];
+                if (previous >= 0) {
+                    removed += distances[previous][first] - distances[previous][next];
+                }
+
+                // The order without the run; gap g lies before rest[g]
+                int restLength = n - length;
+                System.arraycopy(order, 0, rest, 0, i);
+                System.arraycopy(order, i + length, rest, i, n - i - length);
+                for (int gap = 0; gap <= restLength; gap++) {
+                    int before = gap > 0 ? rest[gap - 1] : -1;
+                    int after = gap < restLength ? rest[gap] : size;
+                    double kept = before >= 0 ? -distances[before][after] : 0;
+                    for (int reversed = 0; reversed < 2; reversed++) {
+                        if (gap == i && reversed == 0) {
+                            continue;
+                        }
+                        int head = reversed == 0 ? first : last;
+                        int tail = reversed == 0 ? last : first;
+                        double added = kept + distances[tail][after] + (before >= 0 ? distances[before][head] : 0);
+                        if (added - removed < -EPSILON) {
+                            move(order, rest, restLength, i, length, gap, reversed == 1);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void move(int[] order, int[] rest, int restLength, int from, int length, int gap,
+                             boolean reversed) {
+        int[] run = Arrays.copyOfRange(order, from, from + length);
+        if (reversed) {
+            reverse(run, 0, length - 1);
+        }
+        System.arraycopy(rest, 0, order, 0, gap);
+        System.arraycopy(run, 0, order, gap, length);
+        System.arraycopy(rest, gap, order, gap + length, restLength - gap);
+    }
+
+    private static void reverse(int[] order, int from, int to) {
+        for (int i = from, j = to; i < j; i++, j--) {
+            int stop = order[i];
+            order[i] = order[j];
+            order[j] = stop;
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package com.schoolbus.application.service.search;
+
+import com.schoolbus.application.service.StudentReadModel;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.event.StudentBatchChangedEvent;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over student first and last names.
+ * Answers the same case-insensitive substring match as the repository's LIKE search
+ * by intersecting the posting lists of the query's trigrams and verifying the candidates,
+ * so the cost depends on the number of candidates rather than on the size of the table.
+ * Queries shorter than a trigram are answered by scanning the in-memory name table.
+ * <p>
+ * The index is filled once at startup by {@link com.schoolbus.application.service.StudentReadModelLoader} and kept current
+ * from {@link StudentChangedEvent}s after each write commits. It holds IDs and names only;
+ * callers load the matching rows by primary key.
+ */
+@Component
+public class StudentNameIndex implements StudentReadModel {
+
+    private static final int GRAM_LENGTH = 3;
+
+    // Rank of a match: a whole-name match ranks above a prefix match, which ranks above a substring match
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_SUBSTRING = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documents are addressed by a dense internal number so posting lists can hold plain ints
+    private final Map<Long, Integer> docByStudentId = new HashMap<>();
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private long[] studentIds = new long[1024];
+    private String[] firstNames = new String[1024];
+    private String[] firstLower = new String[1024];
+    private String[] lastLower = new String[1024];
+    private int docCount;
+
+    private volatile boolean ready;
+
+    /**
+     * @return true once the initial load has completed and searches can be answered from the index
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void markLoaded() {
+        ready = true;
+    }
+
+    /**
+     * @return the number of indexed students
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByStudentId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the names of a student
+     * @param id the database ID of the student
+     * @param firstName the first name
+     * @param lastName the last name
+     */
+    public void put(Long id, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+            addDoc(id, firstName, lastName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the names of a loaded student unless the student is already indexed,
+     * so a load never overwrites a newer entry written by a change event
+     * @param student the student as stored
+     */
+    @Override
+    public void load(StudentDto student) {
+        lock.writeLock().lock();
+        try {
+            if (!docByStudentId.containsKey(student.getId())) {
+                addDoc(student.getId(), student.getFirstName(), student.getLastName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a student from the index
+     * @param id the database ID of the student
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every student from the index
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            docByStudentId.clear();
+            freeDocs.clear();
+            postings.clear();
+            Arrays.fill(firstNames, null);
+            Arrays.fill(firstLower, null);
+            Arrays.fill(lastLower, null);
+            docCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps the index in step with committed writes
+     * @param event the change published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.getId() == null) {
+            return;
+        }
+
+        StudentDto after = event.getAfter();
+        if (after == null) {
+            remove(event.getId());
+            return;
+        }
+
+        StudentDto before = event.getBefore();
+        if (before == null
+                || !after.getFirstName().equals(before.getFirstName())
+                || !after.getLastName().equals(before.getLastName())) {
+            put(after.getId(), after.getFirstName(), after.getLastName());
+        }
+    }
+
+    /**
+     * Applies every change of a set-based write
+     * @param event the changes published by the student service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentBatchChangedEvent event) {
+        event.getChanges().forEach(this::onStudentChanged);
+    }
+
+    /**
+     * Finds students whose first or last name contains the query, best matches first.
+     * Whole-name matches rank above prefix matches, which rank above other substring matches;
+     * ties are ordered by first name, then database ID.
+     * @param query the text to search for, matched case-insensitively
+     * @param limit maximum number of results
+     * @return database IDs of the matching students in rank order
+     */
+    public List<Long> search(String query, int limit) {
+        String needle = normalize(query);
+        Comparator<Match> order = Comparator.comparingInt((Match match) -> match.rank)
+                .thenComparing(match -> match.firstName)
+                .thenComparingLong(match -> match.studentId);
+
+        lock.readLock().lock();
+        try {
+            // Keep only the best `limit` matches in a heap whose head is the worst kept match
+            PriorityQueue<Match> best = new PriorityQueue<>(order.reversed());
+            forEachMatch(needle, (doc, rank) -> {
+                Match match = new Match(studentIds[doc], firstNames[doc], rank);
+                if (best.size() < limit) {
+                    best.add(match);
+                } else if (order.compare(match, best.peek()) < 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            });
+
+            List<Match> ranked = new ArrayList<>(best);
+            ranked.sort(order);
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Match match : ranked) {
+                ids.add(match.studentId);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds students whose first or last name contains the query, in (first name, ID) order
+     * after the given position, for keyset pagination of search results
+     * @param query the text to search for, matched case-insensitively
+     * @param afterFirstName first name of the last row of the previous page
+     * @param afterId database ID of the last row of the previous page
+     * @param limit maximum number of results
+     * @return database IDs of the matching students in (first name, ID) order
+     */
+    public List<Long> searchAfter(String query, String afterFirstName, long afterId, int limit) {
+        String needle = normalize(query);
+        Comparator<Match> order = Comparator.comparing((Match match) -> match.firstName)
+                .thenComparingLong(match -> match.studentId);
+        Match position = new Match(afterId, afterFirstName, RANK_SUBSTRING);
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Match> first = new PriorityQueue<>(order.reversed());
+            forEachMatch(needle, (doc, rank) -> {
+                Match match = new Match(studentIds[doc], firstNames[doc], rank);
+                if (order.compare(match, position) <= 0) {
+                    return;
+                }
+                if (first.size() < limit) {
+                    first.add(match);
+                } else if (order.compare(match, first.peek()) < 0) {
+                    first.poll();
+                    first.add(match);
+                }
+            });
+
+            List<Match> page = new ArrayList<>(first);
+            page.sort(order);
+            List<Long> ids = new ArrayList<>(page.size());
+            for (Match match : page) {
+                ids.add(match.studentId);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks a student against a query with the same rule the index applies
+     * @param query the text searched for
+     * @param firstName the student's first name
+     * @param lastName the student's last name
+     * @return true if either name contains the query, ignoring case
+     */
+    public static boolean matches(String query, String firstName, String lastName) {
+        String needle = normalize(query);
+        return normalize(firstName).contains(needle) || normalize(lastName).contains(needle);
+    }
+
+    private void forEachMatch(String needle, MatchConsumer consumer) {
+        if (needle.length() < GRAM_LENGTH) {
+            for (int doc = 0; doc < docCount; doc++) {
+                if (firstLower[doc] != null) {
+                    int rank = rank(doc, needle);
+                    if (rank >= 0) {
+                        consumer.accept(doc, rank);
+                    }
+                }
+            }
+            return;
+        }
+
+        // Intersect the posting lists, shortest first, then verify each candidate
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        Postings shortest = lists.get(0);
+        for (int i = 0; i < shortest.size; i++) {
+            int doc = shortest.docs[i];
+            boolean inAll = true;
+            for (int l = 1; l < lists.size() && inAll; l++) {
+                inAll = lists.get(l).contains(doc);
+            }
+            if (inAll) {
+                int rank = rank(doc, needle);
+                if (rank >= 0) {
+                    consumer.accept(doc, rank);
+                }
+            }
+        }
+    }
+
+    private int rank(int doc, String needle) {
+        int rank = Math.min(rank(firstLower[doc], needle), rank(lastLower[doc], needle));
+        return rank == Integer.MAX_VALUE ? -1 : rank;
+    }
+
+    private static int rank(String name, String needle) {
+        if (name.equals(needle)) {
+            return RANK_EXACT;
+        }
+        if (name.startsWith(needle)) {
+            return RANK_PREFIX;
+        }
+        if (name.contains(needle)) {
+            return RANK_SUBSTRING;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private void addDoc(Long id, String firstName, String lastName) {
+        int doc = freeDocs.isEmpty() ? docCount++ : freeDocs.pop();
+        ensureCapacity(doc + 1);
+
+        studentIds[doc] = id;
+        firstNames[doc] = firstName;
+        firstLower[doc] = normalize(firstName);
+        lastLower[doc] = normalize(lastName);
+        docByStudentId.put(id, doc);
+
+        for (String gram : docGrams(doc)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+        }
+    }
+
+    private void removeDoc(Long id) {
+        Integer doc = docByStudentId.remove(id);
+        if (doc == null) {
+            return;
+        }
+
+        for (String gram : docGrams(doc)) {
+            Postings list = postings.get(gram);
+            if (list != null) {
+                list.remove(doc);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        firstNames[doc] = null;
+        firstLower[doc] = null;
+        lastLower[doc] = null;
+        freeDocs.push(doc);
+    }
+
+    private Set<String> docGrams(int doc) {
+        Set<String> grams = grams(firstLower[doc]);
+        grams.addAll(grams(lastLower[doc]));
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > studentIds.length) {
+            int grown = Math.max(capacity, studentIds.length * 2);
+            studentIds = Arrays.copyOf(studentIds, grown);
+            firstNames = Arrays.copyOf(firstNames, grown);
+            firstLower = Arrays.copyOf(firstLower, grown);
+            lastLower = Arrays.copyOf(lastLower, grown);
+        }
+    }
+
+    @FunctionalInterface
+    private interface MatchConsumer {
+        void accept(int doc, int rank);
+    }
+
+    private static final class Match {
+        private final long studentId;
+        private final String firstName;
+        private final int rank;
+
+        private Match(long studentId, String firstName, int rank) {
+            this.studentId = studentId;
+            this.firstName = firstName;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * Sorted, growable list of document numbers for one trigram
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                return;
+            }
+            int insertAt = -at - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            docs[insertAt] = doc;
+            size++;
+        }
+
+        private void remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) {
+                return;
+            }
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            size--;
+        }
+
+        private boolean contains(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.schoolbus.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Assigns one bus route and pickup/dropoff times to many students at once.
+ * The students are selected either by database ID or by a filter on their current
+ * bus route and/or grade, never both.
+ */
+public class BulkBusRouteAssignmentDto {
+
+    private List<Long> ids;
+    private String currentBusRoute;
+    private String grade;
+
+    @NotBlank(message = "Bus route is required")
+    private String busRoute;
+
+    @NotNull(message = "Pickup time is required")
+    private LocalTime pickupTime;
+
+    @NotNull(message = "Dropoff time is required")
+    private LocalTime dropoffTime;
+
+    // Default constructor
+    public BulkBusRouteAssignmentDto() {}
+
+    public BulkBusRouteAssignmentDto(List<Long> ids, String currentBusRoute, String grade,
+                                     String busRoute, LocalTime pickupTime, LocalTime dropoffTime) {
+        this.ids = ids;
+        this.currentBusRoute = currentBusRoute;
+        this.grade = grade;
+        this.busRoute = busRoute;
+        this.pickupTime = pickupTime;
+        this.dropoffTime = dropoffTime;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getCurrentBusRoute() {
+        return currentBusRoute;
+    }
+
+    public void setCurrentBusRoute(String currentBusRoute) {
+        this.currentBusRoute = currentBusRoute;
+    }
+
+    public String getGrade() {
+        return grade;
+    }
+
+    public void setGrade(String grade) {
+        this.grade = grade;
+    }
+
+    public String getBusRoute() {
+        return busRoute;
+    }
+
+    public void setBusRoute(String busRoute) {
+        this.busRoute = busRoute;
+    }
+
+    public LocalTime getPickupTime() {
+        return pickupTime;
+    }
+
+    public void setPickupTime(LocalTime pickupTime) {
+        this.pickupTime = pickupTime;
+    }
+
+    public LocalTime getDropoffTime() {
+        return dropoffTime;
+    }
+
+    public void setDropoffTime(LocalTime dropoffTime) {
+        this.dropoffTime = dropoffTime;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkBusRouteAssignmentDto{" +
+                "ids=" + ids +
+                ", currentBusRoute='" + currentBusRoute + '\'' +
+                ", grade='" + grade + '\'' +
+                ", busRoute='" + busRoute + '\'' +
+                ", pickupTime=" + pickupTime +
+                ", dropoffTime=" + dropoffTime +
+                '}';
+    }
+}
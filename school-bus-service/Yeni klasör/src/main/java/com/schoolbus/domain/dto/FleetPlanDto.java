@@ -0,0 +1,76 @@
+package com.schoolbus.domain.dto;
+
+import java.util.List;
+
+/**
+ * The plans of every bus route, planned in parallel
+ */
+public class FleetPlanDto {
+    
+    private List<RoutePlanDto> routes;
+    private int parallelism;
+    private long elapsedMillis;
+    private double currentDistanceMeters;
+    private double plannedDistanceMeters;
+    
+    // Default constructor
+    public FleetPlanDto() {}
+    
+    public FleetPlanDto(List<RoutePlanDto> routes, int parallelism, long elapsedMillis) {
+        this.routes = routes;
+        this.parallelism = parallelism;
+        this.elapsedMillis = elapsedMillis;
+        this.currentDistanceMeters = routes.stream().mapToDouble(RoutePlanDto::getCurrentDistanceMeters).sum();
+        this.plannedDistanceMeters = routes.stream().mapToDouble(RoutePlanDto::getPlannedDistanceMeters).sum();
+    }
+    
+    // Getters and Setters
+    public List<RoutePlanDto> getRoutes() {
+        return routes;
+    }
+    
+    public void setRoutes(List<RoutePlanDto> routes) {
+        this.routes = routes;
+    }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public double getCurrentDistanceMeters() {
+        return currentDistanceMeters;
+    }
+    
+    public void setCurrentDistanceMeters(double currentDistanceMeters) {
+        this.currentDistanceMeters = currentDistanceMeters;
+    }
+    
+    public double getPlannedDistanceMeters() {
+        return plannedDistanceMeters;
+    }
+    
+    public void setPlannedDistanceMeters(double plannedDistanceMeters) {
+        this.plannedDistanceMeters = plannedDistanceMeters;
+    }
+    
+    @Override
+    public String toString() {
+        return "FleetPlanDto{" +
+                "routes=" + routes.size() +
+                ", parallelism=" + parallelism +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
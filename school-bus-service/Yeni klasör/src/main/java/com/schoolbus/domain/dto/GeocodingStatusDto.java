@@ -0,0 +1,123 @@
+package com.schoolbus.domain.dto;
+
+/**
+ * State of the geocoding pipeline. Counts run since startup: cache hits and misses count
+ * distinct addresses per batch, found, not found and failed count addresses sent to the geocoder,
+ * and located counts the students whose location was set.
+ */
+public class GeocodingStatusDto {
+    private boolean enabled;
+    private int queued;
+    private int batchesInProgress;
+    private boolean backfillRunning;
+    private int cacheSize;
+    private long cacheHits;
+    private long cacheMisses;
+    private long addressesFound;
+    private long addressesNotFound;
+    private long addressesFailed;
+    private long studentsLocated;
+
+    // Default constructor
+    public GeocodingStatusDto() {}
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public int getBatchesInProgress() {
+        return batchesInProgress;
+    }
+
+    public void setBatchesInProgress(int batchesInProgress) {
+        this.batchesInProgress = batchesInProgress;
+    }
+
+    public boolean isBackfillRunning() {
+        return backfillRunning;
+    }
+
+    public void setBackfillRunning(boolean backfillRunning) {
+        this.backfillRunning = backfillRunning;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public void setCacheHits(long cacheHits) {
+        this.cacheHits = cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public void setCacheMisses(long cacheMisses) {
+        this.cacheMisses = cacheMisses;
+    }
+
+    public long getAddressesFound() {
+        return addressesFound;
+    }
+
+    public void setAddressesFound(long addressesFound) {
+        this.addressesFound = addressesFound;
+    }
+
+    public long getAddressesNotFound() {
+        return addressesNotFound;
+    }
+
+    public void setAddressesNotFound(long addressesNotFound) {
+        this.addressesNotFound = addressesNotFound;
+    }
+
+    public long getAddressesFailed() {
+        return addressesFailed;
+    }
+
+    public void setAddressesFailed(long addressesFailed) {
+        this.addressesFailed = addressesFailed;
+    }
+
+    public long getStudentsLocated() {
+        return studentsLocated;
+    }
+
+    public void setStudentsLocated(long studentsLocated) {
+        this.studentsLocated = studentsLocated;
+    }
+
+    @Override
+    public String toString() {
+        return "GeocodingStatusDto{" +
+                "queued=" + queued +
+                ", batchesInProgress=" + batchesInProgress +
+                ", backfillRunning=" + backfillRunning +
+                ", cacheSize=" + cacheSize +
+                ", studentsLocated=" + studentsLocated +
+                '}';
+    }
+}
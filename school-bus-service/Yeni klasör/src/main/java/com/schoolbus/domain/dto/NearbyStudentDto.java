@@ -0,0 +1,66 @@
+package com.schoolbus.domain.dto;
+
+/**
+ * A student found by a location query: the student's database ID, home location and,
+ * for queries around a point, the straight-line distance from it
+ */
+public class NearbyStudentDto {
+    
+    private Long id;
+    private double latitude;
+    private double longitude;
+    private Double distanceMeters;
+    
+    // Default constructor
+    public NearbyStudentDto() {}
+    
+    public NearbyStudentDto(Long id, double latitude, double longitude, Double distanceMeters) {
+        this.id = id;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceMeters = distanceMeters;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public Double getDistanceMeters() {
+        return distanceMeters;
+    }
+    
+    public void setDistanceMeters(Double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+    
+    @Override
+    public String toString() {
+        return "NearbyStudentDto{" +
+                "id=" + id +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", distanceMeters=" + distanceMeters +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.schoolbus.domain.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * The planned stop sequence of a bus route with derived pickup times, and how it compares
+ * with the route's current order. Distances are straight-line, from the first stop to the school.
+ */
+public class RoutePlanDto {
+    
+    private String busRoute;
+    private List<RouteStopDto> stops;
+    private List<Long> unlocatedIds;
+    private LocalTime arrivalTime;
+    private double currentDistanceMeters;
+    private double plannedDistanceMeters;
+    private double improvementPercent;
+    private long solveTimeMillis;
+    
+    // Default constructor
+    public RoutePlanDto() {}
+    
+    public RoutePlanDto(String busRoute, List<RouteStopDto> stops, List<Long> unlocatedIds, LocalTime arrivalTime,
+                        double currentDistanceMeters, double plannedDistanceMeters, long solveTimeMillis) {
+        this.busRoute = busRoute;
+        this.stops = stops;
+        this.unlocatedIds = unlocatedIds;
+        this.arrivalTime = arrivalTime;
+        this.currentDistanceMeters = currentDistanceMeters;
+        this.plannedDistanceMeters = plannedDistanceMeters;
+        this.improvementPercent = currentDistanceMeters > 0
+                ? (currentDistanceMeters - plannedDistanceMeters) * 100 / currentDistanceMeters
+                : 0;
+        this.solveTimeMillis = solveTimeMillis;
+    }
+    
+    // Getters and Setters
+    public String getBusRoute() {
+        return busRoute;
+    }
+    
+    public void setBusRoute(String busRoute) {
+        this.busRoute = busRoute;
+    }
+    
+    public List<RouteStopDto> getStops() {
+        return stops;
+    }
+    
+    public void setStops(List<RouteStopDto> stops) {
+        this.stops = stops;
+    }
+    
+    public List<Long> getUnlocatedIds() {
+        return unlocatedIds;
+    }
+    
+    public void setUnlocatedIds(List<Long> unlocatedIds) {
+        this.unlocatedIds = unlocatedIds;
+    }
+    
+    public LocalTime getArrivalTime() {
+        return arrivalTime;
+    }
+    
+    public void setArrivalTime(LocalTime arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+    
+    public double getCurrentDistanceMeters() {
+        return currentDistanceMeters;
+    }
+    
+    public void setCurrentDistanceMeters(double currentDistanceMeters) {
+        this.currentDistanceMeters = currentDistanceMeters;
+    }
+    
+    public double getPlannedDistanceMeters() {
+        return plannedDistanceMeters;
+    }
+    
+    public void setPlannedDistanceMeters(double plannedDistanceMeters) {
+        this.plannedDistanceMeters = plannedDistanceMeters;
+    }
+    
+    public double getImprovementPercent() {
+        return improvementPercent;
+    }
+    
+    public void setImprovementPercent(double improvementPercent) {
+        this.improvementPercent = improvementPercent;
+    }
+    
+    public long getSolveTimeMillis() {
+        return solveTimeMillis;
+    }
+    
+    public void setSolveTimeMillis(long solveTimeMillis) {
+        this.solveTimeMillis = solveTimeMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return "RoutePlanDto{" +
+                "busRoute='" + busRoute + '\'' +
+                ", stops=" + stops.size() +
+                ", plannedDistanceMeters=" + plannedDistanceMeters +
+                ", improvementPercent=" + improvementPercent +
+                ", solveTimeMillis=" + solveTimeMillis +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package com.schoolbus.domain.dto;
+
+import java.util.List;
+
+/**
+ * One change to the roster of a bus route: the students that left it and the students that
+ * joined it or changed on it. Applying a delta to a roster of a lower version gives the roster
+ * of this version; applying it again changes nothing.
+ */
+public class RouteRosterDeltaDto {
+    
+    private String busRoute;
+    private long version;
+    private int size;
+    private List<Long> removed;
+    private List<StudentDto> upserted;
+    
+    // Default constructor
+    public RouteRosterDeltaDto() {}
+    
+    public RouteRosterDeltaDto(String busRoute, long version, int size, List<Long> removed,
+                               List<StudentDto> upserted) {
+        this.busRoute = busRoute;
+        this.version = version;
+        this.size = size;
+        this.removed = removed;
+        this.upserted = upserted;
+    }
+    
+    // Getters and Setters
+    public String getBusRoute() {
+        return busRoute;
+    }
+    
+    public void setBusRoute(String busRoute) {
+        this.busRoute = busRoute;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public List<Long> getRemoved() {
+        return removed;
+    }
+    
+    public void setRemoved(List<Long> removed) {
+        this.removed = removed;
+    }
+    
+    public List<StudentDto> getUpserted() {
+        return upserted;
+    }
+    
+    public void setUpserted(List<StudentDto> upserted) {
+        this.upserted = upserted;
+    }
+    
+    @Override
+    public String toString() {
+        return "RouteRosterDeltaDto{" +
+                "busRoute='" + busRoute + '\'' +
+                ", version=" + version +
+                ", size=" + size +
+                ", removed=" + removed.size() +
+                ", upserted=" + upserted.size() +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package com.schoolbus.domain.dto;
+
+import java.util.List;
+
+/**
+ * The students on one bus route in pickup order, with the version of the roster.
+ * The version changes whenever a student joins, leaves or changes on the route,
+ * so clients can compare it with the version they hold to tell if the roster changed.
+ */
+public class RouteRosterDto {
+    
+    private String busRoute;
+    private long version;
+    private int size;
+    private List<StudentDto> students;
+    
+    // Default constructor
+    public RouteRosterDto() {}
+    
+    public RouteRosterDto(String busRoute, long version, List<StudentDto> students) {
+        this.busRoute = busRoute;
+        this.version = version;
+        this.size = students.size();
+        this.students = students;
+    }
+    
+    // Getters and Setters
+    public String getBusRoute() {
+        return busRoute;
+    }
+    
+    public void setBusRoute(String busRoute) {
+        this.busRoute = busRoute;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public List<StudentDto> getStudents() {
+        return students;
+    }
+    
+    public void setStudents(List<StudentDto> students) {
+        this.students = students;
+    }
+    
+    @Override
+    public String toString() {
+        return "RouteRosterDto{" +
+                "busRoute='" + busRoute + '\'' +
+                ", version=" + version +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package com.schoolbus.domain.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * One stop of a planned route: the students picked up at the same location
+ */
+public class RouteStopDto {
+    
+    private int sequence;
+    private double latitude;
+    private double longitude;
+    private LocalTime pickupTime;
+    private List<Long> ids;
+    private List<String> studentIds;
+    
+    // Default constructor
+    public RouteStopDto() {}
+    
+    public RouteStopDto(int sequence, double latitude, double longitude, LocalTime pickupTime,
+                        List<Long> ids, List<String> studentIds) {
+        this.sequence = sequence;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.pickupTime = pickupTime;
+        this.ids = ids;
+        this.studentIds = studentIds;
+    }
+    
+    // Getters and Setters
+    public int getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+    
+    public double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public LocalTime getPickupTime() {
+        return pickupTime;
+    }
+    
+    public void setPickupTime(LocalTime pickupTime) {
+        this.pickupTime = pickupTime;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public List<String> getStudentIds() {
+        return studentIds;
+    }
+    
+    public void setStudentIds(List<String> studentIds) {
+        this.studentIds = studentIds;
+    }
+    
+    @Override
+    public String toString() {
+        return "RouteStopDto{" +
+                "sequence=" + sequence +
+                ", pickupTime=" + pickupTime +
+                ", studentIds=" + studentIds +
+                '}';
+    }
+}
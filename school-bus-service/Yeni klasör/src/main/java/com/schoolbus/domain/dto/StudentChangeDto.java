@@ -0,0 +1,100 @@
+package com.schoolbus.domain.dto;
+
+import com.schoolbus.domain.event.StudentChangedEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change of the student change feed: a student created or updated, with the student as it was
+ * after the change, or a tombstone for a deleted student, which carries only its IDs.
+ */
+public class StudentChangeDto {
+    
+    private String token;
+    private StudentChangedEvent.Type type;
+    private Long id;
+    private String studentId;
+    private LocalDateTime changedAt;
+    private StudentDto student;
+    
+    // Default constructor
+    public StudentChangeDto() {}
+    
+    public StudentChangeDto(String token, StudentChangedEvent.Type type, Long id, String studentId,
+                            LocalDateTime changedAt, StudentDto student) {
+        this.token = token;
+        this.type = type;
+        this.id = id;
+        this.studentId = studentId;
+        this.changedAt = changedAt;
+        this.student = student;
+    }
+    
+    // Getters and Setters
+    
+    /**
+     * @return the token to resume the feed after this change
+     */
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public StudentChangedEvent.Type getType() {
+        return type;
+    }
+    
+    public void setType(StudentChangedEvent.Type type) {
+        this.type = type;
+    }
+    
+    /**
+     * @return the database ID of the changed student
+     */
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+    
+    /**
+     * @return the student after the change, or null for a deletion
+     */
+    public StudentDto getStudent() {
+        return student;
+    }
+    
+    public void setStudent(StudentDto student) {
+        this.student = student;
+    }
+    
+    @Override
+    public String toString() {
+        return "StudentChangeDto{" +
+                "token='" + token + '\'' +
+                ", type=" + type +
+                ", id=" + id +
+                '}';
+    }
+}
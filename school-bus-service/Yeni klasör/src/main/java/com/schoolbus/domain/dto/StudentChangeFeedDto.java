@@ -0,0 +1,68 @@
+package com.schoolbus.domain.dto;
+
+import java.util.List;
+
+/**
+ * One batch of the student change feed, in the order the changes were committed.
+ * {@code nextToken} is passed back as {@code since} to fetch the changes that follow, also when
+ * the batch is empty; {@code hasMore} tells whether further changes are already waiting.
+ */
+public class StudentChangeFeedDto {
+    
+    private List<StudentChangeDto> changes;
+    private String nextToken;
+    private boolean hasMore;
+    private int size;
+    
+    // Default constructor
+    public StudentChangeFeedDto() {}
+    
+    public StudentChangeFeedDto(List<StudentChangeDto> changes, String nextToken, boolean hasMore) {
+        this.changes = changes;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+        this.size = changes.size();
+    }
+    
+    // Getters and Setters
+    public List<StudentChangeDto> getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(List<StudentChangeDto> changes) {
+        this.changes = changes;
+    }
+    
+    public String getNextToken() {
+        return nextToken;
+    }
+    
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    @Override
+    public String toString() {
+        return "StudentChangeFeedDto{" +
+                "size=" + size +
+                ", nextToken='" + nextToken + '\'' +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+}
@@ -2,6 +2,7 @@ package com.schoolbus.domain.dto;
 
 import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 public class StudentDto {
     
@@ -36,8 +37,8 @@ public class StudentDto {
     private String parentContact;
     
     private String busRoute;
-    private String pickupTime;
-    private String dropoffTime;
+    private LocalTime pickupTime;
+    private LocalTime dropoffTime;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -47,7 +48,7 @@ public class StudentDto {
     // Constructor with all fields
     public StudentDto(Long id, String firstName, String lastName, String studentId, 
                      Integer age, String grade, String address, String parentContact,
-                     String busRoute, String pickupTime, String dropoffTime,
+                     String busRoute, LocalTime pickupTime, LocalTime dropoffTime,
                      LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
         this.firstName = firstName;
@@ -64,6 +65,14 @@ public class StudentDto {
         this.updatedAt = updatedAt;
     }
     
+    // Copy constructor
+    public StudentDto(StudentDto other) {
+        this(other.id, other.firstName, other.lastName, other.studentId,
+             other.age, other.grade, other.address, other.parentContact,
+             other.busRoute, other.pickupTime, other.dropoffTime,
+             other.createdAt, other.updatedAt);
+    }
+    
     // Constructor for creating new student
     public StudentDto(String firstName, String lastName, String studentId, 
                      Integer age, String grade, String address, String parentContact) {
@@ -149,19 +158,19 @@ public class StudentDto {
         this.busRoute = busRoute;
     }
     
-    public String getPickupTime() {
+    public LocalTime getPickupTime() {
         return pickupTime;
     }
     
-    public void setPickupTime(String pickupTime) {
+    public void setPickupTime(LocalTime pickupTime) {
         this.pickupTime = pickupTime;
     }
     
-    public String getDropoffTime() {
+    public LocalTime getDropoffTime() {
         return dropoffTime;
     }
     
-    public void setDropoffTime(String dropoffTime) {
+    public void setDropoffTime(LocalTime dropoffTime) {
         this.dropoffTime = dropoffTime;
     }
     
@@ -193,8 +202,8 @@ public class StudentDto {
                 ", address='" + address + '\'' +
                 ", parentContact='" + parentContact + '\'' +
                 ", busRoute='" + busRoute + '\'' +
-                ", pickupTime='" + pickupTime + '\'' +
-                ", dropoffTime='" + dropoffTime + '\'' +
+                ", pickupTime=" + pickupTime +
+                ", dropoffTime=" + dropoffTime +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
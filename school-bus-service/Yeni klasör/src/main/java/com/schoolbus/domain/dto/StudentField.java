@@ -0,0 +1,120 @@
+package com.schoolbus.domain.dto;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The properties of a StudentDto, for listings that return only some of them.
+ * Each property has the name of the Student attribute it is read from.
+ */
+public enum StudentField {
+
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    STUDENT_ID("studentId"),
+    AGE("age"),
+    GRADE("grade"),
+    ADDRESS("address"),
+    PARENT_CONTACT("parentContact"),
+    BUS_ROUTE("busRoute"),
+    PICKUP_TIME("pickupTime"),
+    DROPOFF_TIME("dropoffTime"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    /**
+     * Every field, as selected when no fields are requested
+     */
+    public static final Set<StudentField> ALL = Collections.unmodifiableSet(EnumSet.allOf(StudentField.class));
+
+    private final String property;
+
+    StudentField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * @return the name of the property in StudentDto and of the attribute in Student
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Sets this field of a student
+     * @param student the student to set the field of
+     * @param value the value, of the field's type
+     */
+    public void set(StudentDto student, Object value) {
+        switch (this) {
+            case ID -> student.setId((Long) value);
+            case FIRST_NAME -> student.setFirstName((String) value);
+            case LAST_NAME -> student.setLastName((String) value);
+            case STUDENT_ID -> student.setStudentId((String) value);
+            case AGE -> student.setAge((Integer) value);
+            case GRADE -> student.setGrade((String) value);
+            case ADDRESS -> student.setAddress((String) value);
+            case PARENT_CONTACT -> student.setParentContact((String) value);
+            case BUS_ROUTE -> student.setBusRoute((String) value);
+            case PICKUP_TIME -> student.setPickupTime((LocalTime) value);
+            case DROPOFF_TIME -> student.setDropoffTime((LocalTime) value);
+            case CREATED_AT -> student.setCreatedAt((LocalDateTime) value);
+            case UPDATED_AT -> student.setUpdatedAt((LocalDateTime) value);
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of property names, such as {@code id,firstName,pickupTime}
+     * @param fields the property names, or null or blank for every field
+     * @return the fields, in declaration order
+     * @throws IllegalArgumentException if a name is not a StudentDto property
+     */
+    public static Set<StudentField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        EnumSet<StudentField> parsed = EnumSet.noneOf(StudentField.class);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Unknown field '" + property + "'. Valid fields: " + names(ALL))));
+        }
+        return parsed.isEmpty() ? ALL : Collections.unmodifiableSet(parsed);
+    }
+
+    /**
+     * Adds the fields a listing needs for itself, such as the sort key its cursor is built from
+     * @param fields the requested fields
+     * @param required the fields to add
+     * @return the requested and the required fields
+     */
+    public static Set<StudentField> including(Set<StudentField> fields, StudentField... required) {
+        if (fields.containsAll(Arrays.asList(required))) {
+            return fields;
+        }
+        EnumSet<StudentField> including = EnumSet.copyOf(fields);
+        including.addAll(Arrays.asList(required));
+        return including;
+    }
+
+    /**
+     * @param fields the fields
+     * @return the property names of the fields, separated by commas
+     */
+    public static String names(Set<StudentField> fields) {
+        return fields.stream().map(StudentField::getProperty).collect(Collectors.joining(","));
+    }
+}
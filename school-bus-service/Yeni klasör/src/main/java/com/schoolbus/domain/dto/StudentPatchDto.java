@@ -0,0 +1,161 @@
+package com.schoolbus.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.*;
+
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Partial update of a student. Only the fields present in the request body are applied;
+ * a field sent as null clears it, which is allowed for the bus route and times only.
+ * The setters record which fields were sent, since absent and null cannot be told apart afterwards.
+ */
+public class StudentPatchDto {
+
+    @Size(min = 2, max = 50, message = "First name must be between 2 and 50 characters")
+    private String firstName;
+
+    @Size(min = 2, max = 50, message = "Last name must be between 2 and 50 characters")
+    private String lastName;
+
+    @Size(min = 5, max = 20, message = "Student ID must be between 5 and 20 characters")
+    private String studentId;
+
+    @Min(value = 3, message = "Age must be at least 3")
+    @Max(value = 18, message = "Age must be at most 18")
+    private Integer age;
+
+    private String grade;
+
+    @Size(min = 10, max = 200, message = "Address must be between 10 and 200 characters")
+    private String address;
+
+    @Pattern(regexp = "^[0-9]{10,15}$", message = "Parent contact must be a valid phone number")
+    private String parentContact;
+
+    private String busRoute;
+    private LocalTime pickupTime;
+    private LocalTime dropoffTime;
+
+    private final Set<String> presentFields = new HashSet<>();
+
+    // Default constructor
+    public StudentPatchDto() {}
+
+    /**
+     * @param field the name of a student field
+     * @return true if the request body contained the field, even with a null value
+     */
+    @JsonIgnore
+    public boolean isPresent(String field) {
+        return presentFields.contains(field);
+    }
+
+    /**
+     * @return true if the request body contained no field at all
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return presentFields.isEmpty();
+    }
+
+    // Getters and Setters
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+        presentFields.add("firstName");
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+        presentFields.add("lastName");
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+        presentFields.add("studentId");
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+        presentFields.add("age");
+    }
+
+    public String getGrade() {
+        return grade;
+    }
+
+    public void setGrade(String grade) {
+        this.grade = grade;
+        presentFields.add("grade");
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+        presentFields.add("address");
+    }
+
+    public String getParentContact() {
+        return parentContact;
+    }
+
+    public void setParentContact(String parentContact) {
+        this.parentContact = parentContact;
+        presentFields.add("parentContact");
+    }
+
+    public String getBusRoute() {
+        return busRoute;
+    }
+
+    public void setBusRoute(String busRoute) {
+        this.busRoute = busRoute;
+        presentFields.add("busRoute");
+    }
+
+    public LocalTime getPickupTime() {
+        return pickupTime;
+    }
+
+    public void setPickupTime(LocalTime pickupTime) {
+        this.pickupTime = pickupTime;
+        presentFields.add("pickupTime");
+    }
+
+    public LocalTime getDropoffTime() {
+        return dropoffTime;
+    }
+
+    public void setDropoffTime(LocalTime dropoffTime) {
+        this.dropoffTime = dropoffTime;
+        presentFields.add("dropoffTime");
+    }
+
+    @Override
+    public String toString() {
+        return "StudentPatchDto{" +
+                "presentFields=" + presentFields +
+                '}';
+    }
+}
@@ -2,14 +2,38 @@ package com.schoolbus.domain.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "students")
+// Updates write only the columns that changed, so a one-field change writes that column and updated_at
+@DynamicUpdate
+// Kept by ID in the second-level cache region "students". READ_WRITE locks an entry while a transaction
+// changes its row, so no other session caches or reads the row as it was before the change. The region
+// is local to each instance and nothing invalidates it across instances: a row changed through another
+// instance, or directly in the database, can be served as it was for up to the region's expire-after-write.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "students")
+@Table(name = "students", indexes = {
+    // Keyset pagination indexes: each matches the (filter, sort key, id) order of a paged listing
+    @Index(name = "idx_students_first_name_id", columnList = "first_name, id"),
+    @Index(name = "idx_students_grade_first_name_id", columnList = "grade, first_name, id"),
+    @Index(name = "idx_students_bus_route_pickup_time_id", columnList = "bus_route, pickup_time, id"),
+    @Index(name = "idx_students_age_id", columnList = "age, id"),
+    // Pickup time windows across all routes scan this range; within one route the index above serves them
+    @Index(name = "idx_students_pickup_time_id", columnList = "pickup_time, id")
+})
 public class Student {
     
+    // Pooled sequence IDs let Hibernate batch inserts; IDENTITY would force one round trip per row.
+    // allocationSize must match the INCREMENT BY of students_id_seq.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_id_generator")
+    @SequenceGenerator(name = "students_id_generator", sequenceName = "students_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "First name is required")
@@ -51,10 +75,10 @@ public class Student {
     private String busRoute;
     
     @Column(name = "pickup_time")
-    private String pickupTime;
+    private LocalTime pickupTime;
     
     @Column(name = "dropoff_time")
-    private String dropoffTime;
+    private LocalTime dropoffTime;
     
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -64,13 +88,31 @@ public class Student {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
     }
     
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = updatedAfter(updatedAt, LocalDateTime.now());
+    }
+    
+    /**
+     * Returns the update time of a write to a student whose row was last updated at the given time:
+     * the current time at the precision of the column, but at least a microsecond after the previous
+     * update. A write reads the previous time under the row lock, so the update times of a student
+     * increase in the order its writes commit, even when a write read the clock before it waited for
+     * the lock. Native writes compute the same in SQL.
+     * @param previous the update time of the row being replaced, or null
+     * @param now the current time
+     * @return the new update time
+     */
+    public static LocalDateTime updatedAfter(LocalDateTime previous, LocalDateTime now) {
+        LocalDateTime updatedAt = now.truncatedTo(ChronoUnit.MICROS);
+        if (previous == null || updatedAt.isAfter(previous)) {
+            return updatedAt;
+        }
+        return previous.plus(1, ChronoUnit.MICROS);
     }
     
     // Default constructor
@@ -161,19 +203,19 @@ public class Student {
         this.busRoute = busRoute;
     }
     
-    public String getPickupTime() {
+    public LocalTime getPickupTime() {
         return pickupTime;
     }
     
-    public void setPickupTime(String pickupTime) {
+    public void setPickupTime(LocalTime pickupTime) {
         this.pickupTime = pickupTime;
     }
     
-    public String getDropoffTime() {
+    public LocalTime getDropoffTime() {
         return dropoffTime;
     }
     
-    public void setDropoffTime(String dropoffTime) {
+    public void setDropoffTime(LocalTime dropoffTime) {
         this.dropoffTime = dropoffTime;
     }
     
@@ -205,8 +247,8 @@ public class Student {
                 ", address='" + address + '\'' +
                 ", parentContact='" + parentContact + '\'' +
                 ", busRoute='" + busRoute + '\'' +
-                ", pickupTime='" + pickupTime + '\'' +
-                ", dropoffTime='" + dropoffTime + '\'' +
+                ", pickupTime=" + pickupTime +
+                ", dropoffTime=" + dropoffTime +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
@@ -0,0 +1,110 @@
+package com.schoolbus.domain.entity;
+
+import com.schoolbus.domain.event.StudentChangedEvent;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the student change feed, written in the transaction that changed the student.
+ * Positions are taken from a sequence just before the commit, so they increase over time but
+ * are not consecutive.
+ */
+@Entity
+@Table(name = "student_changes", indexes = {
+    // Retention deletes the oldest entries by age
+    @Index(name = "idx_student_changes_changed_at", columnList = "changed_at")
+})
+public class StudentChange {
+    
+    @Id
+    @Column(name = "position")
+    private Long position;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 10)
+    private StudentChangedEvent.Type type;
+    
+    @Column(name = "student_db_id", nullable = false)
+    private Long studentDbId;
+    
+    @Column(name = "student_id", nullable = false, length = 20)
+    private String studentId;
+    
+    // The student after the change as JSON, null for a deletion
+    @Column(name = "payload", length = 4000)
+    private String payload;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    // Default constructor
+    public StudentChange() {}
+    
+    public StudentChange(Long position, StudentChangedEvent.Type type, Long studentDbId, String studentId,
+                         String payload, LocalDateTime changedAt) {
+        this.position = position;
+        this.type = type;
+        this.studentDbId = studentDbId;
+        this.studentId = studentId;
+        this.payload = payload;
+        this.changedAt = changedAt;
+    }
+    
+    // Getters and Setters
+    public Long getPosition() {
+        return position;
+    }
+    
+    public void setPosition(Long position) {
+        this.position = position;
+    }
+    
+    public StudentChangedEvent.Type getType() {
+        return type;
+    }
+    
+    public void setType(StudentChangedEvent.Type type) {
+        this.type = type;
+    }
+    
+    public Long getStudentDbId() {
+        return studentDbId;
+    }
+    
+    public void setStudentDbId(Long studentDbId) {
+        this.studentDbId = studentDbId;
+    }
+    
+    public String getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "StudentChange{" +
+                "position=" + position +
+                ", type=" + type +
+                ", studentDbId=" + studentDbId +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.schoolbus.domain.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * The single row holding the position up to which student changes have been deleted.
+ * <p>
+ * Positions come from a sequence and may be left unused, so once changes are deleted the feed can no
+ * longer tell from the kept changes alone whether a client's token points before the deleted ones.
+ */
+@Entity
+@Table(name = "student_change_retention")
+public class StudentChangeRetention {
+    
+    /** ID of the single row */
+    public static final Long ID = 1L;
+    
+    @Id
+    @Column(name = "id")
+    private Long id;
+    
+    @Column(name = "pruned_through", nullable = false)
+    private long prunedThrough;
+    
+    // Default constructor
+    public StudentChangeRetention() {}
+    
+    public StudentChangeRetention(Long id, long prunedThrough) {
+        this.id = id;
+        this.prunedThrough = prunedThrough;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public long getPrunedThrough() {
+        return prunedThrough;
+    }
+    
+    public void setPrunedThrough(long prunedThrough) {
+        this.prunedThrough = prunedThrough;
+    }
+}
@@ -0,0 +1,79 @@
+package com.schoolbus.domain.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Home location of a student, the point the bus picks the student up at.
+ * Kept apart from the student so that reading and writing students is unchanged
+ * for the clients that do not plan routes.
+ */
+@Entity
+@Table(name = "student_locations")
+public class StudentLocation {
+    
+    @Id
+    @Column(name = "student_db_id")
+    private Long studentDbId;
+    
+    @Column(name = "latitude", nullable = false)
+    private double latitude;
+    
+    @Column(name = "longitude", nullable = false)
+    private double longitude;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Default constructor
+    public StudentLocation() {}
+    
+    public StudentLocation(Long studentDbId, double latitude, double longitude, LocalDateTime updatedAt) {
+        this.studentDbId = studentDbId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.updatedAt = updatedAt;
+    }
+    
+    // Getters and Setters
+    public Long getStudentDbId() {
+        return studentDbId;
+    }
+    
+    public void setStudentDbId(Long studentDbId) {
+        this.studentDbId = studentDbId;
+    }
+    
+    public double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "StudentLocation{" +
+                "studentDbId=" + studentDbId +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.schoolbus.domain.event;
+
+import com.schoolbus.domain.dto.RouteRosterDeltaDto;
+
+/**
+ * Published by the roster store whenever it replaces the roster of a bus route, after the
+ * write that caused it has committed. Events of one route are published in version order.
+ * Listeners run while the store is locked and must return quickly.
+ */
+public class RouteRosterChangedEvent {
+
+    private final RouteRosterDeltaDto delta;
+
+    public RouteRosterChangedEvent(RouteRosterDeltaDto delta) {
+        this.delta = delta;
+    }
+
+    /**
+     * @return the change to the roster; shared between listeners and read-only
+     */
+    public RouteRosterDeltaDto getDelta() {
+        return delta;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteRosterChangedEvent{" +
+                "delta=" + delta +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.schoolbus.domain.event;
+
+import java.util.List;
+
+/**
+ * Published by the student service when one set-based write changes many students at once.
+ * Carries one {@link StudentChangedEvent} per changed student, so listeners can apply
+ * the whole batch in one step instead of handling each student on its own.
+ */
+public class StudentBatchChangedEvent {
+
+    private final List<StudentChangedEvent> changes;
+
+    public StudentBatchChangedEvent(List<StudentChangedEvent> changes) {
+        this.changes = List.copyOf(changes);
+    }
+
+    /**
+     * @return the change of every student in the batch
+     */
+    public List<StudentChangedEvent> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentBatchChangedEvent{" +
+                "changes=" + changes.size() +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+package com.schoolbus.domain.event;
+
+import com.schoolbus.domain.dto.StudentDto;
+
+/**
+ * Published by the student service whenever a student is created, updated or deleted.
+ * Carries the student as it was before and after the change so that listeners
+ * maintaining derived data can remove old entries and add new ones exactly.
+ * Both snapshots are shared between listeners and must be treated as read-only.
+ */
+public class StudentChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final StudentDto before;
+    private final StudentDto after;
+
+    private StudentChangedEvent(Type type, StudentDto before, StudentDto after) {
+        this.type = type;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static StudentChangedEvent created(StudentDto after) {
+        return new StudentChangedEvent(Type.CREATED, null, after);
+    }
+
+    public static StudentChangedEvent updated(StudentDto before, StudentDto after) {
+        return new StudentChangedEvent(Type.UPDATED, before, after);
+    }
+
+    public static StudentChangedEvent deleted(StudentDto before) {
+        return new StudentChangedEvent(Type.DELETED, before, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the student before the change, or null when it was created
+     */
+    public StudentDto getBefore() {
+        return before;
+    }
+
+    /**
+     * @return the student after the change, or null when it was deleted
+     */
+    public StudentDto getAfter() {
+        return after;
+    }
+
+    /**
+     * @return the database ID of the changed student
+     */
+    public Long getId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    @Override
+    public String toString() {
+        return "StudentChangedEvent{" +
+                "type=" + type +
+                ", id=" + getId() +
+                '}';
+    }
+}
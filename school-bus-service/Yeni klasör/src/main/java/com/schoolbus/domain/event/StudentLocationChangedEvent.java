@@ -0,0 +1,43 @@
+package com.schoolbus.domain.event;
+
+import com.schoolbus.domain.dto.StudentLocationDto;
+
+import java.util.List;
+
+/**
+ * Published by the location service, inside the transaction of the write, when home locations
+ * of students are set or removed. Removals include those caused by a student being deleted
+ * or moving to another address.
+ */
+public class StudentLocationChangedEvent {
+
+    private final List<StudentLocationDto> updated;
+    private final List<Long> removedIds;
+
+    public StudentLocationChangedEvent(List<StudentLocationDto> updated, List<Long> removedIds) {
+        this.updated = List.copyOf(updated);
+        this.removedIds = List.copyOf(removedIds);
+    }
+
+    /**
+     * @return the locations set, with the database ID of their student
+     */
+    public List<StudentLocationDto> getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return the database IDs of the students whose location was removed
+     */
+    public List<Long> getRemovedIds() {
+        return removedIds;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentLocationChangedEvent{" +
+                "updated=" + updated.size() +
+                ", removedIds=" + removedIds.size() +
+                '}';
+    }
+}
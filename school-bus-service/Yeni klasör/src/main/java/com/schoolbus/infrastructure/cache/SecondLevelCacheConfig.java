@@ -0,0 +1,64 @@
+package com.schoolbus.infrastructure.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache of entities by ID, backed by Caffeine through JCache.
+ * <p>
+ * The caches are created here from {@link SecondLevelCacheProperties} rather than from a Caffeine
+ * configuration file, so every profile sizes its regions in its own application yml. The regions are
+ * switched on by {@code hibernate.cache.*} in the same files.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    /**
+     * Cache manager holding one cache per configured region. Each application context gets its own
+     * manager, so contexts sharing a JVM (such as in tests) do not share cached rows.
+     * @param properties the configured regions
+     * @return the cache manager handed to Hibernate
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("schoolbus-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        properties.regions().forEach((name, region) -> cacheManager.createCache(name, configuration(region)));
+        return cacheManager;
+    }
+
+    /**
+     * Hands the cache manager to Hibernate's JCache region factory
+     * @param hibernateCacheManager the cache manager holding the regions
+     * @return the customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(SecondLevelCacheProperties.Region region) {
+        // Hibernate stores immutable cache entries, so they need not be copied on the way in and out
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<Object, Object>()
+                .setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+        if (region.expireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.expireAfterWrite().toNanos()));
+        }
+        // Records hits, misses and evictions on the underlying Caffeine cache, as the lookup caches do
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,26 @@
+package com.schoolbus.infrastructure.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sizes and lifetimes of the Hibernate second-level cache regions, keyed by region name.
+ * Every region named by an entity must be configured here; a missing one fails startup.
+ * @param regions the configured regions
+ */
+@ConfigurationProperties(prefix = "schoolbus.cache.hibernate")
+public record SecondLevelCacheProperties(Map<String, Region> regions) {
+
+    public SecondLevelCacheProperties {
+        regions = regions != null ? Map.copyOf(regions) : Map.of();
+    }
+
+    /**
+     * @param maximumSize maximum number of entries
+     * @param expireAfterWrite time after which an entry is dropped even if nothing changed it
+     */
+    public record Region(long maximumSize, Duration expireAfterWrite) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.schoolbus.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.schoolbus.domain.dto.CacheStatsDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+/**
+ * Hit, miss and eviction statistics of the Hibernate second-level cache regions.
+ */
+@Component
+public class SecondLevelCacheStatistics {
+
+    private final CacheManager hibernateCacheManager;
+
+    public SecondLevelCacheStatistics(@Qualifier("hibernateCacheManager") CacheManager hibernateCacheManager) {
+        this.hibernateCacheManager = hibernateCacheManager;
+    }
+
+    /**
+     * Returns the statistics of every region, ordered by region name
+     * @return statistics per region
+     */
+    public List<CacheStatsDto> getStats() {
+        return StreamSupport.stream(hibernateCacheManager.getCacheNames().spliterator(), false)
+                .sorted()
+                .map(this::toStatsDto)
+                .toList();
+    }
+
+    private CacheStatsDto toStatsDto(String name) {
+        Cache<?, ?> cache = hibernateCacheManager.getCache(name).unwrap(Cache.class);
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+}
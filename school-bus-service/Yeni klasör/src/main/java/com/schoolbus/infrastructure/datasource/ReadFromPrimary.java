@@ -0,0 +1,20 @@
+package com.schoolbus.infrastructure.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the read-only transactions of the annotated method on the primary database instead of a
+ * read replica. Use it for reads that must see every committed write, such as reads whose result is
+ * cached, that build an in-memory read model or that hand out a position to resume from, which a
+ * lagging replica would leave stale.
+ * Has no effect while read replicas are disabled.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,26 @@
+package com.schoolbus.infrastructure.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes the read-only transactions of methods annotated with {@link ReadFromPrimary} to the primary.
+ * Connections are fetched at the first statement, so it does not matter whether this runs inside
+ * or outside the method's transaction.
+ */
+@Aspect
+@Component
+public class ReadFromPrimaryAspect {
+
+    @Around("@annotation(com.schoolbus.infrastructure.datasource.ReadFromPrimary)")
+    public Object readFromPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRoutingDataSource.requirePrimary();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.restorePrimaryRequired(previous);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.schoolbus.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data sources for a primary database with read replicas, used instead of Spring Boot's single data
+ * source when {@code schoolbus.datasource.read-replicas.enabled} is set.
+ * <p>
+ * The primary pool is configured by {@code spring.datasource} as usual. Each replica gets a pool of its
+ * own, tagged {@code replica-1}, {@code replica-2} and so on in the Hikari metrics.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "schoolbus.datasource.read-replicas", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    /**
+     * @param properties the {@code spring.datasource} settings
+     * @return the pool of the primary database
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * @param primaryDataSource the pool of the primary database
+     * @param properties the replicas
+     * @param meterRegistry the registry the replica pools publish their metrics to
+     * @return the data source routing between the primary and the replica pools
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                            ReadReplicaProperties properties,
+                                                            MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>(properties.replicas().size());
+        for (ReadReplicaProperties.Replica replica : properties.replicas()) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(replica.url());
+            if (replica.username() != null) {
+                config.setUsername(replica.username());
+            }
+            if (replica.password() != null) {
+                config.setPassword(replica.password());
+            }
+            if (replica.maximumPoolSize() != null) {
+                config.setMaximumPoolSize(replica.maximumPoolSize());
+            }
+            // A replica that is down must neither stop the application from starting
+            // nor hold a read for long before it falls back to the primary
+            config.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(null);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.balancing(), properties.retryAfter());
+    }
+
+    /**
+     * @param properties the replicas
+     * @return the filter keeping a client's reads on the primary after it wrote
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadReplicaProperties properties) {
+        return new ReadYourWritesFilter(properties.readYourWritesWindow());
+    }
+
+    /**
+     * The data source used by JPA and everything else. Physical connections are fetched at the first
+     * statement, once the transaction is known to be read-only, and taken from the routed pool.
+     * @param replicaRoutingDataSource the routing data source
+     * @return the data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
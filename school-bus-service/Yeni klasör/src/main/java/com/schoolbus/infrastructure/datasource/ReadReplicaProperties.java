@@ -0,0 +1,42 @@
+package com.schoolbus.infrastructure.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas that serve the read-only transactions.
+ * Each replica pool takes its settings from {@code spring.datasource.hikari} unless overridden here.
+ * @param enabled whether read-only transactions are routed to the replicas
+ * @param balancing how a read-only transaction picks a replica
+ * @param retryAfter how long a replica that failed to connect is skipped
+ * @param connectionTimeout how long to wait for a replica connection before falling back
+ * @param readYourWritesWindow how long a client's reads stay on the primary after it wrote, 0 to not keep them
+ * @param replicas the replica databases
+ */
+@ConfigurationProperties(prefix = "schoolbus.datasource.read-replicas")
+public record ReadReplicaProperties(boolean enabled,
+                                    ReplicaRoutingDataSource.Balancing balancing,
+                                    Duration retryAfter,
+                                    Duration connectionTimeout,
+                                    Duration readYourWritesWindow,
+                                    List<Replica> replicas) {
+
+    public ReadReplicaProperties {
+        balancing = balancing != null ? balancing : ReplicaRoutingDataSource.Balancing.ROUND_ROBIN;
+        retryAfter = retryAfter != null ? retryAfter : Duration.ofSeconds(30);
+        connectionTimeout = connectionTimeout != null ? connectionTimeout : Duration.ofSeconds(2);
+        readYourWritesWindow = readYourWritesWindow != null ? readYourWritesWindow : Duration.ofSeconds(5);
+        replicas = replicas != null ? List.copyOf(replicas) : List.of();
+    }
+
+    /**
+     * @param url JDBC URL of the replica
+     * @param username user to connect as, or null for the primary's
+     * @param password password to connect with, or null for the primary's
+     * @param maximumPoolSize connections in the replica's pool, or null for the primary's
+     */
+    public record Replica(String url, String username, String password, Integer maximumPoolSize) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.schoolbus.infrastructure.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Lets a client read its own writes while read replicas are enabled.
+ * <p>
+ * A request that may write runs all of its reads on the primary and answers with a cookie that keeps the
+ * client's reads on the primary for {@code read-your-writes-window}, long enough for the replicas to catch
+ * up. A client that does not keep cookies can send {@value #HEADER}{@code : true} with a request instead.
+ * Other requests read from the replicas as usual.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /** Cookie set after a write, read from the primary while it is sent */
+    public static final String COOKIE = "schoolbus-read-primary";
+
+    /** Request header asking for the reads of one request to run on the primary */
+    public static final String HEADER = "X-Read-From-Primary";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write && !window.isZero()) {
+            // Set before the request runs, as a streamed response may be committed before it returns;
+            // a write that fails only costs the client a few reads on the primary
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+
+        if (!write && !hasCookie(request) && !"true".equalsIgnoreCase(request.getHeader(HEADER))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean previous = ReplicaRoutingDataSource.requirePrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.restorePrimaryRequired(previous);
+        }
+    }
+
+    private static boolean hasCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,175 @@
+package com.schoolbus.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out connections of a read replica to read-only transactions and connections of the
+ * primary to everything else.
+ * <p>
+ * The routing decision is made when a connection is requested, so this data source must sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager asks for a connection before it marks the transaction read-only, and the proxy only fetches
+ * the real one at the first statement. Reads within {@link ReadFromPrimary} always use the primary.
+ * <p>
+ * A replica that fails to hand out a connection is skipped for {@code retryAfter}; the next replica
+ * is tried instead, and the primary once no replica is left.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    /**
+     * How a read-only transaction picks one of the available replicas
+     */
+    public enum Balancing {
+        /** Each replica in turn */
+        ROUND_ROBIN,
+        /** The replica with the fewest connections in use */
+        LEAST_CONNECTIONS
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Balancing balancing;
+    private final long retryAfterNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas,
+                                    Balancing balancing, Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + (i + 1), replicas.get(i)));
+        }
+        this.balancing = balancing;
+        this.retryAfterNanos = retryAfter.toNanos();
+    }
+
+    /**
+     * Routes the read-only transactions of the current thread to the primary until
+     * {@link #restorePrimaryRequired(boolean)} is called
+     * @return whether the primary was already required, to pass to {@link #restorePrimaryRequired(boolean)}
+     */
+    static boolean requirePrimary() {
+        boolean previous = isPrimaryRequired();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    /**
+     * Restores the routing of the current thread as it was before {@link #requirePrimary()}
+     * @param previous the value returned by {@link #requirePrimary()}
+     */
+    static void restorePrimaryRequired(boolean previous) {
+        if (!previous) {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || isPrimaryRequired()) {
+            return primary.getConnection();
+        }
+        for (Replica replica : availableReplicas()) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.failedAt.set(0);
+                return connection;
+            } catch (SQLException ex) {
+                replica.failedAt.set(System.nanoTime() | 1);
+                log.warn("Read replica {} is unavailable, skipping it for {} ms: {}",
+                        replica.name, retryAfterNanos / 1_000_000, ex.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials given by the caller belong to the primary; replicas have their own
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Closes the replica pools. The primary is closed by its own bean.
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    log.warn("Failed to close read replica {}", replica.name, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the replicas that have not failed within the last {@code retryAfter}, in the order to try them
+     */
+    private List<Replica> availableReplicas() {
+        long now = System.nanoTime();
+        List<Replica> available = new ArrayList<>(replicas.size());
+        int start = balancing == Balancing.ROUND_ROBIN ? Math.floorMod(nextReplica.getAndIncrement(), replicas.size()) : 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            long failedAt = replica.failedAt.get();
+            if (failedAt == 0 || now - failedAt >= retryAfterNanos) {
+                available.add(replica);
+            }
+        }
+        if (balancing == Balancing.LEAST_CONNECTIONS) {
+            available.sort(Comparator.comparingInt(Replica::activeConnections));
+        }
+        return available;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // System.nanoTime() of the last failure with the lowest bit set, or 0 while the replica works
+        private final AtomicLong failedAt = new AtomicLong();
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private int activeConnections() {
+            if (dataSource instanceof HikariDataSource hikari) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                if (pool != null) {
+                    return pool.getActiveConnections();
+                }
+            }
+            return 0;
+        }
+    }
+}
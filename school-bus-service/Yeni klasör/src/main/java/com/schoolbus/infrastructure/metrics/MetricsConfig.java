@@ -0,0 +1,26 @@
+package com.schoolbus.infrastructure.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics configuration.
+ * Request timings ({@code http.server.requests}), repository invocation timings
+ * ({@code spring.data.repository.invocations}) and Hikari pool metrics are recorded by Spring Boot;
+ * this adds the {@code @Timed} support used to time the service methods.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    /**
+     * Records a timer for every method of a class or method annotated with {@code @Timed}
+     * @param meterRegistry the registry to record into
+     * @return the aspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.schoolbus.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Records how many rows each repository query method returns, as the distribution summary
+ * {@code students.repository.rows} tagged with the method name.
+ * Streamed results are counted as they are consumed and recorded when the stream is closed.
+ * Methods returning a count, a flag or nothing are not recorded.
+ */
+@Aspect
+@Component
+public class RepositoryRowsAspect {
+    
+    static final String METRIC_NAME = "students.repository.rows";
+    
+    private final MeterRegistry meterRegistry;
+    
+    public RepositoryRowsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Around("execution(* com.schoolbus.infrastructure.repository.StudentRepository+.find*(..))"
+            + " || execution(* com.schoolbus.infrastructure.repository.StudentRepository+.search*(..))"
+            + " || execution(* com.schoolbus.infrastructure.repository.StudentRepository+.stream*(..))")
+    public Object recordRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        String method = joinPoint.getSignature().getName();
+        
+        if (result instanceof Stream<?> stream) {
+            AtomicLong rows = new AtomicLong();
+            return stream.peek(row -> rows.incrementAndGet())
+                         .onClose(() -> rowsSummary(method).record(rows.get()));
+        }
+        if (result instanceof Collection<?> collection) {
+            rowsSummary(method).record(collection.size());
+        } else if (result instanceof Slice<?> slice) {
+            rowsSummary(method).record(slice.getNumberOfElements());
+        } else if (result instanceof Optional<?> optional) {
+            rowsSummary(method).record(optional.isPresent() ? 1 : 0);
+        }
+        return result;
+    }
+    
+    private DistributionSummary rowsSummary(String method) {
+        return DistributionSummary.builder(METRIC_NAME)
+                .description("Rows returned per repository query")
+                .baseUnit("rows")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
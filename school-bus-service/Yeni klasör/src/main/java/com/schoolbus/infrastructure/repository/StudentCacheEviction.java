@@ -0,0 +1,35 @@
+package com.schoolbus.infrastructure.repository;
+
+import com.schoolbus.domain.entity.Student;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drops students written by native SQL from the second-level cache, which Hibernate does not
+ * keep current for statements it did not issue.
+ */
+final class StudentCacheEviction {
+
+    private StudentCacheEviction() {
+    }
+
+    /**
+     * Evicts a student now and again once the surrounding transaction completes. The second eviction
+     * drops a copy another session may have cached from the row as committed before this write.
+     * @param entityManager the entity manager of the writing transaction
+     * @param id the database ID of the student written
+     */
+    static void evictAfterWrite(EntityManager entityManager, Long id) {
+        jakarta.persistence.Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(Student.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(Student.class, id);
+                }
+            });
+        }
+    }
+}
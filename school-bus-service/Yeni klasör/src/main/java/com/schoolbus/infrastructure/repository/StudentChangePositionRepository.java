@@ -0,0 +1,33 @@
+package com.schoolbus.infrastructure.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The database sequence that student change positions are taken from, and the database clock that
+ * changes are stamped by. Implemented with native SQL because JPA only draws sequence values for
+ * generated IDs, one at a time, and has no clock that is not fixed for the whole transaction.
+ */
+public interface StudentChangePositionRepository {
+
+    /**
+     * Creates the position sequence unless it exists
+     * @param lastPosition the highest position already used; the sequence continues after it
+     */
+    void createPositionSequence(long lastPosition);
+
+    /**
+     * Takes positions for new changes in a single round trip. Positions increase in the order they are
+     * taken, across all sessions, but are not consecutive: the positions of concurrent transactions
+     * interleave, and those of a transaction that rolls back stay unused.
+     * @param count the number of positions
+     * @return the positions, ascending
+     */
+    long[] nextPositions(int count);
+
+    /**
+     * Reads the current time of the database, as of this call rather than the start of the transaction.
+     * Every instance stamps and compares changes by it, so their own clocks need not agree.
+     * @return the current time of the database, in the time zone of the session
+     */
+    LocalDateTime currentTime();
+}
@@ -0,0 +1,86 @@
+package com.schoolbus.infrastructure.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Native access to the change position sequence and the database clock for PostgreSQL and H2
+ */
+class StudentChangePositionRepositoryImpl implements StudentChangePositionRepository {
+
+    private static final String SEQUENCE = "student_change_positions";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void createPositionSequence(long lastPosition) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        dialect(session);
+        // Without a per-session cache, so positions increase in the order they are taken
+        String sql = "CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE + " START WITH " + (lastPosition + 1) + " CACHE 1";
+        session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql);
+            }
+        });
+    }
+
+    @Override
+    public long[] nextPositions(int count) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        String sql = dialect(session) instanceof PostgreSQLDialect
+                ? "SELECT nextval('" + SEQUENCE + "') FROM generate_series(1, ?)"
+                : "SELECT NEXT VALUE FOR " + SEQUENCE + " FROM SYSTEM_RANGE(1, ?)";
+        long[] positions = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, count);
+                long[] values = new long[count];
+                try (ResultSet result = statement.executeQuery()) {
+                    for (int i = 0; i < count && result.next(); i++) {
+                        values[i] = result.getLong(1);
+                    }
+                }
+                return values;
+            }
+        });
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    @Override
+    public LocalDateTime currentTime() {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        if (!(dialect(session) instanceof PostgreSQLDialect)) {
+            // H2 runs embedded, so its clock is this JVM's, and it has no clock that advances
+            // within a transaction
+            return LocalDateTime.now();
+        }
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT CAST(statement_timestamp() AS TIMESTAMP)");
+                 ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getObject(1, LocalDateTime.class);
+            }
+        });
+    }
+
+    private static Dialect dialect(SessionImplementor session) {
+        Dialect dialect = session.getFactory().getJdbcServices().getDialect();
+        if (!(dialect instanceof PostgreSQLDialect) && !(dialect instanceof H2Dialect)) {
+            throw new IllegalStateException("Student change positions are not supported on " + dialect);
+        }
+        return dialect;
+    }
+}
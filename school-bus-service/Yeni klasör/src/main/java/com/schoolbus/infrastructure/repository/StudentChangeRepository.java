@@ -0,0 +1,75 @@
+package com.schoolbus.infrastructure.repository;
+
+import com.schoolbus.domain.entity.StudentChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository of the student change feed
+ */
+@Repository
+public interface StudentChangeRepository extends JpaRepository<StudentChange, Long>, StudentChangePositionRepository {
+    
+    /**
+     * Find the changes after a position, in position order. A range scan of the primary key.
+     * @param position the position of the last change already seen
+     * @param limit maximum number of changes to return
+     * @return List of the changes after the position
+     */
+    List<StudentChange> findByPositionGreaterThanOrderByPositionAsc(long position, Limit limit);
+    
+    /**
+     * Find the position of the oldest change still kept
+     * @return Optional containing the position, empty when no change is kept
+     */
+    @Query("SELECT MIN(c.position) FROM StudentChange c")
+    Optional<Long> findFirstPosition();
+    
+    /**
+     * Find the position of the latest change
+     * @return Optional containing the position, empty when no change is kept
+     */
+    @Query("SELECT MAX(c.position) FROM StudentChange c")
+    Optional<Long> findLastPosition();
+    
+    /**
+     * Find the position of the latest change below a position. A backward scan of the primary key.
+     * @param position the position
+     * @return Optional containing the position, empty when no kept change is below it
+     */
+    @Query("SELECT MAX(c.position) FROM StudentChange c WHERE c.position < :position")
+    Optional<Long> findLastPositionBelow(@Param("position") long position);
+    
+    /**
+     * Find the positions of the changes made since a time, in position order
+     * @param changedAt the time
+     * @return List of the positions
+     */
+    @Query("SELECT c.position FROM StudentChange c WHERE c.changedAt >= :changedAt ORDER BY c.position")
+    List<Long> findPositionsChangedSince(@Param("changedAt") LocalDateTime changedAt);
+    
+    /**
+     * Find the position of the latest change made before a time
+     * @param changedAt the time
+     * @return Optional containing the position, empty when no kept change is older
+     */
+    @Query("SELECT MAX(c.position) FROM StudentChange c WHERE c.changedAt < :changedAt")
+    Optional<Long> findLastPositionBefore(@Param("changedAt") LocalDateTime changedAt);
+    
+    /**
+     * Delete the changes up to a position
+     * @param position the position of the last change to delete
+     * @return the number of deleted changes
+     */
+    @Modifying
+    @Query("DELETE FROM StudentChange c WHERE c.position <= :position")
+    int deleteThrough(@Param("position") long position);
+}
@@ -0,0 +1,37 @@
+package com.schoolbus.infrastructure.repository;
+
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentField;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Listings that select only some columns of the students, for clients that ask for a subset of the fields.
+ * The filters are those of the {@link StudentRepository} listings, so both list the same rows in the same order.
+ */
+public interface StudentFieldsRepository {
+
+    /**
+     * Finds students and reads only the given fields; the other fields of the returned students are null
+     * @param fields the fields to select
+     * @param filter the WHERE and ORDER BY clauses over {@code Student s}, one of the filters of StudentRepository
+     * @param parameters the named parameters of the filter
+     * @param limit maximum number of rows to return
+     * @return List of the matching students
+     */
+    List<StudentDto> findFields(Set<StudentField> fields, String filter, Map<String, ?> parameters, Limit limit);
+    
+    /**
+     * Streams students from the database cursor, reading only the given fields; the other fields
+     * of the returned students are null. Must be consumed inside a transaction and closed after use.
+     * @param fields the fields to select
+     * @param filter the WHERE and ORDER BY clauses over {@code Student s}, one of the filters of StudentRepository
+     * @param parameters the named parameters of the filter
+     * @return Stream of the matching students
+     */
+    Stream<StudentDto> streamFields(Set<StudentField> fields, String filter, Map<String, ?> parameters);
+}
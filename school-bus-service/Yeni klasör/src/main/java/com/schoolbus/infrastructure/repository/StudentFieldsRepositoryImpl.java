@@ -0,0 +1,71 @@
+package com.schoolbus.infrastructure.repository;
+
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds the select list from the requested fields and fills StudentDto from the returned tuples,
+ * so the columns nobody asked for are neither read nor sent by the database.
+ */
+class StudentFieldsRepositoryImpl implements StudentFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<StudentDto> findFields(Set<StudentField> fields, String filter, Map<String, ?> parameters, Limit limit) {
+        List<StudentField> selected = List.copyOf(fields);
+        TypedQuery<Tuple> query = query(selected, filter, parameters);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+
+        List<Tuple> rows = query.getResultList();
+        List<StudentDto> students = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            students.add(toStudent(selected, row));
+        }
+        return students;
+    }
+
+    @Override
+    public Stream<StudentDto> streamFields(Set<StudentField> fields, String filter, Map<String, ?> parameters) {
+        List<StudentField> selected = List.copyOf(fields);
+        // Tuples are not managed, so unlike a stream of entities the persistence context stays empty
+        return query(selected, filter, parameters)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream()
+                .map(row -> toStudent(selected, row));
+    }
+
+    private TypedQuery<Tuple> query(List<StudentField> selected, String filter, Map<String, ?> parameters) {
+        String select = selected.stream()
+                .map(field -> "s." + field.getProperty())
+                .collect(Collectors.joining(", ", "SELECT ", " FROM Student s "));
+
+        TypedQuery<Tuple> query = entityManager.createQuery(select + filter, Tuple.class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    private static StudentDto toStudent(List<StudentField> selected, Tuple row) {
+        StudentDto student = new StudentDto();
+        for (int i = 0; i < selected.size(); i++) {
+            selected.get(i).set(student, row.get(i));
+        }
+        return student;
+    }
+}
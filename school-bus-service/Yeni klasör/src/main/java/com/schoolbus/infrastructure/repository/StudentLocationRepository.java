@@ -0,0 +1,12 @@
+package com.schoolbus.infrastructure.repository;
+
+import com.schoolbus.domain.entity.StudentLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository of student home locations, keyed by the student's database ID
+ */
+@Repository
+public interface StudentLocationRepository extends JpaRepository<StudentLocation, Long> {
+}
@@ -0,0 +1,28 @@
+package com.schoolbus.infrastructure.repository;
+
+import com.schoolbus.domain.dto.StudentPatchDto;
+import com.schoolbus.domain.entity.Student;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Partial update of a student by ID that returns the row as it was, without reading it first.
+ * Implemented with native SQL because JPA cannot return the previous values of an update.
+ */
+public interface StudentPatchRepository {
+
+    /**
+     * Writes the fields present in the patch that differ from the stored values, and the update time,
+     * in a single statement, provided at least one field differs. Concurrent patches of the same student are
+     * serialized by the row lock, so each returns the row as the one before it left it.
+     * A student ID that is already taken is rejected by the unique constraint.
+     * @param id the database ID of the student
+     * @param patch the fields to write
+     * @param updatedAt the current time; the row's update time becomes {@link Student#updatedAfter} of
+     *                  its previous one and this
+     * @return the student as it was before the update, or empty if no student has the ID
+     *         or the patch changes nothing
+     */
+    Optional<Student> patchById(Long id, StudentPatchDto patch, LocalDateTime updatedAt);
+}
@@ -0,0 +1,149 @@
+package com.schoolbus.infrastructure.repository;
+
+import com.schoolbus.domain.dto.StudentPatchDto;
+import com.schoolbus.domain.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Native partial update of a student for PostgreSQL and H2, writing only the columns in the patch.
+ * <p>
+ * PostgreSQL uses {@code UPDATE ... RETURNING} joined to a CTE that locks and reads the row, so the
+ * statement returns the values it replaced. H2 reads the old row through {@code OLD TABLE (UPDATE ...)},
+ * which takes it from the statement's snapshot, so the row is locked by a {@code SELECT ... FOR UPDATE} first.
+ * The update time is that of {@link Student#updatedAfter}, computed from the locked row.
+ * A patch that would leave every column as it is matches no row and writes nothing; otherwise a
+ * column of the patch that already holds its value keeps the stored value rather than being rewritten.
+ * Hibernate does not see the statement, so the student is evicted from the second-level cache.
+ */
+class StudentPatchRepositoryImpl implements StudentPatchRepository {
+
+    private static final String COLUMNS = StudentUpsertRepositoryImpl.COLUMNS;
+
+    private static final String H2_LOCK = "SELECT id FROM students WHERE id = ? FOR UPDATE";
+
+    // The columns a patch may write, by the name of the field in the patch
+    private static final List<Column> PATCHABLE = List.of(
+            new Column("firstName", "first_name", Types.VARCHAR, StudentPatchDto::getFirstName),
+            new Column("lastName", "last_name", Types.VARCHAR, StudentPatchDto::getLastName),
+            new Column("studentId", "student_id", Types.VARCHAR, StudentPatchDto::getStudentId),
+            new Column("age", "age", Types.INTEGER, StudentPatchDto::getAge),
+            new Column("grade", "grade", Types.VARCHAR, StudentPatchDto::getGrade),
+            new Column("address", "address", Types.VARCHAR, StudentPatchDto::getAddress),
+            new Column("parentContact", "parent_contact", Types.VARCHAR, StudentPatchDto::getParentContact),
+            new Column("busRoute", "bus_route", Types.VARCHAR, StudentPatchDto::getBusRoute),
+            new Column("pickupTime", "pickup_time", Types.TIME, StudentPatchDto::getPickupTime),
+            new Column("dropoffTime", "dropoff_time", Types.TIME, StudentPatchDto::getDropoffTime));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Student> patchById(Long id, StudentPatchDto patch, LocalDateTime updatedAt) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Dialect dialect = session.getFactory().getJdbcServices().getDialect();
+        boolean postgres = dialect instanceof PostgreSQLDialect;
+        if (!postgres && !(dialect instanceof H2Dialect)) {
+            throw new IllegalStateException("Student patch is not supported on " + dialect);
+        }
+
+        List<Column> columns = PATCHABLE.stream().filter(column -> patch.isPresent(column.field())).toList();
+        if (columns.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Pending changes of this transaction must reach the database before the native statement,
+        // and a student loaded in this transaction must not outlive it with the old values
+        session.flush();
+        entityManager.detach(entityManager.getReference(Student.class, id));
+
+        String sql = postgres ? postgresPatch(columns) : h2Patch(columns);
+        Optional<Student> previous = session.doReturningWork(connection -> {
+            if (!postgres) {
+                try (PreparedStatement lock = connection.prepareStatement(H2_LOCK)) {
+                    lock.setLong(1, id);
+                    lock.executeQuery().close();
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = 1;
+                if (postgres) {
+                    statement.setLong(index++, id);
+                }
+                for (Column column : columns) {
+                    statement.setObject(index++, column.value().apply(patch), column.sqlType());
+                    statement.setObject(index++, column.value().apply(patch), column.sqlType());
+                }
+                statement.setObject(index++, updatedAt.truncatedTo(ChronoUnit.MICROS));
+                statement.setLong(index++, id);
+                for (Column column : columns) {
+                    statement.setObject(index++, column.value().apply(patch), column.sqlType());
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    if (!result.next()) {
+                        return Optional.<Student>empty();
+                    }
+                    return Optional.of(StudentUpsertRepositoryImpl.readStudent(result));
+                }
+            }
+        });
+
+        previous.ifPresent(row -> StudentCacheEviction.evictAfterWrite(entityManager, id));
+        return previous;
+    }
+
+    // Parameters: id, each new value twice, updated_at, id, then the new values again for the change check
+    private static String postgresPatch(List<Column> columns) {
+        return "WITH previous AS (SELECT " + COLUMNS + " FROM students WHERE id = ? FOR UPDATE)"
+                + " UPDATE students SET " + assignments(columns, StudentUpsertRepositoryImpl.POSTGRES_UPDATED_AFTER)
+                + " FROM previous WHERE students.id = ? AND students.id = previous.id"
+                + " AND (" + changes(columns, "previous.") + ")"
+                + " RETURNING " + COLUMNS.replaceAll("(\\w+)", "previous.$1");
+    }
+
+    // Parameters: each new value twice, updated_at, id, then the new values again for the change check
+    private static String h2Patch(List<Column> columns) {
+        return "SELECT " + COLUMNS + " FROM OLD TABLE ("
+                + " UPDATE students SET " + assignments(columns, StudentUpsertRepositoryImpl.H2_UPDATED_AFTER)
+                + " WHERE id = ? AND (" + changes(columns, "") + ")"
+                + ")";
+    }
+
+    private static String assignments(List<Column> columns, String updatedAfter) {
+        StringBuilder sql = new StringBuilder();
+        for (Column column : columns) {
+            String stored = "students." + column.name();
+            sql.append(column.name()).append(" = CASE WHEN ").append(stored).append(" IS DISTINCT FROM ? THEN ? ELSE ")
+                    .append(stored).append(" END, ");
+        }
+        return sql.append("updated_at = ").append(String.format(updatedAfter, "?", "students.updated_at")).toString();
+    }
+
+    private static String changes(List<Column> columns, String prefix) {
+        StringBuilder sql = new StringBuilder();
+        for (Column column : columns) {
+            if (sql.length() > 0) {
+                sql.append(" OR ");
+            }
+            sql.append(prefix).append(column.name()).append(" IS DISTINCT FROM ?");
+        }
+        return sql.toString();
+    }
+
+    private record Column(String field, String name, int sqlType, Function<StudentPatchDto, Object> value) {
+    }
+}
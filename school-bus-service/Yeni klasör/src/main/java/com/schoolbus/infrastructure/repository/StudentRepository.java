@@ -1,20 +1,96 @@
 package com.schoolbus.infrastructure.repository;
 
+import com.schoolbus.domain.dto.StudentDto;
 import com.schoolbus.domain.entity.Student;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Student entity.
  * Extends JpaRepository to provide CRUD operations and custom query methods.
+ * <p>
+ * The listings behind the read-only endpoints return StudentDto rather than Student: their rows
+ * are projected straight into DTOs, so no entity is hydrated, kept in the persistence context
+ * or snapshotted for dirty checking, and nothing has to be copied afterwards. Their filters are
+ * kept as constants so StudentFieldsRepository can run the same listings selecting fewer columns.
  */
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentUpsertRepository,
+        StudentPatchRepository, StudentFieldsRepository {
+    
+    /**
+     * Select clause projecting every column of a student into a StudentDto
+     */
+    String STUDENT_DTO_SELECT = "SELECT new com.schoolbus.domain.dto.StudentDto(" +
+            "s.id, s.firstName, s.lastName, s.studentId, s.age, s.grade, s.address, s.parentContact, " +
+            "s.busRoute, s.pickupTime, s.dropoffTime, s.createdAt, s.updatedAt) FROM Student s ";
+    
+    // Filters of the listings below, shared with StudentFieldsRepository#findFields
+    
+    String ALL_FILTER = "ORDER BY s.firstName ASC";
+    
+    String EXPORT_FILTER = "ORDER BY s.id ASC";
+    
+    String PAGE_AFTER_FILTER = "WHERE " +
+            "s.firstName > :firstName OR (s.firstName = :firstName AND s.id > :id) " +
+            "ORDER BY s.firstName ASC, s.id ASC";
+    
+    String GRADE_FILTER = "WHERE s.grade = :grade ORDER BY s.firstName ASC";
+    
+    String GRADE_PAGE_AFTER_FILTER = "WHERE s.grade = :grade AND " +
+            "(s.firstName > :firstName OR (s.firstName = :firstName AND s.id > :id)) " +
+            "ORDER BY s.firstName ASC, s.id ASC";
+    
+    String AGE_RANGE_FILTER = "WHERE s.age BETWEEN :minAge AND :maxAge ORDER BY s.age ASC";
+    
+    String AGE_RANGE_PAGE_AFTER_FILTER = "WHERE s.age BETWEEN :minAge AND :maxAge AND " +
+            "(s.age > :age OR (s.age = :age AND s.id > :id)) " +
+            "ORDER BY s.age ASC, s.id ASC";
+    
+    String NAME_SEARCH_FILTER = "WHERE " +
+            "LOWER(s.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR " +
+            "LOWER(s.lastName) LIKE LOWER(CONCAT('%', :name, '%')) " +
+            "ORDER BY s.firstName ASC";
+    
+    String NAME_SEARCH_PAGE_AFTER_FILTER = "WHERE " +
+            "(LOWER(s.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR " +
+            "LOWER(s.lastName) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
+            "(s.firstName > :firstName OR (s.firstName = :firstName AND s.id > :id)) " +
+            "ORDER BY s.firstName ASC, s.id ASC";
+    
+    String PICKUP_WINDOW_PAGE_AFTER_FILTER = "WHERE s.pickupTime >= :pickupTime AND s.pickupTime < :to AND " +
+            "(s.pickupTime > :pickupTime OR s.id > :id) " +
+            "ORDER BY s.pickupTime ASC, s.id ASC";
+    
+    String BUS_ROUTE_PICKUP_WINDOW_PAGE_AFTER_FILTER = "WHERE s.busRoute = :busRoute AND " +
+            "s.pickupTime >= :pickupTime AND s.pickupTime < :to AND " +
+            "(s.pickupTime > :pickupTime OR s.id > :id) " +
+            "ORDER BY s.pickupTime ASC, s.id ASC";
+    
+    String BUS_ROUTE_PAGE_AFTER_FILTER = "WHERE s.busRoute = :busRoute AND " +
+            "(s.pickupTime > :pickupTime OR (s.pickupTime = :pickupTime AND s.id > :id)) " +
+            "ORDER BY s.pickupTime ASC, s.id ASC";
+    
+    String BUS_ROUTE_WITHOUT_PICKUP_TIME_PAGE_AFTER_FILTER =
+            "WHERE s.busRoute = :busRoute AND s.pickupTime IS NULL AND s.id > :id ORDER BY s.id ASC";
+    
+    String IDS_FILTER = "WHERE s.id IN :ids";
     
     /**
      * Find student by unique student ID
@@ -23,6 +99,14 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      */
     Optional<Student> findByStudentId(String studentId);
     
+    /**
+     * Find the update timestamp of a student without loading the entity
+     * @param id the database ID of the student
+     * @return Optional containing the update timestamp if the student exists and has one
+     */
+    @Query("SELECT s.updatedAt FROM Student s WHERE s.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+    
     /**
      * Check if a student exists with the given student ID
      * @param studentId the student ID to check
@@ -30,19 +114,29 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      */
     boolean existsByStudentId(String studentId);
     
+    /**
+     * Find which of the given student IDs are already taken
+     * @param studentIds the student IDs to check
+     * @return List of the given student IDs that already exist
+     */
+    @Query("SELECT s.studentId FROM Student s WHERE s.studentId IN :studentIds")
+    List<String> findExistingStudentIds(@Param("studentIds") Collection<String> studentIds);
+    
     /**
      * Find all students by grade, ordered by first name
      * @param grade the grade to search for
      * @return List of students in the specified grade
      */
-    List<Student> findByGradeOrderByFirstNameAsc(String grade);
+    @Query(STUDENT_DTO_SELECT + GRADE_FILTER)
+    List<StudentDto> findByGradeOrderByFirstNameAsc(@Param("grade") String grade);
     
     /**
      * Find all students by bus route, ordered by pickup time
      * @param busRoute the bus route to search for
      * @return List of students assigned to the specified bus route
      */
-    List<Student> findByBusRouteOrderByPickupTimeAsc(String busRoute);
+    @Query(STUDENT_DTO_SELECT + "WHERE s.busRoute = :busRoute ORDER BY s.pickupTime ASC")
+    List<StudentDto> findByBusRouteOrderByPickupTimeAsc(@Param("busRoute") String busRoute);
     
     /**
      * Find students by age range
@@ -50,19 +144,18 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      * @param maxAge maximum age (inclusive)
      * @return List of students within the age range
      */
-    List<Student> findByAgeBetweenOrderByAgeAsc(Integer minAge, Integer maxAge);
+    @Query(STUDENT_DTO_SELECT + AGE_RANGE_FILTER)
+    List<StudentDto> findByAgeBetweenOrderByAgeAsc(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
     
     /**
      * Search students by first name or last name (case-insensitive)
      * @param firstName partial first name to search
      * @param lastName partial last name to search
+     * @param limit maximum number of rows to return
      * @return List of students matching the search criteria
      */
-    @Query("SELECT s FROM Student s WHERE " +
-           "LOWER(s.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR " +
-           "LOWER(s.lastName) LIKE LOWER(CONCAT('%', :name, '%')) " +
-           "ORDER BY s.firstName ASC")
-    List<Student> searchByName(@Param("name") String name);
+    @Query(STUDENT_DTO_SELECT + NAME_SEARCH_FILTER)
+    List<StudentDto> searchByName(@Param("name") String name, Limit limit);
     
     /**
      * Count students by grade
@@ -82,7 +175,8 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      * Find all students ordered by first name
      * @return List of all students ordered by first name
      */
-    List<Student> findAllByOrderByFirstNameAsc();
+    @Query(STUDENT_DTO_SELECT + ALL_FILTER)
+    List<StudentDto> findAllByOrderByFirstNameAsc();
     
     /**
      * Find students by grade and bus route
@@ -90,13 +184,16 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      * @param busRoute the bus route to filter by
      * @return List of students matching both criteria
      */
-    List<Student> findByGradeAndBusRouteOrderByFirstNameAsc(String grade, String busRoute);
+    @Query(STUDENT_DTO_SELECT + "WHERE s.grade = :grade AND s.busRoute = :busRoute ORDER BY s.firstName ASC")
+    List<StudentDto> findByGradeAndBusRouteOrderByFirstNameAsc(@Param("grade") String grade,
+                                                               @Param("busRoute") String busRoute);
     
     /**
      * Find students with no bus route assigned
      * @return List of students without bus route assignment
      */
-    List<Student> findByBusRouteIsNullOrderByFirstNameAsc();
+    @Query(STUDENT_DTO_SELECT + "WHERE s.busRoute IS NULL ORDER BY s.firstName ASC")
+    List<StudentDto> findByBusRouteIsNullOrderByFirstNameAsc();
     
     /**
      * Find students by parent contact
@@ -118,4 +215,180 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      */
     @Query("SELECT DISTINCT s.busRoute FROM Student s WHERE s.busRoute IS NOT NULL ORDER BY s.busRoute")
     List<String> findAllDistinctBusRoutes();
-}
\ No newline at end of file
+    
+    /**
+     * Stream all students ordered by ID, reading rows from the JDBC cursor in fetch-size batches.
+     * Must be consumed inside a transaction and closed after use.
+     * @return Stream of all students
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        // A full scan must not flood the second-level cache, nor fill it from a lagging replica
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT s FROM Student s ORDER BY s.id ASC")
+    Stream<Student> streamAllByOrderByIdAsc();
+    
+    /**
+     * Keyset page of all students, ordered by first name then ID
+     * @param firstName first name of the last row of the previous page
+     * @param id database ID of the last row of the previous page
+     * @param limit maximum number of rows to return
+     * @return List of students positioned after the given key
+     */
+    @Query(STUDENT_DTO_SELECT + PAGE_AFTER_FILTER)
+    List<StudentDto> findPageAfter(@Param("firstName") String firstName, @Param("id") Long id, Limit limit);
+    
+    /**
+     * Keyset page of students in a grade, ordered by first name then ID
+     * @param grade the grade to filter by
+     * @param firstName first name of the last row of the previous page
+     * @param id database ID of the last row of the previous page
+     * @param limit maximum number of rows to return
+     * @return List of students in the grade positioned after the given key
+     */
+    @Query(STUDENT_DTO_SELECT + GRADE_PAGE_AFTER_FILTER)
+    List<StudentDto> findByGradePageAfter(@Param("grade") String grade, @Param("firstName") String firstName,
+                                          @Param("id") Long id, Limit limit);
+    
+    /**
+     * Keyset page of students on a bus route that have a pickup time, ordered by pickup time then ID
+     * @param busRoute the bus route to filter by
+     * @param pickupTime pickup time of the last row of the previous page
+     * @param id database ID of the last row of the previous page
+     * @param limit maximum number of rows to return
+     * @return List of students on the route positioned after the given key
+     */
+    @Query(STUDENT_DTO_SELECT + BUS_ROUTE_PAGE_AFTER_FILTER)
+    List<StudentDto> findByBusRoutePageAfter(@Param("busRoute") String busRoute,
+                                             @Param("pickupTime") LocalTime pickupTime,
+                                             @Param("id") Long id, Limit limit);
+    
+    /**
+     * Keyset page of students on any route picked up before a time, ordered by pickup time then ID.
+     * The bounds on pickup time alone make this a range scan of the (pickup_time, id) index.
+     * @param pickupTime pickup time of the last row of the previous page, or the window start
+     * @param id database ID of the last row of the previous page, or 0 to include the window start
+     * @param to end of the window (exclusive)
+     * @param limit maximum number of rows to return
+     * @return List of students in the window positioned after the given key
+     */
+    @Query(STUDENT_DTO_SELECT + PICKUP_WINDOW_PAGE_AFTER_FILTER)
+    List<StudentDto> findByPickupTimeWindowPageAfter(@Param("pickupTime") LocalTime pickupTime, @Param("id") Long id,
+                                                     @Param("to") LocalTime to, Limit limit);
+    
+    /**
+     * Keyset page of students on a bus route picked up before a time, ordered by pickup time then ID.
+     * A range scan of the (bus_route, pickup_time, id) index.
+     * @param busRoute the bus route to filter by
+     * @param pickupTime pickup time of the last row of the previous page, or the window start
+     * @param id database ID of the last row of the previous page, or 0 to include the window start
+     * @param to end of the window (exclusive)
+     * @param limit maximum number of rows to return
+     * @return List of students on the route in the window positioned after the given key
+     */
+    @Query(STUDENT_DTO_SELECT + BUS_ROUTE_PICKUP_WINDOW_PAGE_AFTER_FILTER)
+    List<StudentDto> findByBusRouteAndPickupTimeWindowPageAfter(@Param("busRoute") String busRoute,
+                                                                @Param("pickupTime") LocalTime pickupTime,
+                                                                @Param("id") Long id, @Param("to") LocalTime to,
+                                                                Limit limit);
+    
+    /**
+     * Keyset page of students on a bus route without a pickup time, ordered by ID.
+     * These rows follow all rows that have a pickup time.
+     * @param busRoute the bus route to filter by
+     * @param id database ID of the last row of the previous page
+     * @param limit maximum number of rows to return
+     * @return List of students on the route without pickup time positioned after the given ID
+     */
+    @Query(STUDENT_DTO_SELECT + BUS_ROUTE_WITHOUT_PICKUP_TIME_PAGE_AFTER_FILTER)
+    List<StudentDto> findByBusRouteWithoutPickupTimePageAfter(@Param("busRoute") String busRoute,
+                                                              @Param("id") Long id, Limit limit);
+    
+    /**
+     * Keyset page of students matching a name search, ordered by first name then ID
+     * @param name partial first or last name to search
+     * @param firstName first name of the last row of the previous page
+     * @param id database ID of the last row of the previous page
+     * @param limit maximum number of rows to return
+     * @return List of matching students positioned after the given key
+     */
+    @Query(STUDENT_DTO_SELECT + NAME_SEARCH_PAGE_AFTER_FILTER)
+    List<StudentDto> searchByNamePageAfter(@Param("name") String name, @Param("firstName") String firstName,
+                                           @Param("id") Long id, Limit limit);
+    
+    /**
+     * Keyset page of students within an age range, ordered by age then ID
+     * @param minAge minimum age (inclusive)
+     * @param maxAge maximum age (inclusive)
+     * @param age age of the last row of the previous page
+     * @param id database ID of the last row of the previous page
+     * @param limit maximum number of rows to return
+     * @return List of students in the range positioned after the given key
+     */
+    @Query(STUDENT_DTO_SELECT + AGE_RANGE_PAGE_AFTER_FILTER)
+    List<StudentDto> findByAgeRangePageAfter(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge,
+                                             @Param("age") Integer age, @Param("id") Long id, Limit limit);
+    
+    /**
+     * Find students by database ID
+     * @param ids the database IDs
+     * @return List of the students that exist, in no particular order
+     */
+    @Query(STUDENT_DTO_SELECT + IDS_FILTER)
+    List<StudentDto> findAllDtosById(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Find a student by database ID and lock its row until the transaction ends. The row is read
+     * from the database rather than the second-level cache, so it is the before-image of the change
+     * the transaction writes, and no concurrent write can change it in between.
+     * @param id the database ID
+     * @return Optional containing the student if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("SELECT s FROM Student s WHERE s.id = :id")
+    Optional<Student> findByIdForUpdate(@Param("id") Long id);
+    
+    /**
+     * Find students by database ID as DTOs and lock their rows until the transaction ends.
+     * Rows are locked in ID order, so concurrent bulk updates cannot deadlock each other.
+     * The rows are projected rather than loaded as entities, so nothing is added to the
+     * persistence context for the bulk UPDATE that follows to leave stale.
+     * @param ids the database IDs
+     * @return List of the students that exist, ordered by ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(STUDENT_DTO_SELECT + "WHERE s.id IN :ids ORDER BY s.id ASC")
+    List<StudentDto> findAllDtosByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Find students by current bus route and/or grade as DTOs and lock their rows until the transaction ends
+     * @param busRoute the current bus route to filter by, or null to match any route
+     * @param grade the grade to filter by, or null to match any grade
+     * @return List of matching students, ordered by ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(STUDENT_DTO_SELECT + "WHERE (:busRoute IS NULL OR s.busRoute = :busRoute) AND " +
+           "(:grade IS NULL OR s.grade = :grade) ORDER BY s.id ASC")
+    List<StudentDto> findDtosByBusRouteAndGradeForUpdate(@Param("busRoute") String busRoute,
+                                                         @Param("grade") String grade);
+    
+    /**
+     * Assign a bus route and times to many students with a single UPDATE statement.
+     * Bulk updates bypass entity callbacks, so the update timestamp is passed in.
+     * @param ids the database IDs of the students
+     * @param busRoute the bus route to assign
+     * @param pickupTime the pickup time to assign
+     * @param dropoffTime the dropoff time to assign
+     * @param updatedAt the update timestamp to record
+     * @return the number of updated rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.busRoute = :busRoute, s.pickupTime = :pickupTime, " +
+           "s.dropoffTime = :dropoffTime, s.updatedAt = :updatedAt WHERE s.id IN :ids")
+    int assignBusRoute(@Param("ids") Collection<Long> ids, @Param("busRoute") String busRoute,
+                       @Param("pickupTime") LocalTime pickupTime, @Param("dropoffTime") LocalTime dropoffTime,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,23 @@
+package com.schoolbus.infrastructure.repository;
+
+import com.schoolbus.domain.entity.Student;
+
+import java.util.Optional;
+
+/**
+ * Insert-or-update of students keyed by their unique student ID, without reading the row first.
+ * Implemented with native SQL because JPA has no upsert.
+ */
+public interface StudentUpsertRepository {
+
+    /**
+     * Inserts the student, or updates every column of the student with the same student ID,
+     * in a single statement. Concurrent upserts of the same student ID are serialized by the
+     * unique constraint instead of failing on it.
+     * The given student is not attached to the persistence context; its ID and creation time
+     * are set to those of the stored row.
+     * @param student the student to store
+     * @return the student as it was before the update, or empty if it was inserted
+     */
+    Optional<Student> upsertByStudentId(Student student);
+}
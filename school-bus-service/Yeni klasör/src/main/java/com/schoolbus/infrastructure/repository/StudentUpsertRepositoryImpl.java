@@ -0,0 +1,171 @@
+package com.schoolbus.infrastructure.repository;
+
+import com.schoolbus.domain.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Native upsert of a student for PostgreSQL and H2.
+ * <p>
+ * PostgreSQL uses {@code INSERT ... ON CONFLICT (student_id) DO UPDATE}, with the previous row
+ * read and locked by a CTE of the same statement, so a concurrent write to the student is waited
+ * for and the row returned is the one this statement replaces. H2 uses a standard {@code MERGE}
+ * whose old row is read through {@code OLD TABLE}; its old row comes from the statement's snapshot,
+ * so the row is locked by a {@code SELECT ... FOR UPDATE} first. An update advances the update time
+ * as {@link Student#updatedAfter} does. The ID is drawn from the entity's pooled sequence generator,
+ * since the column default would hand out IDs that Hibernate has already reserved for batched inserts.
+ * Hibernate does not see the statement, so an updated student is evicted from the second-level cache.
+ */
+class StudentUpsertRepositoryImpl implements StudentUpsertRepository {
+
+    // Every column of the students table; shared with the native patch
+    static final String COLUMNS = "id, first_name, last_name, student_id, age, grade, address, "
+            + "parent_contact, bus_route, pickup_time, dropoff_time, created_at, updated_at";
+
+    // Every column but id, student_id and created_at, which an update keeps, and updated_at, which it
+    // advances past the row's previous update time
+    private static final String[] UPDATED_COLUMNS = {"first_name", "last_name", "age", "grade", "address",
+            "parent_contact", "bus_route", "pickup_time", "dropoff_time"};
+
+    // Student.updatedAfter in SQL, from the new time and the update time of the locked row
+    static final String POSTGRES_UPDATED_AFTER = "GREATEST(%s, %s + INTERVAL '1 microsecond')";
+    static final String H2_UPDATED_AFTER = "GREATEST(%s, DATEADD(MICROSECOND, 1, %s))";
+
+    private static final String POSTGRES_UPSERT = "WITH previous AS ("
+            + " SELECT " + COLUMNS + " FROM students WHERE student_id = ? FOR UPDATE"
+            + "), upserted AS ("
+            + " INSERT INTO students (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+            + " ON CONFLICT (student_id) DO UPDATE SET " + assignments("EXCLUDED.", POSTGRES_UPDATED_AFTER, "students")
+            + " RETURNING id AS stored_id"
+            + ") SELECT upserted.stored_id, previous.* FROM upserted LEFT JOIN previous ON previous.id = upserted.stored_id";
+
+    private static final String H2_UPSERT = "SELECT " + COLUMNS + " FROM OLD TABLE ("
+            + " MERGE INTO students target USING (VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?))"
+            + " source (" + COLUMNS + ") ON target.student_id = source.student_id"
+            + " WHEN MATCHED THEN UPDATE SET " + assignments("source.", H2_UPDATED_AFTER, "target")
+            + " WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (" + COLUMNS.replaceAll("(\\w+)", "source.$1") + ")"
+            + ")";
+
+    private static final String H2_LOCK = "SELECT id FROM students WHERE student_id = ? FOR UPDATE";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Student> upsertByStudentId(Student student) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Dialect dialect = session.getFactory().getJdbcServices().getDialect();
+        boolean postgres = dialect instanceof PostgreSQLDialect;
+        if (!postgres && !(dialect instanceof H2Dialect)) {
+            throw new IllegalStateException("Student upsert is not supported on " + dialect);
+        }
+
+        // Pending changes of this transaction must reach the database before the native statement
+        session.flush();
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Student.class);
+        Long newId = (Long) ((BeforeExecutionGenerator) persister.getGenerator())
+                .generate(session, student, null, EventType.INSERT);
+        student.setId(newId);
+        student.setCreatedAt(now);
+        student.setUpdatedAt(now);
+
+        Optional<Student> previous = session.doReturningWork(connection -> {
+            if (!postgres) {
+                try (PreparedStatement lock = connection.prepareStatement(H2_LOCK)) {
+                    lock.setString(1, student.getStudentId());
+                    lock.executeQuery().close();
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(postgres ? POSTGRES_UPSERT : H2_UPSERT)) {
+                int index = 1;
+                if (postgres) {
+                    statement.setString(index++, student.getStudentId());
+                }
+                bindColumns(statement, index, student);
+                try (ResultSet result = statement.executeQuery()) {
+                    // H2 returns no old row for an insert; PostgreSQL returns the new ID without a previous row
+                    if (!result.next() || (postgres && result.getLong("stored_id") == newId)) {
+                        return Optional.empty();
+                    }
+                    if (result.getObject("id") == null) {
+                        // Another transaction inserted the student after this statement's snapshot was
+                        // taken, so the row was updated but its previous values are unknown
+                        throw new ConcurrencyFailureException(
+                                "Student '" + student.getStudentId() + "' was created concurrently");
+                    }
+                    return Optional.of(readStudent(result));
+                }
+            }
+        });
+
+        previous.ifPresent(row -> {
+            student.setId(row.getId());
+            student.setCreatedAt(row.getCreatedAt());
+            student.setUpdatedAt(Student.updatedAfter(row.getUpdatedAt(), now));
+            StudentCacheEviction.evictAfterWrite(entityManager, row.getId());
+        });
+        return previous;
+    }
+
+    private static String assignments(String sourcePrefix, String updatedAfter, String target) {
+        StringBuilder sql = new StringBuilder();
+        for (String column : UPDATED_COLUMNS) {
+            sql.append(column).append(" = ").append(sourcePrefix).append(column).append(", ");
+        }
+        return sql.append("updated_at = ")
+                  .append(String.format(updatedAfter, sourcePrefix + "updated_at", target + ".updated_at"))
+                  .toString();
+    }
+
+    private static void bindColumns(PreparedStatement statement, int index, Student student) throws SQLException {
+        statement.setLong(index++, student.getId());
+        statement.setString(index++, student.getFirstName());
+        statement.setString(index++, student.getLastName());
+        statement.setString(index++, student.getStudentId());
+        statement.setInt(index++, student.getAge());
+        statement.setString(index++, student.getGrade());
+        statement.setString(index++, student.getAddress());
+        statement.setString(index++, student.getParentContact());
+        statement.setString(index++, student.getBusRoute());
+        statement.setObject(index++, student.getPickupTime());
+        statement.setObject(index++, student.getDropoffTime());
+        statement.setObject(index++, student.getCreatedAt());
+        statement.setObject(index, student.getUpdatedAt());
+    }
+
+    static Student readStudent(ResultSet result) throws SQLException {
+        Student student = new Student();
+        student.setId(result.getLong("id"));
+        student.setFirstName(result.getString("first_name"));
+        student.setLastName(result.getString("last_name"));
+        student.setStudentId(result.getString("student_id"));
+        student.setAge(result.getInt("age"));
+        student.setGrade(result.getString("grade"));
+        student.setAddress(result.getString("address"));
+        student.setParentContact(result.getString("parent_contact"));
+        student.setBusRoute(result.getString("bus_route"));
+        student.setPickupTime(result.getObject("pickup_time", LocalTime.class));
+        student.setDropoffTime(result.getObject("dropoff_time", LocalTime.class));
+        student.setCreatedAt(result.getObject("created_at", LocalDateTime.class));
+        student.setUpdatedAt(result.getObject("updated_at", LocalDateTime.class));
+        return student;
+    }
+}
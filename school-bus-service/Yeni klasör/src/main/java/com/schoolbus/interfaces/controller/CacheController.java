@@ -0,0 +1,49 @@
+package com.schoolbus.interfaces.controller;
+
+import com.schoolbus.application.service.cache.StudentLookupCache;
+import com.schoolbus.domain.dto.CacheStatsDto;
+import com.schoolbus.infrastructure.cache.SecondLevelCacheStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+@Tag(name = "Cache Monitoring", description = "APIs for inspecting the in-process caches")
+public class CacheController {
+    
+    private final StudentLookupCache studentLookupCache;
+    private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+    
+    @Autowired
+    public CacheController(StudentLookupCache studentLookupCache,
+                           SecondLevelCacheStatistics secondLevelCacheStatistics) {
+        this.studentLookupCache = studentLookupCache;
+        this.secondLevelCacheStatistics = secondLevelCacheStatistics;
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Get cache statistics", 
+               description = "Returns size, hit, miss and eviction counts of the student lookup caches " +
+                             "and of the Hibernate second-level cache regions")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics",
+                    content = @Content(schema = @Schema(implementation = CacheStatsDto.class)))
+    })
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        List<CacheStatsDto> stats = new ArrayList<>(studentLookupCache.getStats());
+        stats.addAll(secondLevelCacheStatistics.getStats());
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,53 @@
+package com.schoolbus.interfaces.controller;
+
+import com.schoolbus.application.service.geocoding.GeocodingService;
+import com.schoolbus.domain.dto.GeocodingStatusDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/students/locations/geocoding")
+@Tag(name = "Student Locations", description = "APIs for the home locations of students")
+public class GeocodingController {
+
+    private final GeocodingService geocodingService;
+
+    @Autowired
+    public GeocodingController(GeocodingService geocodingService) {
+        this.geocodingService = geocodingService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Geocode students without a location",
+               description = "Starts a background backfill that queues every student without a home location " +
+                             "to be geocoded from their address. Does nothing if a backfill is already running")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Backfill started",
+                    content = @Content(schema = @Schema(implementation = GeocodingStatusDto.class))),
+        @ApiResponse(responseCode = "400", description = "Geocoding is not enabled")
+    })
+    public ResponseEntity<GeocodingStatusDto> startBackfill() {
+        return ResponseEntity.accepted().body(geocodingService.startBackfill());
+    }
+
+    @GetMapping
+    @Operation(summary = "Get geocoding status",
+               description = "Returns the queue, cache and outcome counts of the geocoding pipeline")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status retrieved",
+                    content = @Content(schema = @Schema(implementation = GeocodingStatusDto.class)))
+    })
+    public ResponseEntity<GeocodingStatusDto> getStatus() {
+        return ResponseEntity.ok(geocodingService.getStatus());
+    }
+}
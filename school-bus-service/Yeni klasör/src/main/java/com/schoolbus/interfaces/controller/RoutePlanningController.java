@@ -0,0 +1,60 @@
+package com.schoolbus.interfaces.controller;
+
+import com.schoolbus.application.service.routing.RoutePlanner;
+import com.schoolbus.domain.dto.FleetPlanDto;
+import com.schoolbus.domain.dto.RoutePlanDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/students/routes")
+@Tag(name = "Route Planning", description = "APIs for sequencing bus route stops and deriving pickup times")
+public class RoutePlanningController {
+
+    private final RoutePlanner routePlanner;
+
+    @Autowired
+    public RoutePlanningController(RoutePlanner routePlanner) {
+        this.routePlanner = routePlanner;
+    }
+
+    @PostMapping("/plan")
+    @Operation(summary = "Plan all bus routes",
+               description = "Sequences the stops of every bus route in parallel and derives pickup times from " +
+                             "the school arrival time. Nothing is changed; the plans are only returned")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully planned routes",
+                    content = @Content(schema = @Schema(implementation = FleetPlanDto.class))),
+        @ApiResponse(responseCode = "400", description = "School location not configured")
+    })
+    public ResponseEntity<FleetPlanDto> planAllRoutes() {
+        return ResponseEntity.ok(routePlanner.planFleet());
+    }
+
+    @PostMapping("/{busRoute}/plan")
+    @Operation(summary = "Plan a bus route",
+               description = "Sequences the stops of one bus route and derives pickup times from the school " +
+                             "arrival time. Students without a home location are listed as unlocated")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully planned route",
+                    content = @Content(schema = @Schema(implementation = RoutePlanDto.class))),
+        @ApiResponse(responseCode = "400", description = "School location not configured"),
+        @ApiResponse(responseCode = "404", description = "No students on the bus route")
+    })
+    public ResponseEntity<RoutePlanDto> planRoute(
+            @Parameter(description = "Bus route", required = true)
+            @PathVariable String busRoute) {
+        return ResponseEntity.ok(routePlanner.planRoute(busRoute));
+    }
+}
@@ -0,0 +1,45 @@
+package com.schoolbus.interfaces.controller;
+
+import com.schoolbus.application.service.roster.RouteRosterBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/students/rosters")
+@Tag(name = "Route Roster Stream", description = "Live bus route rosters for dispatcher screens")
+public class RouteRosterStreamController {
+
+    private final RouteRosterBroadcaster routeRosterBroadcaster;
+
+    @Autowired
+    public RouteRosterStreamController(RouteRosterBroadcaster routeRosterBroadcaster) {
+        this.routeRosterBroadcaster = routeRosterBroadcaster;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream bus route rosters",
+               description = "Sends a snapshot event with the roster of each route, then a delta event whenever " +
+                             "a student joins, leaves or changes on one of them. A client that falls too far " +
+                             "behind is sent a reset event and disconnected, and reconnects for new snapshots")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened"),
+        @ApiResponse(responseCode = "400", description = "No bus route or too many bus routes")
+    })
+    public SseEmitter streamRosters(
+            @Parameter(description = "Bus routes to follow, comma-separated or repeated")
+            @RequestParam List<String> busRoutes) {
+        return routeRosterBroadcaster.subscribe(busRoutes);
+    }
+}
@@ -0,0 +1,62 @@
+package com.schoolbus.interfaces.controller;
+
+import com.schoolbus.application.service.changes.StudentChangeFeed;
+import com.schoolbus.domain.dto.StudentChangeFeedDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/students/changes")
+@Tag(name = "Student Changes", description = "Feed of student changes for incremental synchronization")
+public class StudentChangeController {
+
+    private final StudentChangeFeed studentChangeFeed;
+
+    @Autowired
+    public StudentChangeController(StudentChangeFeed studentChangeFeed) {
+        this.studentChangeFeed = studentChangeFeed;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get student changes",
+               description = "Returns the students created, updated and deleted after a token, in commit order. " +
+                             "Pass the returned nextToken as since to continue; deletions are returned as tombstones")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved changes",
+                    content = @Content(schema = @Schema(implementation = StudentChangeFeedDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid token or limit"),
+        @ApiResponse(responseCode = "410", description = "Changes after the token are no longer kept")
+    })
+    public ResponseEntity<StudentChangeFeedDto> getChanges(
+            @Parameter(description = "Token of the last change seen, omit to start from the oldest kept change")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changes")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(studentChangeFeed.getChanges(since, limit));
+    }
+
+    @GetMapping("/token")
+    @Operation(summary = "Get the current change token",
+               description = "Returns the token of the latest change. Take it before a full synchronization " +
+                             "and follow the feed from it afterwards")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved token",
+                    content = @Content(schema = @Schema(implementation = StudentChangeFeedDto.class)))
+    })
+    public ResponseEntity<StudentChangeFeedDto> getCurrentToken() {
+        return ResponseEntity.ok(new StudentChangeFeedDto(List.of(), studentChangeFeed.getCurrentToken(), false));
+    }
+}
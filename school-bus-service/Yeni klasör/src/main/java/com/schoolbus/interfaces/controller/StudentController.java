@@ -1,9 +1,19 @@
 package com.schoolbus.interfaces.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.schoolbus.application.service.StudentService;
+import com.schoolbus.domain.dto.BulkBusRouteAssignmentDto;
+import com.schoolbus.domain.dto.CursorPageDto;
+import com.schoolbus.domain.dto.RouteRosterDto;
 import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentField;
+import com.schoolbus.domain.dto.StudentPatchDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,22 +21,40 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/students")
 @Tag(name = "Student Management", description = "APIs for managing school bus students")
 public class StudentController {
     
+    // Number of exported rows written between flushes of the response stream
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+    
     private final StudentService studentService;
+    private final ObjectMapper objectMapper;
     
     @Autowired
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, ObjectMapper objectMapper) {
         this.studentService = studentService;
+        this.objectMapper = objectMapper;
     }
     
     @PostMapping
@@ -45,6 +73,22 @@ public class StudentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Create students in bulk", 
+               description = "Creates many students in one transaction using batched inserts. " +
+                             "The whole batch is rejected if any student is invalid or any student ID already exists")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Students created successfully",
+                    content = @Content(schema = @Schema(implementation = StudentDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or duplicate student IDs")
+    })
+    public ResponseEntity<List<StudentDto>> createStudents(
+            @Parameter(description = "Students to create", required = true)
+            @Valid @RequestBody List<@Valid StudentDto> studentDtos) {
+        List<StudentDto> createdStudents = studentService.createStudents(studentDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdStudents);
+    }
+    
     @GetMapping
     @Operation(summary = "Get all students", 
                description = "Retrieves a list of all students ordered by first name")
@@ -52,24 +96,103 @@ public class StudentController {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
                     content = @Content(schema = @Schema(implementation = StudentDto.class)))
     })
-    public ResponseEntity<List<StudentDto>> getAllStudents() {
-        List<StudentDto> students = studentService.getAllStudents();
+    public ResponseEntity<List<StudentDto>> getAllStudents(
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        List<StudentDto> students = studentService.getAllStudents(StudentField.parse(fields));
         return ResponseEntity.ok(students);
     }
     
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get a page of students", 
+               description = "Retrieves one page of students ordered by first name. " +
+                             "Pass an empty cursor for the first page and the returned nextCursor for the following pages")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    public ResponseEntity<CursorPageDto<StudentDto>> getAllStudentsPage(
+            @Parameter(description = "Continuation token, empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        CursorPageDto<StudentDto> page = studentService.getAllStudents(cursor, size, StudentField.parse(fields));
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all students", 
+               description = "Streams every student as newline-delimited JSON, one student per line, ordered by ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Student roster stream",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                       schema = @Schema(implementation = StudentDto.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        Set<StudentField> selected = StudentField.parse(fields);
+        ObjectWriter writer = objectMapper.writerFor(StudentDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .with(selected.equals(StudentField.ALL) ? objectMapper.getSerializationConfig().getFilterProvider()
+                                                        : StudentFieldsJsonConfig.filters(selected));
+        
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are terminated explicitly instead of Jackson's space between root values
+            generator.setRootValueSeparator(null);
+            
+            long[] written = {0};
+            studentService.exportAllStudents(selected, student -> {
+                try {
+                    writer.writeValue(generator, student);
+                    generator.writeRaw('\n');
+                    if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            generator.close();
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get student by ID", 
-               description = "Retrieves a specific student by their ID")
+               description = "Retrieves a specific student by their ID. The response carries an ETag; " +
+                             "send it back in If-None-Match to get 304 Not Modified while the student is unchanged")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved student",
                     content = @Content(schema = @Schema(implementation = StudentDto.class))),
+        @ApiResponse(responseCode = "304", description = "Student unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Student not found")
     })
+    @Parameter(name = "fields", in = ParameterIn.QUERY,
+               description = "Comma-separated fields to return, omit for every field")
     public ResponseEntity<StudentDto> getStudentById(
             @Parameter(description = "Student ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        // Compare against the update timestamp alone, so an unchanged student is never loaded
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<LocalDateTime> updatedAt = studentService.getStudentUpdatedAt(id);
+            if (updatedAt.isPresent() && request.checkNotModified(studentETag(id, updatedAt.get()))) {
+                // checkNotModified has already set the 304 status and the ETag header
+                return null;
+            }
+        }
+        
         StudentDto student = studentService.getStudentById(id);
-        return ResponseEntity.ok(student);
+        return okWithETag(studentETag(student.getId(), student.getUpdatedAt()), student);
     }
     
     @GetMapping("/student-id/{studentId}")
@@ -80,6 +203,8 @@ public class StudentController {
                     content = @Content(schema = @Schema(implementation = StudentDto.class))),
         @ApiResponse(responseCode = "404", description = "Student not found")
     })
+    @Parameter(name = "fields", in = ParameterIn.QUERY,
+               description = "Comma-separated fields to return, omit for every field")
     public ResponseEntity<StudentDto> getStudentByStudentId(
             @Parameter(description = "Student ID", required = true)
             @PathVariable String studentId) {
@@ -106,6 +231,46 @@ public class StudentController {
         return ResponseEntity.ok(updatedStudent);
     }
     
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    @Operation(summary = "Partially update student", 
+               description = "Changes only the fields present in the request body; a field sent as null is cleared " +
+                             "(bus route and times only). Only the columns whose value changes are written")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Student updated successfully",
+                    content = @Content(schema = @Schema(implementation = StudentDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or empty patch"),
+        @ApiResponse(responseCode = "404", description = "Student not found"),
+        @ApiResponse(responseCode = "409", description = "Student ID conflict")
+    })
+    public ResponseEntity<StudentDto> patchStudent(
+            @Parameter(description = "Student ID", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Fields to change", required = true)
+            @Valid @RequestBody StudentPatchDto patch) {
+        StudentDto updatedStudent = studentService.patchStudent(id, patch);
+        return ResponseEntity.ok(updatedStudent);
+    }
+    
+    @PutMapping("/student-id/{studentId}")
+    @Operation(summary = "Create or replace student by student ID", 
+               description = "Creates the student if the student ID is new, otherwise replaces its data. " +
+                             "Insert and update happen in one database statement, so repeated or concurrent " +
+                             "requests for the same student ID never fail as duplicates")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Student created or updated successfully",
+                    content = @Content(schema = @Schema(implementation = StudentDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or student ID mismatch"),
+        @ApiResponse(responseCode = "409", description = "Student changed concurrently")
+    })
+    public ResponseEntity<StudentDto> upsertStudent(
+            @Parameter(description = "Student ID", required = true)
+            @PathVariable String studentId,
+            @Parameter(description = "Complete student information", required = true)
+            @Valid @RequestBody StudentDto studentDto) {
+        StudentDto upsertedStudent = studentService.upsertStudent(studentId, studentDto);
+        return ResponseEntity.ok(upsertedStudent);
+    }
+    
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete student", 
                description = "Deletes a student by their ID")
@@ -129,39 +294,173 @@ public class StudentController {
     })
     public ResponseEntity<List<StudentDto>> getStudentsByGrade(
             @Parameter(description = "Grade level", required = true)
-            @PathVariable String grade) {
-        List<StudentDto> students = studentService.getStudentsByGrade(grade);
+            @PathVariable String grade,
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        List<StudentDto> students = studentService.getStudentsByGrade(grade, StudentField.parse(fields));
         return ResponseEntity.ok(students);
     }
     
+    @GetMapping(value = "/grade/{grade}", params = "cursor")
+    @Operation(summary = "Get a page of students by grade", 
+               description = "Retrieves one page of students in a specific grade ordered by first name")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    public ResponseEntity<CursorPageDto<StudentDto>> getStudentsByGradePage(
+            @Parameter(description = "Grade level", required = true)
+            @PathVariable String grade,
+            @Parameter(description = "Continuation token, empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        CursorPageDto<StudentDto> page = studentService.getStudentsByGrade(grade, cursor, size,
+                StudentField.parse(fields));
+        return ResponseEntity.ok(page);
+    }
+    
     @GetMapping("/bus-route/{busRoute}")
     @Operation(summary = "Get students by bus route", 
-               description = "Retrieves all students assigned to a specific bus route")
+               description = "Retrieves all students assigned to a specific bus route. The response carries an ETag " +
+                             "derived from the roster version; send it back in If-None-Match to get 304 Not Modified " +
+                             "while the roster is unchanged")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
-                    content = @Content(schema = @Schema(implementation = StudentDto.class)))
+                    content = @Content(schema = @Schema(implementation = StudentDto.class))),
+        @ApiResponse(responseCode = "304", description = "Roster unchanged since the ETag in If-None-Match")
     })
+    @Parameter(name = "fields", in = ParameterIn.QUERY,
+               description = "Comma-separated fields to return, omit for every field")
     public ResponseEntity<List<StudentDto>> getStudentsByBusRoute(
             @Parameter(description = "Bus route", required = true)
-            @PathVariable String busRoute) {
-        List<StudentDto> students = studentService.getStudentsByBusRoute(busRoute);
-        return ResponseEntity.ok(students);
+            @PathVariable String busRoute,
+            WebRequest request) {
+        OptionalLong version = studentService.getBusRouteRosterVersion(busRoute);
+        if (version.isPresent() && request.checkNotModified(rosterETag(version.getAsLong()))) {
+            return null;
+        }
+        
+        RouteRosterDto roster = studentService.getBusRouteRoster(busRoute);
+        return okWithETag(version.isPresent() ? rosterETag(roster.getVersion()) : null, roster.getStudents());
+    }
+    
+    @GetMapping("/bus-route/{busRoute}/roster")
+    @Operation(summary = "Get the roster of a bus route", 
+               description = "Retrieves the students on a bus route in pickup order together with the roster version, " +
+                             "which changes whenever the roster changes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved roster",
+                    content = @Content(schema = @Schema(implementation = RouteRosterDto.class))),
+        @ApiResponse(responseCode = "304", description = "Roster unchanged since the ETag in If-None-Match")
+    })
+    @Parameter(name = "fields", in = ParameterIn.QUERY,
+               description = "Comma-separated fields to return, omit for every field")
+    public ResponseEntity<RouteRosterDto> getBusRouteRoster(
+            @Parameter(description = "Bus route", required = true)
+            @PathVariable String busRoute,
+            WebRequest request) {
+        OptionalLong version = studentService.getBusRouteRosterVersion(busRoute);
+        if (version.isPresent() && request.checkNotModified(rosterETag(version.getAsLong()))) {
+            return null;
+        }
+        
+        RouteRosterDto roster = studentService.getBusRouteRoster(busRoute);
+        return okWithETag(version.isPresent() ? rosterETag(roster.getVersion()) : null, roster);
+    }
+    
+    @GetMapping(value = "/bus-route/{busRoute}", params = "cursor")
+    @Operation(summary = "Get a page of students by bus route", 
+               description = "Retrieves one page of students on a specific bus route ordered by pickup time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    public ResponseEntity<CursorPageDto<StudentDto>> getStudentsByBusRoutePage(
+            @Parameter(description = "Bus route", required = true)
+            @PathVariable String busRoute,
+            @Parameter(description = "Continuation token, empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        CursorPageDto<StudentDto> page = studentService.getStudentsByBusRoute(busRoute, cursor, size,
+                StudentField.parse(fields));
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/pickup-window")
+    @Operation(summary = "Get a page of students by pickup time window", 
+               description = "Retrieves one page of the students picked up within a time window on any bus route, " +
+                             "or on one route, ordered by pickup time")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid time window, cursor or page size")
+    })
+    public ResponseEntity<CursorPageDto<StudentDto>> getStudentsByPickupWindow(
+            @Parameter(description = "Start of the window, inclusive (e.g. 07:00)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime from,
+            @Parameter(description = "End of the window, exclusive (e.g. 07:20)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime to,
+            @Parameter(description = "Bus route, omit for every route")
+            @RequestParam(required = false) String busRoute,
+            @Parameter(description = "Continuation token, omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        CursorPageDto<StudentDto> page = studentService.getStudentsByPickupWindow(from, to, busRoute, cursor, size,
+                StudentField.parse(fields));
+        return ResponseEntity.ok(page);
     }
     
     @GetMapping("/search")
     @Operation(summary = "Search students by name", 
-               description = "Searches for students by first name or last name")
+               description = "Searches for students by first name or last name, best matches first")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
                     content = @Content(schema = @Schema(implementation = StudentDto.class)))
     })
     public ResponseEntity<List<StudentDto>> searchStudentsByName(
             @Parameter(description = "Name to search for", required = true)
-            @RequestParam String name) {
-        List<StudentDto> students = studentService.searchStudentsByName(name);
+            @RequestParam String name,
+            @Parameter(description = "Maximum number of results")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        List<StudentDto> students = studentService.searchStudentsByName(name, limit, StudentField.parse(fields));
         return ResponseEntity.ok(students);
     }
     
+    @GetMapping(value = "/search", params = "cursor")
+    @Operation(summary = "Search a page of students by name", 
+               description = "Retrieves one page of students matching the name, ordered by first name")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    public ResponseEntity<CursorPageDto<StudentDto>> searchStudentsByNamePage(
+            @Parameter(description = "Name to search for", required = true)
+            @RequestParam String name,
+            @Parameter(description = "Continuation token, empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        CursorPageDto<StudentDto> page = studentService.searchStudentsByName(name, cursor, size,
+                StudentField.parse(fields));
+        return ResponseEntity.ok(page);
+    }
+    
     @GetMapping("/age-range")
     @Operation(summary = "Get students by age range", 
                description = "Retrieves students within a specific age range")
@@ -173,17 +472,44 @@ public class StudentController {
             @Parameter(description = "Minimum age", required = true)
             @RequestParam Integer minAge,
             @Parameter(description = "Maximum age", required = true)
-            @RequestParam Integer maxAge) {
-        List<StudentDto> students = studentService.getStudentsByAgeRange(minAge, maxAge);
+            @RequestParam Integer maxAge,
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        List<StudentDto> students = studentService.getStudentsByAgeRange(minAge, maxAge, StudentField.parse(fields));
         return ResponseEntity.ok(students);
     }
     
+    @GetMapping(value = "/age-range", params = "cursor")
+    @Operation(summary = "Get a page of students by age range", 
+               description = "Retrieves one page of students within a specific age range ordered by age")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved students",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid age range, cursor or page size")
+    })
+    public ResponseEntity<CursorPageDto<StudentDto>> getStudentsByAgeRangePage(
+            @Parameter(description = "Minimum age", required = true)
+            @RequestParam Integer minAge,
+            @Parameter(description = "Maximum age", required = true)
+            @RequestParam Integer maxAge,
+            @Parameter(description = "Continuation token, empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Comma-separated fields to return, omit for every field")
+            @RequestParam(required = false) String fields) {
+        CursorPageDto<StudentDto> page = studentService.getStudentsByAgeRange(minAge, maxAge, cursor, size,
+                StudentField.parse(fields));
+        return ResponseEntity.ok(page);
+    }
+    
     @PutMapping("/{id}/assign-bus-route")
     @Operation(summary = "Assign bus route to student", 
                description = "Assigns a bus route, pickup time, and dropoff time to a student")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Bus route assigned successfully",
                     content = @Content(schema = @Schema(implementation = StudentDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid bus route or time"),
         @ApiResponse(responseCode = "404", description = "Student not found")
     })
     public ResponseEntity<StudentDto> assignBusRoute(
@@ -191,14 +517,30 @@ public class StudentController {
             @PathVariable Long id,
             @Parameter(description = "Bus route", required = true)
             @RequestParam String busRoute,
-            @Parameter(description = "Pickup time", required = true)
-            @RequestParam String pickupTime,
-            @Parameter(description = "Dropoff time", required = true)
-            @RequestParam String dropoffTime) {
+            @Parameter(description = "Pickup time (e.g. 07:30)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime pickupTime,
+            @Parameter(description = "Dropoff time (e.g. 15:30)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime dropoffTime) {
         StudentDto updatedStudent = studentService.assignBusRoute(id, busRoute, pickupTime, dropoffTime);
         return ResponseEntity.ok(updatedStudent);
     }
     
+    @PostMapping("/assign-bus-route/bulk")
+    @Operation(summary = "Assign bus route to many students", 
+               description = "Assigns a bus route, pickup time, and dropoff time to the students selected by ID, " +
+                             "or by current bus route and/or grade, with one set-based update in one transaction. " +
+                             "Returns the number of students updated")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bus route assigned successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid selection, bus route or time")
+    })
+    public ResponseEntity<Integer> assignBusRoutes(
+            @Parameter(description = "Students to select and the route and times to assign", required = true)
+            @Valid @RequestBody BulkBusRouteAssignmentDto assignment) {
+        int updated = studentService.assignBusRoutes(assignment);
+        return ResponseEntity.ok(updated);
+    }
+    
     @GetMapping("/count/grade/{grade}")
     @Operation(summary = "Get student count by grade", 
                description = "Returns the number of students in a specific grade")
@@ -224,4 +566,30 @@ public class StudentController {
         long count = studentService.getStudentsCountByBusRoute(busRoute);
         return ResponseEntity.ok(count);
     }
+    
+    /**
+     * Strong ETag of a student: the database ID and the update timestamp, truncated to the
+     * microseconds the database keeps so a cached and a freshly read student agree
+     */
+    private static String studentETag(Long id, LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return null;
+        }
+        return "\"" + id + "-" + updatedAt.truncatedTo(ChronoUnit.MICROS) + "\"";
+    }
+    
+    /**
+     * Strong ETag of a bus route's students: the roster version, which is never reused for other content
+     */
+    private static String rosterETag(long version) {
+        return "\"route-" + version + "\"";
+    }
+    
+    private static <T> ResponseEntity<T> okWithETag(String eTag, T body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(body);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.schoolbus.interfaces.controller;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentField;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Lets responses leave out the StudentDto fields a client did not ask for with {@code fields=}.
+ * <p>
+ * StudentDto is serialized through a property filter that the application's ObjectMapper attaches to it.
+ * The mapper's own filter provider has no such filter and writes every field; a response that was asked for
+ * fewer fields carries a provider that keeps only those.
+ */
+@Configuration
+public class StudentFieldsJsonConfig {
+
+    static final String FILTER_ID = "studentFields";
+
+    @JsonFilter(FILTER_ID)
+    private interface StudentFieldsMixin {
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer studentFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(StudentDto.class, StudentFieldsMixin.class)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    /**
+     * @param fields the fields to write
+     * @return a filter provider writing only the given fields of each StudentDto
+     */
+    static FilterProvider filters(Set<StudentField> fields) {
+        return new SimpleFilterProvider().addFilter(FILTER_ID,
+                SimpleBeanPropertyFilter.filterOutAllExcept(fields.stream()
+                        .map(StudentField::getProperty)
+                        .toArray(String[]::new)));
+    }
+}
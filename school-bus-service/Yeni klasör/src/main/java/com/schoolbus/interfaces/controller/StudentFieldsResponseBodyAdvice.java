@@ -0,0 +1,39 @@
+package com.schoolbus.interfaces.controller;
+
+import com.schoolbus.domain.dto.StudentField;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Set;
+
+/**
+ * Narrows the students in every StudentController read, whether a single student, a list, a page
+ * or a roster, to the fields named by the {@code fields} request parameter.
+ * Listings that read from the database select only those fields as well; this takes care of the JSON.
+ */
+@RestControllerAdvice(assignableTypes = StudentController.class)
+public class StudentFieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    static final String FIELDS_PARAMETER = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        // Writes always answer with the whole student
+        if (request.getMethod() != HttpMethod.GET || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        Set<StudentField> fields = StudentField.parse(servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER));
+        if (!fields.equals(StudentField.ALL)) {
+            bodyContainer.setFilters(StudentFieldsJsonConfig.filters(fields));
+        }
+    }
+}
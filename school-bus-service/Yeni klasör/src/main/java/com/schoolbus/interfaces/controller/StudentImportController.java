@@ -0,0 +1,109 @@
+package com.schoolbus.interfaces.controller;
+
+import com.schoolbus.application.service.importing.StudentImportService;
+import com.schoolbus.domain.dto.StudentImportJobDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/students/import")
+@Tag(name = "Student Import", description = "APIs for importing enrolment CSV files")
+public class StudentImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final StudentImportService studentImportService;
+
+    @Autowired
+    public StudentImportController(StudentImportService studentImportService) {
+        this.studentImportService = studentImportService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import students from an uploaded CSV file",
+               description = "Starts a background import of an enrolment CSV file with a header row. " +
+                             "Invalid rows are reported per line and do not stop the import")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Import started",
+                    content = @Content(schema = @Schema(implementation = StudentImportJobDto.class)))
+    })
+    public ResponseEntity<StudentImportJobDto> importUploadedFile(
+            @Parameter(description = "CSV file", required = true)
+            @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return accepted(studentImportService.startImport(file.getOriginalFilename(), content));
+        }
+    }
+
+    @PostMapping(consumes = TEXT_CSV)
+    @Operation(summary = "Import students from a CSV request body",
+               description = "Starts a background import of the CSV sent as the request body")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Import started",
+                    content = @Content(schema = @Schema(implementation = StudentImportJobDto.class)))
+    })
+    public ResponseEntity<StudentImportJobDto> importRequestBody(
+            @Parameter(description = "Name shown for the import")
+            @RequestParam(defaultValue = "upload.csv") String fileName,
+            InputStream content) throws IOException {
+        return accepted(studentImportService.startImport(fileName, content));
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get import progress",
+               description = "Returns the status, row counts, progress and rows per second of an import")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved import progress",
+                    content = @Content(schema = @Schema(implementation = StudentImportJobDto.class))),
+        @ApiResponse(responseCode = "404", description = "Import job not found")
+    })
+    public ResponseEntity<StudentImportJobDto> getImport(
+            @Parameter(description = "Import job ID", required = true)
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(studentImportService.getImport(jobId));
+    }
+
+    @GetMapping(value = "/{jobId}/errors", produces = TEXT_CSV)
+    @Operation(summary = "Get import error report",
+               description = "Returns the rows that could not be imported as CSV with the columns line, studentId and error")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Error report"),
+        @ApiResponse(responseCode = "404", description = "Import job not found")
+    })
+    public ResponseEntity<StreamingResponseBody> getErrorReport(
+            @Parameter(description = "Import job ID", required = true)
+            @PathVariable String jobId) {
+        // Fail with 404 before the response is committed
+        studentImportService.getImport(jobId);
+        StreamingResponseBody body = outputStream -> studentImportService.writeErrorReport(jobId, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV))
+                .body(body);
+    }
+
+    private static ResponseEntity<StudentImportJobDto> accepted(StudentImportJobDto job) {
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+}
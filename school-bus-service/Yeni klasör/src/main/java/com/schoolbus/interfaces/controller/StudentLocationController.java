@@ -0,0 +1,142 @@
+package com.schoolbus.interfaces.controller;
+
+import com.schoolbus.application.service.location.StudentLocationService;
+import com.schoolbus.domain.dto.NearbyStudentDto;
+import com.schoolbus.domain.dto.StudentLocationDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/students")
+@Tag(name = "Student Locations", description = "APIs for the home locations of students")
+public class StudentLocationController {
+
+    private final StudentLocationService studentLocationService;
+
+    @Autowired
+    public StudentLocationController(StudentLocationService studentLocationService) {
+        this.studentLocationService = studentLocationService;
+    }
+
+    @GetMapping("/{id}/location")
+    @Operation(summary = "Get student location", description = "Returns the home location of a student")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Location found",
+                    content = @Content(schema = @Schema(implementation = StudentLocationDto.class))),
+        @ApiResponse(responseCode = "404", description = "Student has no location")
+    })
+    public ResponseEntity<StudentLocationDto> getLocation(
+            @Parameter(description = "Student ID", required = true)
+            @PathVariable Long id) {
+        return ResponseEntity.ok(studentLocationService.getLocation(id));
+    }
+
+    @PutMapping("/{id}/location")
+    @Operation(summary = "Set student location",
+               description = "Sets the home location of a student. It is removed when the address changes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Location set",
+                    content = @Content(schema = @Schema(implementation = StudentLocationDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid coordinates"),
+        @ApiResponse(responseCode = "404", description = "Student not found")
+    })
+    public ResponseEntity<StudentLocationDto> setLocation(
+            @Parameter(description = "Student ID", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody StudentLocationDto location) {
+        return ResponseEntity.ok(studentLocationService.setLocation(id, location));
+    }
+
+    @DeleteMapping("/{id}/location")
+    @Operation(summary = "Delete student location", description = "Removes the home location of a student")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Location removed")
+    })
+    public ResponseEntity<Void> deleteLocation(
+            @Parameter(description = "Student ID", required = true)
+            @PathVariable Long id) {
+        studentLocationService.deleteLocation(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/locations/nearby")
+    @Operation(summary = "Find students near a point",
+               description = "Returns the students whose home location is within a radius of a point, nearest first. " +
+                             "Answered from the in-memory location index")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully found students",
+                    content = @Content(schema = @Schema(implementation = NearbyStudentDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid point, radius or limit")
+    })
+    public ResponseEntity<List<NearbyStudentDto>> findNearby(
+            @Parameter(description = "Latitude of the point", required = true)
+            @RequestParam double latitude,
+            @Parameter(description = "Longitude of the point", required = true)
+            @RequestParam double longitude,
+            @Parameter(description = "Radius in meters", required = true)
+            @RequestParam double radius,
+            @Parameter(description = "Maximum number of results")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(studentLocationService.findWithinRadius(latitude, longitude, radius, limit));
+    }
+
+    @GetMapping("/locations/nearest")
+    @Operation(summary = "Find the students nearest to a point",
+               description = "Returns the students whose home location is nearest to a point, nearest first. " +
+                             "Answered from the in-memory location index")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully found students",
+                    content = @Content(schema = @Schema(implementation = NearbyStudentDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid point or count")
+    })
+    public ResponseEntity<List<NearbyStudentDto>> findNearest(
+            @Parameter(description = "Latitude of the point", required = true)
+            @RequestParam double latitude,
+            @Parameter(description = "Longitude of the point", required = true)
+            @RequestParam double longitude,
+            @Parameter(description = "Number of students")
+            @RequestParam(required = false) Integer count) {
+        return ResponseEntity.ok(studentLocationService.findNearest(latitude, longitude, count));
+    }
+
+    @GetMapping("/locations/within")
+    @Operation(summary = "Find students inside a box",
+               description = "Returns the students whose home location is inside a box of latitude and longitude, " +
+                             "in ID order. A box with west greater than east crosses the 180th meridian")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully found students",
+                    content = @Content(schema = @Schema(implementation = NearbyStudentDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid box or limit")
+    })
+    public ResponseEntity<List<NearbyStudentDto>> findWithinBox(
+            @Parameter(description = "Least latitude", required = true)
+            @RequestParam double south,
+            @Parameter(description = "Least longitude", required = true)
+            @RequestParam double west,
+            @Parameter(description = "Greatest latitude", required = true)
+            @RequestParam double north,
+            @Parameter(description = "Greatest longitude", required = true)
+            @RequestParam double east,
+            @Parameter(description = "Maximum number of results")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(studentLocationService.findWithinBox(south, west, north, east, limit));
+    }
+}
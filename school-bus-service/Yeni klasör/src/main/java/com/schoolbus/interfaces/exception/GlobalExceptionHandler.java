@@ -1,5 +1,7 @@
 package com.schoolbus.interfaces.exception;
 
+import com.schoolbus.application.service.changes.StudentChangeTokenExpiredException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,7 +11,9 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.validation.method.ParameterErrors;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -78,6 +82,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
     
+    /**
+     * Handles writes that lost a race with a concurrent change of the same row
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailureException(ConcurrencyFailureException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage() + ". Please retry the request.",
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
+    /**
+     * Handles change feed tokens older than the changes still kept
+     */
+    @ExceptionHandler(StudentChangeTokenExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleStudentChangeTokenExpiredException(StudentChangeTokenExpiredException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.GONE.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.GONE).body(error);
+    }
+    
     /**
      * Handles malformed JSON requests
      */
@@ -138,6 +168,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
     
+    /**
+     * Handles validation errors on elements of list request bodies (e.g., bulk create)
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ValidationErrorResponse> handleHandlerMethodValidationException(HandlerMethodValidationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getAllValidationResults().forEach((result) -> {
+            String parameterName = result.getMethodParameter().getParameterName();
+            if (result instanceof ParameterErrors parameterErrors) {
+                String prefix = parameterErrors.getContainerIndex() != null
+                        ? "[" + parameterErrors.getContainerIndex() + "]"
+                        : parameterName;
+                parameterErrors.getFieldErrors().forEach((fieldError) ->
+                        errors.put(prefix + "." + fieldError.getField(), fieldError.getDefaultMessage()));
+            } else {
+                result.getResolvableErrors().forEach((error) -> errors.put(parameterName, error.getDefaultMessage()));
+            }
+        });
+        
+        ValidationErrorResponse error = new ValidationErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation failed",
+                LocalDateTime.now(),
+                errors
+        );
+        return ResponseEntity.badRequest().body(error);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         ErrorResponse error = new ErrorResponse(
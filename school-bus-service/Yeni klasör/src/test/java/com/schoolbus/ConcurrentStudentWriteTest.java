@@ -0,0 +1,107 @@
+package com.schoolbus;
+
+import com.schoolbus.application.service.aggregate.StudentAggregateStore;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentPatchDto;
+import com.schoolbus.infrastructure.repository.StudentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the read models kept from before- and after-images against concurrent writes to the same
+ * students in the test database
+ */
+@DisplayName("Concurrent Student Write Tests")
+public class ConcurrentStudentWriteTest extends StudentTestSupport {
+
+    private static final List<String> GRADES = List.of("Concurrent 1", "Concurrent 2", "Concurrent 3");
+    private static final List<String> ROUTES = List.of("Concurrent-A", "Concurrent-B", "Concurrent-C");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentAggregateStore studentAggregateStore;
+
+    @Test
+    @DisplayName("Should keep counts and rosters exact under concurrent writes to the same students")
+    public void testReadModelsAfterConcurrentWrites() throws Exception {
+        // Given
+        List<StudentDto> students = List.of(
+                createStudent(studentDto("STU501", GRADES.get(0))),
+                createStudent(studentDto("STU502", GRADES.get(0))));
+        assertTrue(studentAggregateStore.isReady());
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writes = new ArrayList<>();
+
+        // When
+        try {
+            for (int writer = 0; writer < 6; writer++) {
+                int offset = writer;
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 15; i++) {
+                        write(students.get(i % 2), offset + i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        for (String grade : GRADES) {
+            assertEquals(studentRepository.countByGrade(grade), studentService.getStudentsCountByGrade(grade), grade);
+        }
+        for (String busRoute : ROUTES) {
+            assertEquals(studentRepository.countByBusRoute(busRoute), studentService.getStudentsCountByBusRoute(busRoute),
+                    busRoute);
+            assertEquals(studentIds(studentRepository.findByBusRouteOrderByPickupTimeAsc(busRoute)),
+                    studentIds(studentService.getStudentsByBusRoute(busRoute)), busRoute);
+        }
+    }
+
+    private static Set<String> studentIds(List<StudentDto> students) {
+        return students.stream().map(StudentDto::getStudentId).collect(Collectors.toSet());
+    }
+
+    // Each write path that reads the before-image of a single student
+    private void write(StudentDto student, int step) {
+        String grade = GRADES.get(step % GRADES.size());
+        String busRoute = ROUTES.get(step % ROUTES.size());
+        switch (step % 4) {
+            case 0 -> {
+                StudentDto update = studentDto(student.getStudentId(), grade);
+                studentService.updateStudent(student.getId(), update);
+            }
+            case 1 -> studentService.assignBusRoute(student.getId(), busRoute, LocalTime.of(7, step % 60),
+                    LocalTime.of(15, 30));
+            case 2 -> studentService.upsertStudent(student.getStudentId(), studentDto(student.getStudentId(), grade));
+            default -> {
+                StudentPatchDto patch = new StudentPatchDto();
+                patch.setGrade(grade);
+                patch.setBusRoute(busRoute);
+                studentService.patchStudent(student.getId(), patch);
+            }
+        }
+    }
+}
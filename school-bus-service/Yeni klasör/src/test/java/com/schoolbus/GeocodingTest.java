@@ -0,0 +1,155 @@
+package com.schoolbus;
+
+import com.schoolbus.application.service.geocoding.AddressNormalizer;
+import com.schoolbus.application.service.geocoding.GeocodingCache;
+import com.schoolbus.application.service.geocoding.GeocodingService;
+import com.schoolbus.application.service.location.GeoPoint;
+import com.schoolbus.application.service.location.StudentLocationService;
+import com.schoolbus.domain.dto.GeocodingStatusDto;
+import com.schoolbus.domain.dto.StudentDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of the geocoding pipeline against the addresses in geocoding/addresses.csv
+ */
+@AutoConfigureMockMvc
+@DisplayName("Geocoding Tests")
+public class GeocodingTest extends StudentTestSupport {
+
+    private static final GeoPoint SIBLING_LANE = new GeoPoint(41.0151, 28.9795);
+    private static final GeoPoint TOWER_BLOCK_ROAD = new GeoPoint(41.0200, 28.9900);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentLocationService studentLocationService;
+
+    @Autowired
+    private GeocodingService geocodingService;
+
+    @Test
+    @DisplayName("Should locate new students, geocoding an address spelled two ways once")
+    public void testLocateNewStudents() {
+        // Given
+        awaitIdle();
+        GeocodingStatusDto before = geocodingService.getStatus();
+
+        // When
+        StudentDto first = createStudent("STU301", "12 Sibling Lane, Apt 4B, Istanbul 34000");
+        StudentDto second = createStudent("STU302", "12 SIBLING LN  apt 9C  Istanbul 34000");
+        StudentDto unknown = createStudent("STU303", "404 Nowhere Street, Istanbul 34000");
+        awaitIdle();
+
+        // Then
+        Map<Long, GeoPoint> locations = studentLocationService.getLocations(
+                List.of(first.getId(), second.getId(), unknown.getId()));
+        assertEquals(Map.of(first.getId(), SIBLING_LANE, second.getId(), SIBLING_LANE), locations);
+
+        GeocodingStatusDto after = geocodingService.getStatus();
+        assertEquals(1, after.getAddressesFound() - before.getAddressesFound());
+        assertEquals(1, after.getAddressesNotFound() - before.getAddressesNotFound());
+        assertEquals(2, after.getStudentsLocated() - before.getStudentsLocated());
+    }
+
+    @Test
+    @DisplayName("Should geocode a changed address, answering a known address from the cache")
+    public void testAddressChange() {
+        // Given
+        StudentDto student = createStudent("STU304", "7 Tower Block Road, Istanbul 34000");
+        createStudent("STU305", "12 Sibling Lane, Istanbul 34000");
+        awaitIdle();
+        GeocodingStatusDto before = geocodingService.getStatus();
+
+        // When
+        StudentDto moved = new StudentDto(studentService.getStudentById(student.getId()));
+        moved.setAddress("12 Sibling Lane, Daire 3, Istanbul 34000");
+        studentService.updateStudent(student.getId(), moved);
+        awaitIdle();
+
+        // Then
+        assertEquals(SIBLING_LANE, studentLocationService.getLocations(List.of(student.getId())).get(student.getId()));
+        GeocodingStatusDto after = geocodingService.getStatus();
+        assertEquals(1, after.getCacheHits() - before.getCacheHits());
+        assertEquals(0, after.getAddressesFound() - before.getAddressesFound());
+    }
+
+    @Test
+    @DisplayName("Should backfill students without a location over HTTP")
+    public void testBackfill() throws Exception {
+        // Given
+        StudentDto student = createStudent("STU306", "7 Tower Block Road, Istanbul 34000");
+        awaitIdle();
+        studentLocationService.deleteLocation(student.getId());
+
+        // When
+        mockMvc.perform(post("/students/locations/geocoding"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.enabled").value(true));
+        awaitIdle();
+
+        // Then
+        assertEquals(TOWER_BLOCK_ROAD, studentLocationService.getLocations(List.of(student.getId())).get(student.getId()));
+        mockMvc.perform(get("/students/locations/geocoding"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queued").value(0))
+                .andExpect(jsonPath("$.backfillRunning").value(false));
+    }
+
+    @Test
+    @DisplayName("Should keep cached results, including addresses not found, across restarts")
+    public void testCachePersistence(@TempDir Path directory) throws Exception {
+        // Given
+        Path file = directory.resolve("cache").resolve("geocoding.tsv");
+        try (GeocodingCache cache = new GeocodingCache(file)) {
+            cache.putAll(Map.of("12 sibling ln istanbul 34000", Optional.of(SIBLING_LANE),
+                                "404 nowhere st istanbul 34000", Optional.empty()));
+        }
+
+        // When
+        try (GeocodingCache reopened = new GeocodingCache(file)) {
+            // Then
+            assertEquals(2, reopened.size());
+            assertEquals(Optional.of(SIBLING_LANE), reopened.get("12 sibling ln istanbul 34000"));
+            assertTrue(reopened.contains("404 nowhere st istanbul 34000"));
+            assertEquals(Optional.empty(), reopened.get("404 nowhere st istanbul 34000"));
+            assertFalse(reopened.contains("7 tower block rd istanbul 34000"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should normalize spellings of the same address to one key")
+    public void testNormalize() {
+        assertEquals("12 sibling ln istanbul 34000", AddressNormalizer.normalize("12 Sibling Lane, Apt. 4B, Istanbul 34000"));
+        assertEquals("12 sibling ln istanbul 34000", AddressNormalizer.normalize("  12 SIBLING LN #4b Istanbul-34000 "));
+        assertEquals(AddressNormalizer.normalize("Bağdat Caddesi No 5, Kadıköy"),
+                     AddressNormalizer.normalize("BAGDAT CD. NO:5 KADIKÖY"));
+    }
+
+    private StudentDto createStudent(String studentId, String address) {
+        StudentDto student = studentDto(studentId);
+        student.setFirstName("Geo");
+        student.setAddress(address);
+        return createStudent(student);
+    }
+
+    private void awaitIdle() {
+        eventually().until(geocodingService::isIdle);
+    }
+}
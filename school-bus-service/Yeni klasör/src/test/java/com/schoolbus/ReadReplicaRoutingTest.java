@@ -0,0 +1,295 @@
+package com.schoolbus;
+
+import com.schoolbus.application.service.cache.StudentLookupCache;
+import com.schoolbus.application.service.changes.StudentChangeFeed;
+import com.schoolbus.domain.dto.StudentChangeDto;
+import com.schoolbus.domain.dto.StudentChangeFeedDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schoolbus.infrastructure.datasource.ReadYourWritesFilter;
+import com.schoolbus.infrastructure.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of read replica routing, with two in-memory H2 databases standing in for the primary and the replica.
+ * Nothing replicates between them, so the database a read went to shows in the rows it returns.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "schoolbus.datasource.read-replicas.enabled=true",
+        "schoolbus.datasource.read-replicas.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL
+})
+@AutoConfigureMockMvc
+@DisplayName("Read Replica Routing Tests")
+public class ReadReplicaRoutingTest extends StudentTestSupport {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentLookupCache studentLookupCache;
+
+    @Autowired
+    private StudentChangeFeed studentChangeFeed;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        // Give the replica the schema Hibernate created on the primary
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : primary.queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class)) {
+            if (!statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        studentLookupCache.invalidateAll();
+    }
+
+    @Nested
+    @DisplayName("Transaction Routing Tests")
+    class TransactionRoutingTests {
+
+        @Test
+        @DisplayName("Should read listings from the replica")
+        public void testReadOnlyTransactionsUseReplica() {
+            // Given
+            insertIntoReplica(1000L, "STU900", "5th Grade");
+
+            // When
+            List<StudentDto> all = studentService.getAllStudents();
+            List<StudentDto> byGrade = studentService.getStudentsByGrade("5th Grade");
+
+            // Then
+            assertEquals(List.of("STU900"), all.stream().map(StudentDto::getStudentId).toList());
+            assertEquals(List.of("STU900"), byGrade.stream().map(StudentDto::getStudentId).toList());
+        }
+
+        @Test
+        @DisplayName("Should write to the primary and read own writes from it where required")
+        public void testWritesAndReadFromPrimaryUsePrimary() {
+            // When
+            StudentDto created = createStudent("STU001");
+
+            // Then
+            assertEquals("STU001", studentService.getStudentById(created.getId()).getStudentId());
+            assertEquals("STU001", studentService.getStudentByStudentId("STU001").getStudentId());
+            assertEquals(1, primaryCount());
+            // The replica has not seen the write
+            assertTrue(studentService.getAllStudents().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should not update a student that only exists on the replica")
+        public void testWriteTransactionsReadFromPrimary() {
+            // Given
+            insertIntoReplica(1000L, "STU900", "5th Grade");
+            StudentDto update = studentDto("STU900");
+
+            // When & Then
+            assertThrows(RuntimeException.class, () -> studentService.updateStudent(1000L, update));
+        }
+
+        @Test
+        @DisplayName("Should read a client's own writes from the primary after a write")
+        public void testReadYourWrites() throws Exception {
+            // Given
+            StudentDto student = createStudent("STU001");
+            insertIntoReplica(student.getId(), "STU001", "5th Grade");
+            StudentDto update = new StudentDto(student);
+            update.setGrade("6th Grade");
+
+            // When
+            MvcResult written = mockMvc.perform(put("/students/{id}", student.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(update)))
+                    .andExpect(status().isOk())
+                    .andExpect(cookie().maxAge(ReadYourWritesFilter.COOKIE, 5))
+                    .andReturn();
+            Cookie readPrimary = written.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+            // Then
+            mockMvc.perform(get("/students/grade/{grade}", "6th Grade").cookie(readPrimary))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].studentId").value("STU001"));
+            mockMvc.perform(get("/students/grade/{grade}", "6th Grade").header(ReadYourWritesFilter.HEADER, "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].studentId").value("STU001"));
+            // Without either, the read goes to the replica, which has not seen the update
+            mockMvc.perform(get("/students/grade/{grade}", "6th Grade"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should read the change feed from the primary, accepting a token the replica has not reached")
+        public void testChangeFeedReadsFromPrimary() {
+            // Given
+            String before = studentChangeFeed.getCurrentToken();
+            createStudent("STU001");
+
+            // When
+            String current = studentChangeFeed.getCurrentToken();
+            StudentChangeFeedDto changes = studentChangeFeed.getChanges(before, null);
+            StudentChangeFeedDto caughtUp = studentChangeFeed.getChanges(current, null);
+
+            // Then
+            assertNotEquals(before, current);
+            assertEquals(List.of("STU001"), changes.getChanges().stream().map(StudentChangeDto::getStudentId).toList());
+            assertEquals(current, changes.getNextToken());
+            assertTrue(caughtUp.getChanges().isEmpty());
+            assertEquals(current, caughtUp.getNextToken());
+        }
+    }
+
+    @Nested
+    @DisplayName("Replica Selection Tests")
+    class ReplicaSelectionTests {
+
+        private final List<HikariDataSource> pools = new ArrayList<>();
+
+        @BeforeEach
+        void markReadOnly() {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        }
+
+        @AfterEach
+        void closePools() {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            pools.forEach(HikariDataSource::close);
+        }
+
+        @Test
+        @DisplayName("Should take replicas in turn with round-robin balancing")
+        public void testRoundRobin() throws SQLException {
+            // Given
+            ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(pool("rr-primary"),
+                    List.of(pool("rr-a"), pool("rr-b")), ReplicaRoutingDataSource.Balancing.ROUND_ROBIN,
+                    Duration.ofSeconds(30));
+
+            // When
+            List<String> databases = List.of(database(dataSource), database(dataSource),
+                    database(dataSource), database(dataSource));
+
+            // Then
+            assertEquals(List.of("RR-A", "RR-B", "RR-A", "RR-B"), databases);
+        }
+
+        @Test
+        @DisplayName("Should take the replica with the fewest connections in use with least-connections balancing")
+        public void testLeastConnections() throws SQLException {
+            // Given
+            ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(pool("lc-primary"),
+                    List.of(pool("lc-a"), pool("lc-b")), ReplicaRoutingDataSource.Balancing.LEAST_CONNECTIONS,
+                    Duration.ofSeconds(30));
+
+            // When
+            try (Connection held = dataSource.getConnection()) {
+                // Then
+                assertEquals("LC-A", held.getCatalog());
+                assertEquals("LC-B", database(dataSource));
+                assertEquals("LC-B", database(dataSource));
+            }
+        }
+
+        @Test
+        @DisplayName("Should skip a failing replica and fall back to the primary when none is left")
+        public void testFallbackOnReplicaFailure() throws SQLException {
+            // Given
+            HikariDataSource down = pool("missing;IFEXISTS=TRUE");
+            ReplicaRoutingDataSource withHealthyReplica = new ReplicaRoutingDataSource(pool("fb-primary"),
+                    List.of(down, pool("fb-a")), ReplicaRoutingDataSource.Balancing.ROUND_ROBIN,
+                    Duration.ofSeconds(30));
+            ReplicaRoutingDataSource withoutHealthyReplica = new ReplicaRoutingDataSource(pool("fb-primary"),
+                    List.of(down), ReplicaRoutingDataSource.Balancing.ROUND_ROBIN, Duration.ofSeconds(30));
+
+            // When & Then
+            assertEquals("FB-A", database(withHealthyReplica));
+            assertEquals("FB-A", database(withHealthyReplica));
+            assertEquals("FB-PRIMARY", database(withoutHealthyReplica));
+            assertEquals("FB-PRIMARY", database(withoutHealthyReplica));
+        }
+
+        @Test
+        @DisplayName("Should use the primary outside read-only transactions")
+        public void testWritableTransactionsUsePrimary() throws SQLException {
+            // Given
+            ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(pool("rw-primary"),
+                    List.of(pool("rw-a")), ReplicaRoutingDataSource.Balancing.ROUND_ROBIN, Duration.ofSeconds(30));
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+            // When & Then
+            assertEquals("RW-PRIMARY", database(dataSource));
+        }
+
+        private HikariDataSource pool(String database) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl("jdbc:h2:mem:" + database + (database.contains(";") ? "" : ";DB_CLOSE_DELAY=-1"));
+            config.setUsername("sa");
+            config.setConnectionTimeout(250);
+            config.setInitializationFailTimeout(-1);
+            config.setMaximumPoolSize(2);
+            HikariDataSource pool = new HikariDataSource(config);
+            pools.add(pool);
+            return pool;
+        }
+
+        private String database(ReplicaRoutingDataSource dataSource) throws SQLException {
+            try (Connection connection = dataSource.getConnection()) {
+                return connection.getCatalog();
+            }
+        }
+    }
+
+    private void insertIntoReplica(long id, String studentId, String grade) {
+        replica.update("INSERT INTO students (id, first_name, last_name, student_id, age, grade, address, "
+                        + "parent_contact, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, "Jane", "Roe", studentId, 11, grade, "9 Replica Road, City, State 12345", "5559876543",
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    private long primaryCount() {
+        Long count = new JdbcTemplate(primaryDataSource).queryForObject("SELECT COUNT(*) FROM students", Long.class);
+        return count != null ? count : 0;
+    }
+}
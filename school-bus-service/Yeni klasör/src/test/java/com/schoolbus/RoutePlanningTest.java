@@ -0,0 +1,223 @@
+package com.schoolbus;
+
+import com.schoolbus.application.service.location.GeoPoint;
+import com.schoolbus.application.service.location.StudentLocationService;
+import com.schoolbus.application.service.routing.RoutePlanner;
+import com.schoolbus.application.service.routing.StopSequencer;
+import com.schoolbus.domain.dto.RoutePlanDto;
+import com.schoolbus.domain.dto.RouteStopDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentLocationDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of stop sequencing and route planning against the test database
+ */
+@AutoConfigureMockMvc
+@DisplayName("Route Planning Tests")
+public class RoutePlanningTest extends StudentTestSupport {
+
+    // Matches schoolbus.routing.school in the test configuration
+    private static final GeoPoint SCHOOL = new GeoPoint(41.0082, 28.9784);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentLocationService studentLocationService;
+
+    @Autowired
+    private RoutePlanner routePlanner;
+
+    @Test
+    @DisplayName("Should sequence stops on a line from the farthest to the nearest")
+    public void testSequenceOnLine() {
+        // Given
+        List<GeoPoint> stops = List.of(north(2000), north(5000), north(1000), north(4000), north(3000));
+        StopSequencer sequencer = new StopSequencer(stops, SCHOOL);
+        int[] scrambled = {2, 0, 4, 1, 3};
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+        // When
+        int[] constructed = sequencer.improve(sequencer.construct(), deadline);
+        int[] improved = sequencer.improve(scrambled, deadline);
+
+        // Then
+        int[] expected = {1, 3, 4, 0, 2};
+        assertArrayEquals(expected, constructed);
+        assertArrayEquals(expected, improved);
+        assertEquals(5000, sequencer.length(expected), 5);
+        assertArrayEquals(new int[] {2, 0, 4, 1, 3}, scrambled);
+    }
+
+    @Test
+    @DisplayName("Should stop improving at the deadline with a complete order no longer than the start")
+    public void testDeadline() {
+        // Given
+        Random random = new Random(7);
+        List<GeoPoint> stops = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            stops.add(near(random));
+        }
+        StopSequencer sequencer = new StopSequencer(stops, SCHOOL);
+        int[] start = sequencer.construct();
+
+        // When
+        long started = System.nanoTime();
+        int[] improved = sequencer.improve(start, started + TimeUnit.MILLISECONDS.toNanos(50));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // Then
+        assertTrue(elapsedMillis < 1000, "Elapsed: " + elapsedMillis + " ms");
+        assertTrue(sequencer.length(improved) <= sequencer.length(start));
+        assertEquals(1500, Arrays.stream(improved).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Should plan a route with shared stops and pickup times that end before arrival")
+    public void testPlanRoute() throws Exception {
+        // Given: the current pickup order zigzags between the near and the far end of the route
+        StudentDto near = createStudent("STU101", "Plan-A", "07:30", north(1000));
+        StudentDto far = createStudent("STU102", "Plan-A", "07:35", north(6000));
+        StudentDto middle = createStudent("STU103", "Plan-A", "07:40", north(3000));
+        StudentDto sibling = createStudent("STU104", "Plan-A", "07:45", north(3000));
+        StudentDto unlocated = createStudent("STU105", "Plan-A", "07:50", null);
+
+        // When
+        RoutePlanDto plan = routePlanner.planRoute("Plan-A");
+
+        // Then
+        List<RouteStopDto> stops = plan.getStops();
+        assertEquals(List.of(List.of(far.getId()), List.of(middle.getId(), sibling.getId()), List.of(near.getId())),
+                stops.stream().map(RouteStopDto::getIds).toList());
+        assertEquals(List.of(unlocated.getId()), plan.getUnlocatedIds());
+        assertTrue(plan.getPlannedDistanceMeters() < plan.getCurrentDistanceMeters());
+        assertTrue(plan.getImprovementPercent() > 0);
+
+        LocalTime previous = LocalTime.MIN;
+        for (RouteStopDto stop : stops) {
+            assertTrue(stop.getPickupTime().isAfter(previous));
+            previous = stop.getPickupTime();
+        }
+        assertTrue(previous.isBefore(LocalTime.of(8, 0)));
+
+        mockMvc.perform(post("/students/routes/Plan-A/plan"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stops.length()").value(3))
+                .andExpect(jsonPath("$.stops[1].studentIds[1]").value("STU104"));
+        mockMvc.perform(post("/students/routes/Plan-None/plan"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should plan 300 routes in parallel well within a minute, never worse than their current order")
+    public void testPlanFleet() {
+        // Given
+        Random random = new Random(42);
+        Map<String, List<StudentDto>> studentsByRoute = new LinkedHashMap<>();
+        Map<Long, GeoPoint> locations = new HashMap<>();
+        long id = 1_000_000;
+        for (int route = 0; route < 300; route++) {
+            List<StudentDto> students = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                StudentDto student = new StudentDto();
+                student.setId(id);
+                student.setStudentId("SYN" + id);
+                students.add(student);
+                locations.put(id++, near(random));
+            }
+            studentsByRoute.put("Fleet-" + route, students);
+        }
+
+        // When
+        long started = System.nanoTime();
+        List<RoutePlanDto> plans = routePlanner.planAll(studentsByRoute, locations);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // Then
+        assertTrue(elapsedMillis < 60_000, "Elapsed: " + elapsedMillis + " ms");
+        assertEquals(300, plans.size());
+        for (RoutePlanDto plan : plans) {
+            assertEquals(50, plan.getStops().size());
+            assertTrue(plan.getPlannedDistanceMeters() <= plan.getCurrentDistanceMeters());
+        }
+        // Random orders leave plenty to gain
+        assertTrue(plans.stream().mapToDouble(RoutePlanDto::getImprovementPercent).average().orElse(0) > 30);
+    }
+
+    @Test
+    @DisplayName("Should validate locations and drop a location when the address changes")
+    public void testLocationEndpoints() throws Exception {
+        // Given
+        StudentDto student = createStudent("STU106", "Plan-B", "07:30", null);
+
+        // When / Then
+        mockMvc.perform(put("/students/{id}/location", student.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"latitude\": 91.0, \"longitude\": 28.9}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/students/{id}/location", -1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"latitude\": 41.0, \"longitude\": 28.9}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/students/{id}/location", student.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"latitude\": 41.0, \"longitude\": 28.9}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.latitude").value(41.0));
+        mockMvc.perform(get("/students/{id}/location", student.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.longitude").value(28.9));
+
+        StudentDto moved = new StudentDto(studentService.getStudentById(student.getId()));
+        moved.setAddress("9 New Road, City, State 12345");
+        studentService.updateStudent(student.getId(), moved);
+
+        mockMvc.perform(get("/students/{id}/location", student.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    private StudentDto createStudent(String studentId, String busRoute, String pickupTime, GeoPoint location) {
+        StudentDto student = studentDto(studentId);
+        student.setFirstName("Plan");
+        StudentDto created = createStudentOnRoute(student, busRoute, pickupTime);
+        if (location != null) {
+            studentLocationService.setLocation(created.getId(),
+                    new StudentLocationDto(null, location.latitude(), location.longitude(), null));
+        }
+        return created;
+    }
+
+    // A point the given distance due north of the school
+    private static GeoPoint north(double meters) {
+        return new GeoPoint(SCHOOL.latitude() + meters / 111_195, SCHOOL.longitude());
+    }
+
+    // A random point within about 10 km of the school
+    private static GeoPoint near(Random random) {
+        return new GeoPoint(SCHOOL.latitude() + (random.nextDouble() - 0.5) * 0.18,
+                            SCHOOL.longitude() + (random.nextDouble() - 0.5) * 0.24);
+    }
+}
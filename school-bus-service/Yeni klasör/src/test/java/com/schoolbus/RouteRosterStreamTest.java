@@ -0,0 +1,255 @@
+package com.schoolbus;
+
+import com.schoolbus.application.service.roster.RouteRosterBroadcaster;
+import com.schoolbus.domain.dto.RouteRosterDeltaDto;
+import com.schoolbus.domain.dto.RouteRosterDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.event.RouteRosterChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of the roster stream against the test database, with emitters that record the events they are sent
+ */
+@AutoConfigureMockMvc
+@DisplayName("Route Roster Stream Tests")
+public class RouteRosterStreamTest extends StudentTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RouteRosterBroadcaster routeRosterBroadcaster;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(RecordingEmitter::disconnect);
+    }
+
+    @Test
+    @DisplayName("Should send a snapshot on connect, then deltas of the followed route only")
+    public void testSnapshotThenDeltas() {
+        // Given
+        StudentDto anna = createStudentOnRoute("STU001", "Anna", "Stream-A", "07:30");
+        StudentDto ben = createStudentOnRoute("STU002", "Ben", "Stream-B", "07:40");
+        RecordingEmitter emitter = subscribe("Stream-A");
+        eventually().until(() -> emitter.named("snapshot").size() == 1);
+
+        // When
+        studentService.assignBusRoute(ben.getId(), "Stream-A", LocalTime.of(7, 20), LocalTime.of(15, 30));
+        StudentDto update = new StudentDto(anna);
+        update.setFirstName("Annabel");
+        studentService.updateStudent(anna.getId(), update);
+        studentService.assignBusRoute(anna.getId(), "Stream-B", LocalTime.of(7, 50), LocalTime.of(15, 30));
+        studentService.deleteStudent(ben.getId());
+        eventually().until(() -> emitter.named("delta").size() == 4);
+
+        // Then
+        RouteRosterDto snapshot = (RouteRosterDto) emitter.named("snapshot").get(0);
+        assertEquals(List.of("Anna"), snapshot.getStudents().stream().map(StudentDto::getFirstName).toList());
+
+        List<RouteRosterDeltaDto> deltas = emitter.named("delta").stream().map(RouteRosterDeltaDto.class::cast).toList();
+        assertTrue(deltas.stream().allMatch(delta -> delta.getBusRoute().equals("Stream-A")));
+        assertEquals("Ben", deltas.get(0).getUpserted().get(0).getFirstName());
+        assertEquals(2, deltas.get(0).getSize());
+        assertEquals("Annabel", deltas.get(1).getUpserted().get(0).getFirstName());
+        assertTrue(deltas.get(1).getRemoved().isEmpty());
+        assertEquals(List.of(anna.getId()), deltas.get(2).getRemoved());
+        assertEquals(List.of(ben.getId()), deltas.get(3).getRemoved());
+        assertEquals(0, deltas.get(3).getSize());
+
+        long version = snapshot.getVersion();
+        for (RouteRosterDeltaDto delta : deltas) {
+            assertTrue(delta.getVersion() > version);
+            version = delta.getVersion();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reset and disconnect a subscriber that falls too far behind")
+    public void testSlowSubscriberReset() throws Exception {
+        // Given
+        BlockingEmitter slow = new BlockingEmitter();
+        emitters.add(slow);
+        routeRosterBroadcaster.subscribe(List.of("Stream-Slow"), slow);
+        assertTrue(slow.blocked.await(5, TimeUnit.SECONDS));
+        int subscribers = routeRosterBroadcaster.getSubscriberCount();
+
+        // When
+        for (int version = 1; version <= 300; version++) {
+            eventPublisher.publishEvent(new RouteRosterChangedEvent(
+                    new RouteRosterDeltaDto("Stream-Slow", version, 0, List.of((long) version), List.of())));
+        }
+        slow.release.countDown();
+
+        // Then
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(subscribers - 1, routeRosterBroadcaster.getSubscriberCount());
+        assertEquals("reset", slow.names().get(slow.names().size() - 1));
+        assertTrue(slow.named("delta").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should hold many idle subscribers and fan a change out to all of them")
+    public void testManyIdleSubscribers() {
+        // Given
+        StudentDto anna = createStudentOnRoute("STU001", "Anna", "Stream-A", "07:30");
+        int platformThreads = Thread.activeCount();
+        List<RecordingEmitter> idle = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            idle.add(subscribe("Stream-A"));
+        }
+        eventually().until(() -> idle.stream().allMatch(emitter -> emitter.named("snapshot").size() == 1));
+
+        // When
+        studentService.assignBusRoute(anna.getId(), "Stream-A", LocalTime.of(8, 0), LocalTime.of(15, 30));
+
+        // Then
+        eventually().until(() -> idle.stream().allMatch(emitter -> emitter.named("delta").size() == 1));
+        assertTrue(Thread.activeCount() < platformThreads + 50, "Platform threads: " + Thread.activeCount());
+    }
+
+    @Test
+    @DisplayName("Should open an event stream over HTTP and reject invalid route lists")
+    public void testStreamEndpoint() throws Exception {
+        // Given
+        createStudentOnRoute("STU001", "Anna", "Stream-H", "07:30");
+
+        // When
+        MvcResult result = mockMvc.perform(get("/students/rosters/stream")
+                        .param("busRoutes", "Stream-H")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        eventually().until(() -> contentOf(result).contains("event:snapshot"));
+        assertTrue(result.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        assertTrue(contentOf(result).contains("\"busRoute\":\"Stream-H\""));
+
+        String tooMany = String.join(",", IntStream.range(0, 51).mapToObj(i -> "R" + i).toList());
+        mockMvc.perform(get("/students/rosters/stream").param("busRoutes", tooMany))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/students/rosters/stream").param("busRoutes", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    private RecordingEmitter subscribe(String busRoute) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitters.add(emitter);
+        routeRosterBroadcaster.subscribe(List.of(busRoute), emitter);
+        return emitter;
+    }
+
+    private static String contentOf(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Records the name and data of every event instead of writing it to a response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern EVENT_NAME = Pattern.compile("event:(\\w+)");
+
+        private final List<String> names = new CopyOnWriteArrayList<>();
+        private final List<Object> data = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Runnable completionCallback;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            List<ResponseBodyEmitter.DataWithMediaType> parts = new ArrayList<>(builder.build());
+            Matcher name = EVENT_NAME.matcher(String.valueOf(parts.get(0).getData()));
+            if (name.find()) {
+                data.add(parts.get(1).getData());
+                names.add(name.group(1));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        @Override
+        public void onCompletion(Runnable callback) {
+            completionCallback = callback;
+        }
+
+        List<String> names() {
+            return names;
+        }
+
+        List<Object> named(String eventName) {
+            List<Object> named = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).equals(eventName)) {
+                    named.add(data.get(i));
+                }
+            }
+            return named;
+        }
+
+        // What the container does when the client goes away
+        void disconnect() {
+            if (completionCallback != null) {
+                completionCallback.run();
+            }
+        }
+    }
+
+    /**
+     * Blocks the first write, like a client that stopped reading
+     */
+    private static class BlockingEmitter extends RecordingEmitter {
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            super.send(builder);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.schoolbus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentField;
+import com.schoolbus.infrastructure.repository.StudentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of the {@code fields} parameter against the test database: the listings select fewer columns
+ * and every student endpoint writes only the requested fields.
+ */
+@AutoConfigureMockMvc
+@DisplayName("Sparse Fieldset Tests")
+public class SparseFieldsetTest extends StudentTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Test
+    @DisplayName("Should read only the selected columns")
+    public void testFindFieldsSelectsOnlyRequestedColumns() {
+        // Given
+        createStudentOnRoute("STU001", "Anna", "Route-A", "07:30");
+
+        // When
+        List<StudentDto> students = studentRepository.findFields(Set.of(StudentField.ID, StudentField.LAST_NAME),
+                StudentRepository.GRADE_FILTER, Map.of("grade", "5th Grade"), Limit.unlimited());
+
+        // Then
+        assertEquals(1, students.size());
+        assertNotNull(students.get(0).getId());
+        assertEquals("Doe", students.get(0).getLastName());
+        assertNull(students.get(0).getFirstName());
+        assertNull(students.get(0).getAddress());
+    }
+
+    @Test
+    @DisplayName("Should page through students returning only the requested fields")
+    public void testPageWithFields() throws Exception {
+        // Given
+        createStudentOnRoute("STU001", "Anna", "Route-A", "07:30");
+        createStudentOnRoute("STU002", "Bella", "Route-A", "07:45");
+        createStudentOnRoute("STU003", "Carl", "Route-A", "08:00");
+
+        // When
+        List<JsonNode> items = new ArrayList<>();
+        String cursor = "";
+        do {
+            JsonNode page = getJson("/students?cursor=" + cursor + "&size=2&fields=lastName,studentId");
+            page.get("items").forEach(items::add);
+            cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        // Then
+        assertEquals(List.of("STU001", "STU002", "STU003"),
+                items.stream().map(item -> item.get("studentId").asText()).toList());
+        for (JsonNode item : items) {
+            assertEquals(List.of("lastName", "studentId"), fieldNames(item));
+        }
+    }
+
+    @Test
+    @DisplayName("Should page through a bus route returning only the requested fields")
+    public void testBusRoutePageWithFields() throws Exception {
+        // Given
+        StudentDto first = createStudentOnRoute("STU001", "Anna", "Route-A", "07:30");
+        createStudentOnRoute("STU002", "Bella", "Route-A", "07:45");
+
+        // When
+        JsonNode page = getJson("/students/bus-route/Route-A?cursor=&size=1&fields=studentId");
+        // As read from the database while the rosters are loading
+        List<StudentDto> loading = studentRepository.findFields(
+                Set.of(StudentField.STUDENT_ID, StudentField.PICKUP_TIME, StudentField.ID),
+                StudentRepository.BUS_ROUTE_PAGE_AFTER_FILTER,
+                Map.of("busRoute", "Route-A", "pickupTime", LocalTime.of(7, 30), "id", first.getId()),
+                Limit.of(2));
+
+        // Then
+        assertEquals("STU001", page.get("items").get(0).get("studentId").asText());
+        assertEquals(List.of("studentId"), fieldNames(page.get("items").get(0)));
+        assertTrue(page.get("hasNext").asBoolean());
+        assertEquals(List.of("STU002"), loading.stream().map(StudentDto::getStudentId).toList());
+        assertNull(loading.get(0).getFirstName());
+    }
+
+    @Test
+    @DisplayName("Should export only the requested fields, reading only their columns")
+    public void testExportWithFields() throws Exception {
+        // Given
+        createStudentOnRoute("STU002", "Bella", "Route-A", "07:45");
+        createStudentOnRoute("STU001", "Anna", "Route-A", "07:30");
+
+        // When
+        List<StudentDto> exported = new ArrayList<>();
+        long count = studentService.exportAllStudents(Set.of(StudentField.STUDENT_ID, StudentField.PICKUP_TIME),
+                exported::add);
+        MvcResult streaming = mockMvc.perform(get("/students/export?fields=studentId,pickupTime"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(streaming))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertEquals(2, count);
+        assertEquals(List.of("STU002", "STU001"), exported.stream().map(StudentDto::getStudentId).toList());
+        assertEquals(LocalTime.of(7, 45), exported.get(0).getPickupTime());
+        assertNull(exported.get(0).getId());
+        assertNull(exported.get(0).getAddress());
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        for (String line : lines) {
+            assertEquals(List.of("studentId", "pickupTime"), fieldNames(objectMapper.readTree(line)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should narrow single students and rosters, and leave the default response whole")
+    public void testFieldsOnInMemoryEndpoints() throws Exception {
+        // Given
+        StudentDto student = createStudentOnRoute("STU001", "Anna", "Route-A", "07:30");
+
+        // When
+        JsonNode narrowed = getJson("/students/" + student.getId() + "?fields=firstName");
+        JsonNode whole = getJson("/students/" + student.getId());
+        JsonNode roster = getJson("/students/bus-route/Route-A/roster?fields=id,pickupTime");
+
+        // Then
+        assertEquals(List.of("firstName"), fieldNames(narrowed));
+        assertEquals(StudentField.ALL.size(), fieldNames(whole).size());
+        assertEquals("Route-A", roster.get("busRoute").asText());
+        assertEquals(List.of("id", "pickupTime"), fieldNames(roster.get("students").get(0)));
+    }
+
+    @Test
+    @DisplayName("Should shrink a roster payload by more than half for a driver's fields")
+    public void testRosterPayloadShrinks() throws Exception {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            createStudentOnRoute(String.format("STU%03d", i), "Student" + i, "Route-A",
+                    LocalTime.of(7, 0).plusMinutes(i).toString());
+        }
+
+        // When
+        int whole = getBody("/students/bus-route/Route-A/roster").length();
+        int narrowed = getBody("/students/bus-route/Route-A/roster?fields=id,firstName,lastName,pickupTime").length();
+
+        // Then
+        assertTrue(narrowed * 2 < whole, narrowed + " of " + whole + " bytes");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields")
+    public void testUnknownFieldRejected() throws Exception {
+        // Given
+        StudentDto student = createStudent("STU001");
+
+        // When & Then
+        mockMvc.perform(get("/students?fields=id,password")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/students/{id}?fields=password", student.getId())).andExpect(status().isBadRequest());
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        return objectMapper.readTree(getBody(url));
+    }
+
+    private String getBody(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        for (Iterator<String> it = node.fieldNames(); it.hasNext(); ) {
+            names.add(it.next());
+        }
+        return names;
+    }
+}
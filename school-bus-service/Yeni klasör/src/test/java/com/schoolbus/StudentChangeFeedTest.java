@@ -0,0 +1,262 @@
+package com.schoolbus;
+
+import com.schoolbus.application.service.changes.StudentChangeFeed;
+import com.schoolbus.application.service.changes.StudentChangeTokenExpiredException;
+import com.schoolbus.domain.dto.StudentChangeDto;
+import com.schoolbus.domain.dto.StudentChangeFeedDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.entity.StudentChange;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import com.schoolbus.infrastructure.repository.StudentChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of the student change feed against the test database
+ */
+@AutoConfigureMockMvc
+@DisplayName("Student Change Feed Tests")
+public class StudentChangeFeedTest extends StudentTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentChangeFeed studentChangeFeed;
+
+    @Autowired
+    private StudentChangeRepository studentChangeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String start;
+
+    @BeforeEach
+    void setUp() {
+        start = studentChangeFeed.getCurrentToken();
+    }
+
+    @Test
+    @DisplayName("Should return every committed change in order, with a tombstone for a deletion")
+    public void testChangesInOrder() {
+        // Given
+        StudentDto student = createStudent("STU001");
+        StudentDto update = new StudentDto(student);
+        update.setFirstName("Jonathan");
+        studentService.updateStudent(student.getId(), update);
+        studentService.assignBusRoute(student.getId(), "Route-A", LocalTime.of(7, 30), LocalTime.of(15, 30));
+        studentService.deleteStudent(student.getId());
+
+        // When
+        StudentChangeFeedDto feed = studentChangeFeed.getChanges(start, null);
+
+        // Then
+        assertEquals(List.of(StudentChangedEvent.Type.CREATED, StudentChangedEvent.Type.UPDATED,
+                        StudentChangedEvent.Type.UPDATED, StudentChangedEvent.Type.DELETED),
+                feed.getChanges().stream().map(StudentChangeDto::getType).toList());
+        assertEquals("Jonathan", feed.getChanges().get(1).getStudent().getFirstName());
+        assertEquals("Route-A", feed.getChanges().get(2).getStudent().getBusRoute());
+        StudentChangeDto tombstone = feed.getChanges().get(3);
+        assertEquals(student.getId(), tombstone.getId());
+        assertEquals("STU001", tombstone.getStudentId());
+        assertNull(tombstone.getStudent());
+        assertEquals(tombstone.getToken(), feed.getNextToken());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Should resume from the returned token in batches")
+    public void testResumeInBatches() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            createStudent("STU00" + i);
+        }
+
+        // When
+        StudentChangeFeedDto first = studentChangeFeed.getChanges(start, 2);
+        StudentChangeFeedDto second = studentChangeFeed.getChanges(first.getNextToken(), 2);
+        StudentChangeFeedDto third = studentChangeFeed.getChanges(second.getNextToken(), 2);
+        StudentChangeFeedDto caughtUp = studentChangeFeed.getChanges(third.getNextToken(), 2);
+
+        // Then
+        List<String> studentIds = new ArrayList<>();
+        for (StudentChangeFeedDto feed : List.of(first, second, third)) {
+            feed.getChanges().forEach(change -> studentIds.add(change.getStudentId()));
+        }
+        assertEquals(List.of("STU001", "STU002", "STU003", "STU004", "STU005"), studentIds);
+        assertTrue(first.isHasMore());
+        assertTrue(second.isHasMore());
+        assertFalse(third.isHasMore());
+        assertTrue(caughtUp.getChanges().isEmpty());
+        assertEquals(third.getNextToken(), caughtUp.getNextToken());
+    }
+
+    @Test
+    @DisplayName("Should leave no change from a rolled back transaction")
+    public void testRolledBackChangeNotInFeed() {
+        // Given
+        createStudent("STU001");
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            createStudent("STU002");
+            status.setRollbackOnly();
+        });
+        createStudent("STU003");
+
+        // Then
+        StudentChangeFeedDto feed = studentChangeFeed.getChanges(start, null);
+        assertEquals(List.of("STU001", "STU003"),
+                feed.getChanges().stream().map(StudentChangeDto::getStudentId).toList());
+        assertEquals(Long.parseLong(start) + 2, Long.parseLong(feed.getNextToken()));
+    }
+
+    @Test
+    @DisplayName("Should number concurrent changes without gaps")
+    public void testConcurrentChangesWithoutGaps() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<StudentDto>> created = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 20; i++) {
+                String studentId = String.format("STU%03d", i);
+                created.add(executor.submit(() -> createStudent(studentId)));
+            }
+            for (Future<StudentDto> future : created) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        StudentChangeFeedDto feed = studentChangeFeed.getChanges(start, null);
+        long first = Long.parseLong(start) + 1;
+        assertEquals(LongStream.range(first, first + 20).mapToObj(Long::toString).toList(),
+                feed.getChanges().stream().map(StudentChangeDto::getToken).toList());
+    }
+
+    @Test
+    @DisplayName("Should hold back changes behind a position taken by a transaction that has not committed")
+    public void testChangesHeldBackBehindUncommittedPosition() {
+        // Given
+        createStudent("STU001");
+        String committed = studentChangeFeed.getCurrentToken();
+        long open = transactionTemplate.execute(status -> studentChangeRepository.nextPositions(1)[0]);
+        createStudent("STU003");
+
+        // When
+        StudentChangeFeedDto heldBack = studentChangeFeed.getChanges(start, null);
+        String heldBackToken = studentChangeFeed.getCurrentToken();
+        transactionTemplate.executeWithoutResult(status -> studentChangeRepository.save(new StudentChange(open,
+                StudentChangedEvent.Type.CREATED, 1L, "STU002", null, LocalDateTime.now())));
+        StudentChangeFeedDto complete = studentChangeFeed.getChanges(start, null);
+
+        // Then
+        assertEquals(List.of("STU001"), heldBack.getChanges().stream().map(StudentChangeDto::getStudentId).toList());
+        assertEquals(committed, heldBack.getNextToken());
+        assertFalse(heldBack.isHasMore());
+        assertEquals(committed, heldBackToken);
+        assertEquals(List.of("STU001", "STU002", "STU003"),
+                complete.getChanges().stream().map(StudentChangeDto::getStudentId).toList());
+        assertEquals(studentChangeFeed.getCurrentToken(), complete.getNextToken());
+    }
+
+    @Test
+    @DisplayName("Should pass a position left unused once a later change is older than the gap timeout")
+    public void testUnusedPositionPassedAfterGapTimeout() {
+        // Given
+        createStudent("STU001");
+        transactionTemplate.execute(status -> studentChangeRepository.nextPositions(1));
+        createStudent("STU002");
+        String latest = Long.toString(studentChangeRepository.findLastPosition().orElseThrow());
+        assertEquals(1, studentChangeFeed.getChanges(start, null).getSize());
+
+        // When
+        jdbcTemplate.update("UPDATE student_changes SET changed_at = ? WHERE position <= ?",
+                LocalDateTime.now().minusMinutes(1), Long.parseLong(latest));
+        StudentChangeFeedDto feed = studentChangeFeed.getChanges(start, null);
+
+        // Then
+        assertEquals(List.of("STU001", "STU002"), feed.getChanges().stream().map(StudentChangeDto::getStudentId).toList());
+        assertEquals(latest, feed.getNextToken());
+        assertEquals(latest, studentChangeFeed.getCurrentToken());
+    }
+
+    @Test
+    @DisplayName("Should reject tokens past the latest change and tokens whose changes were deleted")
+    public void testInvalidAndExpiredTokens() {
+        // Given
+        createStudent("STU001");
+        createStudent("STU002");
+        String latest = studentChangeFeed.getCurrentToken();
+        prune(Long.parseLong(latest) - 1);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> studentChangeFeed.getChanges(Long.toString(Long.parseLong(latest) + 1), null));
+        assertThrows(IllegalArgumentException.class, () -> studentChangeFeed.getChanges("abc", null));
+        assertThrows(StudentChangeTokenExpiredException.class, () -> studentChangeFeed.getChanges(start, null));
+        assertEquals(1, studentChangeFeed.getChanges(Long.toString(Long.parseLong(latest) - 1), null).getSize());
+        assertEquals(0, studentChangeFeed.pruneChanges());
+    }
+
+    @Test
+    @DisplayName("Should serve the feed over HTTP and answer an expired token with 410")
+    public void testChangesEndpoint() throws Exception {
+        // Given
+        StudentDto student = createStudent("STU001");
+        String latest = studentChangeFeed.getCurrentToken();
+
+        // When & Then
+        mockMvc.perform(get("/students/changes").param("since", start))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.changes[0].student.id").value(student.getId()))
+                .andExpect(jsonPath("$.changes[0].student.address").value(student.getAddress()))
+                .andExpect(jsonPath("$.nextToken").value(latest));
+        mockMvc.perform(get("/students/changes/token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextToken").value(latest));
+        mockMvc.perform(get("/students/changes").param("since", "abc"))
+                .andExpect(status().isBadRequest());
+
+        prune(Long.parseLong(latest));
+        mockMvc.perform(get("/students/changes").param("since", start))
+                .andExpect(status().isGone());
+    }
+
+    // Deletes the changes as pruneChanges does once they are past the retention
+    private void prune(long position) {
+        transactionTemplate.executeWithoutResult(status -> {
+            studentChangeRepository.deleteThrough(position);
+            jdbcTemplate.update("UPDATE student_change_retention SET pruned_through = ?", position);
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package com.schoolbus;
+
+import com.schoolbus.application.service.importing.StudentCsvReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the memory-mapped CSV reader behind the enrolment import
+ */
+@DisplayName("Student CSV Import Tests")
+public class StudentCsvImportTest {
+
+    @Test
+    @DisplayName("Should read quoted fields that cross memory-mapped window boundaries")
+    public void testCsvReaderAcrossWindows(@TempDir Path directory) throws Exception {
+        // Given
+        Path file = directory.resolve("students.csv");
+        Files.write(file, ("\uFEFFa,\"b \"\"quoted\"\", too\"\r\n\r\n\"multi\nline\",,\u00e7\n").getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<StudentCsvReader.CsvRecord> records = read(file, 3, new ArrayList<>());
+
+        // Then
+        assertEquals(2, records.size());
+        assertEquals(List.of("a", "b \"quoted\", too"), records.get(0).getFields());
+        assertEquals(1, records.get(0).getLine());
+        assertEquals(List.of("multi\nline", "", "\u00e7"), records.get(1).getFields());
+        assertEquals(3, records.get(1).getLine());
+    }
+
+    @Test
+    @DisplayName("Should read the same records and report every byte whatever the window size")
+    public void testCsvReaderWindowSizes(@TempDir Path directory) throws Exception {
+        // Given
+        Path file = directory.resolve("students.csv");
+        Files.write(file, ("firstName,lastName,address\n"
+                + "Ayşe,Yılmaz,\"Bağdat Caddesi No 5,\nKadıköy\"\n"
+                + "Ben,\"O\"\"Neil\",12 Main Street Springfield\r\n"
+                + "Çağla,Öztürk,\"\"\n").getBytes(StandardCharsets.UTF_8));
+        List<StudentCsvReader.CsvRecord> expected = read(file, Files.size(file), new ArrayList<>());
+
+        for (long windowSize = 1; windowSize < Files.size(file); windowSize++) {
+            // When
+            List<Long> progress = new ArrayList<>();
+            List<StudentCsvReader.CsvRecord> records = read(file, windowSize, progress);
+
+            // Then
+            assertEquals(fields(expected), fields(records), "Window size " + windowSize);
+            assertEquals(List.of(1L, 2L, 4L, 5L), records.stream().map(StudentCsvReader.CsvRecord::getLine).toList());
+            assertEquals(Files.size(file), progress.get(progress.size() - 1));
+        }
+        assertEquals(List.of("Ayşe", "Yılmaz", "Bağdat Caddesi No 5,\nKadıköy"), expected.get(1).getFields());
+        assertEquals(List.of("Ben", "O\"Neil", "12 Main Street Springfield"), expected.get(2).getFields());
+    }
+
+    private static List<StudentCsvReader.CsvRecord> read(Path file, long windowSize, List<Long> progress)
+            throws IOException {
+        List<StudentCsvReader.CsvRecord> records = new ArrayList<>();
+        new StudentCsvReader(windowSize).read(file, records::add, progress::add);
+        return records;
+    }
+
+    private static List<List<String>> fields(List<StudentCsvReader.CsvRecord> records) {
+        return records.stream().map(StudentCsvReader.CsvRecord::getFields).toList();
+    }
+}
@@ -0,0 +1,189 @@
+package com.schoolbus;
+
+import com.schoolbus.application.service.location.GeoPoint;
+import com.schoolbus.application.service.location.StudentLocationIndex;
+import com.schoolbus.application.service.location.StudentLocationService;
+import com.schoolbus.domain.dto.NearbyStudentDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentLocationDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of the location index on its own against brute force, and of the location queries against the test database
+ */
+@AutoConfigureMockMvc
+@DisplayName("Student Location Index Tests")
+public class StudentLocationIndexTest extends StudentTestSupport {
+
+    private static final GeoPoint SCHOOL = new GeoPoint(41.0082, 28.9784);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentLocationService studentLocationService;
+
+    @Autowired
+    private StudentLocationIndex studentLocationIndex;
+
+    @Test
+    @DisplayName("Should answer radius, nearest and box queries like brute force, in under a millisecond for 100k students")
+    public void testQueriesMatchBruteForce() {
+        // Given
+        Random random = new Random(11);
+        StudentLocationIndex index = new StudentLocationIndex(250);
+        Map<Long, GeoPoint> locations = new HashMap<>();
+        for (long id = 1; id <= 100_000; id++) {
+            GeoPoint location = near(random, 0.3);
+            locations.put(id, location);
+            index.put(id, location);
+        }
+        List<GeoPoint> queries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            queries.add(near(random, 0.3));
+        }
+
+        // When / Then
+        for (GeoPoint query : queries.subList(0, 20)) {
+            assertEquals(bruteForceWithin(locations, query, 400), ids(index.findWithinRadius(query, 400, 100_000)));
+            assertEquals(bruteForceWithin(locations, query, Double.MAX_VALUE).subList(0, 10),
+                    ids(index.findNearest(query, 10)));
+            double south = query.latitude() - 0.01;
+            double west = query.longitude() - 0.01;
+            List<Long> inBox = locations.entrySet().stream()
+                    .filter(entry -> entry.getValue().latitude() >= south && entry.getValue().latitude() <= query.latitude()
+                            && entry.getValue().longitude() >= west && entry.getValue().longitude() <= query.longitude())
+                    .map(Map.Entry::getKey).sorted().toList();
+            assertEquals(inBox, ids(index.findWithinBox(south, west, query.latitude(), query.longitude(), 100_000)));
+        }
+
+        long started = System.nanoTime();
+        for (GeoPoint query : queries) {
+            index.findWithinRadius(query, 400, 1000);
+            index.findNearest(query, 10);
+        }
+        double microsPerQuery = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started) / (2.0 * queries.size());
+        assertTrue(microsPerQuery < 1000, "Per query: " + microsPerQuery + " µs");
+    }
+
+    @Test
+    @DisplayName("Should follow moves and removals and find neighbours across the 180th meridian")
+    public void testUpdatesAndMeridian() {
+        // Given
+        StudentLocationIndex index = new StudentLocationIndex(250);
+        index.put(1L, new GeoPoint(-17.0, 179.9995));
+        index.put(2L, new GeoPoint(-17.0, -179.9995));
+        index.put(3L, new GeoPoint(-17.5, 179.0));
+
+        // When
+        index.put(3L, new GeoPoint(-17.0, 179.998));
+        index.remove(2L);
+        index.put(2L, new GeoPoint(-17.0, -179.999));
+
+        // Then
+        GeoPoint center = new GeoPoint(-17.0, -179.9999);
+        assertEquals(List.of(1L, 2L, 3L), ids(index.findWithinRadius(center, 500, 10)));
+        assertEquals(List.of(1L, 2L), ids(index.findNearest(center, 2)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.findWithinBox(-17.1, 179.99, -16.9, -179.99, 10)));
+        assertEquals(3, index.size());
+        assertEquals(new GeoPoint(-17.0, 179.998), index.get(3L));
+    }
+
+    @Test
+    @DisplayName("Should query stored locations over HTTP and drop deleted and moved students")
+    public void testLocationQueries() throws Exception {
+        // Given
+        StudentDto near = createStudent("STU201", 300);
+        StudentDto farther = createStudent("STU202", 700);
+        StudentDto moving = createStudent("STU203", 200);
+        createStudent("STU204", 5000);
+        assertTrue(studentLocationIndex.isReady());
+
+        // When
+        studentService.deleteStudent(farther.getId());
+        StudentDto moved = new StudentDto(studentService.getStudentById(moving.getId()));
+        moved.setAddress("9 New Road, City, State 12345");
+        studentService.updateStudent(moving.getId(), moved);
+
+        // Then
+        mockMvc.perform(get("/students/locations/nearby")
+                        .param("latitude", String.valueOf(SCHOOL.latitude()))
+                        .param("longitude", String.valueOf(SCHOOL.longitude()))
+                        .param("radius", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(near.getId()));
+        mockMvc.perform(get("/students/locations/nearest")
+                        .param("latitude", String.valueOf(SCHOOL.latitude()))
+                        .param("longitude", String.valueOf(SCHOOL.longitude()))
+                        .param("count", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(near.getId()));
+        mockMvc.perform(get("/students/locations/within")
+                        .param("south", "41.0").param("west", "28.9")
+                        .param("north", "41.02").param("east", "29.0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].distanceMeters").doesNotExist());
+
+        mockMvc.perform(get("/students/locations/nearby")
+                        .param("latitude", "91").param("longitude", "0").param("radius", "100"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/students/locations/nearby")
+                        .param("latitude", "41").param("longitude", "29").param("radius", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/students/locations/nearest")
+                        .param("latitude", "41").param("longitude", "29").param("count", "1001"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/students/locations/within")
+                        .param("south", "42").param("west", "28").param("north", "41").param("east", "29"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private StudentDto createStudent(String studentId, double metersNorth) {
+        StudentDto student = studentDto(studentId);
+        student.setFirstName("Index");
+        StudentDto created = createStudent(student);
+        studentLocationService.setLocation(created.getId(), new StudentLocationDto(null,
+                SCHOOL.latitude() + metersNorth / 111_195, SCHOOL.longitude(), null));
+        return created;
+    }
+
+    private static List<Long> bruteForceWithin(Map<Long, GeoPoint> locations, GeoPoint center, double radius) {
+        return locations.entrySet().stream()
+                .map(entry -> new NearbyStudentDto(entry.getKey(), 0, 0, center.distanceMeters(entry.getValue())))
+                .filter(student -> student.getDistanceMeters() <= radius)
+                .sorted(Comparator.comparingDouble(NearbyStudentDto::getDistanceMeters)
+                        .thenComparing(NearbyStudentDto::getId))
+                .map(NearbyStudentDto::getId)
+                .toList();
+    }
+
+    private static List<Long> ids(List<NearbyStudentDto> students) {
+        return students.stream().map(NearbyStudentDto::getId).toList();
+    }
+
+    // A random point within the given number of degrees of the school
+    private static GeoPoint near(Random random, double degrees) {
+        return new GeoPoint(SCHOOL.latitude() + (random.nextDouble() - 0.5) * degrees,
+                            SCHOOL.longitude() + (random.nextDouble() - 0.5) * degrees);
+    }
+}
@@ -0,0 +1,165 @@
+package com.schoolbus;
+
+import com.schoolbus.domain.dto.BulkBusRouteAssignmentDto;
+import com.schoolbus.domain.dto.CacheStatsDto;
+import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentPatchDto;
+import com.schoolbus.domain.entity.Student;
+import com.schoolbus.infrastructure.cache.SecondLevelCacheStatistics;
+import com.schoolbus.infrastructure.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the Hibernate second-level cache against the test database.
+ * Every write goes through StudentService and must never leave a stale row cached.
+ */
+@DisplayName("Second-Level Cache Tests")
+public class StudentSecondLevelCacheTest extends StudentTestSupport {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SecondLevelCacheStatistics secondLevelCacheStatistics;
+
+    @Test
+    @DisplayName("Should cache a loaded student and serve it updated after an update")
+    public void testEntityCacheAfterUpdate() {
+        // Given
+        StudentDto student = createStudent("STU001");
+        studentRepository.findById(student.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Student.class, student.getId()));
+        long hits = stats("students").getHitCount();
+
+        // When
+        StudentDto update = new StudentDto(student);
+        update.setFirstName("Jonathan");
+        studentService.updateStudent(student.getId(), update);
+
+        // Then
+        assertEquals("Jonathan", studentRepository.findById(student.getId()).orElseThrow().getFirstName());
+        assertEquals("Jonathan", studentRepository.findById(student.getId()).orElseThrow().getFirstName());
+        assertTrue(stats("students").getHitCount() > hits);
+    }
+
+    @Test
+    @DisplayName("Should serve a cached student updated after a patch")
+    public void testEntityCacheAfterPatch() {
+        // Given
+        StudentDto student = createStudent("STU001");
+        studentRepository.findById(student.getId());
+
+        // When
+        StudentPatchDto patch = new StudentPatchDto();
+        patch.setAddress("456 Oak Avenue, City, State 12345");
+        studentService.patchStudent(student.getId(), patch);
+
+        // Then
+        assertEquals("456 Oak Avenue, City, State 12345",
+                studentRepository.findById(student.getId()).orElseThrow().getAddress());
+        assertEquals("456 Oak Avenue, City, State 12345",
+                studentRepository.findByStudentId("STU001").orElseThrow().getAddress());
+    }
+
+    @Test
+    @DisplayName("Should patch with one statement that skips unchanged values and rejects a taken student ID")
+    public void testPatchStatement() {
+        // Given
+        StudentDto student = createStudent("STU001");
+        createStudent("STU002");
+        studentService.assignBusRoute(student.getId(), "Route-A", LocalTime.of(7, 30), LocalTime.of(15, 30));
+        LocalDateTime assignedAt = studentRepository.findById(student.getId()).orElseThrow().getUpdatedAt();
+
+        // When
+        StudentPatchDto unchanged = new StudentPatchDto();
+        unchanged.setGrade("5th Grade");
+        StudentDto afterUnchanged = studentService.patchStudent(student.getId(), unchanged);
+        StudentPatchDto clearRoute = new StudentPatchDto();
+        clearRoute.setBusRoute(null);
+        clearRoute.setPickupTime(null);
+        clearRoute.setDropoffTime(null);
+        clearRoute.setStudentId("STU001");
+        clearRoute.setGrade("5th Grade");
+        StudentDto afterClear = studentService.patchStudent(student.getId(), clearRoute);
+        StudentPatchDto takenId = new StudentPatchDto();
+        takenId.setStudentId("STU002");
+
+        // Then
+        assertEquals(assignedAt, afterUnchanged.getUpdatedAt());
+        assertNull(afterClear.getBusRoute());
+        assertEquals("STU001", afterClear.getStudentId());
+        assertTrue(afterClear.getUpdatedAt().isAfter(assignedAt));
+        Student stored = studentRepository.findById(student.getId()).orElseThrow();
+        assertNull(stored.getPickupTime());
+        assertEquals("5th Grade", stored.getGrade());
+        assertThrows(DataIntegrityViolationException.class, () -> studentService.patchStudent(student.getId(), takenId));
+        assertEquals("STU001", studentRepository.findById(student.getId()).orElseThrow().getStudentId());
+    }
+
+    @Test
+    @DisplayName("Should cache students by ID only, without query result regions")
+    public void testNoQueryCache() {
+        assertFalse(entityManagerFactory.unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions()
+                .isQueryCacheEnabled());
+        assertEquals(List.of("students"), secondLevelCacheStatistics.getStats().stream()
+                .map(CacheStatsDto::getName)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Should serve a cached student updated after an upsert")
+    public void testCachesAfterUpsert() {
+        // Given
+        StudentDto student = createStudent("STU001");
+        studentRepository.findById(student.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Student.class, student.getId()));
+
+        // When
+        studentService.upsertStudent("STU001", studentDto("STU001", "6th Grade"));
+
+        // Then
+        assertFalse(entityManagerFactory.getCache().contains(Student.class, student.getId()));
+        assertEquals("6th Grade", studentRepository.findById(student.getId()).orElseThrow().getGrade());
+        assertEquals("6th Grade", studentRepository.findByStudentId("STU001").orElseThrow().getGrade());
+        assertEquals(1, studentRepository.countByGrade("6th Grade"));
+    }
+
+    @Test
+    @DisplayName("Should serve cached students and bus routes updated after a bulk route assignment")
+    public void testCachesAfterBulkAssignment() {
+        // Given
+        StudentDto student = createStudent("STU001");
+        studentRepository.findById(student.getId());
+        assertEquals(List.of(), studentRepository.findAllDistinctBusRoutes());
+
+        // When
+        studentService.assignBusRoutes(new BulkBusRouteAssignmentDto(List.of(student.getId()), null, null,
+                "Route-A", LocalTime.of(7, 30), LocalTime.of(15, 30)));
+
+        // Then
+        assertEquals("Route-A", studentRepository.findById(student.getId()).orElseThrow().getBusRoute());
+        assertEquals(List.of("Route-A"), studentRepository.findAllDistinctBusRoutes());
+        assertEquals(1, studentRepository.countByBusRoute("Route-A"));
+    }
+
+    private CacheStatsDto stats(String region) {
+        return secondLevelCacheStatistics.getStats().stream()
+                .filter(stats -> stats.getName().equals(region))
+                .findFirst()
+                .orElseThrow();
+    }
+}
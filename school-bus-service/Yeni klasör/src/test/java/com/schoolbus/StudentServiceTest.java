@@ -1,26 +1,67 @@
 package com.schoolbus;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.schoolbus.application.service.StudentService;
+import com.schoolbus.application.service.aggregate.StudentAggregateStore;
+import com.schoolbus.application.service.cache.StudentLookupCache;
+import com.schoolbus.application.service.importing.StudentImportService;
+import com.schoolbus.application.service.pagination.PageCursor;
+import com.schoolbus.application.service.roster.RouteRosterStore;
+import com.schoolbus.application.service.search.StudentNameIndex;
+import com.schoolbus.domain.dto.BulkBusRouteAssignmentDto;
+import com.schoolbus.domain.dto.CursorPageDto;
+import com.schoolbus.domain.dto.RouteRosterDto;
 import com.schoolbus.domain.dto.StudentDto;
+import com.schoolbus.domain.dto.StudentField;
+import com.schoolbus.domain.dto.StudentImportJobDto;
+import com.schoolbus.domain.dto.StudentPatchDto;
 import com.schoolbus.domain.entity.Student;
+import com.schoolbus.domain.event.StudentBatchChangedEvent;
+import com.schoolbus.domain.event.StudentChangedEvent;
+import com.schoolbus.infrastructure.metrics.RepositoryRowsAspect;
 import com.schoolbus.infrastructure.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -36,6 +77,27 @@ public class StudentServiceTest {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentLookupCache studentLookupCache;
+
+    @Autowired
+    private StudentNameIndex studentNameIndex;
+
+    @Autowired
+    private RouteRosterStore routeRosterStore;
+
+    @Autowired
+    private StudentAggregateStore studentAggregateStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
     @MockBean
     private StudentRepository studentRepository;
     
@@ -50,6 +112,10 @@ public class StudentServiceTest {
         );
         
         mockStudent = createMockStudent();
+        studentLookupCache.invalidateAll();
+        studentNameIndex.clear();
+        routeRosterStore.clear();
+        studentAggregateStore.clear();
     }
     
     @Nested
@@ -106,6 +172,68 @@ public class StudentServiceTest {
         }
     }
     
+    @Nested
+    @DisplayName("Bulk Create Student Tests")
+    class BulkCreateStudentTests {
+        
+        @Test
+        @DisplayName("Should create all students with a single duplicate check")
+        public void testCreateStudents() {
+            // Given
+            StudentDto second = new StudentDto(
+                    "Jane", "Smith", "STU002", 11,
+                    "6th Grade", "456 Oak Avenue, City, State 12345", "5552345678"
+            );
+            when(studentRepository.findExistingStudentIds(anyCollection())).thenReturn(List.of());
+            when(studentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Student> students = invocation.getArgument(0);
+                long id = 1;
+                for (Student student : students) {
+                    student.setId(id++);
+                }
+                return students;
+            });
+
+            // When
+            List<StudentDto> result = studentService.createStudents(Arrays.asList(validStudentDto, second));
+
+            // Then
+            assertEquals(2, result.size());
+            assertEquals("STU001", result.get(0).getStudentId());
+            assertEquals("STU002", result.get(1).getStudentId());
+            verify(studentRepository, times(1)).findExistingStudentIds(anyCollection());
+            verify(studentRepository, never()).existsByStudentId(anyString());
+            verify(studentRepository, times(1)).saveAll(anyList());
+        }
+        
+        @Test
+        @DisplayName("Should reject student IDs repeated within the batch")
+        public void testCreateStudentsWithRepeatedIds() {
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+                studentService.createStudents(Arrays.asList(validStudentDto, validStudentDto));
+            });
+            
+            assertTrue(exception.getMessage().contains("STU001"));
+            verify(studentRepository, never()).saveAll(anyList());
+        }
+        
+        @Test
+        @DisplayName("Should reject the whole batch when a student ID already exists")
+        public void testCreateStudentsWithExistingId() {
+            // Given
+            when(studentRepository.findExistingStudentIds(anyCollection())).thenReturn(List.of("STU001"));
+
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+                studentService.createStudents(List.of(validStudentDto));
+            });
+            
+            assertTrue(exception.getMessage().contains("already exist"));
+            verify(studentRepository, never()).saveAll(anyList());
+        }
+    }
+    
     @Nested
     @DisplayName("Read Student Tests")
     class ReadStudentTests {
@@ -114,7 +242,7 @@ public class StudentServiceTest {
         @DisplayName("Should get all students successfully")
         public void testGetAllStudents() {
             // Given
-            List<Student> mockStudents = Arrays.asList(mockStudent, createMockStudent("Jane", "Smith", "STU002"));
+            List<StudentDto> mockStudents = toDtos(mockStudent, createMockStudent("Jane", "Smith", "STU002"));
             when(studentRepository.findAllByOrderByFirstNameAsc()).thenReturn(mockStudents);
 
             // When
@@ -126,6 +254,46 @@ public class StudentServiceTest {
             verify(studentRepository).findAllByOrderByFirstNameAsc();
         }
         
+        @Test
+        @DisplayName("Should export all students one at a time from the repository stream")
+        public void testExportAllStudents() {
+            // Given
+            when(studentRepository.streamAllByOrderByIdAsc()).thenReturn(
+                    Stream.of(mockStudent, createMockStudent("Jane", "Smith", "STU002", 2L)));
+            List<StudentDto> exported = new ArrayList<>();
+
+            // When
+            long count = studentService.exportAllStudents(exported::add);
+
+            // Then
+            assertEquals(2L, count);
+            assertEquals("STU001", exported.get(0).getStudentId());
+            assertEquals("STU002", exported.get(1).getStudentId());
+            verify(studentRepository).streamAllByOrderByIdAsc();
+            verify(studentRepository, never()).findAllByOrderByFirstNameAsc();
+        }
+        
+        @Test
+        @DisplayName("Should export selected fields from a stream that selects only their columns")
+        public void testExportAllStudentsWithFields() {
+            // Given
+            Set<StudentField> fields = Set.of(StudentField.ID, StudentField.STUDENT_ID);
+            StudentDto narrowed = new StudentDto();
+            narrowed.setId(1L);
+            narrowed.setStudentId("STU001");
+            when(studentRepository.streamFields(fields, StudentRepository.EXPORT_FILTER, Map.of()))
+                    .thenReturn(Stream.of(narrowed));
+            List<StudentDto> exported = new ArrayList<>();
+
+            // When
+            long count = studentService.exportAllStudents(fields, exported::add);
+
+            // Then
+            assertEquals(1L, count);
+            assertSame(narrowed, exported.get(0));
+            verify(studentRepository, never()).streamAllByOrderByIdAsc();
+        }
+        
         @Test
         @DisplayName("Should get student by ID successfully")
         public void testGetStudentById() {
@@ -176,7 +344,7 @@ public class StudentServiceTest {
         @DisplayName("Should get students by grade")
         public void testGetStudentsByGrade() {
             // Given
-            List<Student> mockStudents = Arrays.asList(mockStudent);
+            List<StudentDto> mockStudents = toDtos(mockStudent);
             when(studentRepository.findByGradeOrderByFirstNameAsc("5th Grade")).thenReturn(mockStudents);
 
             // When
@@ -188,6 +356,23 @@ public class StudentServiceTest {
             assertEquals("5th Grade", result.get(0).getGrade());
             verify(studentRepository).findByGradeOrderByFirstNameAsc("5th Grade");
         }
+        
+        @Test
+        @DisplayName("Should return projected rows without converting entities")
+        public void testListingsUseProjectedRows() {
+            // Given
+            List<StudentDto> rows = toDtos(mockStudent);
+            when(studentRepository.findByBusRouteIsNullOrderByFirstNameAsc()).thenReturn(rows);
+            Counter toDto = meterRegistry.find("students.dto.conversions").tag("direction", "to_dto").counter();
+            double conversionsBefore = toDto.count();
+
+            // When
+            List<StudentDto> result = studentService.getStudentsWithoutBusRoute();
+
+            // Then
+            assertSame(rows.get(0), result.get(0));
+            assertEquals(conversionsBefore, toDto.count());
+        }
     }
     
     @Nested
@@ -203,23 +388,23 @@ public class StudentServiceTest {
                     "6th Grade", "456 Updated Street", "5559876543"
             );
             
-            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
-            when(studentRepository.save(any(Student.class))).thenReturn(mockStudent);
+            when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(mockStudent));
+            when(studentRepository.saveAndFlush(any(Student.class))).thenReturn(mockStudent);
 
             // When
             StudentDto result = studentService.updateStudent(1L, updateDto);
 
             // Then
             assertNotNull(result);
-            verify(studentRepository).findById(1L);
-            verify(studentRepository).save(any(Student.class));
+            verify(studentRepository).findByIdForUpdate(1L);
+            verify(studentRepository).saveAndFlush(any(Student.class));
         }
         
         @Test
         @DisplayName("Should throw exception when updating non-existent student")
         public void testUpdateNonExistentStudent() {
             // Given
-            when(studentRepository.findById(999L)).thenReturn(Optional.empty());
+            when(studentRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
 
             // When & Then
             RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -227,8 +412,154 @@ public class StudentServiceTest {
             });
             
             assertTrue(exception.getMessage().contains("not found"));
-            verify(studentRepository).findById(999L);
-            verify(studentRepository, never()).save(any(Student.class));
+            verify(studentRepository).findByIdForUpdate(999L);
+            verify(studentRepository, never()).saveAndFlush(any(Student.class));
+        }
+    }
+    
+    @Nested
+    @DisplayName("Patch Student Tests")
+    class PatchStudentTests {
+        
+        @Test
+        @DisplayName("Should write only the patched field and keep the others")
+        public void testPatchSingleField() {
+            // Given
+            StudentPatchDto patch = new StudentPatchDto();
+            patch.setPickupTime(LocalTime.of(7, 15));
+            when(studentRepository.patchById(eq(1L), eq(patch), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of(mockStudent));
+
+            // When
+            StudentDto result = studentService.patchStudent(1L, patch);
+
+            // Then
+            assertEquals(LocalTime.of(7, 15), result.getPickupTime());
+            assertEquals("John", result.getFirstName());
+            assertEquals("STU001", result.getStudentId());
+            verify(studentRepository, never()).findById(anyLong());
+            verify(studentRepository, never()).saveAndFlush(any(Student.class));
+            verify(studentRepository, never()).existsByStudentId(anyString());
+        }
+        
+        @Test
+        @DisplayName("Should not write when the patch changes nothing")
+        public void testPatchWithUnchangedValue() {
+            // Given
+            StudentPatchDto patch = new StudentPatchDto();
+            patch.setFirstName("John");
+            when(studentRepository.patchById(eq(1L), eq(patch), any(LocalDateTime.class))).thenReturn(Optional.empty());
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+
+            // When
+            StudentDto result = studentService.patchStudent(1L, patch);
+
+            // Then
+            assertEquals("John", result.getFirstName());
+            verify(studentRepository, never()).saveAndFlush(any(Student.class));
+        }
+        
+        @Test
+        @DisplayName("Should reject an empty patch and a null required field")
+        public void testPatchValidation() {
+            // Given
+            StudentPatchDto nullName = new StudentPatchDto();
+            nullName.setFirstName(null);
+
+            // When & Then
+            assertThrows(IllegalArgumentException.class,
+                    () -> studentService.patchStudent(1L, new StudentPatchDto()));
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> studentService.patchStudent(1L, nullName));
+            assertTrue(exception.getMessage().contains("firstName"));
+            verify(studentRepository, never()).patchById(anyLong(), any(StudentPatchDto.class), any(LocalDateTime.class));
+        }
+        
+        @Test
+        @DisplayName("Should throw exception when patching non-existent student")
+        public void testPatchNonExistentStudent() {
+            // Given
+            StudentPatchDto patch = new StudentPatchDto();
+            patch.setBusRoute("Route A");
+            when(studentRepository.patchById(eq(999L), eq(patch), any(LocalDateTime.class))).thenReturn(Optional.empty());
+            when(studentRepository.findById(999L)).thenReturn(Optional.empty());
+
+            // When & Then
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> studentService.patchStudent(999L, patch));
+            assertTrue(exception.getMessage().contains("not found"));
+            verify(studentRepository, never()).saveAndFlush(any(Student.class));
+        }
+        
+        @Test
+        @DisplayName("Should tell fields sent as null apart from absent fields")
+        public void testPatchFieldPresence() throws Exception {
+            // When
+            StudentPatchDto patch = objectMapper.readValue("{\"busRoute\":null}", StudentPatchDto.class);
+
+            // Then
+            assertTrue(patch.isPresent("busRoute"));
+            assertFalse(patch.isPresent("firstName"));
+            assertFalse(patch.isEmpty());
+        }
+    }
+    
+    @Nested
+    @DisplayName("Upsert Student Tests")
+    class UpsertStudentTests {
+        
+        @Test
+        @DisplayName("Should insert a new student without checking for it first")
+        public void testUpsertInsertsNewStudent() {
+            // Given
+            when(studentRepository.upsertByStudentId(any(Student.class))).thenAnswer(invocation -> {
+                Student student = invocation.getArgument(0);
+                student.setId(5L);
+                return Optional.empty();
+            });
+
+            // When
+            StudentDto result = studentService.upsertStudent("STU001", validStudentDto);
+
+            // Then
+            assertEquals(5L, result.getId());
+            assertEquals("STU001", result.getStudentId());
+            verify(studentRepository).upsertByStudentId(any(Student.class));
+            verify(studentRepository, never()).existsByStudentId(anyString());
+            verify(studentRepository, never()).findByStudentId(anyString());
+        }
+        
+        @Test
+        @DisplayName("Should update an existing student and invalidate its cached entry")
+        public void testUpsertUpdatesExistingStudent() {
+            // Given
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+            studentService.getStudentById(1L);
+            when(studentRepository.upsertByStudentId(any(Student.class))).thenAnswer(invocation -> {
+                Student student = invocation.getArgument(0);
+                student.setId(1L);
+                return Optional.of(createMockStudent());
+            });
+            validStudentDto.setFirstName("Johnny");
+
+            // When
+            StudentDto result = studentService.upsertStudent("STU001", validStudentDto);
+            studentService.getStudentById(1L);
+
+            // Then
+            assertEquals(1L, result.getId());
+            assertEquals("Johnny", result.getFirstName());
+            verify(studentRepository, times(2)).findById(1L);
+        }
+        
+        @Test
+        @DisplayName("Should reject a body whose student ID differs from the path")
+        public void testUpsertWithMismatchedStudentId() {
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> studentService.upsertStudent("STU002", validStudentDto));
+            assertTrue(exception.getMessage().contains("does not match"));
+            verify(studentRepository, never()).upsertByStudentId(any(Student.class));
         }
     }
     
@@ -240,21 +571,21 @@ public class StudentServiceTest {
         @DisplayName("Should delete student successfully")
         public void testDeleteStudent() {
             // Given
-            when(studentRepository.existsById(1L)).thenReturn(true);
+            when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(mockStudent));
 
             // When
             studentService.deleteStudent(1L);
 
             // Then
-            verify(studentRepository).existsById(1L);
-            verify(studentRepository).deleteById(1L);
+            verify(studentRepository).findByIdForUpdate(1L);
+            verify(studentRepository).delete(mockStudent);
         }
         
         @Test
         @DisplayName("Should throw exception when deleting non-existent student")
         public void testDeleteNonExistentStudent() {
             // Given
-            when(studentRepository.existsById(999L)).thenReturn(false);
+            when(studentRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
 
             // When & Then
             RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -262,7 +593,8 @@ public class StudentServiceTest {
             });
             
             assertTrue(exception.getMessage().contains("not found"));
-            verify(studentRepository).existsById(999L);
+            verify(studentRepository).findByIdForUpdate(999L);
+            verify(studentRepository, never()).delete(any(Student.class));
             verify(studentRepository, never()).deleteById(anyLong());
         }
     }
@@ -275,8 +607,8 @@ public class StudentServiceTest {
         @DisplayName("Should search students by name")
         public void testSearchStudentsByName() {
             // Given
-            List<Student> mockStudents = Arrays.asList(mockStudent);
-            when(studentRepository.searchByName("John")).thenReturn(mockStudents);
+            studentNameIndex.put(1L, "John", "Doe");
+            when(studentRepository.findAllDtosById(List.of(1L))).thenReturn(toDtos(mockStudent));
 
             // When
             List<StudentDto> result = studentService.searchStudentsByName("John");
@@ -284,16 +616,95 @@ public class StudentServiceTest {
             // Then
             assertNotNull(result);
             assertEquals(1, result.size());
-            verify(studentRepository).searchByName("John");
+            verify(studentRepository, never()).searchByName(anyString(), any(Limit.class));
+        }
+        
+        @Test
+        @DisplayName("Should rank exact and prefix name matches above substring matches")
+        public void testSearchStudentsByNameRanking() {
+            // Given
+            studentNameIndex.put(1L, "Johnathan", "Smith");
+            studentNameIndex.put(2L, "Ann", "Littlejohn");
+            studentNameIndex.put(3L, "John", "Doe");
+            studentNameIndex.put(4L, "Mary", "Brown");
+            when(studentRepository.findAllDtosById(List.of(3L, 1L, 2L))).thenReturn(toDtos(
+                    createMockStudent("Ann", "Littlejohn", "STU002", 2L),
+                    createMockStudent("John", "Doe", "STU003", 3L),
+                    createMockStudent("Johnathan", "Smith", "STU001", 1L)));
+
+            // When
+            List<StudentDto> result = studentService.searchStudentsByName("JOHN");
+
+            // Then
+            assertEquals(3, result.size());
+            assertEquals(3L, result.get(0).getId());
+            assertEquals(1L, result.get(1).getId());
+            assertEquals(2L, result.get(2).getId());
+        }
+        
+        @Test
+        @DisplayName("Should return only the best matches up to the limit")
+        public void testSearchStudentsByNameWithLimit() {
+            // Given
+            studentNameIndex.put(1L, "Johnathan", "Smith");
+            studentNameIndex.put(3L, "John", "Doe");
+            when(studentRepository.findAllDtosById(List.of(3L)))
+                    .thenReturn(toDtos(createMockStudent("John", "Doe", "STU003", 3L)));
+
+            // When
+            List<StudentDto> result = studentService.searchStudentsByName("john", 1);
+
+            // Then
+            assertEquals(1, result.size());
+            verify(studentRepository).findAllDtosById(List.of(3L));
+        }
+
+        @Test
+        @DisplayName("Should pass the limit of a blank name search to the query")
+        public void testSearchStudentsByBlankNameWithLimit() {
+            // Given
+            when(studentRepository.findPageAfter("", 0L, Limit.of(2))).thenReturn(toDtos(mockStudent));
+
+            // When
+            List<StudentDto> result = studentService.searchStudentsByName("  ", 2);
+
+            // Then
+            assertEquals(1, result.size());
+            verify(studentRepository, never()).findAllByOrderByFirstNameAsc();
+        }
+
+        @Test
+        @DisplayName("Should skip indexed students that no longer match")
+        public void testSearchStudentsByNameSkipsStaleEntries() {
+            // Given
+            studentNameIndex.put(1L, "John", "Doe");
+            when(studentRepository.findAllDtosById(List.of(1L)))
+                    .thenReturn(toDtos(createMockStudent("Peter", "Pan", "STU001", 1L)));
+
+            // When
+            List<StudentDto> result = studentService.searchStudentsByName("john");
+
+            // Then
+            assertTrue(result.isEmpty());
+        }
+        
+        @Test
+        @DisplayName("Should throw exception for non-positive search limit")
+        public void testSearchStudentsByNameWithInvalidLimit() {
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+                studentService.searchStudentsByName("john", 0);
+            });
+            
+            assertEquals("Limit must be at least 1", exception.getMessage());
         }
         
         @Test
         @DisplayName("Should get students by bus route")
         public void testGetStudentsByBusRoute() {
             // Given
-            mockStudent.setBusRoute("Route-A");
-            List<Student> mockStudents = Arrays.asList(mockStudent);
-            when(studentRepository.findByBusRouteOrderByPickupTimeAsc("Route-A")).thenReturn(mockStudents);
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(1L, "John", "Route-A", "07:30")));
 
             // When
             List<StudentDto> result = studentService.getStudentsByBusRoute("Route-A");
@@ -301,14 +712,14 @@ public class StudentServiceTest {
             // Then
             assertNotNull(result);
             assertEquals(1, result.size());
-            verify(studentRepository).findByBusRouteOrderByPickupTimeAsc("Route-A");
+            verify(studentRepository, never()).findByBusRouteOrderByPickupTimeAsc(anyString());
         }
         
         @Test
         @DisplayName("Should get students by age range")
         public void testGetStudentsByAgeRange() {
             // Given
-            List<Student> mockStudents = Arrays.asList(mockStudent);
+            List<StudentDto> mockStudents = toDtos(mockStudent);
             when(studentRepository.findByAgeBetweenOrderByAgeAsc(8, 12)).thenReturn(mockStudents);
 
             // When
@@ -340,33 +751,222 @@ public class StudentServiceTest {
         @DisplayName("Should assign bus route successfully")
         public void testAssignBusRoute() {
             // Given
-            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
-            when(studentRepository.save(any(Student.class))).thenReturn(mockStudent);
+            when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(mockStudent));
+            when(studentRepository.saveAndFlush(any(Student.class))).thenReturn(mockStudent);
 
             // When
-            StudentDto result = studentService.assignBusRoute(1L, "Route-A", "07:30", "15:30");
+            StudentDto result = studentService.assignBusRoute(1L, "Route-A", LocalTime.of(7, 30), LocalTime.of(15, 30));
 
             // Then
             assertNotNull(result);
-            verify(studentRepository).findById(1L);
-            verify(studentRepository).save(any(Student.class));
+            verify(studentRepository).findByIdForUpdate(1L);
+            verify(studentRepository).saveAndFlush(any(Student.class));
         }
         
         @Test
         @DisplayName("Should throw exception for empty bus route")
         public void testAssignEmptyBusRoute() {
             // Given
-            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+            when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(mockStudent));
 
             // When & Then
             IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-                studentService.assignBusRoute(1L, "", "07:30", "15:30");
+                studentService.assignBusRoute(1L, "", LocalTime.of(7, 30), LocalTime.of(15, 30));
             });
             
             assertTrue(exception.getMessage().contains("Bus route cannot be empty"));
         }
     }
     
+    @Nested
+    @DisplayName("Bulk Bus Route Assignment Tests")
+    class BulkBusRouteAssignmentTests {
+        
+        @Test
+        @DisplayName("Should reassign students by ID with one update and refresh every read model")
+        public void testAssignBusRoutesByIds() {
+            // Given
+            Student anna = createMockStudent("Anna", "Doe", "STU001", 1L);
+            anna.setBusRoute("Route-A");
+            Student bella = createMockStudent("Bella", "Doe", "STU002", 2L);
+            bella.setBusRoute("Route-B");
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(createRosterStudent(1L, "Anna", "Route-A", "07:30")));
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(createRosterStudent(2L, "Bella", "Route-B", "07:40")));
+            studentAggregateStore.onStudentChanged(StudentChangedEvent.created(createRosterStudent(1L, "Anna", "Route-A", "07:30")));
+            studentAggregateStore.onStudentChanged(StudentChangedEvent.created(createRosterStudent(2L, "Bella", "Route-B", "07:40")));
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(anna));
+            studentService.getStudentById(1L);
+            when(studentRepository.findAllDtosByIdForUpdate(anyCollection())).thenReturn(toDtos(anna, bella));
+            when(studentRepository.assignBusRoute(anyCollection(), eq("Route-C"), any(LocalTime.class),
+                    any(LocalTime.class), any(LocalDateTime.class))).thenReturn(2);
+            BulkBusRouteAssignmentDto assignment = new BulkBusRouteAssignmentDto(
+                    Arrays.asList(1L, 2L, 1L), null, null, " Route-C ", LocalTime.of(7, 0), LocalTime.of(15, 0));
+
+            // When
+            int updated = studentService.assignBusRoutes(assignment);
+
+            // Then
+            assertEquals(2, updated);
+            verify(studentRepository).assignBusRoute(eq(Arrays.asList(1L, 2L)), eq("Route-C"),
+                    eq(LocalTime.of(7, 0)), eq(LocalTime.of(15, 0)), any(LocalDateTime.class));
+            verify(studentRepository, never()).saveAndFlush(any(Student.class));
+            RouteRosterDto routeC = studentService.getBusRouteRoster("Route-C");
+            assertEquals(Arrays.asList(1L, 2L),
+                    routeC.getStudents().stream().map(StudentDto::getId).collect(Collectors.toList()));
+            assertEquals(LocalTime.of(7, 0), routeC.getStudents().get(0).getPickupTime());
+            assertEquals(0, studentService.getBusRouteRoster("Route-A").getSize());
+            assertEquals(0, studentService.getBusRouteRoster("Route-B").getSize());
+            assertEquals(2L, studentService.getStudentsCountByBusRoute("Route-C"));
+            assertEquals(0L, studentService.getStudentsCountByBusRoute("Route-A"));
+            studentService.getStudentById(1L);
+            verify(studentRepository, times(2)).findById(1L);
+        }
+        
+        @Test
+        @DisplayName("Should reassign students selected by current route and grade")
+        public void testAssignBusRoutesByFilter() {
+            // Given
+            Student anna = createMockStudent("Anna", "Doe", "STU001", 1L);
+            anna.setBusRoute("Route-A");
+            when(studentRepository.findDtosByBusRouteAndGradeForUpdate("Route-A", null)).thenReturn(toDtos(anna));
+            when(studentRepository.assignBusRoute(eq(List.of(1L)), eq("Route-C"), any(LocalTime.class),
+                    any(LocalTime.class), any(LocalDateTime.class))).thenReturn(1);
+            BulkBusRouteAssignmentDto assignment = new BulkBusRouteAssignmentDto(
+                    null, "Route-A", " ", "Route-C", LocalTime.of(7, 0), LocalTime.of(15, 0));
+
+            // When
+            int updated = studentService.assignBusRoutes(assignment);
+
+            // Then
+            assertEquals(1, updated);
+            verify(studentRepository, never()).findAllDtosByIdForUpdate(anyCollection());
+        }
+        
+        @Test
+        @DisplayName("Should not update anything when no student matches")
+        public void testAssignBusRoutesNoMatch() {
+            // Given
+            when(studentRepository.findDtosByBusRouteAndGradeForUpdate(null, "9th Grade")).thenReturn(List.of());
+            BulkBusRouteAssignmentDto assignment = new BulkBusRouteAssignmentDto(
+                    null, null, "9th Grade", "Route-C", LocalTime.of(7, 0), LocalTime.of(15, 0));
+
+            // When
+            int updated = studentService.assignBusRoutes(assignment);
+
+            // Then
+            assertEquals(0, updated);
+            verify(studentRepository, never()).assignBusRoute(anyCollection(), anyString(), any(), any(), any());
+        }
+        
+        @Test
+        @DisplayName("Should require exactly one way of selecting students")
+        public void testAssignBusRoutesInvalidSelection() {
+            // When & Then
+            IllegalArgumentException both = assertThrows(IllegalArgumentException.class, () -> {
+                studentService.assignBusRoutes(new BulkBusRouteAssignmentDto(
+                        List.of(1L), "Route-A", null, "Route-C", LocalTime.of(7, 0), LocalTime.of(15, 0)));
+            });
+            assertTrue(both.getMessage().contains("either by ids or by currentBusRoute"));
+            assertThrows(IllegalArgumentException.class, () -> {
+                studentService.assignBusRoutes(new BulkBusRouteAssignmentDto(
+                        null, null, null, "Route-C", LocalTime.of(7, 0), LocalTime.of(15, 0)));
+            });
+            assertThrows(IllegalArgumentException.class, () -> {
+                studentService.assignBusRoutes(new BulkBusRouteAssignmentDto(
+                        List.of(), null, null, "Route-C", LocalTime.of(7, 0), LocalTime.of(15, 0)));
+            });
+            assertThrows(IllegalArgumentException.class, () -> {
+                studentService.assignBusRoutes(new BulkBusRouteAssignmentDto(
+                        List.of(1L), null, null, "", LocalTime.of(7, 0), LocalTime.of(15, 0)));
+            });
+            List<Long> tooMany = LongStream.rangeClosed(1, 1001).boxed().collect(Collectors.toList());
+            IllegalArgumentException limit = assertThrows(IllegalArgumentException.class, () -> {
+                studentService.assignBusRoutes(new BulkBusRouteAssignmentDto(
+                        tooMany, null, null, "Route-C", LocalTime.of(7, 0), LocalTime.of(15, 0)));
+            });
+            assertTrue(limit.getMessage().contains("At most 1000"));
+            verify(studentRepository, never()).findAllDtosByIdForUpdate(anyCollection());
+        }
+    }
+    
+    @Nested
+    @DisplayName("Student Import Tests")
+    class StudentImportTests {
+        
+        @Test
+        @DisplayName("Should import valid rows and report every invalid row without stopping")
+        public void testImportReportsInvalidRows() throws Exception {
+            // Given
+            String csv = "first_name,last_name,student_id,age,grade,address,parent_contact,pickup_time\n"
+                    + "Anna,Lee,STU101,9,4th Grade,\"12 Main Street,\nSpringfield\",5551234567,07:30\n"
+                    + "Ben,Lee,STU102,ten,4th Grade,12 Main Street Springfield,5551234567,\n"
+                    + ",Lee,STU103,9,4th Grade,12 Main Street Springfield,5551234567,\n"
+                    + "Cara,Lee,STU104,9,4th Grade,12 Main Street Springfield,5551234567,7.30\n"
+                    + "Dan,Lee,STU900,9,4th Grade,12 Main Street Springfield,5551234567,\n"
+                    + "Eve,Lee,STU101,9,4th Grade,12 Main Street Springfield,5551234567,\n"
+                    + "Finn,Lee,STU105,9,4th Grade,12 Main Street Springfield,5551234567,08:00\n";
+            when(studentRepository.findExistingStudentIds(anyCollection())).thenReturn(List.of("STU900"));
+            when(studentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Student> students = invocation.getArgument(0);
+                long id = 100;
+                for (Student student : students) {
+                    student.setId(id++);
+                }
+                return students;
+            });
+
+            // When
+            StudentImportJobDto job = awaitImport(studentImportService.startImport("enrolment.csv",
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+            ByteArrayOutputStream report = new ByteArrayOutputStream();
+            studentImportService.writeErrorReport(job.getId(), report);
+
+            // Then
+            assertEquals(StudentImportJobDto.Status.COMPLETED, job.getStatus());
+            assertEquals(7, job.getRowsRead());
+            assertEquals(2, job.getRowsImported());
+            assertEquals(5, job.getRowsFailed());
+            assertEquals(100.0, job.getProgressPercent());
+            List<String> lines = report.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+            assertEquals("line,studentId,error", lines.get(0));
+            assertEquals(List.of("4,STU102", "5,STU103", "6,STU104", "7,STU900", "8,STU101"), lines.stream()
+                    .skip(1)
+                    .map(line -> line.substring(0, line.indexOf(',', line.indexOf(',') + 1)))
+                    .collect(Collectors.toList()));
+            assertTrue(lines.get(2).contains("firstName: First name is required"));
+            assertTrue(lines.get(4).contains("already exists"));
+        }
+        
+        @Test
+        @DisplayName("Should fail the import when a required column is missing")
+        public void testImportWithMissingColumn() throws Exception {
+            // Given
+            String csv = "firstName,lastName,studentId,age,grade,address\n"
+                    + "Anna,Lee,STU101,9,4th Grade,12 Main Street Springfield\n";
+
+            // When
+            StudentImportJobDto job = awaitImport(studentImportService.startImport("enrolment.csv",
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+            // Then
+            assertEquals(StudentImportJobDto.Status.FAILED, job.getStatus());
+            assertTrue(job.getErrorMessage().contains("parentContact"));
+            verify(studentRepository, never()).saveAll(anyList());
+        }
+        
+        private StudentImportJobDto awaitImport(StudentImportJobDto started) throws InterruptedException {
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            StudentImportJobDto job = started;
+            while (job.getStatus() != StudentImportJobDto.Status.COMPLETED
+                    && job.getStatus() != StudentImportJobDto.Status.FAILED) {
+                assertTrue(System.nanoTime() < deadline, "Import did not finish in time");
+                Thread.sleep(20);
+                job = studentImportService.getImport(started.getId());
+            }
+            return job;
+        }
+    }
+    
     @Nested
     @DisplayName("Statistics Tests")
     class StatisticsTests {
@@ -375,38 +975,728 @@ public class StudentServiceTest {
         @DisplayName("Should get student count by grade")
         public void testGetStudentsCountByGrade() {
             // Given
-            when(studentRepository.countByGrade("5th Grade")).thenReturn(5L);
+            for (long id = 1; id <= 5; id++) {
+                studentAggregateStore.onStudentChanged(StudentChangedEvent.created(
+                        createRosterStudent(id, "Anna", null, null)));
+            }
 
             // When
             long result = studentService.getStudentsCountByGrade("5th Grade");
 
             // Then
             assertEquals(5L, result);
-            verify(studentRepository).countByGrade("5th Grade");
+            verify(studentRepository, never()).countByGrade(anyString());
         }
         
         @Test
         @DisplayName("Should get student count by bus route")
         public void testGetStudentsCountByBusRoute() {
             // Given
-            when(studentRepository.countByBusRoute("Route-A")).thenReturn(10L);
+            for (long id = 1; id <= 10; id++) {
+                studentAggregateStore.onStudentChanged(StudentChangedEvent.created(
+                        createRosterStudent(id, "Anna", "Route-A", "07:30")));
+            }
 
             // When
             long result = studentService.getStudentsCountByBusRoute("Route-A");
 
             // Then
             assertEquals(10L, result);
-            verify(studentRepository).countByBusRoute("Route-A");
+            verify(studentRepository, never()).countByBusRoute(anyString());
         }
-    }
+        
+        @Test
+        @DisplayName("Should move counts when a student changes grade and route")
+        public void testCountsFollowUpdates() {
+            // Given
+            StudentDto before = createRosterStudent(1L, "Anna", "Route-A", "07:30");
+            StudentDto after = createRosterStudent(1L, "Anna", "Route-B", "07:30");
+            after.setGrade("6th Grade");
+            studentAggregateStore.onStudentChanged(StudentChangedEvent.created(before));
 
-    private Student createMockStudent() {
+            // When
+            studentAggregateStore.onStudentChanged(StudentChangedEvent.updated(before, after));
+
+            // Then
+            assertEquals(0L, studentService.getStudentsCountByGrade("5th Grade"));
+            assertEquals(1L, studentService.getStudentsCountByGrade("6th Grade"));
+            assertEquals(0L, studentService.getStudentsCountByBusRoute("Route-A"));
+            assertEquals(1L, studentService.getStudentsCountByBusRoute("Route-B"));
+        }
+        
+        @Test
+        @DisplayName("Should list only grades and routes that have students")
+        public void testDistinctGradesAndRoutes() {
+            // Given
+            StudentDto onRouteB = createRosterStudent(1L, "Anna", "Route-B", "07:30");
+            StudentDto onRouteA = createRosterStudent(2L, "Bella", "Route-A", "07:40");
+            onRouteA.setGrade("4th Grade");
+            studentAggregateStore.onStudentChanged(StudentChangedEvent.created(onRouteB));
+            studentAggregateStore.onStudentChanged(StudentChangedEvent.created(onRouteA));
+            assertEquals(Arrays.asList("Route-A", "Route-B"), studentService.getAllBusRoutes());
+
+            // When
+            studentAggregateStore.onStudentChanged(StudentChangedEvent.deleted(onRouteB));
+
+            // Then
+            assertEquals(Arrays.asList("4th Grade"), studentService.getAllGrades());
+            assertEquals(Arrays.asList("Route-A"), studentService.getAllBusRoutes());
+            verify(studentRepository, never()).findAllDistinctGrades();
+            verify(studentRepository, never()).findAllDistinctBusRoutes();
+        }
+        
+        @Test
+        @DisplayName("Should count students created through the service")
+        public void testCreateStudentUpdatesCounts() {
+            // Given
+            when(studentRepository.existsByStudentId("STU001")).thenReturn(false);
+            when(studentRepository.save(any(Student.class))).thenReturn(mockStudent);
+
+            // When
+            studentService.createStudent(validStudentDto);
+
+            // Then
+            assertEquals(1L, studentService.getStudentsCountByGrade("5th Grade"));
+            assertEquals(Arrays.asList("5th Grade"), studentService.getAllGrades());
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookup Cache Tests")
+    class LookupCacheTests {
+        
+        @Test
+        @DisplayName("Should serve repeated lookups by ID from the cache")
+        public void testGetStudentByIdIsCached() {
+            // Given
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+
+            // When
+            StudentDto first = studentService.getStudentById(1L);
+            StudentDto second = studentService.getStudentById(1L);
+
+            // Then
+            assertEquals("John", second.getFirstName());
+            assertNotSame(first, second);
+            verify(studentRepository, times(1)).findById(1L);
+        }
+        
+        @Test
+        @DisplayName("Should serve repeated lookups by student ID from the cache")
+        public void testGetStudentByStudentIdIsCached() {
+            // Given
+            when(studentRepository.findByStudentId("STU001")).thenReturn(Optional.of(mockStudent));
+
+            // When
+            studentService.getStudentByStudentId("STU001");
+            studentService.getStudentByStudentId("STU001");
+
+            // Then
+            verify(studentRepository, times(1)).findByStudentId("STU001");
+        }
+        
+        @Test
+        @DisplayName("Should not cache missing students")
+        public void testMissingStudentIsNotCached() {
+            // Given
+            when(studentRepository.findById(999L)).thenReturn(Optional.empty());
+
+            // When
+            assertThrows(RuntimeException.class, () -> studentService.getStudentById(999L));
+            assertThrows(RuntimeException.class, () -> studentService.getStudentById(999L));
+
+            // Then
+            verify(studentRepository, times(2)).findById(999L);
+        }
+        
+        @Test
+        @DisplayName("Should invalidate both lookups when a student is updated")
+        public void testUpdateInvalidatesCache() {
+            // Given
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+            when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(mockStudent));
+            when(studentRepository.findByStudentId("STU001")).thenReturn(Optional.of(mockStudent));
+            when(studentRepository.existsByStudentId("STU009")).thenReturn(false);
+            when(studentRepository.saveAndFlush(any(Student.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            studentService.getStudentById(1L);
+            studentService.getStudentByStudentId("STU001");
+            
+            StudentDto updateDto = new StudentDto(
+                    "Johnny", "Doe", "STU009", 10,
+                    "5th Grade", "123 Main Street, City, State 12345", "5551234567"
+            );
+
+            // When
+            studentService.updateStudent(1L, updateDto);
+            StudentDto afterUpdate = studentService.getStudentById(1L);
+            studentService.getStudentByStudentId("STU001");
+
+            // Then
+            assertEquals("Johnny", afterUpdate.getFirstName());
+            verify(studentRepository, times(2)).findById(1L);
+            verify(studentRepository).findByIdForUpdate(1L);
+            verify(studentRepository, times(2)).findByStudentId("STU001");
+        }
+        
+        @Test
+        @DisplayName("Should invalidate lookups when a student is deleted")
+        public void testDeleteInvalidatesCache() {
+            // Given
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+            when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(mockStudent));
+            studentService.getStudentById(1L);
+            
+            // When
+            studentService.deleteStudent(1L);
+            when(studentRepository.findById(1L)).thenReturn(Optional.empty());
+
+            // Then
+            assertThrows(RuntimeException.class, () -> studentService.getStudentById(1L));
+        }
+        
+        @Test
+        @DisplayName("Should report hit and miss statistics")
+        public void testCacheStats() {
+            // Given
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+
+            // When
+            studentService.getStudentById(1L);
+            studentService.getStudentById(1L);
+
+            // Then
+            assertTrue(studentLookupCache.getStats().stream()
+                    .anyMatch(stats -> StudentLookupCache.BY_ID.equals(stats.getName()) && stats.getHitCount() >= 1));
+        }
+    }
+    
+    @Nested
+    @DisplayName("Cursor Pagination Tests")
+    class CursorPaginationTests {
+        
+        @Test
+        @DisplayName("Should return first page with continuation token")
+        public void testGetFirstPage() {
+            // Given
+            List<StudentDto> rows = toDtos(
+                    createMockStudent("Anna", "Doe", "STU001", 1L),
+                    createMockStudent("Bella", "Doe", "STU002", 2L),
+                    createMockStudent("Cara", "Doe", "STU003", 3L));
+            when(studentRepository.findPageAfter("", 0L, Limit.of(3))).thenReturn(rows);
+
+            // When
+            CursorPageDto<StudentDto> page = studentService.getAllStudents(null, 2);
+
+            // Then
+            assertEquals(2, page.getSize());
+            assertTrue(page.isHasNext());
+            assertEquals("Bella", page.getItems().get(1).getFirstName());
+            PageCursor next = PageCursor.decode(page.getNextCursor(), "");
+            assertEquals("Bella", next.getKey());
+            assertEquals(2L, next.getId());
+        }
+        
+        @Test
+        @DisplayName("Should continue after the cursor position without a further token on the last page")
+        public void testGetLastPage() {
+            // Given
+            String cursor = new PageCursor("Bella", 2L).encode();
+            List<StudentDto> rows = toDtos(createMockStudent("Cara", "Doe", "STU003", 3L));
+            when(studentRepository.findPageAfter("Bella", 2L, Limit.of(3))).thenReturn(rows);
+
+            // When
+            CursorPageDto<StudentDto> page = studentService.getAllStudents(cursor, 2);
+
+            // Then
+            assertEquals(1, page.getSize());
+            assertFalse(page.isHasNext());
+            assertNull(page.getNextCursor());
+            verify(studentRepository).findPageAfter("Bella", 2L, Limit.of(3));
+        }
+        
+        @Test
+        @DisplayName("Should continue bus route listing with students without pickup time")
+        public void testBusRoutePageSpansStudentsWithoutPickupTime() {
+            // Given
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(2L, "Bella", "Route-A", null)));
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(1L, "Anna", "Route-A", "07:30")));
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(3L, "Carl", "Route-A", null)));
+
+            // When
+            CursorPageDto<StudentDto> first = studentService.getStudentsByBusRoute("Route-A", "", 2);
+            CursorPageDto<StudentDto> second = studentService.getStudentsByBusRoute("Route-A", first.getNextCursor(), 2);
+
+            // Then
+            assertEquals(2, first.getSize());
+            assertTrue(first.isHasNext());
+            assertEquals(LocalTime.of(7, 30), first.getItems().get(0).getPickupTime());
+            assertEquals("Bella", first.getItems().get(1).getFirstName());
+            assertEquals(1, second.getSize());
+            assertFalse(second.isHasNext());
+            assertEquals("Carl", second.getItems().get(0).getFirstName());
+            verify(studentRepository, never()).findByBusRoutePageAfter(anyString(), any(LocalTime.class), anyLong(), any(Limit.class));
+        }
+        
+        @Test
+        @DisplayName("Should page age range by age and ID")
+        public void testGetAgeRangePage() {
+            // Given
+            when(studentRepository.findByAgeRangePageAfter(8, 12, 8, 0L, Limit.of(51)))
+                    .thenReturn(toDtos(mockStudent));
+
+            // When
+            CursorPageDto<StudentDto> page = studentService.getStudentsByAgeRange(8, 12, null, null);
+
+            // Then
+            assertEquals(1, page.getSize());
+            verify(studentRepository).findByAgeRangePageAfter(8, 12, 8, 0L, Limit.of(51));
+        }
+        
+        @Test
+        @DisplayName("Should reject malformed cursor")
+        public void testInvalidCursor() {
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+                studentService.getStudentsByGrade("5th Grade", "not-a-cursor", 10);
+            });
+            
+            assertTrue(exception.getMessage().contains("Invalid cursor"));
+        }
+        
+        @Test
+        @DisplayName("Should reject non-positive page size")
+        public void testInvalidPageSize() {
+            // When & Then
+            assertThrows(IllegalArgumentException.class, () -> {
+                studentService.getAllStudents(null, 0);
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Pickup Window Tests")
+    class PickupWindowTests {
+        
+        @Test
+        @DisplayName("Should page students picked up within a window across all routes")
+        public void testPickupWindowAcrossRoutes() {
+            // Given
+            LocalTime from = LocalTime.of(7, 0);
+            LocalTime to = LocalTime.of(7, 20);
+            Student first = createMockStudent("Anna", "Doe", "STU001", 4L);
+            first.setBusRoute("Route-B");
+            first.setPickupTime(LocalTime.of(7, 5));
+            Student second = createMockStudent("Bella", "Doe", "STU002", 2L);
+            second.setBusRoute("Route-A");
+            second.setPickupTime(LocalTime.of(7, 10));
+            Student third = createMockStudent("Carl", "Doe", "STU003", 3L);
+            third.setBusRoute("Route-A");
+            third.setPickupTime(LocalTime.of(7, 15));
+            when(studentRepository.findByPickupTimeWindowPageAfter(from, 0L, to, Limit.of(3)))
+                    .thenReturn(toDtos(first, second, third));
+            when(studentRepository.findByPickupTimeWindowPageAfter(LocalTime.of(7, 10), 2L, to, Limit.of(3)))
+                    .thenReturn(toDtos(third));
+
+            // When
+            CursorPageDto<StudentDto> page = studentService.getStudentsByPickupWindow(from, to, null, null, 2);
+            CursorPageDto<StudentDto> next = studentService.getStudentsByPickupWindow(from, to, null, page.getNextCursor(), 2);
+
+            // Then
+            assertEquals(Arrays.asList("Anna", "Bella"),
+                    page.getItems().stream().map(StudentDto::getFirstName).collect(Collectors.toList()));
+            assertEquals(LocalTime.of(7, 5), page.getItems().get(0).getPickupTime());
+            assertTrue(page.isHasNext());
+            assertEquals(1, next.getSize());
+            assertFalse(next.isHasNext());
+            verify(studentRepository, never()).findByBusRouteAndPickupTimeWindowPageAfter(
+                    anyString(), any(LocalTime.class), anyLong(), any(LocalTime.class), any(Limit.class));
+        }
+        
+        @Test
+        @DisplayName("Should restrict the pickup window to one route when given")
+        public void testPickupWindowOnRoute() {
+            // Given
+            LocalTime from = LocalTime.of(7, 0);
+            LocalTime to = LocalTime.of(7, 20);
+            when(studentRepository.findByBusRouteAndPickupTimeWindowPageAfter("Route-A", from, 0L, to, Limit.of(51)))
+                    .thenReturn(toDtos(mockStudent));
+
+            // When
+            CursorPageDto<StudentDto> page = studentService.getStudentsByPickupWindow(from, to, "Route-A", null, null);
+
+            // Then
+            assertEquals(1, page.getSize());
+            assertFalse(page.isHasNext());
+            verify(studentRepository, never()).findByPickupTimeWindowPageAfter(
+                    any(LocalTime.class), anyLong(), any(LocalTime.class), any(Limit.class));
+        }
+        
+        @Test
+        @DisplayName("Should not page before the window start for a cursor outside the window")
+        public void testPickupWindowClampsCursor() {
+            // Given
+            LocalTime from = LocalTime.of(7, 0);
+            LocalTime to = LocalTime.of(7, 20);
+            String earlier = new PageCursor("06:30", 9L).encode();
+            when(studentRepository.findByPickupTimeWindowPageAfter(from, 0L, to, Limit.of(51)))
+                    .thenReturn(List.of());
+
+            // When
+            CursorPageDto<StudentDto> page = studentService.getStudentsByPickupWindow(from, to, null, earlier, null);
+
+            // Then
+            assertEquals(0, page.getSize());
+            verify(studentRepository).findByPickupTimeWindowPageAfter(from, 0L, to, Limit.of(51));
+        }
+        
+        @Test
+        @DisplayName("Should reject an empty or reversed pickup window")
+        public void testInvalidPickupWindow() {
+            // When & Then
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+                studentService.getStudentsByPickupWindow(LocalTime.of(7, 20), LocalTime.of(7, 0), null, null, null);
+            });
+            assertTrue(exception.getMessage().contains("from must be before to"));
+            assertThrows(IllegalArgumentException.class, () -> {
+                studentService.getStudentsByPickupWindow(LocalTime.of(7, 0), LocalTime.of(7, 0), null, null, null);
+            });
+            assertThrows(IllegalArgumentException.class, () -> {
+                studentService.getStudentsByPickupWindow(null, LocalTime.of(7, 0), null, null, null);
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional Request Tests")
+    class ConditionalRequestTests {
+
+        @Test
+        @DisplayName("Should read the update timestamp as a single column when the student is not cached")
+        public void testGetStudentUpdatedAtWithoutCache() {
+            // Given
+            LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+            when(studentRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(updatedAt));
+
+            // When
+            Optional<LocalDateTime> result = studentService.getStudentUpdatedAt(1L);
+
+            // Then
+            assertEquals(Optional.of(updatedAt), result);
+            verify(studentRepository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should serve the update timestamp of a cached student without a query")
+        public void testGetStudentUpdatedAtFromCache() {
+            // Given
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+            studentService.getStudentById(1L);
+
+            // When
+            Optional<LocalDateTime> result = studentService.getStudentUpdatedAt(1L);
+
+            // Then
+            assertEquals(Optional.of(mockStudent.getUpdatedAt()), result);
+            verify(studentRepository, never()).findUpdatedAtById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should report the roster version and change it when the roster changes")
+        public void testGetBusRouteRosterVersion() {
+            // Given
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(1L, "Anna", "Route-A", "07:30")));
+            long versionBefore = studentService.getBusRouteRosterVersion("Route-A").getAsLong();
+
+            // When
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(2L, "Bella", "Route-A", "07:45")));
+
+            // Then
+            assertEquals(studentService.getBusRouteRoster("Route-A").getVersion(),
+                    studentService.getBusRouteRosterVersion("Route-A").getAsLong());
+            assertTrue(studentService.getBusRouteRosterVersion("Route-A").getAsLong() > versionBefore);
+            assertEquals(0L, studentService.getBusRouteRosterVersion("Route-Z").getAsLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("Route Roster Tests")
+    class RouteRosterTests {
+
+        @Test
+        @DisplayName("Should add student to roster when bus route is assigned")
+        public void testAssignBusRouteUpdatesRoster() {
+            // Given
+            when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(mockStudent));
+            when(studentRepository.saveAndFlush(any(Student.class))).thenReturn(mockStudent);
+            long versionBefore = studentService.getBusRouteRoster("Route-A").getVersion();
+
+            // When
+            studentService.assignBusRoute(1L, "Route-A", LocalTime.of(7, 30), LocalTime.of(15, 30));
+            RouteRosterDto roster = studentService.getBusRouteRoster("Route-A");
+
+            // Then
+            assertEquals(1, roster.getSize());
+            assertEquals("STU001", roster.getStudents().get(0).getStudentId());
+            assertTrue(roster.getVersion() > versionBefore);
+            verify(studentRepository, never()).findByBusRouteOrderByPickupTimeAsc(anyString());
+        }
+        
+        @Test
+        @DisplayName("Should keep roster ordered by pickup time with unscheduled students last")
+        public void testRosterOrder() {
+            // Given
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(1L, "Anna", "Route-A", null)));
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(2L, "Bella", "Route-A", "07:45")));
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(3L, "Carl", "Route-A", "07:15")));
+
+            // When
+            List<StudentDto> roster = studentService.getStudentsByBusRoute("Route-A");
+
+            // Then
+            assertEquals(Arrays.asList(3L, 2L, 1L),
+                    roster.stream().map(StudentDto::getId).collect(Collectors.toList()));
+        }
+        
+        @Test
+        @DisplayName("Should move student between rosters and bump both versions")
+        public void testMoveStudentBetweenRoutes() {
+            // Given
+            StudentDto onRouteA = createRosterStudent(1L, "Anna", "Route-A", "07:30");
+            StudentDto onRouteB = createRosterStudent(1L, "Anna", "Route-B", "07:50");
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(onRouteA));
+            long routeAVersion = routeRosterStore.getRoster("Route-A").getVersion();
+
+            // When
+            routeRosterStore.onStudentChanged(StudentChangedEvent.updated(onRouteA, onRouteB));
+
+            // Then
+            RouteRosterDto routeA = routeRosterStore.getRoster("Route-A");
+            RouteRosterDto routeB = routeRosterStore.getRoster("Route-B");
+            assertEquals(0, routeA.getSize());
+            assertEquals(1, routeB.getSize());
+            assertTrue(routeB.getVersion() > routeAVersion);
+        }
+        
+        @Test
+        @DisplayName("Should ignore a change that arrives after a later change of the student")
+        public void testRosterIgnoresReorderedChange() {
+            // Given
+            StudentDto onRouteA = createRosterStudent(1L, "Anna", "Route-A", "07:30");
+            onRouteA.setUpdatedAt(LocalDateTime.of(2024, 9, 2, 8, 0));
+            StudentDto onRouteB = createRosterStudent(1L, "Anna", "Route-B", "07:50");
+            onRouteB.setUpdatedAt(onRouteA.getUpdatedAt().plusNanos(1000));
+            StudentDto onRouteC = createRosterStudent(1L, "Anna", "Route-C", "08:10");
+            onRouteC.setUpdatedAt(onRouteB.getUpdatedAt().plusNanos(1000));
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(onRouteA));
+
+            // When
+            routeRosterStore.onStudentChanged(StudentChangedEvent.updated(onRouteB, onRouteC));
+            routeRosterStore.onStudentsChanged(new StudentBatchChangedEvent(
+                    List.of(StudentChangedEvent.updated(onRouteA, onRouteB))));
+
+            // Then
+            assertEquals(0, routeRosterStore.getRoster("Route-A").getSize());
+            assertEquals(0, routeRosterStore.getRoster("Route-B").getSize());
+            assertEquals(1, routeRosterStore.getRoster("Route-C").getSize());
+        }
+        
+        @Test
+        @DisplayName("Should ignore a change that arrives after the deletion of the student")
+        public void testRosterIgnoresChangeAfterDeletion() {
+            // Given
+            StudentDto onRouteA = createRosterStudent(1L, "Anna", "Route-A", "07:30");
+            onRouteA.setUpdatedAt(LocalDateTime.of(2024, 9, 2, 8, 0));
+            StudentDto onRouteB = createRosterStudent(1L, "Anna", "Route-B", "07:50");
+            onRouteB.setUpdatedAt(onRouteA.getUpdatedAt().plusNanos(1000));
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(onRouteA));
+
+            // When
+            routeRosterStore.onStudentChanged(StudentChangedEvent.deleted(onRouteB));
+            routeRosterStore.onStudentChanged(StudentChangedEvent.updated(onRouteA, onRouteB));
+
+            // Then
+            assertEquals(0, routeRosterStore.getRoster("Route-A").getSize());
+            assertEquals(0, routeRosterStore.getRoster("Route-B").getSize());
+        }
+        
+        @Test
+        @DisplayName("Should remove deleted student from roster")
+        public void testDeleteStudentUpdatesRoster() {
+            // Given
+            mockStudent.setBusRoute("Route-A");
+            routeRosterStore.onStudentChanged(StudentChangedEvent.created(
+                    createRosterStudent(1L, "John", "Route-A", "07:30")));
+            when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(mockStudent));
+
+            // When
+            studentService.deleteStudent(1L);
+
+            // Then
+            assertTrue(studentService.getStudentsByBusRoute("Route-A").isEmpty());
+        }
+    }
+    
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+        
+        @Test
+        @DisplayName("Should time service methods with a percentile histogram")
+        public void testServiceMethodTimer() {
+            // Given
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+            long before = serviceTimerCount("getStudentById");
+
+            // When
+            studentService.getStudentById(1L);
+
+            // Then
+            assertEquals(before + 1, serviceTimerCount("getStudentById"));
+        }
+        
+        @Test
+        @DisplayName("Should count DTO conversions")
+        public void testConversionCounter() {
+            // Given
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(mockStudent));
+            double before = meterRegistry.counter("students.dto.conversions", "direction", "to_dto").count();
+
+            // When
+            studentService.getStudentById(1L);
+
+            // Then
+            assertEquals(before + 1, meterRegistry.counter("students.dto.conversions", "direction", "to_dto").count());
+        }
+        
+        @Test
+        @DisplayName("Should record rows returned per repository query")
+        public void testRepositoryRowsSummary() {
+            // Given
+            AspectJProxyFactory proxyFactory = new AspectJProxyFactory(studentRepository);
+            proxyFactory.addAspect(new RepositoryRowsAspect(meterRegistry));
+            StudentRepository instrumented = proxyFactory.getProxy();
+            when(studentRepository.findByGradeOrderByFirstNameAsc("5th Grade"))
+                    .thenReturn(toDtos(mockStudent, createMockStudent("Jane", "Doe", "STU002", 2L)));
+            when(studentRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(mockStudent));
+
+            // When
+            instrumented.findByGradeOrderByFirstNameAsc("5th Grade");
+            try (Stream<Student> stream = instrumented.streamAllByOrderByIdAsc()) {
+                stream.forEach(student -> { });
+            }
+
+            // Then
+            DistributionSummary listRows = meterRegistry.find("students.repository.rows")
+                    .tag("method", "findByGradeOrderByFirstNameAsc")
+                    .summary();
+            DistributionSummary streamRows = meterRegistry.find("students.repository.rows")
+                    .tag("method", "streamAllByOrderByIdAsc")
+                    .summary();
+            assertEquals(2.0, listRows.max());
+            assertEquals(1.0, streamRows.max());
+        }
+        
+        private long serviceTimerCount(String method) {
+            // Calls that threw are recorded on timers of their own, tagged with the exception
+            Timer timer = meterRegistry.find("students.service").tags("method", method, "exception", "none").timer();
+            return timer == null ? 0L : timer.count();
+        }
+    }
+    
+    @Nested
+    @DisplayName("Virtual Thread Tests")
+    class VirtualThreadTests {
+        
+        @Test
+        @DisplayName("Should not pin carrier threads while loading students on virtual threads")
+        public void testLookupsDoNotPinVirtualThreads() throws Exception {
+            // Given
+            when(studentRepository.findById(anyLong())).thenAnswer(invocation -> {
+                Thread.sleep(20);
+                return Optional.of(createMockStudent("John", "Doe", "STU001", invocation.getArgument(0)));
+            });
+            List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+            
+            try (RecordingStream recording = new RecordingStream()) {
+                recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+                recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+                recording.startAsync();
+
+                // When
+                try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (long i = 0; i < 50; i++) {
+                        long id = i % 10 + 1;
+                        executor.submit(() -> studentService.getStudentById(id));
+                    }
+                    // Control: sleeping inside a monitor pins, so the recording must see it
+                    Object monitor = new Object();
+                    Thread.ofVirtual().name("pinning-control").start(() -> {
+                        synchronized (monitor) {
+                            sleepQuietly(20);
+                        }
+                    }).join();
+                }
+                recording.stop();
+            }
+
+            // Then
+            List<String> pinnedThreads = pinned.stream()
+                    .map(event -> event.getThread("eventThread").getJavaName())
+                    .collect(Collectors.toList());
+            assertTrue(pinnedThreads.contains("pinning-control"));
+            assertEquals(List.of("pinning-control"), pinnedThreads.stream().distinct().collect(Collectors.toList()));
+            verify(studentRepository, times(10)).findById(anyLong());
+        }
+        
+        private void sleepQuietly(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private StudentDto createRosterStudent(Long id, String firstName, String busRoute, String pickupTime) {
+        StudentDto student = new StudentDto(firstName, "Doe", "STU00" + id, 10,
+                "5th Grade", "123 Main Street, City, State 12345", "5551234567");
+        student.setId(id);
+        student.setBusRoute(busRoute);
+        student.setPickupTime(pickupTime == null ? null : LocalTime.parse(pickupTime));
+        return student;
+    }
+    
+    /**
+     * The rows of students as a DTO-projecting repository query returns them
+     */
+    private List<StudentDto> toDtos(Student... students) {
+        return Arrays.stream(students)
+                .map(student -> new StudentDto(student.getId(), student.getFirstName(), student.getLastName(),
+                        student.getStudentId(), student.getAge(), student.getGrade(), student.getAddress(),
+                        student.getParentContact(), student.getBusRoute(), student.getPickupTime(),
+                        student.getDropoffTime(), student.getCreatedAt(), student.getUpdatedAt()))
+                .collect(Collectors.toList());
+    }
+    
+    private Student createMockStudent() {
         return createMockStudent("John", "Doe", "STU001");
     }
     
     private Student createMockStudent(String firstName, String lastName, String studentId) {
+        return createMockStudent(firstName, lastName, studentId, 1L);
+    }
+    
+    private Student createMockStudent(String firstName, String lastName, String studentId, Long id) {
         Student student = new Student();
-        student.setId(1L);
+        student.setId(id);
         student.setFirstName(firstName);
         student.setLastName(lastName);
         student.setStudentId(studentId);
@@ -0,0 +1,95 @@
+package com.schoolbus;
+
+import com.schoolbus.application.service.StudentService;
+import com.schoolbus.domain.dto.StudentDto;
+import org.awaitility.Awaitility;
+import org.awaitility.core.ConditionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base of the tests that run against the test database.
+ * <p>
+ * Students are created through the service and deleted through it after each test, so the rosters,
+ * indexes, caches and change feed see every deletion as they would in production and stay consistent
+ * for the tests that follow.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+abstract class StudentTestSupport {
+
+    static final String ADDRESS = "123 Main Street, City, State 12345";
+
+    @Autowired
+    protected StudentService studentService;
+
+    // Written by tests that create students concurrently
+    private final List<Long> createdIds = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void deleteCreatedStudents() {
+        for (Long id : createdIds) {
+            try {
+                studentService.deleteStudent(id);
+            } catch (RuntimeException ex) {
+                // Deleted by the test, or created in a transaction that rolled back
+            }
+        }
+        createdIds.clear();
+    }
+
+    /**
+     * @return a valid 10-year-old student named John Doe
+     */
+    static StudentDto studentDto(String studentId, String grade) {
+        return new StudentDto("John", "Doe", studentId, 10, grade, ADDRESS, "5551234567");
+    }
+
+    static StudentDto studentDto(String studentId) {
+        return studentDto(studentId, "5th Grade");
+    }
+
+    /**
+     * Creates the student through the service, to be deleted after the test
+     */
+    StudentDto createStudent(StudentDto student) {
+        StudentDto created = studentService.createStudent(student);
+        createdIds.add(created.getId());
+        return created;
+    }
+
+    StudentDto createStudent(String studentId) {
+        return createStudent(studentDto(studentId));
+    }
+
+    /**
+     * Creates a student and assigns them to a bus route, with a drop-off at 15:30
+     */
+    StudentDto createStudentOnRoute(StudentDto student, String busRoute, String pickupTime) {
+        StudentDto created = createStudent(student);
+        return studentService.assignBusRoute(created.getId(), busRoute, LocalTime.parse(pickupTime),
+                LocalTime.of(15, 30));
+    }
+
+    StudentDto createStudentOnRoute(String studentId, String firstName, String busRoute, String pickupTime) {
+        StudentDto student = studentDto(studentId);
+        student.setFirstName(firstName);
+        return createStudentOnRoute(student, busRoute, pickupTime);
+    }
+
+    /**
+     * Waits for work the test started in the background, failing after 10 seconds
+     */
+    static ConditionFactory eventually() {
+        return Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .pollInterval(Duration.ofMillis(10));
+    }
+}